@@ -0,0 +1,53 @@
+package org.egordorichev.lasttry.benchmarks;
+
+import org.egordorichev.lasttry.headless.HeadlessGame;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.ChunkIO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading a single surface chunk from disk
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkIOBenchmark {
+	private int chunkX;
+	private int chunkY;
+
+	@Setup
+	public void setup() {
+		World world = HeadlessGame.createWorld(World.Size.SMALL, 1234);
+		int x = world.getWidth() / 2;
+
+		this.chunkX = x / Chunk.SIZE;
+		this.chunkY = world.getHighest(x) / Chunk.SIZE;
+
+		world.chunks.getFor(x, world.getHighest(x));
+		ChunkIO.save(this.chunkX, this.chunkY);
+	}
+
+	@TearDown
+	public void tearDown() {
+		HeadlessGame.deleteWorld();
+	}
+
+	@Benchmark
+	public void save() {
+		ChunkIO.save(this.chunkX, this.chunkY);
+	}
+
+	/**
+	 * Reads the chunk, saved in the setup. The chunk isn't added to the world
+	 */
+	@Benchmark
+	public Chunk load() {
+		return ChunkIO.load(this.chunkX, this.chunkY);
+	}
+}
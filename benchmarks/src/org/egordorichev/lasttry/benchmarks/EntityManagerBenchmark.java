@@ -0,0 +1,53 @@
+package org.egordorichev.lasttry.benchmarks;
+
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.headless.HeadlessGame;
+import org.egordorichev.lasttry.player.Player;
+import org.egordorichev.lasttry.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single entity update with the given amount of slimes around the player.
+ * Slimes are spread over a wide area, so some of them are updated at a
+ * reduced rate or frozen, same as in game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityManagerBenchmark {
+	@Param({ "10", "100", "1000" })
+	public int entities;
+
+	private Player player;
+
+	@Setup
+	public void setup() {
+		HeadlessGame.createWorld(World.Size.SMALL, 1234);
+		this.player = HeadlessGame.createPlayer();
+		HeadlessGame.spawnCreatures("lt:green_slime", this.entities, HeadlessGame.SPAWN_SPREAD);
+	}
+
+	/**
+	 * Keeps the player alive, so slimes, that reached it, don't change the
+	 * measured work
+	 */
+	@Setup(Level.Iteration)
+	public void heal() {
+		this.player.stats.setInvulnTime(Integer.MAX_VALUE);
+	}
+
+	@TearDown
+	public void tearDown() {
+		HeadlessGame.deleteWorld();
+	}
+
+	@Benchmark
+	public void update() {
+		Globals.entityManager.update(1);
+	}
+}
@@ -0,0 +1,80 @@
+package org.egordorichev.lasttry.benchmarks;
+
+import org.egordorichev.lasttry.headless.HeadlessGame;
+import org.egordorichev.lasttry.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Light around the player, with and without cached averages
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LightingBenchmark {
+	/**
+	 * Size of the sampled area in tiles, about a 1280x720 screen
+	 */
+	public static final int WIDTH = 80;
+	public static final int HEIGHT = 45;
+
+	private World world;
+	private int minX;
+	private int minY;
+
+	@Setup
+	public void setup() {
+		this.world = HeadlessGame.createWorld(World.Size.SMALL, 1234);
+		HeadlessGame.createPlayer();
+
+		this.minX = (int) this.world.getSpawnPoint().x - WIDTH / 2;
+		this.minY = (int) this.world.getSpawnPoint().y - HEIGHT / 2;
+		this.world.light.update(1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		HeadlessGame.deleteWorld();
+	}
+
+	/**
+	 * Averages every visible tile from scratch
+	 */
+	@Benchmark
+	public float getUncached() {
+		this.world.light.clearCache();
+		return this.sample();
+	}
+
+	/**
+	 * Reads averages, that were already calculated
+	 */
+	@Benchmark
+	public float getCached() {
+		return this.sample();
+	}
+
+	/**
+	 * Recalculates raw light values around the player
+	 */
+	@Benchmark
+	public void update() {
+		this.world.light.update(1);
+	}
+
+	private float sample() {
+		float sum = 0;
+
+		for (int y = this.minY; y < this.minY + HEIGHT; y++) {
+			for (int x = this.minX; x < this.minX + WIDTH; x++) {
+				sum += this.world.light.get(x, y);
+			}
+		}
+
+		return sum;
+	}
+}
@@ -0,0 +1,69 @@
+package org.egordorichev.lasttry.benchmarks;
+
+import org.egordorichev.lasttry.util.SimplexNoise;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar noise path with the batch one, on a single chunk
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplexNoiseBenchmark {
+	/**
+	 * Output buffer, big enough for a chunk
+	 */
+	private final float[] out = new float[Chunk.TOTAL_SIZE];
+
+	/**
+	 * Caves, one call per tile
+	 */
+	@Benchmark
+	public float[] caveScalar() {
+		for (int y = 0; y < Chunk.SIZE; y++) {
+			for (int x = 0; x < Chunk.SIZE; x++) {
+				this.out[x + y * Chunk.SIZE] = SimplexNoise.octavedNoise(x, y, 4, 0.6f, 1f / 34f);
+			}
+		}
+
+		return this.out;
+	}
+
+	/**
+	 * Caves, whole chunk at once
+	 */
+	@Benchmark
+	public float[] caveBlock() {
+		SimplexNoise.octavedNoiseBlock(this.out, 0, 0, 1, 1, Chunk.SIZE, Chunk.SIZE, 4, 0.6f, 1f / 34f);
+		return this.out;
+	}
+
+	/**
+	 * Biome temperature, one call per tile
+	 */
+	@Benchmark
+	public float[] biomeScalar() {
+		for (int y = 0; y < Chunk.SIZE; y++) {
+			for (int x = 0; x < Chunk.SIZE; x++) {
+				this.out[x + y * Chunk.SIZE] = SimplexNoise.octavedNoise(x, y, 3, 1f, 0.1f / 200f);
+			}
+		}
+
+		return this.out;
+	}
+
+	/**
+	 * Biome temperature, sampled every 8 tiles and interpolated
+	 */
+	@Benchmark
+	public float[] biomeCoarse() {
+		SimplexNoise.octavedNoiseCoarse(this.out, 0, 0, 1, 1, Chunk.SIZE, Chunk.SIZE, 8, 3, 1f, 0.1f / 200f);
+		return this.out;
+	}
+}
@@ -0,0 +1,75 @@
+package org.egordorichev.lasttry.benchmarks;
+
+import org.egordorichev.lasttry.headless.HeadlessGame;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.util.Rectangle;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collision checks and block updates around the world spawn
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldBenchmark {
+	/**
+	 * Player sized hitboxes, checked per invocation
+	 */
+	public static final int HITBOXES = 256;
+
+	private World world;
+	private Chunk chunk;
+	private Rectangle[] hitboxes;
+
+	@Setup
+	public void setup() {
+		this.world = HeadlessGame.createWorld(World.Size.SMALL, 1234);
+		this.hitboxes = new Rectangle[HITBOXES];
+
+		int spawnX = (int) this.world.getSpawnPoint().x;
+
+		// Half of the hitboxes stand on the ground, half are stuck in it
+		for (int i = 0; i < HITBOXES; i++) {
+			int x = spawnX - HITBOXES / 2 + i;
+			int y = this.world.getHighest(x) + (i % 2 == 0 ? 1 : -1);
+
+			this.hitboxes[i] = new Rectangle(x * Block.SIZE, y * Block.SIZE, 22, 42);
+		}
+
+		this.chunk = this.world.chunks.getFor(spawnX, this.world.getHighest(spawnX));
+	}
+
+	@TearDown
+	public void tearDown() {
+		HeadlessGame.deleteWorld();
+	}
+
+	@Benchmark
+	public int isColliding() {
+		int colliding = 0;
+
+		for (Rectangle hitbox : this.hitboxes) {
+			if (this.world.isColliding(hitbox)) {
+				colliding++;
+			}
+		}
+
+		return colliding;
+	}
+
+	/**
+	 * Block updates of a whole surface chunk
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void chunkUpdate() {
+		this.chunk.update();
+	}
+}
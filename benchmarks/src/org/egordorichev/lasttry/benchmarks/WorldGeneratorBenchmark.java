@@ -0,0 +1,32 @@
+package org.egordorichev.lasttry.benchmarks;
+
+import org.egordorichev.lasttry.headless.HeadlessGame;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.generator.WorldGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating every chunk of a world at once, per world size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WorldGeneratorBenchmark {
+	@Param({ "SMALL", "MEDIUM", "LARGE" })
+	public World.Size size;
+
+	@Setup
+	public void setup() {
+		HeadlessGame.start();
+	}
+
+	@Benchmark
+	public World generate() {
+		return new WorldGenerator(HeadlessGame.WORLD_NAME, this.size, 0, 1234).generate();
+	}
+}
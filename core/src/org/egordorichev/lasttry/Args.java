@@ -1,8 +1,15 @@
 package org.egordorichev.lasttry;
 
+import org.egordorichev.lasttry.input.InputReplay;
 import org.egordorichev.lasttry.util.CallableWithError;
 import org.egordorichev.lasttry.util.Files;
 import org.egordorichev.lasttry.util.Util;
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.ChunkData;
+import org.egordorichev.lasttry.world.chunk.gc.ChunkGcManager;
+import org.egordorichev.lasttry.world.chunk.gc.ChunkMemory;
+import org.egordorichev.lasttry.world.chunk.gc.EvictionPolicy;
 
 import java.io.File;
 import java.security.Permission;
@@ -11,6 +18,30 @@ import java.util.Iterator;
 
 public class Args {
 	private static int seed = 512;
+	/**
+	 * Size of new worlds
+	 */
+	private static World.Size worldSize = World.Size.SMALL;
+	/**
+	 * Ticks to simulate in a headless run
+	 */
+	private static int ticks = 3600;
+	/**
+	 * Creatures, spawned at the start of a headless run
+	 */
+	private static int entities = 0;
+	/**
+	 * File with the player path for a headless run
+	 */
+	private static String path;
+	/**
+	 * File to record input to
+	 */
+	private static String recordFile;
+	/**
+	 * Recording to replay, or null
+	 */
+	private static InputReplay replay;
 
 	/**
 	 * Current argument index
@@ -113,9 +144,155 @@ public class Args {
 			}
 		}));
 
+		argMap.put("-jfr", new Arg("Starts a flight recording, saved on exit or with /jfr stop", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				Flight.start();
+			}
+		}));
+
+		argMap.put("-chunkbudget", new Arg("Sets heap budget for loaded chunks in MB", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected budget after -chunkbudget");
+				int megabytes;
+
+				try {
+					megabytes = Integer.valueOf(arguments[++i]);
+				} catch (Exception exception) {
+					throw new Exception("Chunk budget is not a valid number");
+				}
+
+				if (megabytes <= 0) {
+					throw new Exception("Chunk budget must be positive");
+				}
+
+				ChunkMemory.setConfiguredBudget(megabytes * 1024L * 1024L);
+			}
+		}));
+
+		argMap.put("-offheapbudget", new Arg("Sets off heap budget for loaded chunks in MB", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected budget after -offheapbudget");
+				int megabytes;
+
+				try {
+					megabytes = Integer.valueOf(arguments[++i]);
+				} catch (Exception exception) {
+					throw new Exception("Off heap budget is not a valid number");
+				}
+
+				if (megabytes <= 0) {
+					throw new Exception("Off heap budget must be positive");
+				}
+
+				ChunkMemory.setConfiguredOffHeapBudget(megabytes * 1024L * 1024L);
+			}
+		}));
+
+		argMap.put("-offheap", new Arg("Keeps chunk tiles in direct buffers, off the heap", new CallableWithError() {
+			@Override
+			public void call() {
+				ChunkData.setOffHeap(true);
+			}
+		}));
+
+		argMap.put("-evict", new Arg("Sets chunk eviction policy (distance, lru or weighted)", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected policy after -evict");
+				EvictionPolicy policy = ChunkGcManager.createPolicy(arguments[++i]);
+
+				if (policy == null) {
+					throw new Exception("Unknown eviction policy");
+				}
+
+				ChunkGcManager.setConfiguredPolicy(policy);
+			}
+		}));
+
+		argMap.put("-ws", new Arg("Sets size of new worlds (small, medium or large)", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected world size after -ws");
+
+				try {
+					worldSize = World.Size.valueOf(arguments[++i].toUpperCase());
+				} catch (Exception exception) {
+					throw new Exception("Unknown world size");
+				}
+			}
+		}));
+
+		argMap.put("-t", new Arg("Sets ticks to simulate (headless)", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected tick count after -t");
+
+				try {
+					ticks = Integer.valueOf(arguments[++i]);
+				} catch (Exception exception) {
+					throw new Exception("Tick count is not a valid number");
+				}
+			}
+		}));
+
+		argMap.put("-e", new Arg("Sets creatures to spawn at the start (headless)", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected creature count after -e");
+
+				try {
+					entities = Integer.valueOf(arguments[++i]);
+				} catch (Exception exception) {
+					throw new Exception("Creature count is not a valid number");
+				}
+			}
+		}));
+
+		argMap.put("-path", new Arg("Sets file with the player path (headless)", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected file after -path");
+				path = arguments[++i];
+			}
+		}));
+
+		argMap.put("-record", new Arg("Records input of the game from its first tick to a file", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected file after -record");
+				recordFile = arguments[++i];
+			}
+		}));
+
+		argMap.put("-replay", new Arg("Replays input from a file, made with -record", new CallableWithError() {
+			@Override
+			public void call() throws Exception {
+				checkForArgument("Expected file after -replay");
+				replay = new InputReplay(arguments[++i]);
+
+				if (replay.getTickRate() != LastTry.tickRate) {
+					throw new Exception("Recording was made with " + replay.getTickRate() + " ticks per second");
+				}
+
+				LastTry.defaultWorldName = replay.getWorldName();
+				LastTry.defaultPlayerName = replay.getPlayerName();
+				worldSize = replay.getWorldSize();
+				seed = replay.getWorldSeed();
+			}
+		}));
+
 		argMap.put("-f", new Arg("Enables fullscreen", new CallableWithError() {
 			@Override
 			public void call() {
+				if (conf == null) {
+					// Runs without a window have no app config
+					System.err.println("Argument -f needs a window, ignored.");
+					return;
+				}
+
 				set(conf, "fullscreen", true);
 			}
 		}));
@@ -127,7 +304,7 @@ public class Args {
 	 * @param args
 	 *            arguments, received by main()
 	 * @param config
-	 *            App config
+	 *            App config, null if there is no window
 	 * @throws Exception
 	 *             Exception, containing a parse error
 	 */
@@ -135,7 +312,8 @@ public class Args {
 		arguments = args;
 		conf = config;
 
-		for (String arg : args) {
+		for (i = 0; i < args.length; i++) {
+			String arg = args[i];
 			Arg argRegistry = argMap.get(arg);
 
 			if (argRegistry != null) {
@@ -155,6 +333,55 @@ public class Args {
 		}
 	}
 
+	/**
+	 * @return Seed, given with -s
+	 */
+	public static int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return Size of new worlds
+	 */
+	public static World.Size getWorldSize() {
+		return worldSize;
+	}
+
+	/**
+	 * @return Ticks to simulate in a headless run
+	 */
+	public static int getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return Creatures, spawned at the start of a headless run
+	 */
+	public static int getEntities() {
+		return entities;
+	}
+
+	/**
+	 * @return File with the player path, or null
+	 */
+	public static String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return File to record input to, or null
+	 */
+	public static String getRecordFile() {
+		return recordFile;
+	}
+
+	/**
+	 * @return Recording to replay, or null
+	 */
+	public static InputReplay getReplay() {
+		return replay;
+	}
+
 	private static void set(Object instance, String field, boolean value) {
 		/*
 		 * THIS IS TEMPORARY The issue is AFAIK the core gradle doesn't load the
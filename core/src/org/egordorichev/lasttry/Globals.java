@@ -63,6 +63,10 @@ public class Globals {
 		if (getWorld() != null) {
 			WorldIO.save();
 		}
+
+		if (chunkGcManager != null) {
+			chunkGcManager.dispose();
+		}
 	}
 
 	/**
@@ -108,6 +112,13 @@ public class Globals {
 	 * @param world World to be set as current
 	 */
 	public static void setWorld(World world) {
+		if (Globals.world != null && Globals.world != world) {
+			// Workers stop before the chunks, they read, go away
+			Globals.world.tileCache.dispose();
+			// Off heap chunk tiles aren't freed by the garbage collector
+			Globals.world.chunks.dispose();
+		}
+
 		Globals.world = world;
 
 		/*
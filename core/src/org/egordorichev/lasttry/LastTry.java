@@ -16,7 +16,10 @@ import org.egordorichev.lasttry.state.SplashState;
 import org.egordorichev.lasttry.ui.UiManager;
 import org.egordorichev.lasttry.util.Camera;
 import org.egordorichev.lasttry.util.Debug;
+import org.egordorichev.lasttry.util.FixedTimestep;
+import org.egordorichev.lasttry.util.flight.Flight;
 
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
@@ -76,6 +79,19 @@ public class LastTry extends Game {
 	 * The minimum brightness that can be made by lighting.
 	 */
 	public static float gammaMinimum = 0f;
+
+	/**
+	 * Simulation ticks per second. Physics and world time move a fixed
+	 * amount every tick, so the rate can't change without changing the game
+	 * speed
+	 */
+	public static final int tickRate = FixedTimestep.DEFAULT_TICK_RATE;
+
+	/**
+	 * Ticks must repeat exactly, so work limited by time is limited by
+	 * amount instead. Set while input is recorded or replayed.
+	 */
+	public static boolean deterministic = false;
 	
 	/**
 	 * Default name for generated worlds.
@@ -164,6 +180,20 @@ public class LastTry extends Game {
 	 */
 	@Override
 	public void dispose() {
+		if (Flight.isRecording()) {
+			try {
+				Flight.stop();
+			} catch (IOException exception) {
+				handleException(exception);
+			}
+		}
+
+		try {
+			InputManager.stopRecording();
+		} catch (IOException exception) {
+			handleException(exception);
+		}
+
 		Globals.dispose();
 		Assets.dispose();
 	}
@@ -190,8 +220,7 @@ public class LastTry extends Game {
 	 * @return mouse X coordinate, under the world
 	 */
 	public static int getMouseXInWorld() {
-		return (int) (Globals.getPlayer().physics.getCenterX() - Gdx.graphics.getWidth() / 2
-				+ InputManager.getMousePosition().x);
+		return (int) (Globals.getPlayer().physics.getCenterX() + InputManager.state.getMouseX());
 	}
 
 	/**
@@ -200,8 +229,7 @@ public class LastTry extends Game {
 	 * @return mouse Y coordinate, under the world
 	 */
 	public static int getMouseYInWorld() {
-		return (int) (Globals.getPlayer().physics.getCenterY() + Gdx.graphics.getHeight() / 2
-				- InputManager.getMousePosition().y);
+		return (int) (Globals.getPlayer().physics.getCenterY() + InputManager.state.getMouseY());
 	}
 
 	/**
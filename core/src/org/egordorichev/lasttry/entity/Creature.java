@@ -101,12 +101,12 @@ public class Creature extends Entity {
 		}
 
 		int mapped = (int) Util.map(this.stats.getHP(), 0, this.stats.getMaxHP(), 0, 26);
-		int x = (int) (this.physics.getX() + (this.physics.getSize().x - 28) / 2);
+		int x = (int) (this.physics.getRenderX() + (this.physics.getSize().x - 28) / 2);
 
-		Graphics.batch.draw(Graphics.healthBarTexture, x + 2, this.physics.getY() - 20, mapped, 12, 0, 0, mapped, 12,
+		Graphics.batch.draw(Graphics.healthBarTexture, x + 2, this.physics.getRenderY() - 20, mapped, 12, 0, 0, mapped, 12,
 				false, false);
 		Graphics.batch.setColor(1, 1, 1, 1);
-		Graphics.batch.draw(Graphics.healthBarFrameTexture, x, this.physics.getY() - 20);
+		Graphics.batch.draw(Graphics.healthBarFrameTexture, x, this.physics.getRenderY() - 20);
 		Graphics.batch.setColor(1, 1, 1, 1);
 	}
 
@@ -17,4 +17,9 @@ public class CreatureWithAI extends Creature {
 		super.update(dt);
 		this.ai.update(dt);
 	}
+
+	@Override
+	public SimulationLevel getMinimumLevel() {
+		return this.ai.ai.getMinimumLevel(this);
+	}
 }
\ No newline at end of file
@@ -21,6 +21,23 @@ public class Entity {
 	 * Graphics controller
 	 */
 	public GraphicsComponent<? extends Entity> graphics;
+	/**
+	 * Current update rate, set by the entity manager
+	 */
+	private SimulationLevel simulationLevel = SimulationLevel.FULL;
+	/**
+	 * Offset of the frames, when the entity is updated at a reduced rate, so
+	 * reduced entities don't all update on the same frame
+	 */
+	private int phase;
+	/**
+	 * Frames, covered by the current update
+	 */
+	private int updateSteps = 1;
+	/**
+	 * Frame of the last update
+	 */
+	private int lastUpdate;
 
 	public Entity() {
 		setupComponents();
@@ -122,4 +139,47 @@ public class Entity {
 	public boolean isActive() {
 		return this.active;
 	}
+
+	/**
+	 * @return Lowest level, the entity can be simulated at, no matter how far it is
+	 */
+	public SimulationLevel getMinimumLevel() {
+		return SimulationLevel.FROZEN;
+	}
+
+	public SimulationLevel getSimulationLevel() {
+		return this.simulationLevel;
+	}
+
+	public void setSimulationLevel(SimulationLevel simulationLevel) {
+		this.simulationLevel = simulationLevel;
+	}
+
+	public int getPhase() {
+		return this.phase;
+	}
+
+	public void setPhase(int phase) {
+		this.phase = phase;
+	}
+
+	/**
+	 * @return Frames, covered by the current update, more than one for
+	 *         entities with a reduced update rate
+	 */
+	public int getUpdateSteps() {
+		return this.updateSteps;
+	}
+
+	public void setUpdateSteps(int updateSteps) {
+		this.updateSteps = updateSteps;
+	}
+
+	public int getLastUpdate() {
+		return this.lastUpdate;
+	}
+
+	public void setLastUpdate(int lastUpdate) {
+		this.lastUpdate = lastUpdate;
+	}
 }
\ No newline at end of file
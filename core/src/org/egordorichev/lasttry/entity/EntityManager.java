@@ -7,11 +7,15 @@ import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.entity.drop.DroppedItem;
 import org.egordorichev.lasttry.graphics.Assets;
+import org.egordorichev.lasttry.graphics.TextCache;
 import org.egordorichev.lasttry.item.block.Block;
-import org.egordorichev.lasttry.util.Callable;
+import org.egordorichev.lasttry.player.Player;
 import org.egordorichev.lasttry.util.Camera;
 import org.egordorichev.lasttry.util.Rectangle;
 import org.egordorichev.lasttry.util.Util;
+import org.egordorichev.lasttry.util.metrics.Gauge;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.util.metrics.Timer;
 import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -19,6 +23,24 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class EntityManager { // TODO: gore and blood
 	private static EntityComparator comparator = new EntityComparator();
 	public static final int ENEMY_DESPAWN_SWEEP_INTERVAL = 1;
+	/**
+	 * Distance in pixels past the screen edge, within which creatures are
+	 * updated every frame
+	 */
+	public static final int FULL_MARGIN = 16 * Block.SIZE;
+	/**
+	 * Distance in pixels past the screen edge, within which creatures are
+	 * updated at a reduced rate. Further creatures are frozen.
+	 */
+	public static final int REDUCED_MARGIN = 96 * Block.SIZE;
+	/**
+	 * Screen size in pixels, update rates are picked with while input is
+	 * recorded or replayed, so they don't depend on the window
+	 */
+	public static final int DETERMINISTIC_WIDTH = 1280;
+	public static final int DETERMINISTIC_HEIGHT = 720;
+	private static final Timer updateTimer = Metrics.timer("entities.update");
+	private static final Timer renderTimer = Metrics.timer("entities.render");
 	/**
 	 * List of active entities
 	 */
@@ -31,18 +53,46 @@ public class EntityManager { // TODO: gore and blood
 	 * List of entities, marked for remove
 	 */
 	private List<Entity> clearList = new ArrayList<>();
+	/**
+	 * Updates since the start
+	 */
+	private int frame;
+	/**
+	 * Updates since the last despawn sweep
+	 */
+	private int despawnTicks;
+	/**
+	 * Phase, given to the next spawned entity
+	 */
+	private int nextPhase;
+	/**
+	 * HP of the creature under the mouse
+	 */
+	private TextCache hoverHP;
 
 	public EntityManager() {
-		Util.runDelayedThreadSeconds(new Callable() {
+		Metrics.register(new Gauge("entities.count") {
 			@Override
-			public void call() {
-				attemptDespawnCreatures();
+			public double get() {
+				return entities.size();
 			}
-		}, ENEMY_DESPAWN_SWEEP_INTERVAL);
+		});
+	}
+
+	/**
+	 * Places entities between their last two positions for drawing
+	 *
+	 * @param alpha Part of a tick, passed after the last update
+	 */
+	public void interpolate(float alpha) {
+		for (int i = 0; i < this.entities.size(); i++) {
+			this.entities.get(i).physics.interpolate(alpha);
+		}
 	}
 
 	/** Renders all entities */
 	public void render() {
+		long start = renderTimer.start();
 		boolean displayedStats = false;
 
 		int halfWidth = Gdx.graphics.getWidth() / 2;
@@ -66,8 +116,15 @@ public class EntityManager { // TODO: gore and blood
 						float x = Gdx.input.getX() + camera.x + 36;
 						float y = (Gdx.graphics.getHeight() - Gdx.input.getY()) + camera.y;
 
+						if (this.hoverHP == null) {
+							this.hoverHP = new TextCache(Assets.f18);
+						}
+
+						this.hoverHP.begin().append("HP: ").append(creature.stats.getHP()).append('/')
+							.append(creature.stats.getMaxHP());
+
 						Util.drawWithShadow(Assets.f18, creature.getName(), x, y);
-						Util.drawWithShadow(Assets.f18, "HP: " + creature.stats.getHP() + "/" + creature.stats.getMaxHP(), x, y - 20);
+						this.hoverHP.drawWithShadow(x, y - 20);
 						displayedStats = true;
 					} else if (entity instanceof DroppedItem) {
 						DroppedItem item = ((DroppedItem) entity);
@@ -77,6 +134,8 @@ public class EntityManager { // TODO: gore and blood
 				}
 			}
 		}
+
+		renderTimer.stop(start);
 	}
 
 	/**
@@ -84,6 +143,13 @@ public class EntityManager { // TODO: gore and blood
 	 * @param dt Time, past since last update
 	 */
 	public void update(int dt) {
+		long start = updateTimer.start();
+
+		if (++this.despawnTicks >= ENEMY_DESPAWN_SWEEP_INTERVAL * LastTry.tickRate) {
+			this.despawnTicks = 0;
+			this.attemptDespawnCreatures();
+		}
+
 		for (Entity entity : this.clearList) {
 			this.entities.remove(entity);
 
@@ -93,19 +159,80 @@ public class EntityManager { // TODO: gore and blood
 		}
 
 		this.clearList.clear();
+		this.frame++;
+
+		Player player = Globals.getPlayer();
+		int halfWidth = (LastTry.deterministic ? DETERMINISTIC_WIDTH : Gdx.graphics.getWidth()) / 2;
+		int halfHeight = (LastTry.deterministic ? DETERMINISTIC_HEIGHT : Gdx.graphics.getHeight()) / 2;
 
 		for (int i = this.entities.size() - 1; i >= 0; i--) {
 			Entity entity = this.entities.get(i);
-			entity.update(dt);
+
+			if (entity != player && entity instanceof Creature) {
+				SimulationLevel level = this.getLevel(entity, player, halfWidth, halfHeight);
+				entity.setSimulationLevel(level);
+
+				if (!this.shouldUpdate(entity, level)) {
+					continue;
+				}
+
+				int steps = this.frame - entity.getLastUpdate();
+				entity.setUpdateSteps(steps);
+				entity.setLastUpdate(this.frame);
+				entity.update(dt * steps);
+			} else {
+				entity.update(dt);
+			}
 
 			if (!entity.isActive() && entity != Globals.getPlayer()) {
-				this.clearList.add(entity);
+				this.markForRemoval(entity);
 			}
 
 			if (entity instanceof Enemy && entity.physics.getHitbox().intersects(Globals.getPlayer().physics.getHitbox())) {
 				((Enemy) entity).onPlayerCollision(Globals.getPlayer());
 			}
 		}
+
+		updateTimer.stop(start);
+	}
+
+	/**
+	 * Picks the update rate of a creature from its distance to the player.
+	 * Creatures outside of entity ticking chunks are frozen.
+	 */
+	private SimulationLevel getLevel(Entity entity, Player player, int halfWidth, int halfHeight) {
+		if (!Globals.getWorld().tickets.getLevelFor(entity.physics.getGridX(), entity.physics.getGridY()).isEntityTicking()) {
+			return SimulationLevel.FROZEN.max(entity.getMinimumLevel());
+		}
+
+		float dx = Math.abs(entity.physics.getCenterX() - player.physics.getCenterX()) - halfWidth;
+		float dy = Math.abs(entity.physics.getCenterY() - player.physics.getCenterY()) - halfHeight;
+		float distance = Math.max(dx, dy);
+		SimulationLevel level;
+
+		if (distance <= FULL_MARGIN) {
+			level = SimulationLevel.FULL;
+		} else if (distance <= REDUCED_MARGIN) {
+			level = SimulationLevel.REDUCED;
+		} else {
+			level = SimulationLevel.FROZEN;
+		}
+
+		return level.max(entity.getMinimumLevel());
+	}
+
+	/**
+	 * @return The entity is updated this frame, reduced entities are spread
+	 *         over frames by their phase
+	 */
+	private boolean shouldUpdate(Entity entity, SimulationLevel level) {
+		if (level == SimulationLevel.FROZEN) {
+			// Time doesn't pass for frozen entities
+			entity.setLastUpdate(this.frame);
+			return false;
+		}
+
+		return (this.frame + entity.getPhase()) % level.getPeriod() == 0;
 	}
 
 	/**
@@ -122,6 +249,8 @@ public class EntityManager { // TODO: gore and blood
 		}
 
 		entity.spawn(x, y);
+		entity.setPhase(this.nextPhase++);
+		entity.setLastUpdate(this.frame);
 
 		this.entities.add(entity);
 
@@ -192,7 +321,7 @@ public class EntityManager { // TODO: gore and blood
 	}
 
 	/** Attempts to despawn creatures */
-	private synchronized void attemptDespawnCreatures() {
+	private void attemptDespawnCreatures() {
 		try {
 			for (int i = 0; i < this.creatureEntities.size(); i++) {
 				Creature creature = creatureEntities.get(i);
@@ -0,0 +1,41 @@
+package org.egordorichev.lasttry.entity;
+
+/**
+ * How often an entity is updated. Picked by {@link EntityManager} from the
+ * distance to the player, so entities, that can't be seen, cost less.
+ */
+public enum SimulationLevel {
+	/**
+	 * Updated every frame
+	 */
+	FULL(1),
+	/**
+	 * Updated every few frames, covering the skipped frames at once
+	 */
+	REDUCED(4),
+	/**
+	 * Not updated at all, time doesn't pass for the entity
+	 */
+	FROZEN(0);
+
+	/**
+	 * Frames between updates, 0 for never
+	 */
+	private final int period;
+
+	SimulationLevel(int period) {
+		this.period = period;
+	}
+
+	public int getPeriod() {
+		return this.period;
+	}
+
+	/**
+	 * @param level Other level
+	 * @return The more detailed of the two levels
+	 */
+	public SimulationLevel max(SimulationLevel level) {
+		return this.ordinal() <= level.ordinal() ? this : level;
+	}
+}
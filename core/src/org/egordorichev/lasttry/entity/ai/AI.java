@@ -1,6 +1,7 @@
 package org.egordorichev.lasttry.entity.ai;
 
 import org.egordorichev.lasttry.entity.CreatureWithAI;
+import org.egordorichev.lasttry.entity.SimulationLevel;
 import org.egordorichev.lasttry.injection.CoreRegistry;
 import org.egordorichev.lasttry.injection.InjectionHelper;
 
@@ -33,4 +34,15 @@ public abstract class AI {
     public boolean canSpawn() {
     	return false;
     }
+
+    /**
+     * Lets behaviors, that must keep running far from the player, opt out
+     * of reduced updates
+     *
+     * @param creature Creature, running this AI
+     * @return Lowest simulation level for the creature
+     */
+    public SimulationLevel getMinimumLevel(CreatureWithAI creature) {
+        return SimulationLevel.FROZEN;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+package org.egordorichev.lasttry.entity.ai;
+
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.entity.CreatureWithAI;
+import org.egordorichev.lasttry.entity.components.PhysicsComponent;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.world.nav.FlowField;
+import org.egordorichev.lasttry.world.nav.NavMoves;
+import org.egordorichev.lasttry.world.nav.NavPath;
+import org.egordorichev.lasttry.world.nav.PathRequest;
+
+/**
+ * Walks a creature along a path to a target tile. Paths are requested from
+ * {@link org.egordorichev.lasttry.world.components.WorldNavigationComponent}
+ * and refreshed, when the target moves away or the creature gets stuck. While
+ * there is no path, the creature heads straight to the target.
+ */
+public class PathFollower {
+	/**
+	 * Updates between path requests
+	 */
+	public static final int REPATH_DELAY = 60;
+	/**
+	 * Distance in tiles, the target has to move, before a new path is requested
+	 */
+	public static final int REPATH_DISTANCE = 4;
+	/**
+	 * Updates without horizontal progress, after which the creature jumps
+	 */
+	public static final int STUCK_DELAY = 20;
+	/**
+	 * Waypoints, checked ahead, in case the creature skipped some
+	 */
+	private static final int LOOKAHEAD = 4;
+
+	private final CreatureWithAI creature;
+	private final PathRequest request = new PathRequest();
+	private final NavPath path = new NavPath();
+	/**
+	 * Current waypoint in the path
+	 */
+	private int waypoint;
+	/**
+	 * Updates since the last path request
+	 */
+	private int sinceRequest = REPATH_DELAY;
+	private int stuck;
+	private float lastX;
+	/**
+	 * Should the creature jump this update
+	 */
+	private boolean jump;
+
+	public PathFollower(CreatureWithAI creature) {
+		this.creature = creature;
+	}
+
+	/**
+	 * Moves the creature one update closer to the target
+	 *
+	 * @param x Target tile X
+	 * @param y Target tile Y
+	 */
+	public void moveTo(int x, int y) {
+		this.apply(this.update(x, y));
+	}
+
+	/**
+	 * Moves the creature one update closer to the target of a shared field,
+	 * without searching for its own path
+	 *
+	 * @param field Field to follow
+	 * @param x     Target tile X, used while the field doesn't lead anywhere
+	 * @param y     Target tile Y
+	 */
+	public void moveWith(FlowField field, int x, int y) {
+		int tileX = this.getTileX();
+		int tileY = this.creature.physics.getGridY();
+		int cell = field.sample(tileX, tileY);
+
+		this.jump = false;
+
+		if (cell == -1) {
+			this.apply(this.finish(getDirection(tileX, x)));
+		} else {
+			this.apply(this.finish(this.steer(tileX, tileY, field.getX(cell), field.getY(cell))));
+		}
+	}
+
+	private void apply(PhysicsComponent.Direction direction) {
+		if (direction != null) {
+			this.creature.physics.move(direction);
+		}
+
+		if (this.jump) {
+			this.creature.physics.jump();
+		}
+	}
+
+	/**
+	 * Updates the path without moving the creature
+	 *
+	 * @param x Target tile X
+	 * @param y Target tile Y
+	 * @return Direction to the next waypoint, null, if the creature should
+	 *         stay in its column
+	 */
+	public PhysicsComponent.Direction update(int x, int y) {
+		int tileX = this.getTileX();
+		int tileY = this.creature.physics.getGridY();
+
+		this.sinceRequest++;
+		this.jump = false;
+
+		if (this.request.isDone()) {
+			this.request.consume();
+
+			if (this.request.isFound()) {
+				this.path.set(this.request.getPath());
+			} else {
+				this.path.clear();
+			}
+
+			this.waypoint = 0;
+		}
+
+		if (this.needsPath(x, y, tileX, tileY)) {
+			this.request.set(tileX, tileY, x, y);
+			Globals.getWorld().navigation.request(this.request);
+			this.sinceRequest = 0;
+		}
+
+		return this.finish(this.getDirection(x, tileX, tileY));
+	}
+
+	/**
+	 * Tracks progress in the chosen direction
+	 */
+	private PhysicsComponent.Direction finish(PhysicsComponent.Direction direction) {
+		if (direction == null) {
+			this.stuck = 0;
+		} else {
+			this.updateStuck();
+		}
+
+		this.lastX = this.creature.physics.getX();
+		return direction;
+	}
+
+	private PhysicsComponent.Direction getDirection(int x, int tileX, int tileY) {
+		if (this.waypoint >= this.path.getCount()) {
+			// No path, head straight to the target
+			return getDirection(tileX, x);
+		}
+
+		this.advance(tileX, tileY);
+
+		if (this.waypoint >= this.path.getCount()) {
+			return null;
+		}
+
+		return this.steer(tileX, tileY, this.path.getX(this.waypoint), this.path.getY(this.waypoint));
+	}
+
+	/**
+	 * Picks the direction to the next tile and jumps, if the tile is too high
+	 * or too far to walk to
+	 */
+	private PhysicsComponent.Direction steer(int tileX, int tileY, int nextX, int nextY) {
+		if (nextY - tileY > NavMoves.STEP_HEIGHT || Math.abs(nextX - tileX) > 1) {
+			this.jump = true;
+		}
+
+		return getDirection(tileX, nextX);
+	}
+
+	private static PhysicsComponent.Direction getDirection(int from, int to) {
+		if (from == to) {
+			return null;
+		}
+
+		return to < from ? PhysicsComponent.Direction.LEFT : PhysicsComponent.Direction.RIGHT;
+	}
+
+	private boolean needsPath(int x, int y, int tileX, int tileY) {
+		if (this.request.isPending()) {
+			return false;
+		}
+
+		if (this.sinceRequest >= REPATH_DELAY || this.stuck == STUCK_DELAY * 3) {
+			return true;
+		}
+
+		if (this.waypoint >= this.path.getCount()) {
+			return false;
+		}
+
+		int last = this.path.getCount() - 1;
+
+		if (Math.abs(this.path.getX(last) - x) + Math.abs(this.path.getY(last) - y) > REPATH_DISTANCE) {
+			return true;
+		}
+
+		// Knocked off the path
+		return Math.abs(this.path.getX(this.waypoint) - tileX) > 2
+				|| Math.abs(this.path.getY(this.waypoint) - tileY) > NavMoves.REACH;
+	}
+
+	/**
+	 * Skips waypoints, the creature already reached
+	 */
+	private void advance(int tileX, int tileY) {
+		int end = Math.min(this.path.getCount(), this.waypoint + LOOKAHEAD);
+
+		for (int i = end - 1; i >= this.waypoint; i--) {
+			if (this.path.getX(i) == tileX && Math.abs(this.path.getY(i) - tileY) <= 1) {
+				this.waypoint = i + 1;
+				this.stuck = 0;
+				return;
+			}
+		}
+	}
+
+	private void updateStuck() {
+		if (Math.abs(this.creature.physics.getX() - this.lastX) < 0.5f) {
+			this.stuck++;
+
+			if (this.stuck % STUCK_DELAY == 0) {
+				this.jump = true;
+			}
+		} else {
+			this.stuck = 0;
+		}
+	}
+
+	private int getTileX() {
+		return (int) (this.creature.physics.getCenterX() / Block.SIZE);
+	}
+
+	/**
+	 * @return The creature has a path to follow
+	 */
+	public boolean hasPath() {
+		return this.waypoint < this.path.getCount();
+	}
+}
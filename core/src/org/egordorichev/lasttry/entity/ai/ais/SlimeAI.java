@@ -1,6 +1,7 @@
 package org.egordorichev.lasttry.entity.ai.ais;
 
 import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.entity.CreatureWithAI;
 import org.egordorichev.lasttry.entity.ai.AI;
 import org.egordorichev.lasttry.entity.ai.AIID;
@@ -8,6 +9,8 @@ import org.egordorichev.lasttry.entity.components.CreatureStateComponent;
 import org.egordorichev.lasttry.entity.components.PhysicsComponent;
 import org.egordorichev.lasttry.injection.CoreRegistry;
 import org.egordorichev.lasttry.injection.InjectionHelper;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.player.Player;
 import org.egordorichev.lasttry.world.biome.BiomeManager;
 
 public class SlimeAI extends AI {
@@ -30,18 +33,20 @@ public class SlimeAI extends AI {
 
 	@Override
     public void update(CreatureWithAI creature, int dt, int currentAi) {
+		Player player = Globals.getPlayer();
+		PhysicsComponent.Direction direction = creature.ai.path.update((int) (player.physics.getCenterX() / Block.SIZE),
+				player.physics.getGridY());
+
 		if (currentAi == 0) {
 			if (creature.physics.getVelocity().y == 0) {
 				creature.physics.jump();
 			}
 
-			creature.ai.setMax((int) ((MAX / 2) + (Math.random() * MAX / 2)));
-
-			int dir = Float.compare(Globals.getPlayer().physics.getCenterX(), creature.physics.getCenterX());
+			creature.ai.setMax((int) ((MAX / 2) + (LastTry.random.nextFloat() * MAX / 2)));
 
-			if (dir < 0) {
+			if (direction == PhysicsComponent.Direction.LEFT) {
 				creature.ai.setData((short) 0);
-			} else if (dir > 0) {
+			} else if (direction == PhysicsComponent.Direction.RIGHT) {
 				creature.ai.setData((short) 1);
 			}
 		}
@@ -2,9 +2,11 @@ package org.egordorichev.lasttry.entity.ai.ais;
 
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.entity.CreatureWithAI;
+import org.egordorichev.lasttry.entity.SimulationLevel;
 import org.egordorichev.lasttry.entity.ai.AI;
 import org.egordorichev.lasttry.entity.ai.AIID;
-import org.egordorichev.lasttry.entity.components.PhysicsComponent;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.player.Player;
 
 public class ZombieAI extends AI {
 	public ZombieAI() {
@@ -18,7 +20,22 @@ public class ZombieAI extends AI {
 
 	@Override
 	public void update(CreatureWithAI creature, int dt, int currentAi) {
-		creature.physics.move((Float.compare(Globals.getPlayer().physics.getCenterX(), creature.physics.getCenterX()) == -1) ? PhysicsComponent.Direction.LEFT : PhysicsComponent.Direction.RIGHT);
+		Player player = Globals.getPlayer();
+		int x = (int) (player.physics.getCenterX() / Block.SIZE);
+		int y = player.physics.getGridY();
+
+		if (Globals.environment.isBloodMoon()) {
+			// Everyone is after the player, share a single field
+			creature.ai.path.moveWith(Globals.getWorld().navigation.getPlayerField(), x, y);
+		} else {
+			creature.ai.path.moveTo(x, y);
+		}
+	}
+
+	@Override
+	public SimulationLevel getMinimumLevel(CreatureWithAI creature) {
+		// Hordes keep coming from off screen
+		return Globals.environment.isBloodMoon() ? SimulationLevel.REDUCED : SimulationLevel.FROZEN;
 	}
 
 	@Override
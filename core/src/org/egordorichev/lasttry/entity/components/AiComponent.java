@@ -3,12 +3,17 @@ package org.egordorichev.lasttry.entity.components;
 import org.egordorichev.lasttry.entity.Creature;
 import org.egordorichev.lasttry.entity.CreatureWithAI;
 import org.egordorichev.lasttry.entity.ai.AI;
+import org.egordorichev.lasttry.entity.ai.PathFollower;
 
 public class AiComponent extends EntityComponent<Creature> {
 	private int currentAi = 0;
 	private int maxAi = 0;
 	private CreatureWithAI creature;
 	public AI ai;
+	/**
+	 * Moves the creature along found paths
+	 */
+	public final PathFollower path;
 	private short data;
 
 	public AiComponent(CreatureWithAI creature, AI ai) {
@@ -16,10 +21,18 @@ public class AiComponent extends EntityComponent<Creature> {
 
 		this.creature = creature;
 		this.ai = ai;
+		this.path = new PathFollower(creature);
 	}
 
+	/**
+	 * Runs the AI once, with the time of all frames since the last update.
+	 * Behaviors count frames, so the counter skips ahead too, and a cycle,
+	 * that ended in the skipped frames, restarts now.
+	 *
+	 * @param dt Time since the last update
+	 */
 	public void update(int dt) {
-		this.currentAi++;
+		this.currentAi += this.creature.getUpdateSteps();
 
 		if (this.currentAi >= this.maxAi) {
 			this.currentAi = 0;
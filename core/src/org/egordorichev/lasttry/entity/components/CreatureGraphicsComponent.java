@@ -24,8 +24,8 @@ public class CreatureGraphicsComponent<T extends Creature> extends GraphicsCompo
 	public void render() {
 		float light = getAlpha();
 		Graphics.batch.setColor(light, light, light, 1f);
-		this.animations[this.entity.state.get().getID()].render(this.entity.physics.getX(),
-				this.entity.physics.getY(), this.entity.physics.getSize().x, this.entity.physics.getSize().y,
+		this.animations[this.entity.state.get().getID()].render(this.entity.physics.getRenderX(),
+				this.entity.physics.getRenderY(), this.entity.physics.getSize().x, this.entity.physics.getSize().y,
 				!this.entity.physics.isFlipped(), false);
 		Graphics.batch.setColor(1, 1, 1, 1);
 	}
@@ -3,6 +3,11 @@ package org.egordorichev.lasttry.entity.components;
 import org.egordorichev.lasttry.entity.Creature;
 
 public class CreaturePhysicsComponent extends PhysicsComponent<Creature> {
+	/**
+	 * Vertical velocity, given by a jump
+	 */
+	public static final float JUMP_VELOCITY = 10f;
+
 	public CreaturePhysicsComponent(Creature creature) {
 		super(creature);
 	}
@@ -14,7 +19,7 @@ public class CreaturePhysicsComponent extends PhysicsComponent<Creature> {
 		}
 
 		this.entity.state.set(CreatureStateComponent.State.JUMPING);
-		this.velocity.y += 10f;
+		this.velocity.y += JUMP_VELOCITY;
 	}
 
 	@Override
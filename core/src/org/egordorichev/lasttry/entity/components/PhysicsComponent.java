@@ -14,9 +14,24 @@ public class PhysicsComponent<T extends Entity> extends EntityComponent<T> {
     }
 
     protected static final float STOP_VELOCITY = 0.2F;
-    protected static final float STEP_HEIGHT = 1.05F;
+    /**
+     * Highest step in blocks, that can be walked up without jumping
+     */
+    public static final float STEP_HEIGHT = 1.05F;
+    /**
+     * Vertical velocity, lost every update
+     */
+    public static final float GRAVITY = 0.4F;
 
     protected Vector2 position = new Vector2();
+    /**
+     * Position before the last update
+     */
+    protected Vector2 previousPosition = new Vector2();
+    /**
+     * Position, the entity is drawn at, between the previous and the current one
+     */
+    protected Vector2 renderPosition = new Vector2();
     protected Vector2 size = new Vector2();
     protected Vector2 velocity = new Vector2();
     protected Rectangle hitbox;
@@ -53,14 +68,72 @@ public class PhysicsComponent<T extends Entity> extends EntityComponent<T> {
     }
 
     public void update(int dt) {
+        this.previousPosition.set(this.position);
         if (!this.entity.isActive()) {
             return;
         }
-        this.updateXVelocity();
-        this.updateYVelocity();
+        int steps = this.entity.getUpdateSteps();
+        if (steps > 1) {
+            this.updateCoarse(steps);
+        } else {
+            this.updateXVelocity();
+            this.updateYVelocity();
+        }
         this.pushOutOfBlocks(1);
     }
 
+    /**
+     * Covers several updates at once with a single collision check per axis.
+     * Less precise, than a normal update, but only used for entities with a
+     * reduced update rate, that are off screen.
+     *
+     * @param steps Updates to cover
+     */
+    private void updateCoarse(int steps) {
+        this.isStepping = false;
+        if (this.solid) {
+            this.velocity.y -= GRAVITY * steps;
+        }
+        // Sum of the velocities, the skipped updates would have moved by
+        float dx = this.velocity.x * steps;
+        float dy = (this.velocity.y + GRAVITY * (steps - 1) / 2) * steps;
+        if (this.solid && dx != 0) {
+            Rectangle box = this.hitbox.copy().offset(this.position);
+            if (collides(box.copy().offset(dx, 0))) {
+                float step = Block.SIZE * STEP_HEIGHT;
+                if (!collides(box.copy().offset(dx, step))) {
+                    // Step up at once
+                    this.position.y += step;
+                } else {
+                    dx = 0;
+                    this.velocity.x = 0;
+                }
+            }
+        }
+        this.position.x += dx;
+        if (this.solid && dy != 0) {
+            Rectangle box = this.hitbox.copy().offset(this.position);
+            if (collides(box.copy().offset(0, dy))) {
+                if (dy < 0) {
+                    // Hits ground, move down to the last free block offset
+                    float distToCollision = Globals.getWorld().distToVerticalCollision(box, dy);
+                    dy = distToCollision == 0 ? 0 : distToCollision + Block.SIZE;
+                    if (this.velocity.y < -GRAVITY * steps) {
+                        this.onGroundHit.call();
+                    }
+                } else {
+                    dy = 0;
+                }
+                this.velocity.y = 0;
+            }
+        }
+        this.position.y += dy;
+        this.velocity.x *= Math.pow(0.8, steps);
+        if (Math.abs(this.velocity.x) < STOP_VELOCITY) {
+            this.velocity.x = 0;
+        }
+    }
+
     /**
      * Pushes the player out of blocks.
      * 
@@ -205,7 +278,7 @@ public class PhysicsComponent<T extends Entity> extends EntityComponent<T> {
     private void updateYVelocity() {
         if (this.solid) {
             // Apply gravity
-            this.velocity.y -= 0.4f;
+            this.velocity.y -= GRAVITY;
         }
 
        //  float lastYVelocity = this.velocity.y;
@@ -224,7 +297,7 @@ public class PhysicsComponent<T extends Entity> extends EntityComponent<T> {
                     float distToCollision = Globals.getWorld().distToVerticalCollision(boxO, this.velocity.y);
 
                     if (distToCollision < -0.1f || distToCollision > 0.1f) {
-	                    if (this.velocity.y != -0.4f) {
+	                    if (this.velocity.y != -GRAVITY) {
 		                    this.onGroundHit.call();
 	                    }
                     }
@@ -273,6 +346,7 @@ public class PhysicsComponent<T extends Entity> extends EntityComponent<T> {
     public void setGridPosition(float gridX, float gridY) {
         this.position.x = gridX * Block.SIZE;
         this.position.y = gridY * Block.SIZE;
+        this.previousPosition.set(this.position);
     }
 
     public void setSolid(boolean solid) {
@@ -282,6 +356,16 @@ public class PhysicsComponent<T extends Entity> extends EntityComponent<T> {
     public void setPosition(float x, float y) {
         this.position.x = x;
         this.position.y = y;
+        this.previousPosition.set(this.position);
+    }
+
+    /**
+     * Sets the drawn position between the previous and the current one
+     *
+     * @param alpha Part of a tick, that passed since the last update
+     */
+    public void interpolate(float alpha) {
+        this.renderPosition.set(this.previousPosition).lerp(this.position, alpha);
     }
 
     public void setSize(float width, float height) {
@@ -345,6 +429,28 @@ public class PhysicsComponent<T extends Entity> extends EntityComponent<T> {
         return this.position.y + this.size.y / 2;
     }
 
+    /**
+     * @return X, the entity is drawn at
+     */
+    public float getRenderX() {
+        return this.renderPosition.x;
+    }
+
+    /**
+     * @return Y, the entity is drawn at
+     */
+    public float getRenderY() {
+        return this.renderPosition.y;
+    }
+
+    public float getRenderCenterX() {
+        return this.renderPosition.x + this.size.x / 2;
+    }
+
+    public float getRenderCenterY() {
+        return this.renderPosition.y + this.size.y / 2;
+    }
+
     public Rectangle getHitbox() {
         return new Rectangle(this.getX() + this.hitbox.x, this.getY() + this.hitbox.y, this.hitbox.width,
                 this.hitbox.height);
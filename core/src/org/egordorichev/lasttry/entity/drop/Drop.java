@@ -1,10 +1,9 @@
 package org.egordorichev.lasttry.entity.drop;
 
+import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.inventory.ItemHolder;
 import org.egordorichev.lasttry.item.Item;
 
-import java.util.concurrent.ThreadLocalRandom;
-
 public class Drop {
 	private int minAmount;
 	private int maxAmount;
@@ -27,7 +26,7 @@ public class Drop {
 	}
 
 	public ItemHolder createHolder() {
-		return new ItemHolder(this.item, ThreadLocalRandom.current().nextInt(this.minAmount, this.maxAmount+ 1), null);
+		return new ItemHolder(this.item, this.minAmount + LastTry.random.nextInt(this.maxAmount - this.minAmount + 1), null);
 	}
 
 	public Item getItem() {
@@ -25,7 +25,7 @@ public class DroppedItem extends Entity {
 
 	@Override
 	public void render() {
-		Graphics.batch.draw(this.texture, this.physics.getX(), this.physics.getY());
+		Graphics.batch.draw(this.texture, this.physics.getRenderX(), this.physics.getRenderY());
 	}
 
 	@Override
@@ -1,6 +1,7 @@
 package org.egordorichev.lasttry.graphics;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -25,25 +26,61 @@ public class Graphics {
 	 * Health bar frame texture
 	 */
 	public static Texture healthBarFrameTexture;
+	/**
+	 * White pixel, stretched to draw plain rectangles
+	 */
+	public static TextureRegion pixel;
 	/**
 	 * Sprite batch
 	 */
 	public static SpriteBatch batch;
+	/**
+	 * Sky gradient for the current minute, a single column of the sky texture
+	 */
+	private static TextureRegion sky;
+	/**
+	 * Minute of the day, the sky region was set for
+	 */
+	private static int skyTime = -1;
 
 	/**
 	 * Loads textures
 	 */
 	public static void load() {
 		tileCracks = new TextureRegion[24];
+		Texture cracks = new Texture(Gdx.files.internal("tile_cracks.png"));
 
 		for (int x = 0; x < 6; x++) {
 			for (int y = 0; y < 4; y++) {
-				tileCracks[x * 4 + y] = new TextureRegion(new Texture(Gdx.files.internal("tile_cracks.png")), x * 16, y * 16, 16, 16);
+				tileCracks[x * 4 + y] = new TextureRegion(cracks, x * 16, y * 16, 16, 16);
 			}
 		}
 
 		skyTexture = new Texture(Gdx.files.internal("sky.png"));
+		sky = new TextureRegion(skyTexture);
 		healthBarTexture = new Texture(Gdx.files.internal("health_bar.png"));
 		healthBarFrameTexture = new Texture(Gdx.files.internal("health_bar_frame.png"));
+
+		Pixmap white = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+		white.setColor(1f, 1f, 1f, 1f);
+		white.fill();
+		pixel = new TextureRegion(new Texture(white));
+		white.dispose();
+	}
+
+	/**
+	 * Draws the sky over the whole screen with a single call. Every screen
+	 * column shows the same gradient, so its column is stretched instead of
+	 * drawn one pixel at a time.
+	 *
+	 * @param time Minute of the day, picks the gradient
+	 */
+	public static void renderSky(int time) {
+		if (time != skyTime) {
+			sky.setRegion(time, 0, 1, 1024);
+			skyTime = time;
+		}
+
+		batch.draw(sky, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package org.egordorichev.lasttry.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.Align;
+
+/**
+ * Text, that is drawn every frame, but rarely changes. The glyph layout is
+ * only rebuilt, when the content differs from the last draw, and the content
+ * is written into a reused {@link StringBuilder}, so drawing a label with
+ * numbers in it doesn't create any garbage.
+ */
+public class TextCache {
+	private static final Color shadow = new Color(0f, 0f, 0f, 1f);
+
+	private final BitmapFont font;
+	/**
+	 * Content for the next draw
+	 */
+	private final StringBuilder text = new StringBuilder();
+	/**
+	 * Content, the layout was built for
+	 */
+	private final StringBuilder last = new StringBuilder();
+	private final GlyphLayout layout = new GlyphLayout();
+	private final BitmapFontCache cache;
+	private final Color tint = new Color();
+	private boolean built;
+
+	public TextCache(BitmapFont font) {
+		this.font = font;
+		this.cache = new BitmapFontCache(font, font.usesIntegerPositions());
+	}
+
+	/**
+	 * Clears the content
+	 *
+	 * @return Buffer to write the new content to
+	 */
+	public StringBuilder begin() {
+		this.text.setLength(0);
+		return this.text;
+	}
+
+	/**
+	 * Replaces the content
+	 *
+	 * @param text New content
+	 * @return This text
+	 */
+	public TextCache set(CharSequence text) {
+		this.begin().append(text);
+		return this;
+	}
+
+	/**
+	 * Draws the text in the current font color
+	 *
+	 * @param x Left X
+	 * @param y Top Y
+	 */
+	public void draw(float x, float y) {
+		this.update();
+		this.drawAt(x, y, this.font.getColor());
+	}
+
+	/**
+	 * Draws the text with a black outline, same as
+	 * {@link org.egordorichev.lasttry.util.Util#drawWithShadow(BitmapFont, String, float, float)}
+	 */
+	public void drawWithShadow(float x, float y) {
+		this.drawWithShadow(x, y, 1f, 1f, 1f);
+	}
+
+	public void drawWithShadow(float x, float y, float r, float g, float b) {
+		this.update();
+
+		for (int j = -1; j < 2; j++) {
+			for (int i = -1; i < 2; i++) {
+				this.drawAt(x + i, y + j, shadow);
+			}
+		}
+
+		this.drawAt(x, y, this.tint.set(r, g, b, 1f));
+	}
+
+	private void drawAt(float x, float y, Color color) {
+		this.cache.tint(color);
+		this.cache.setPosition(x, y);
+		this.cache.draw(Graphics.batch);
+	}
+
+	/**
+	 * Rebuilds the layout, if the content changed
+	 */
+	private void update() {
+		if (this.built && this.sameContent()) {
+			return;
+		}
+
+		this.last.setLength(0);
+		this.last.append(this.text);
+		this.layout.setText(this.font, this.text, Color.WHITE, 0, Align.left, false);
+		this.cache.clear();
+		this.cache.addText(this.layout, 0, 0);
+		this.built = true;
+	}
+
+	private boolean sameContent() {
+		if (this.text.length() != this.last.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < this.text.length(); i++) {
+			if (this.text.charAt(i) != this.last.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return Width of the text in pixels
+	 */
+	public float getWidth() {
+		this.update();
+		return this.layout.width;
+	}
+}
@@ -0,0 +1,110 @@
+package org.egordorichev.lasttry.graphics;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Sprite vertices, built once and drawn many times. Sprites are stored in the
+ * same layout, as {@link com.badlogic.gdx.graphics.g2d.SpriteBatch} uses, so
+ * a run of sprites with the same texture is drawn with a single call.
+ */
+public class VertexCache {
+	/**
+	 * Floats per sprite: 4 corners with position, color and texture coords
+	 */
+	public static final int SPRITE_SIZE = 20;
+
+	private final FloatArray vertices = new FloatArray(false, SPRITE_SIZE * 64);
+	/**
+	 * Texture and first vertex of every run
+	 */
+	private final Array<Texture> textures = new Array<>(false, 4);
+	private final IntArray starts = new IntArray(false, 4);
+
+	/**
+	 * Removes all sprites, keeping the memory
+	 */
+	public void clear() {
+		this.vertices.clear();
+		this.textures.clear();
+		this.starts.clear();
+	}
+
+	/**
+	 * Adds a sprite, drawn the same way, as {@link Batch#draw(TextureRegion, float, float)}
+	 *
+	 * @param region Texture region
+	 * @param x      X in pixels
+	 * @param y      Y in pixels
+	 * @param color  Packed color, see {@link com.badlogic.gdx.graphics.Color#toFloatBits(float, float, float, float)}
+	 */
+	public void add(TextureRegion region, float x, float y, float color) {
+		Texture texture = region.getTexture();
+
+		if (this.textures.size == 0 || this.textures.peek() != texture) {
+			this.textures.add(texture);
+			this.starts.add(this.vertices.size);
+		}
+
+		float x2 = x + region.getRegionWidth();
+		float y2 = y + region.getRegionHeight();
+		float u = region.getU();
+		float v = region.getV2();
+		float u2 = region.getU2();
+		float v2 = region.getV();
+
+		float[] items = this.vertices.ensureCapacity(SPRITE_SIZE);
+		int i = this.vertices.size;
+
+		items[i++] = x;
+		items[i++] = y;
+		items[i++] = color;
+		items[i++] = u;
+		items[i++] = v;
+
+		items[i++] = x;
+		items[i++] = y2;
+		items[i++] = color;
+		items[i++] = u;
+		items[i++] = v2;
+
+		items[i++] = x2;
+		items[i++] = y2;
+		items[i++] = color;
+		items[i++] = u2;
+		items[i++] = v2;
+
+		items[i++] = x2;
+		items[i++] = y;
+		items[i++] = color;
+		items[i++] = u2;
+		items[i] = v;
+
+		this.vertices.size += SPRITE_SIZE;
+	}
+
+	/**
+	 * Draws all sprites, one call per run of the same texture
+	 *
+	 * @param batch Batch to draw with
+	 */
+	public void render(Batch batch) {
+		for (int i = 0; i < this.textures.size; i++) {
+			int start = this.starts.get(i);
+			int end = i + 1 < this.starts.size ? this.starts.get(i + 1) : this.vertices.size;
+
+			batch.draw(this.textures.get(i), this.vertices.items, start, end - start);
+		}
+	}
+
+	/**
+	 * @return Amount of sprites
+	 */
+	public int getCount() {
+		return this.vertices.size / SPRITE_SIZE;
+	}
+}
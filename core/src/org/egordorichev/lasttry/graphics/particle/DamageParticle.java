@@ -45,10 +45,10 @@ public class DamageParticle extends Particle {
 				alpha -= 0.01;
 
 				if (crit) {
-					Util.drawWithShadow(Assets.f24, String.valueOf(damage), physics.getX(), physics.getY() + 24, 0.92f,
+					Util.drawWithShadow(Assets.f24, String.valueOf(damage), physics.getRenderX(), physics.getRenderY() + 24, 0.92f,
 							0.58f, 0.29f);
 				} else {
-					Util.drawWithShadow(Assets.f24, String.valueOf(damage), physics.getX(), physics.getY() + 24, 0.86f,
+					Util.drawWithShadow(Assets.f24, String.valueOf(damage), physics.getRenderX(), physics.getRenderY() + 24, 0.86f,
 							0.33f, 0.10f);
 				}
 
@@ -4,26 +4,74 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.math.Vector2;
 import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.player.PlayerIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
 
 /**
  * Simple input manager
  */
 public class InputManager {
+	private static final Logger logger = LoggerFactory.getLogger(InputManager.class);
 	/**
 	 * InputManager handler
 	 */
 	public static InputMultiplexer multiplexer = new InputMultiplexer();
+	/**
+	 * Input of the current simulation tick, gameplay should read it instead
+	 * of the methods below, that are meant for the ui
+	 */
+	public static final InputState state = new InputState();
 
 	/**
 	 * Last pressed mouse button
 	 */
 	private static int currentButton = -1;
+	/**
+	 * Keys, pressed since the last tick
+	 */
+	private static final boolean[] pressed = new boolean[InputState.KEYS];
+	/**
+	 * A mouse button was pressed since the last tick
+	 */
+	private static boolean clicked;
+	/**
+	 * Scroll wheel amount since the last tick
+	 */
+	private static int scroll;
+	/**
+	 * Writes every tick, or null
+	 */
+	private static InputRecorder recorder;
+	/**
+	 * Gives every tick instead of the keyboard and mouse, or null
+	 */
+	private static InputReplay replay;
 
 	static {
 		multiplexer.addProcessor(new DefaultInputProcessor() {
+			@Override
+			public boolean keyDown(int keycode) {
+				if (keycode >= 0 && keycode < InputState.KEYS) {
+					pressed[keycode] = true;
+				}
+
+				return false;
+			}
+
 			@Override
 			public boolean touchDown(int screenX, int screenY, int pointer, int button) {
 				currentButton = button;
+				clicked = true;
+				return false;
+			}
+
+			@Override
+			public boolean scrolled(int amount) {
+				scroll += amount;
 				return false;
 			}
 
@@ -43,11 +91,11 @@ public class InputManager {
 	 * @return Key is down
 	 */
 	public static boolean isKeyDown(int key) {
-		if (Globals.chat.isOpen()) {
+		if (isChatOpen()) {
 			return false;
 		}
 		/*
-		if (key != Keys.DEBUG_MODE && Globals.chat.isOpen()) {
+		if (key != Keys.DEBUG_MODE && isChatOpen()) {
 			return false;
 		}
 		*/
@@ -62,7 +110,7 @@ public class InputManager {
 	 * @return Key is up
 	 */
 	public static boolean isKeyUp(int key) {
-		if (Globals.chat.isOpen()) {
+		if (isChatOpen()) {
 			return false;
 		}
 		return !Gdx.input.isKeyPressed(key);
@@ -76,11 +124,11 @@ public class InputManager {
 	 * @return Key was pressed in this frame
 	 */
 	public static boolean isKeyJustDown(int key) {
-		if (Globals.chat.isOpen()) {
+		if (isChatOpen()) {
 			return false;
 		}
 		/*
-		if (key != Keys.DEBUG_MODE && Globals.chat.isOpen()) {
+		if (key != Keys.DEBUG_MODE && isChatOpen()) {
 			return false;
 		}
 		 */
@@ -95,7 +143,7 @@ public class InputManager {
 	 * @return Button is down
 	 */
 	public static boolean isMouseButtonPressed(int button) {
-		if (Globals.chat.isOpen()) {
+		if (isChatOpen()) {
 			return false;
 		}
 		return Gdx.input.isButtonPressed(button);
@@ -123,4 +171,136 @@ public class InputManager {
 
 		return false;
 	}
-}
+
+	/**
+	 * Updates {@link #state} for the next tick, from the replay, if there is
+	 * one, or from the keyboard and mouse. Writes it, if recording.
+	 */
+	public static void poll() {
+		if (replay != null) {
+			try {
+				replay.read(state);
+
+				if (replay.isFinished()) {
+					logger.info("Replay finished after " + replay.getTicks() + " ticks");
+					replay = null;
+					LastTry.deterministic = recorder != null;
+				}
+			} catch (IOException exception) {
+				LastTry.handleException(exception);
+				state.clear();
+				replay = null;
+				LastTry.deterministic = recorder != null;
+			}
+		} else if (isChatOpen()) {
+			state.clear();
+		} else {
+			for (int i = 0; i < InputState.KEYS; i++) {
+				state.keys[i] = Gdx.input.isKeyPressed(i);
+				state.pressed[i] = pressed[i];
+			}
+
+			state.buttons = 0;
+
+			for (int i = 0; i < 5; i++) {
+				if (Gdx.input.isButtonPressed(i)) {
+					state.buttons |= 1 << i;
+				}
+			}
+
+			state.clicked = clicked;
+			state.mouseX = Gdx.input.getX() - Gdx.graphics.getWidth() / 2;
+			state.mouseY = Gdx.graphics.getHeight() / 2 - Gdx.input.getY();
+			state.scroll = scroll;
+		}
+
+		for (int i = 0; i < InputState.KEYS; i++) {
+			pressed[i] = false;
+		}
+
+		clicked = false;
+		scroll = 0;
+
+		if (recorder != null) {
+			try {
+				recorder.write(state);
+			} catch (IOException exception) {
+				LastTry.handleException(exception);
+				recorder = null;
+			}
+		}
+	}
+
+	/**
+	 * Starts writing every tick to the file. Only called before the first
+	 * tick of a game, while the world, its chunks and the time of day still
+	 * match their saves and there are no creatures yet.
+	 *
+	 * @param fileName File to write
+	 * @throws IOException If the file can't be written
+	 */
+	public static void startRecording(String fileName) throws IOException {
+		stopRecording();
+		// A replay starts with the saved inventory, so it must match
+		PlayerIO.save();
+		recorder = new InputRecorder(fileName);
+		LastTry.deterministic = true;
+		logger.info("Recording input to " + fileName);
+	}
+
+	/**
+	 * Finishes the recording, if there is one
+	 *
+	 * @return Recorded ticks
+	 * @throws IOException If the file can't be written
+	 */
+	public static int stopRecording() throws IOException {
+		if (recorder == null) {
+			return 0;
+		}
+
+		int ticks = recorder.getTicks();
+		recorder.close();
+		recorder = null;
+		LastTry.deterministic = replay != null;
+
+		return ticks;
+	}
+
+	/**
+	 * @return Input is being recorded
+	 */
+	public static boolean isRecording() {
+		return recorder != null;
+	}
+
+	/**
+	 * Starts taking every tick from the replay, puts the player where and
+	 * how the recording started and reseeds {@link LastTry#random}
+	 *
+	 * @param replay Opened recording
+	 */
+	public static void startReplay(InputReplay replay) {
+		InputManager.replay = replay;
+		LastTry.deterministic = true;
+		LastTry.random.setSeed(replay.getRandomSeed());
+		Globals.getPlayer().physics.setPosition(replay.getPlayerX(), replay.getPlayerY());
+		Globals.getPlayer().physics.getVelocity().set(replay.getVelocityX(), replay.getVelocityY());
+		state.clear();
+		logger.info("Replaying input of " + replay.getWorldName());
+	}
+
+	/**
+	 * @return Input comes from a replay
+	 */
+	public static boolean isReplaying() {
+		return replay != null;
+	}
+
+	/**
+	 * @return Chat is open, there is no chat without a window
+	 */
+	private static boolean isChatOpen() {
+		return Globals.chat != null && Globals.chat.isOpen();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package org.egordorichev.lasttry.input;
+
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.world.World;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the input of every tick to a file, together with everything a
+ * replay needs to start from the same state: the world, the player save, position and velocity,
+ * the tick rate and the seed of {@link LastTry#random}.
+ *
+ * Only changes are written, a tick without any is a single byte, and the
+ * whole file is compressed, so an hour is a few kilobytes.
+ *
+ * A recording has to start with the game, see -record. The world is taken
+ * from its save, so edited chunks, the time of day and live creatures of a
+ * running game aren't part of it. Clicks on inventory slots and menus read
+ * the mouse every frame, not {@link InputState}, so they aren't recorded
+ * either, a replay is only right as long as they weren't used.
+ */
+public class InputRecorder {
+	public static final int MAGIC = 0x4C544952; // LTIR
+	public static final byte VERSION = 2;
+	/**
+	 * Flags, telling what changed in a tick
+	 */
+	static final int KEYS_CHANGED = 1;
+	static final int KEYS_PRESSED = 2;
+	static final int BUTTONS_CHANGED = 4;
+	static final int CLICKED = 8;
+	static final int MOUSE_MOVED = 16;
+	static final int SCROLLED = 32;
+
+	private final DataOutputStream stream;
+	/**
+	 * Last written state
+	 */
+	private final InputState last = new InputState();
+	/**
+	 * Key codes, written in the current tick
+	 */
+	private final int[] codes = new int[InputState.KEYS];
+	/**
+	 * Ticks, written so far
+	 */
+	private int ticks;
+
+	/**
+	 * Starts a recording of the current world and player. Reseeds
+	 * {@link LastTry#random}, so the replay can use the same seed.
+	 *
+	 * @param fileName File to write
+	 * @throws IOException If the file can't be written
+	 */
+	public InputRecorder(String fileName) throws IOException {
+		World world = Globals.getWorld();
+		long seed = System.nanoTime();
+
+		LastTry.random.setSeed(seed);
+
+		this.stream = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(fileName))));
+		this.stream.writeInt(MAGIC);
+		this.stream.writeByte(VERSION);
+		this.stream.writeLong(seed);
+		this.stream.writeInt(LastTry.tickRate);
+		this.stream.writeUTF(world.getName());
+		this.stream.writeByte(world.getSize().ordinal());
+		this.stream.writeInt(world.getSeed());
+		this.stream.writeUTF(Globals.getPlayer().getName());
+		this.stream.writeFloat(Globals.getPlayer().physics.getX());
+		this.stream.writeFloat(Globals.getPlayer().physics.getY());
+		this.stream.writeFloat(Globals.getPlayer().physics.getVelocity().x);
+		this.stream.writeFloat(Globals.getPlayer().physics.getVelocity().y);
+	}
+
+	/**
+	 * Writes the input of a tick
+	 *
+	 * @param state Input of the tick
+	 * @throws IOException If the file can't be written
+	 */
+	public void write(InputState state) throws IOException {
+		int changedKeys = 0;
+		int pressedKeys = 0;
+		int flags = 0;
+
+		for (int i = 0; i < InputState.KEYS; i++) {
+			if (state.keys[i] != this.last.keys[i]) {
+				this.codes[changedKeys++] = i;
+			}
+
+			if (state.pressed[i]) {
+				pressedKeys++;
+			}
+		}
+
+		if (changedKeys > 0) {
+			flags |= KEYS_CHANGED;
+		}
+
+		if (pressedKeys > 0) {
+			flags |= KEYS_PRESSED;
+		}
+
+		if (state.buttons != this.last.buttons) {
+			flags |= BUTTONS_CHANGED;
+		}
+
+		if (state.clicked) {
+			flags |= CLICKED;
+		}
+
+		if (state.mouseX != this.last.mouseX || state.mouseY != this.last.mouseY) {
+			flags |= MOUSE_MOVED;
+		}
+
+		if (state.scroll != 0) {
+			flags |= SCROLLED;
+		}
+
+		this.stream.writeByte(flags);
+
+		if (changedKeys > 0) {
+			this.stream.writeByte(changedKeys);
+
+			for (int i = 0; i < changedKeys; i++) {
+				this.stream.writeByte(this.codes[i]);
+			}
+		}
+
+		if (pressedKeys > 0) {
+			this.stream.writeByte(pressedKeys);
+
+			for (int i = 0; i < InputState.KEYS; i++) {
+				if (state.pressed[i]) {
+					this.stream.writeByte(i);
+				}
+			}
+		}
+
+		if (state.buttons != this.last.buttons) {
+			this.stream.writeByte(state.buttons);
+		}
+
+		if ((flags & MOUSE_MOVED) != 0) {
+			this.stream.writeShort(state.mouseX);
+			this.stream.writeShort(state.mouseY);
+		}
+
+		if (state.scroll != 0) {
+			this.stream.writeByte(state.scroll);
+		}
+
+		this.last.set(state);
+		this.ticks++;
+	}
+
+	/**
+	 * Finishes the file
+	 *
+	 * @throws IOException If the file can't be written
+	 */
+	public void close() throws IOException {
+		this.stream.close();
+	}
+
+	/**
+	 * @return Ticks, written so far
+	 */
+	public int getTicks() {
+		return this.ticks;
+	}
+}
@@ -0,0 +1,215 @@
+package org.egordorichev.lasttry.input;
+
+import org.egordorichev.lasttry.world.World;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a file, written by {@link InputRecorder}, a tick at a time
+ */
+public class InputReplay {
+	private final DataInputStream stream;
+	private final long randomSeed;
+	private final int tickRate;
+	private final String worldName;
+	private final World.Size worldSize;
+	private final int worldSeed;
+	private final String playerName;
+	private final float playerX;
+	private final float playerY;
+	private final float velocityX;
+	private final float velocityY;
+	/**
+	 * Ticks, read so far
+	 */
+	private int ticks;
+	/**
+	 * Flags of the next tick, read ahead, so the end is known right after
+	 * the last tick, or -1 if there are no more ticks
+	 */
+	private int next;
+
+	/**
+	 * Opens the file and reads its header
+	 *
+	 * @param fileName Recording
+	 * @throws IOException If the file can't be read or isn't a recording
+	 */
+	public InputReplay(String fileName) throws IOException {
+		this.stream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(fileName))));
+
+		if (this.stream.readInt() != InputRecorder.MAGIC) {
+			throw new IOException(fileName + " is not an input recording");
+		}
+
+		byte version = this.stream.readByte();
+
+		if (version != InputRecorder.VERSION) {
+			throw new IOException("Unsupported input recording version " + version);
+		}
+
+		this.randomSeed = this.stream.readLong();
+		this.tickRate = this.stream.readInt();
+		this.worldName = this.stream.readUTF();
+		this.worldSize = World.Size.values()[this.stream.readByte()];
+		this.worldSeed = this.stream.readInt();
+		this.playerName = this.stream.readUTF();
+		this.playerX = this.stream.readFloat();
+		this.playerY = this.stream.readFloat();
+		this.velocityX = this.stream.readFloat();
+		this.velocityY = this.stream.readFloat();
+		this.readNext();
+	}
+
+	/**
+	 * Reads the input of the next tick
+	 *
+	 * @param state State to update, it must hold the previous tick
+	 * @return False, if the recording was already over
+	 * @throws IOException If the file is broken
+	 */
+	public boolean read(InputState state) throws IOException {
+		if (this.next == -1) {
+			return false;
+		}
+
+		int flags = this.next;
+
+		if ((flags & InputRecorder.KEYS_CHANGED) != 0) {
+			int count = this.stream.readUnsignedByte();
+
+			for (int i = 0; i < count; i++) {
+				int key = this.stream.readUnsignedByte();
+				state.keys[key] = !state.keys[key];
+			}
+		}
+
+		for (int i = 0; i < InputState.KEYS; i++) {
+			state.pressed[i] = false;
+		}
+
+		if ((flags & InputRecorder.KEYS_PRESSED) != 0) {
+			int count = this.stream.readUnsignedByte();
+
+			for (int i = 0; i < count; i++) {
+				state.pressed[this.stream.readUnsignedByte()] = true;
+			}
+		}
+
+		if ((flags & InputRecorder.BUTTONS_CHANGED) != 0) {
+			state.buttons = this.stream.readUnsignedByte();
+		}
+
+		state.clicked = (flags & InputRecorder.CLICKED) != 0;
+
+		if ((flags & InputRecorder.MOUSE_MOVED) != 0) {
+			state.mouseX = this.stream.readShort();
+			state.mouseY = this.stream.readShort();
+		}
+
+		state.scroll = (flags & InputRecorder.SCROLLED) != 0 ? this.stream.readByte() : 0;
+		this.ticks++;
+		this.readNext();
+
+		return true;
+	}
+
+	/**
+	 * Reads flags of the next tick, closes the file after the last one
+	 */
+	private void readNext() throws IOException {
+		try {
+			this.next = this.stream.readUnsignedByte();
+		} catch (EOFException exception) {
+			this.close();
+		}
+	}
+
+	/**
+	 * Stops reading early
+	 */
+	public void close() throws IOException {
+		this.next = -1;
+		this.stream.close();
+	}
+
+	/**
+	 * @return Seed of {@link org.egordorichev.lasttry.LastTry#random} at the start
+	 */
+	public long getRandomSeed() {
+		return this.randomSeed;
+	}
+
+	/**
+	 * @return Ticks per second, the recording was made with
+	 */
+	public int getTickRate() {
+		return this.tickRate;
+	}
+
+	public String getWorldName() {
+		return this.worldName;
+	}
+
+	public World.Size getWorldSize() {
+		return this.worldSize;
+	}
+
+	public int getWorldSeed() {
+		return this.worldSeed;
+	}
+
+	/**
+	 * @return Name of the player save, the recording starts with
+	 */
+	public String getPlayerName() {
+		return this.playerName;
+	}
+
+	/**
+	 * @return Player X in pixels at the start
+	 */
+	public float getPlayerX() {
+		return this.playerX;
+	}
+
+	/**
+	 * @return Player Y in pixels at the start
+	 */
+	public float getPlayerY() {
+		return this.playerY;
+	}
+
+	/**
+	 * @return Player X velocity at the start
+	 */
+	public float getVelocityX() {
+		return this.velocityX;
+	}
+
+	/**
+	 * @return Player Y velocity at the start
+	 */
+	public float getVelocityY() {
+		return this.velocityY;
+	}
+
+	/**
+	 * @return Ticks, read so far
+	 */
+	public int getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * @return All ticks were read
+	 */
+	public boolean isFinished() {
+		return this.next == -1;
+	}
+}
@@ -0,0 +1,123 @@
+package org.egordorichev.lasttry.input;
+
+/**
+ * Input, seen by a single simulation tick. Gameplay reads input from here
+ * instead of the keyboard and mouse, so a tick can be recorded and replayed
+ * (see {@link InputRecorder} and {@link InputReplay}).
+ *
+ * The mouse is kept relative to the screen center, so the same replay aims
+ * at the same tiles on any window size.
+ */
+public class InputState {
+	/**
+	 * Amount of key codes
+	 */
+	public static final int KEYS = 256;
+	/**
+	 * Keys, that are held down
+	 */
+	final boolean[] keys = new boolean[KEYS];
+	/**
+	 * Keys, that were pressed since the last tick
+	 */
+	final boolean[] pressed = new boolean[KEYS];
+	/**
+	 * Mouse buttons, that are held down, a bit per button
+	 */
+	int buttons;
+	/**
+	 * A mouse button was pressed since the last tick
+	 */
+	boolean clicked;
+	/**
+	 * Mouse X from the screen center, right is positive
+	 */
+	int mouseX;
+	/**
+	 * Mouse Y from the screen center, up is positive
+	 */
+	int mouseY;
+	/**
+	 * Scroll wheel amount since the last tick
+	 */
+	int scroll;
+
+	/**
+	 * @param key Key code
+	 * @return Key is held down
+	 */
+	public boolean isKeyDown(int key) {
+		return this.keys[key];
+	}
+
+	/**
+	 * @param key Key code
+	 * @return Key was pressed since the last tick
+	 */
+	public boolean isKeyJustDown(int key) {
+		return this.pressed[key];
+	}
+
+	/**
+	 * @param button Mouse button
+	 * @return Button is held down
+	 */
+	public boolean isButtonDown(int button) {
+		return (this.buttons & (1 << button)) != 0;
+	}
+
+	/**
+	 * @return A mouse button was pressed since the last tick
+	 */
+	public boolean isClicked() {
+		return this.clicked;
+	}
+
+	/**
+	 * @return Mouse X from the screen center in pixels, right is positive
+	 */
+	public int getMouseX() {
+		return this.mouseX;
+	}
+
+	/**
+	 * @return Mouse Y from the screen center in pixels, up is positive
+	 */
+	public int getMouseY() {
+		return this.mouseY;
+	}
+
+	/**
+	 * @return Scroll wheel amount since the last tick
+	 */
+	public int getScroll() {
+		return this.scroll;
+	}
+
+	/**
+	 * Releases everything
+	 */
+	public void clear() {
+		for (int i = 0; i < KEYS; i++) {
+			this.keys[i] = false;
+			this.pressed[i] = false;
+		}
+
+		this.buttons = 0;
+		this.clicked = false;
+		this.scroll = 0;
+	}
+
+	/**
+	 * Copies the other state
+	 */
+	void set(InputState other) {
+		System.arraycopy(other.keys, 0, this.keys, 0, KEYS);
+		System.arraycopy(other.pressed, 0, this.pressed, 0, KEYS);
+		this.buttons = other.buttons;
+		this.clicked = other.clicked;
+		this.mouseX = other.mouseX;
+		this.mouseY = other.mouseY;
+		this.scroll = other.scroll;
+	}
+}
@@ -5,4 +5,6 @@ public interface ItemManager {
     boolean hasItem(String id);
     Item getItem(String id);
     Item addItem(String id, Item item);
+    short getNumericID(String id);
+    String getID(short numericID);
 }
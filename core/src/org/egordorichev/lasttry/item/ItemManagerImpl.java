@@ -6,7 +6,11 @@ import com.badlogic.gdx.utils.JsonValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import gnu.trove.map.hash.TObjectShortHashMap;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 public class ItemManagerImpl implements ItemManager{
 
@@ -15,6 +19,16 @@ public class ItemManagerImpl implements ItemManager{
      * Items storage
      */
     public HashMap<String, Item> ITEM_CACHE = new HashMap<>();
+    /**
+     * Compact numeric ids, assigned in the registration order. 0 is
+     * reserved for air (null id), -1 is returned for unknown ids
+     */
+    private final TObjectShortHashMap<String> numericIDs = new TObjectShortHashMap<>(64, 0.5f, (short) -1);
+    private final List<String> ids = new ArrayList<>();
+
+    public ItemManagerImpl() {
+        this.ids.add(null);
+    }
 
     /**
      * Loads items
@@ -50,6 +64,29 @@ public class ItemManagerImpl implements ItemManager{
 
     @Override
     public Item addItem(String id, Item item) {
+        if (!this.numericIDs.containsKey(id)) {
+            this.numericIDs.put(id, (short) this.ids.size());
+            this.ids.add(id);
+        }
+
         return ITEM_CACHE.put(id,item);
     }
+
+    @Override
+    public short getNumericID(String id) {
+        if (id == null) {
+            return 0;
+        }
+
+        return this.numericIDs.get(id);
+    }
+
+    @Override
+    public String getID(short numericID) {
+        if (numericID < 0 || numericID >= this.ids.size()) {
+            return null;
+        }
+
+        return this.ids.get(numericID);
+    }
 }
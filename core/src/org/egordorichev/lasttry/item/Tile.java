@@ -2,12 +2,28 @@ package org.egordorichev.lasttry.item;
 
 import org.egordorichev.lasttry.injection.CoreRegistry;
 import org.egordorichev.lasttry.injection.InjectionHelper;
+import org.egordorichev.lasttry.util.ByteHelper;
 
 public class Tile extends Item {
 	public Tile(String id) {
 		super(id);
 	}
 
+	/**
+	 * Creates byte, representing connected neighbors. Chunks store it for
+	 * every tile, so renderers don't have to look up the neighbors.
+	 *
+	 * @param top    Id of the tile above
+	 * @param right  Id of the tile to the right
+	 * @param bottom Id of the tile below
+	 * @param left   Id of the tile to the left
+	 * @return Byte, representing tile neighbors
+	 */
+	public byte calculateBinary(String top, String right, String bottom, String left) {
+		return ByteHelper.create(this.canConnect(top), this.canConnect(right), this.canConnect(bottom),
+				this.canConnect(left), false, false, false, false);
+	}
+
 	/**
 	 * Checks if the current block has a texture that connects to the other
 	 * item.
@@ -1,17 +1,18 @@
 package org.egordorichev.lasttry.item.block;
 
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.JsonValue;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.entity.drop.DroppedItem;
 import org.egordorichev.lasttry.graphics.Assets;
 import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.graphics.VertexCache;
 import org.egordorichev.lasttry.inventory.ItemHolder;
 import org.egordorichev.lasttry.item.Tile;
 import org.egordorichev.lasttry.item.block.helpers.BlockHelper;
 import org.egordorichev.lasttry.item.items.ToolPower;
 import org.egordorichev.lasttry.item.wall.Wall;
-import org.egordorichev.lasttry.util.ByteHelper;
 
 public class Block extends Tile {
 	public static final int SIZE = 16;
@@ -152,22 +153,6 @@ public class Block extends Tile {
 		return true;
 	}
 
-	/**
-	 * Creates byte, representing block neighbors
-	 *
-	 * @param x Block X
-	 * @param y Block Y
-	 * @return Byte, representing block neighbors
-	 */
-	public byte calculateBinary(int x, int y) {
-		boolean t = canConnect(Globals.getWorld().blocks.getID(x, y + 1));
-		boolean r = canConnect(Globals.getWorld().blocks.getID(x + 1, y));
-		boolean b = canConnect(Globals.getWorld().blocks.getID(x, y - 1));
-		boolean l = canConnect(Globals.getWorld().blocks.getID(x - 1, y));
-
-		return ByteHelper.create(t, r, b, l, false, false, false, false);
-	}
-
 	/**
 	 * Renders this block at given position
 	 *
@@ -192,6 +177,40 @@ public class Block extends Tile {
 		Graphics.batch.setColor(1f, 1f, 1f, 1f);
 	}
 
+	/**
+	 * Adds this block to a cached section, the same way, as
+	 * {@link #renderBlock(int, int, byte)} draws it
+	 *
+	 * @param x      Block X
+	 * @param y      Block Y
+	 * @param binary Byte, representing block neighbors
+	 * @param cache  Cache for the block texture
+	 * @param cracks Cache for the cracks, drawn above all blocks
+	 */
+	public void cacheBlock(int x, int y, byte binary, VertexCache cache, VertexCache cracks) {
+		byte hp = Globals.getWorld().blocks.getHP(x, y);
+		byte variant = BlockHelper.plain.getVariant(hp);
+
+		float light = Globals.getWorld().light.get(x, y);
+		float color = Color.toFloatBits(light, light, light, 1f);
+		cache.add(this.tiles[variant][binary], x * SIZE, y * SIZE, color);
+
+		hp = BlockHelper.plain.getHP(hp);
+
+		if (this.renderCracks() && hp < Block.MAX_HP) {
+			cracks.add(Graphics.tileCracks[Block.MAX_HP - hp], x * SIZE, y * SIZE, color);
+		}
+	}
+
+	/**
+	 * @return Block looks the same until it or its neighbors change, so it
+	 *         can be drawn from the tile cache instead of
+	 *         {@link #renderBlock(int, int, byte)}
+	 */
+	public boolean isCacheable() {
+		return true;
+	}
+
 	/**
 	 * @return Render tile cracks
 	 */
@@ -3,8 +3,13 @@ package org.egordorichev.lasttry.item.block;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
 import org.egordorichev.lasttry.item.block.helpers.BlockHelper;
 import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.ChunkLevel;
+import org.egordorichev.lasttry.world.chunk.ChunkTicket;
+import org.egordorichev.lasttry.world.components.WorldTicketsComponent;
 import org.egordorichev.lasttry.world.components.WorldLightingComponent;
 
 /**
@@ -19,7 +24,19 @@ public class ChunkLoader extends Block {
 	public void die(short x, short y) {
 		super.die(x, y);
 		Chunk chunk = Globals.getWorld().chunks.getFor(x, y);
-		chunk.setUnloadable(false);
+
+		// The block is already gone from the histogram, other loaders keep the chunk
+		if (!chunk.isUnloadable() && !this.hasLoaders(chunk)) {
+			chunk.setUnloadable(true);
+
+			WorldTicketsComponent tickets = Globals.getWorld().tickets;
+			ChunkTicket ticket = tickets.get(WorldTicketsComponent.LOADER, chunk.getGridX(), chunk.getGridY(),
+				ChunkLevel.BLOCK_TICKING, 0);
+
+			if (ticket != null) {
+				tickets.remove(ticket);
+			}
+		}
 	}
 
 	@Override
@@ -27,11 +44,36 @@ public class ChunkLoader extends Block {
 		super.use(x, y);
 
 		Chunk chunk = Globals.getWorld().chunks.getFor(x, y);
-		chunk.setUnloadable(true);
+
+		if (chunk.isUnloadable()) {
+			chunk.setUnloadable(false);
+			Globals.getWorld().tickets.add(WorldTicketsComponent.LOADER, chunk.getGridX(), chunk.getGridY(),
+				ChunkLevel.BLOCK_TICKING, 0);
+		}
 
 		return true;
 	}
 
+	/**
+	 * @return The chunk has a chunk loader block
+	 */
+	private boolean hasLoaders(Chunk chunk) {
+		short id = CoreRegistry.get(ItemManager.class).getNumericID(this.getID());
+
+		for (int section = 0; section < Chunk.SECTIONS; section++) {
+			if (chunk.getHistogram().count(section, id) > 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
+
 	@Override
 	public void renderBlock(int x, int y, byte binary) {
 		byte hp = Globals.getWorld().blocks.getHP(x, y);
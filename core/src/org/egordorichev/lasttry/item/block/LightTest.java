@@ -9,6 +9,11 @@ public class LightTest extends Block {
 		super(id);
 	}
 
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
+
 	@Override
 	public void renderBlock(int x, int y, byte binary) {
 		// This enture class is temporary, this forces the torch texture.
@@ -12,6 +12,11 @@ public class MultiTileBlock extends Block {
 		super(id, loadIcon);
 	}
 
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
+
 	@Override
 	public void renderBlock(int x, int y, byte binary) {
 		byte hp = Globals.getWorld().blocks.getHP(x, y);
@@ -56,11 +56,11 @@ public class DigTool extends Tool {
 		float angle = Util.map(this.useDelay, 0, this.useDelayMax, -70.0f, 45.0f);
 
 		if (Globals.getPlayer().physics.isFlipped()) {
-			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getCenterX(),
-					Globals.getPlayer().physics.getCenterY(), 0, 0, width, height, -1.0f, 1.0f, -angle);
+			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getRenderCenterX(),
+					Globals.getPlayer().physics.getRenderCenterY(), 0, 0, width, height, -1.0f, 1.0f, -angle);
 		} else {
-			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getCenterX(),
-					Globals.getPlayer().physics.getCenterY(), 0, 0, width, height, 1.0f, 1.0f, angle);
+			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getRenderCenterX(),
+					Globals.getPlayer().physics.getRenderCenterY(), 0, 0, width, height, 1.0f, 1.0f, angle);
 		}
 	}
 }
\ No newline at end of file
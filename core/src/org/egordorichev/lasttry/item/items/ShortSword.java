@@ -23,11 +23,11 @@ public class ShortSword extends MeleeWeapon {
 		float height = this.texture.getRegionHeight();
 
 		if (Globals.getPlayer().physics.isFlipped()) {
-			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getCenterX(),
-				Globals.getPlayer().physics.getCenterY(), 0, 0, width, height, 1.0f, 1.0f, 135f);
+			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getRenderCenterX(),
+				Globals.getPlayer().physics.getRenderCenterY(), 0, 0, width, height, 1.0f, 1.0f, 135f);
 		} else {
-			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getCenterX(),
-				Globals.getPlayer().physics.getCenterY(), 0, 0, width, height, 1.0f, 1.0f, -45f);
+			Graphics.batch.draw(this.texture, Globals.getPlayer().physics.getRenderCenterX(),
+				Globals.getPlayer().physics.getRenderCenterY(), 0, 0, width, height, 1.0f, 1.0f, -45f);
 		}
 	}
 }
\ No newline at end of file
@@ -1,8 +1,8 @@
 package org.egordorichev.lasttry.item.items;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.input.InputManager;
 import org.egordorichev.lasttry.inventory.InventoryOwner;
 import org.egordorichev.lasttry.item.block.Block;
 
@@ -22,7 +22,7 @@ public class Sword extends MeleeWeapon {
 
 	@Override
 	public boolean canBeUsed(short x, short y){
-		return this.isReady() && this.isAutoSwing() && Gdx.input.isButtonPressed(Input.Buttons.LEFT);
+		return this.isReady() && this.isAutoSwing() && InputManager.state.isButtonDown(Input.Buttons.LEFT);
 	}
 
 	@Override
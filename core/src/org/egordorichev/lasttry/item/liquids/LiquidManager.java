@@ -3,4 +3,5 @@ package org.egordorichev.lasttry.item.liquids;
 public interface LiquidManager {
     void load();
     void renderLiquid(int x, int y);
+    void updateLiquid(int x, int y);
 }
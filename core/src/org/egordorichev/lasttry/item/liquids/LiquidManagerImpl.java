@@ -2,6 +2,7 @@ package org.egordorichev.lasttry.item.liquids;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.graphics.Assets;
 import org.egordorichev.lasttry.graphics.Graphics;
 import org.egordorichev.lasttry.item.block.Block;
@@ -31,7 +32,17 @@ public class LiquidManagerImpl implements LiquidManager {
 
             Graphics.batch.setColor(light, light, light, 1f);
             Graphics.batch.draw(textures[type][0][liquidLevel - 1], x * Block.SIZE, y * Block.SIZE);
+        }
+    }
+
+    /**
+     * Lets the liquid at the given position flow down or to the sides
+     */
+    public void updateLiquid(int x, int y) {
+        byte hp = Globals.getWorld().blocks.getHP(x, y);
+        byte liquidLevel = BlockHelper.empty.getLiquidLevel(hp);
 
+        if (liquidLevel > 0) {
             Block bottom = Globals.getWorld().blocks.get(x, y - 1);
 
             if (bottom == null) {
@@ -61,7 +72,7 @@ public class LiquidManagerImpl implements LiquidManager {
             boolean toRight = right == null && rightLiquidLevel < liquidLevel;
 
             if (toLeft && toRight) {
-                toLeft = Math.random() > 0.5;
+                toLeft = LastTry.random.nextBoolean();
                 toRight = !toLeft;
             }
 
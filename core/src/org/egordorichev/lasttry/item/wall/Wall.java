@@ -1,17 +1,18 @@
 package org.egordorichev.lasttry.item.wall;
 
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.JsonValue;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.entity.drop.DroppedItem;
 import org.egordorichev.lasttry.graphics.Assets;
 import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.graphics.VertexCache;
 import org.egordorichev.lasttry.inventory.ItemHolder;
 import org.egordorichev.lasttry.item.Tile;
 import org.egordorichev.lasttry.item.block.Block;
 import org.egordorichev.lasttry.item.items.ToolPower;
 import org.egordorichev.lasttry.item.wall.helpers.WallHelper;
-import org.egordorichev.lasttry.util.ByteHelper;
 
 public class Wall extends Tile {
 	/**
@@ -63,25 +64,6 @@ public class Wall extends Tile {
 		Globals.getWorld().onWallBreak(x, y);
 	}
 
-	/**
-	 * Creates byte, representing wall neighbors
-	 *
-	 * @param x
-	 *            Wall X
-	 * @param y
-	 *            Wall Y
-	 * @return Byte, representing wall neighbors
-	 */
-
-	public byte calculateBinary(int x, int y) {
-		boolean t = this.canConnect(Globals.getWorld().walls.getID(x, y + 1));
-		boolean r = this.canConnect(Globals.getWorld().walls.getID(x + 1, y));
-		boolean b = this.canConnect(Globals.getWorld().walls.getID(x, y - 1));
-		boolean l = this.canConnect(Globals.getWorld().walls.getID(x - 1, y));
-
-		return ByteHelper.create(t, r, b, l, false, false, false, false);
-	}
-
 	/**
 	 * Renders wall at given position
 	 *
@@ -93,7 +75,7 @@ public class Wall extends Tile {
 	public void renderWall(int x, int y) {
 		byte hp = Globals.getWorld().walls.getHP(x, y);
 		byte variant = WallHelper.getVariant(hp);
-		byte binary = calculateBinary(x, y);
+		byte binary = Globals.getWorld().walls.getMask(x, y);
 
 		float light = Globals.getWorld().light.get(x, y);
 		Graphics.batch.setColor(light, light, light, 1f);
@@ -113,6 +95,35 @@ public class Wall extends Tile {
 		Graphics.batch.setColor(1f, 1f, 1f, 1f);
 	}
 
+	/**
+	 * Adds this wall to a cached section, the same way, as
+	 * {@link #renderWall(int, int)} draws it
+	 *
+	 * @param x
+	 *            Wall X
+	 * @param y
+	 *            Wall Y
+	 * @param cache
+	 *            Cache for the wall texture
+	 * @param cracks
+	 *            Cache for the cracks, drawn above all walls
+	 */
+	public void cacheWall(int x, int y, VertexCache cache, VertexCache cracks) {
+		byte hp = Globals.getWorld().walls.getHP(x, y);
+		byte variant = WallHelper.getVariant(hp);
+		byte binary = Globals.getWorld().walls.getMask(x, y);
+
+		float light = Globals.getWorld().light.get(x, y);
+		float color = Color.toFloatBits(light, light, light, 1f);
+		cache.add(this.tiles[variant][binary], x * Block.SIZE, y * Block.SIZE, color);
+
+		hp = WallHelper.getHP(hp);
+
+		if (this.renderCracks() && hp < Block.MAX_HP) {
+			cracks.add(Graphics.tileCracks[Block.MAX_HP - hp], x * Block.SIZE, y * Block.SIZE, color);
+		}
+	}
+
 	@Override
 	public boolean use(short x, short y) {
 		if (Globals.getWorld().walls.getID(x, y) == null) {
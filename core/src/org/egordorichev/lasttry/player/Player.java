@@ -73,6 +73,7 @@ public class Player extends Creature implements InventoryOwner<UiItemSlot> {
 		}
 
 		this.input.update(dt);
+		this.getInventory().updateItems();
 
 		if (this.getInventory().getActiveItem() != null && this.getInventory().getActiveItem().getItem() != null) {
 			this.getInventory().getActiveItem().getItem().update(this, dt);
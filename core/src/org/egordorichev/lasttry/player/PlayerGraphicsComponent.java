@@ -34,7 +34,7 @@ public class PlayerGraphicsComponent extends CreatureGraphicsComponent<Player> {
 		};
 		Graphics.batch.setColor(light, light, light, 1f);
 		this.animations[this.entity.state.get().getID()].render(
-			this.entity.physics.getPosition().x, this.entity.physics.getPosition().y,
+			this.entity.physics.getRenderX(), this.entity.physics.getRenderY(),
 			this.entity.physics.getSize().x, this.entity.physics.getSize().y,
 			(this.entity.physics.getDirection() == PhysicsComponent.Direction.LEFT), false);
 		Graphics.batch.setColor(1, 1, 1, 1);
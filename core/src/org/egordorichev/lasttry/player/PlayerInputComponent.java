@@ -3,6 +3,7 @@ package org.egordorichev.lasttry.player;
 import org.egordorichev.lasttry.entity.components.EntityComponent;
 import org.egordorichev.lasttry.entity.components.PhysicsComponent;
 import org.egordorichev.lasttry.input.InputManager;
+import org.egordorichev.lasttry.input.InputState;
 import org.egordorichev.lasttry.input.Keys;
 import org.egordorichev.lasttry.ui.UiInventory;
 
@@ -13,19 +14,21 @@ public class PlayerInputComponent extends EntityComponent<Player> {
 
 	@Override
 	public void update(int dt) {
-		if (InputManager.isKeyDown(Keys.JUMP)) {
+		InputState input = InputManager.state;
+
+		if (input.isKeyDown(Keys.JUMP)) {
 			this.entity.physics.jump();
 		}
 
-		if (InputManager.isKeyDown(Keys.MOVE_LEFT)) {
+		if (input.isKeyDown(Keys.MOVE_LEFT)) {
 			this.entity.physics.move(PhysicsComponent.Direction.LEFT);
 		}
 
-		if (InputManager.isKeyDown(Keys.MOVE_RIGHT)) {
+		if (input.isKeyDown(Keys.MOVE_RIGHT)) {
 			this.entity.physics.move(PhysicsComponent.Direction.RIGHT);
 		}
 
-		if (InputManager.isKeyJustDown(Keys.OPEN_INVENTORY)) {
+		if (input.isKeyJustDown(Keys.OPEN_INVENTORY)) {
 			UiInventory inv = this.entity.getInventory();
 			inv.toggle();
 		}
@@ -8,21 +8,26 @@ import com.badlogic.gdx.graphics.PixmapIO;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.ScreenUtils;
+import org.egordorichev.lasttry.Args;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.entity.EntityManager;
 import org.egordorichev.lasttry.graphics.Assets;
 import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.graphics.TextCache;
 import org.egordorichev.lasttry.input.InputManager;
 import org.egordorichev.lasttry.input.Keys;
 import org.egordorichev.lasttry.item.block.Block;
 import org.egordorichev.lasttry.language.Language;
 import org.egordorichev.lasttry.ui.chat.UiChat;
 import org.egordorichev.lasttry.util.Camera;
+import org.egordorichev.lasttry.util.FixedTimestep;
+import org.egordorichev.lasttry.util.metrics.Metrics;
 import org.egordorichev.lasttry.world.chunk.gc.ChunkGcManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.Date;
 
 public class GamePlayState implements State {
@@ -31,6 +36,14 @@ public class GamePlayState implements State {
 	 * Hp texture
 	 */
 	private final TextureRegion hpTextureRegion;
+	/**
+	 * Hp label, rebuilt only when the hp changes
+	 */
+	private final TextCache hpText = new TextCache(Assets.f22);
+	/**
+	 * Splits frames into simulation ticks
+	 */
+	private final FixedTimestep timestep = new FixedTimestep(LastTry.tickRate, FixedTimestep.DEFAULT_MAX_TICKS);
 	/**
 	 * Game is paused
 	 */
@@ -42,10 +55,25 @@ public class GamePlayState implements State {
 
 		Globals.entityManager = new EntityManager();
 		Globals.entityManager.spawn(Globals.getPlayer(), (int) (Globals.getWorld().getSpawnPoint().x * Block.SIZE), (int) Globals.getWorld().getSpawnPoint().y * Block.SIZE);
+		if (Globals.chunkGcManager != null) {
+			// Only one manager schedules chunk gc
+			Globals.chunkGcManager.dispose();
+		}
+
 		Globals.chunkGcManager = new ChunkGcManager();
 		Globals.chat = new UiChat();
 
 		LastTry.ui.add(Globals.chat);
+
+		if (Args.getReplay() != null) {
+			InputManager.startReplay(Args.getReplay());
+		} else if (Args.getRecordFile() != null) {
+			try {
+				InputManager.startRecording(Args.getRecordFile());
+			} catch (IOException exception) {
+				LastTry.handleException(exception);
+			}
+		}
 	}
 
 	/**
@@ -64,16 +92,17 @@ public class GamePlayState implements State {
 
 	@Override
 	public void render(float delta) {
+		long start = Metrics.frame.start();
+
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT |
 			(Gdx.graphics.getBufferFormat().coverageSampling ? GL20.GL_COVERAGE_BUFFER_BIT_NV : 0));
 
 		if (!paused) {
-			// TODO: This is a shitty fix. Delta is usually 0.013f per tick (on average)
-			// casting it to int always gives 0, which breaks a lot of shit.
-			int dt = (int) (delta * 100f);
-			Globals.environment.update(dt);
-			Globals.entityManager.update(dt);
-			Globals.getWorld().updateLight(dt);
+			int ticks = this.timestep.advance(delta);
+
+			for (int i = 0; i < ticks; i++) {
+				this.tick(this.timestep.getDt());
+			}
 
 			if (InputManager.isKeyJustDown(Keys.OPEN_CHAT)) {
 				Globals.chat.toggle();
@@ -85,11 +114,12 @@ public class GamePlayState implements State {
 		}
 
 		Globals.environment.render();
+		Globals.entityManager.interpolate(paused ? 1f : this.timestep.getAlpha());
 
 		Camera.game.position.x = Math.max(Gdx.graphics.getWidth() / 2,
-			Globals.getPlayer().physics.getCenterX());
+			Globals.getPlayer().physics.getRenderCenterX());
 
-		Camera.game.position.y = Math.max(0, Globals.getPlayer().physics.getCenterY());
+		Camera.game.position.y = Math.max(0, Globals.getPlayer().physics.getRenderCenterY());
 		Camera.game.update();
 		Graphics.batch.setProjectionMatrix(Camera.game.combined);
 		Globals.getWorld().render();
@@ -100,8 +130,9 @@ public class GamePlayState implements State {
 		int hp = Globals.getPlayer().stats.getHP();
 		int x = Gdx.graphics.getWidth() - 200;
 
-		Assets.f22.draw(Graphics.batch, String.format(Language.text.get("hp") + ": %d/%d", hp, Globals.getPlayer().stats.getMaxHP()), x,
-			Gdx.graphics.getHeight() - 4);
+		this.hpText.begin().append(Language.text.get("hp")).append(": ").append(hp).append('/')
+			.append(Globals.getPlayer().stats.getMaxHP());
+		this.hpText.draw(x, Gdx.graphics.getHeight() - 4);
 
 		for (int i = 0; i < hp / 20; i++) {
 			Graphics.batch.draw(this.hpTextureRegion, x + i * 22 + i * 2, Gdx.graphics.getHeight() - 50);
@@ -122,6 +153,23 @@ public class GamePlayState implements State {
 
 			logger.debug("Saved screenshot to " + Gdx.files.getLocalStoragePath() + file.path());
 		}
+
+		Metrics.frame.stop(start);
+		Metrics.endFrame();
+	}
+
+	/**
+	 * Runs a single simulation tick
+	 *
+	 * @param dt Time, passed to updates
+	 */
+	private void tick(int dt) {
+		InputManager.poll();
+		Globals.getWorld().update();
+		Globals.environment.update(dt);
+		Globals.entityManager.update(dt);
+		Globals.getWorld().navigation.update();
+		Globals.getWorld().updateLight(dt);
 	}
 
 	@Override
@@ -1,6 +1,7 @@
 package org.egordorichev.lasttry.state;
 
 import com.badlogic.gdx.Gdx;
+import org.egordorichev.lasttry.Args;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.crafting.RecipeManager;
@@ -84,8 +85,8 @@ public class LoadState implements State {
 	                    if (WorldIO.saveExists(world)) {
 		                    WorldIO.load(world);
 	                    } else {
-		                    int seed = new SecureRandom().nextInt();
-		                    Globals.setWorld(WorldIO.generate(world, World.Size.SMALL, 0, seed));
+		                    int seed = Args.getReplay() != null ? Args.getReplay().getWorldSeed() : new SecureRandom().nextInt();
+		                    Globals.setWorld(WorldIO.generate(world, Args.getWorldSize(), 0, seed));
 	                    }
 
 	                    loadString = "Loading player...";
@@ -112,9 +113,7 @@ public class LoadState implements State {
 
 		int height = Gdx.graphics.getHeight();
 
-		for (int i = 0; i < Gdx.graphics.getWidth(); i++) {
-			Graphics.batch.draw(Graphics.skyTexture, i, 0, 1, height, 1000, 0, 1, 1024, false, false);
-		}
+		Graphics.renderSky(1000);
 
 		Assets.f22.draw(Graphics.batch, this.loadString, 100, height / 2 - 11);
 		LastTry.ui.render();
@@ -5,11 +5,10 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 
-import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.graphics.Assets;
-import org.egordorichev.lasttry.input.DefaultInputProcessor;
 import org.egordorichev.lasttry.input.InputManager;
+import org.egordorichev.lasttry.input.InputState;
 import org.egordorichev.lasttry.input.Keys;
 import org.egordorichev.lasttry.inventory.Inventory;
 import org.egordorichev.lasttry.inventory.InventoryOwner;
@@ -20,6 +19,12 @@ import org.egordorichev.lasttry.language.Language;
 import org.egordorichev.lasttry.util.Util;
 
 public class UiInventory extends UiComponent implements UiScreen, UiToggleScreen, Inventory<UiItemSlot> {
+	/**
+	 * Keys, that select hotbar slots
+	 */
+	private static final int[] HOTBAR_KEYS = { Keys.HOTBAR_SLOT_0, Keys.HOTBAR_SLOT_1, Keys.HOTBAR_SLOT_2,
+			Keys.HOTBAR_SLOT_3, Keys.HOTBAR_SLOT_4, Keys.HOTBAR_SLOT_5, Keys.HOTBAR_SLOT_6, Keys.HOTBAR_SLOT_7,
+			Keys.HOTBAR_SLOT_8, Keys.HOTBAR_SLOT_9 };
 	/**
 	 * The item currently clicked in the inventory. This is not to be confused
 	 * with the current active item which is what the entity uses with their
@@ -108,80 +113,29 @@ public class UiInventory extends UiComponent implements UiScreen, UiToggleScreen
 		}
 
 		this.slots[activeSlot].setActive(true);
-
-		InputManager.multiplexer.addProcessor(new DefaultInputProcessor() {
-			@Override
-			public boolean keyDown(int keycode) {
-				if (Globals.chat.isOpen()) {
-					return false;
-				}
-				switch (keycode) {
-				case Keys.HOTBAR_SLOT_0:
-					setHotbarSlot(0);
-					break;
-				case Keys.HOTBAR_SLOT_1:
-					setHotbarSlot(1);
-					break;
-				case Keys.HOTBAR_SLOT_2:
-					setHotbarSlot(2);
-					break;
-				case Keys.HOTBAR_SLOT_3:
-					setHotbarSlot(3);
-					break;
-				case Keys.HOTBAR_SLOT_4:
-					setHotbarSlot(4);
-					break;
-				case Keys.HOTBAR_SLOT_5:
-					setHotbarSlot(5);
-					break;
-				case Keys.HOTBAR_SLOT_6:
-					setHotbarSlot(6);
-					break;
-				case Keys.HOTBAR_SLOT_7:
-					setHotbarSlot(7);
-					break;
-				case Keys.HOTBAR_SLOT_8:
-					setHotbarSlot(8);
-					break;
-				case Keys.HOTBAR_SLOT_9:
-					setHotbarSlot(9);
-					break;
-				}
-
-				return false;
-			}
-
-			@Override
-			public boolean scrolled(int amount) {
-				ItemHolder holder = getActiveItem();
-
-				if (holder != null && holder.getItem() != null && !holder.getItem().isReady()) {
-					return false;
-				}
-
-				slots[activeSlot].setActive(false);
-				activeSlot += (amount > 0) ? 1 : -1;
-
-				if (activeSlot > 9) {
-					activeSlot = 0;
-				} else if (activeSlot < 0) {
-					activeSlot = 9;
-				}
-
-				slots[activeSlot].setActive(true);
-
-				return false;
-			}
-		});
 	}
 
 	public static void setSlotToDrawTooltip(UiItemSlot slotToDrawTooltip) {
 		UiInventory.slotToDrawTooltip = slotToDrawTooltip;
 	}
 
-	private void updateItems() {
-		if (InputManager.isMouseButtonPressed(Input.Buttons.LEFT)
-				|| InputManager.isMouseButtonPressed(Input.Buttons.RIGHT)) {
+	/**
+	 * Switches the hotbar slot and uses the active item, called every tick
+	 */
+	public void updateItems() {
+		InputState input = InputManager.state;
+
+		for (int i = 0; i < 10; i++) {
+			if (input.isKeyJustDown(HOTBAR_KEYS[i])) {
+				this.setHotbarSlot(i);
+			}
+		}
+
+		if (input.getScroll() != 0) {
+			this.scroll(input.getScroll());
+		}
+
+		if (input.isButtonDown(Input.Buttons.LEFT) || input.isButtonDown(Input.Buttons.RIGHT)) {
 
 			if (this.isOpen()) {
 				return;
@@ -195,7 +149,7 @@ public class UiInventory extends UiComponent implements UiScreen, UiToggleScreen
 			if (holder != null) {
 				Item item = holder.getItem();
 
-				if (item != null && item.isReady() && (item.isAutoUse() || InputManager.mouseButtonJustPressed())) {
+				if (item != null && item.isReady() && (item.isAutoUse() || input.isClicked())) {
 					if (item.canBeUsed(x, y) && item.use(x, y)) {
 						int count = holder.getCount();
 
@@ -213,7 +167,6 @@ public class UiInventory extends UiComponent implements UiScreen, UiToggleScreen
 	@Override
 	public void render() {
 		super.render();
-		this.updateItems();
 
 		ItemHolder holder = this.slots[this.activeSlot].getItemHolder();
 
@@ -267,6 +220,30 @@ public class UiInventory extends UiComponent implements UiScreen, UiToggleScreen
 		}
 	}
 
+	/**
+	 * Moves the active slot along the hotbar
+	 *
+	 * @param amount Scroll wheel amount
+	 */
+	private void scroll(int amount) {
+		ItemHolder holder = getActiveItem();
+
+		if (holder != null && holder.getItem() != null && !holder.getItem().isReady()) {
+			return;
+		}
+
+		slots[activeSlot].setActive(false);
+		activeSlot += (amount > 0) ? 1 : -1;
+
+		if (activeSlot > 9) {
+			activeSlot = 0;
+		} else if (activeSlot < 0) {
+			activeSlot = 9;
+		}
+
+		slots[activeSlot].setActive(true);
+	}
+
 	private void setHotbarSlot(int slot) throws IllegalArgumentException {
 		if (slot > 10) {
 			throw new IllegalArgumentException("Slot is out of range");
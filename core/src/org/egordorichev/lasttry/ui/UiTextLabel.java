@@ -1,10 +1,9 @@
 package org.egordorichev.lasttry.ui;
 
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.math.Rectangle;
 import org.egordorichev.lasttry.graphics.Assets;
-import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.graphics.TextCache;
 
 public class UiTextLabel extends UiComponent {
 	public enum FontStyles {
@@ -37,6 +36,11 @@ public class UiTextLabel extends UiComponent {
 	 */
 	private FontStyles fontStyle;
 
+	/**
+	 * Layout of the label
+	 */
+	private TextCache layout;
+
 	public UiTextLabel(Rectangle rectangle, UiComponent.Origin origin, String label) {
 		super(rectangle, origin);
 
@@ -62,8 +66,7 @@ public class UiTextLabel extends UiComponent {
 
 		super.render();
 
-		this.font.draw(Graphics.batch, this.label, this.getX(),
-			this.getY() + (this.getHeight() - this.font.getLineHeight()) / 2);
+		this.layout.draw(this.getX(), this.getY() + (this.getHeight() - this.font.getLineHeight()) / 2);
 	}
 
 	/**
@@ -71,6 +74,7 @@ public class UiTextLabel extends UiComponent {
 	 */
 	public void setFont(BitmapFont font) {
 		this.font = font;
+		this.layout = new TextCache(font);
 		this.setLabel(this.label);
 	}
 
@@ -79,11 +83,9 @@ public class UiTextLabel extends UiComponent {
 	 */
 	public void setLabel(String label) {
 		this.label = label;
+		this.layout.set(label);
 
-		GlyphLayout glyphLayout = new GlyphLayout();
-		glyphLayout.setText(this.font, this.label);
-
-		this.labelWidth = (int) glyphLayout.width;
+		this.labelWidth = (int) this.layout.getWidth();
 		this.rect.width = this.labelWidth;
 		this.rect.height = this.font.getLineHeight() * 1.f;
 	}
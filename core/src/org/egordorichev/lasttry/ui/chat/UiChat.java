@@ -13,6 +13,7 @@ import org.egordorichev.lasttry.graphics.Assets;
 import org.egordorichev.lasttry.graphics.Graphics;
 import org.egordorichev.lasttry.injection.CoreRegistry;
 import org.egordorichev.lasttry.injection.InjectionHelper;
+import org.egordorichev.lasttry.input.InputManager;
 import org.egordorichev.lasttry.inventory.ItemHolder;
 import org.egordorichev.lasttry.item.Item;
 import org.egordorichev.lasttry.item.ItemManager;
@@ -25,7 +26,17 @@ import org.egordorichev.lasttry.ui.chat.command.CMDCategory;
 import org.egordorichev.lasttry.ui.chat.command.Command;
 import org.egordorichev.lasttry.ui.chat.command.CommandHandler;
 import org.egordorichev.lasttry.util.Util;
-
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.util.metrics.MetricsDump;
+import org.egordorichev.lasttry.world.chunk.ChunkLevel;
+import org.egordorichev.lasttry.world.chunk.ChunkTicket;
+import org.egordorichev.lasttry.world.chunk.gc.ChunkGcManager;
+import org.egordorichev.lasttry.world.chunk.gc.ChunkMemory;
+import org.egordorichev.lasttry.world.chunk.gc.EvictionPolicy;
+import org.egordorichev.lasttry.world.components.WorldTicketsComponent;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -123,7 +134,7 @@ public class UiChat extends UiPanel implements UiScreen, UiToggleScreen {
 			@Override
 			public void onRun(String[] args) {
 				if (args.length == 0) {
-					print("/chunks [gc / list]");
+					print("/chunks [gc / list / policy / tickets]");
 				} else {
 					switch (args[0]) {
 						case "gc":
@@ -131,12 +142,107 @@ public class UiChat extends UiPanel implements UiScreen, UiToggleScreen {
 							print("Running instant chunk GC...");
 							break;
 						case "list":
-							print(Globals.chunkGcManager.getCurrentlyLoadedChunks() + " chunks is loaded, maximum is: "
-								+ Globals.getWorld().getSize().getMaxChunks());
+							ChunkMemory memory = Globals.chunkGcManager.getMemory();
+
+							print(Globals.chunkGcManager.getCurrentlyLoadedChunks() + " chunks is loaded, taking "
+								+ (memory.getChunkBytes() >> 20) + " of " + (memory.getBudget() >> 20) + " MB on the heap and "
+								+ (memory.getOffHeapChunkBytes() >> 20) + " of " + (memory.getOffHeapBudget() >> 20)
+								+ " MB off the heap, pressure is " + memory.getPressure() + "%, eviction policy is "
+								+ Globals.chunkGcManager.getPolicy().getName());
+							break;
+						case "tickets":
+							WorldTicketsComponent tickets = Globals.getWorld().tickets;
+
+							for (ChunkTicket ticket : tickets.getTickets()) {
+								print(ticket.getType() + " at " + ticket.getX() + ":" + ticket.getY() + ", "
+									+ ticket.getLevel() + " radius " + ticket.getRadius() + " x" + ticket.getCount());
+							}
+
+							print(tickets.count(ChunkLevel.ENTITY_TICKING) + " entity ticking, "
+								+ tickets.count(ChunkLevel.BLOCK_TICKING) + " block ticking, "
+								+ tickets.count(ChunkLevel.BORDER) + " border chunks");
+							break;
+						case "policy":
+							if (args.length < 2) {
+								print("/chunks policy [distance / lru / weighted]");
+								break;
+							}
+
+							EvictionPolicy policy = ChunkGcManager.createPolicy(args[1]);
+
+							if (policy == null) {
+								print("Unknown eviction policy " + args[1]);
+							} else {
+								Globals.chunkGcManager.setPolicy(policy);
+								print("Chunks are now evicted by " + policy.getName());
+							}
+
 							break;
 						default:
-							print("/chunks [gc / list]");
+							print("/chunks [gc / list / policy / tickets]");
+					}
+				}
+			}
+		});
+
+		this.commands.register(new Command("metrics", "Saves a snapshot of all metrics", CMDCategory.DEBUG) {
+			@Override
+			public void onRun(String[] args) {
+				String format = args.length == 0 ? "json" : args[0];
+
+				if (!format.equals("json") && !format.equals("csv")) {
+					print("/metrics (json / csv)");
+					return;
+				}
+
+				try {
+					File file = MetricsDump.save(MetricsDump.Format.valueOf(format.toUpperCase()));
+					print("Saved metrics to " + file.getPath());
+				} catch (IOException exception) {
+					print("Could not save metrics");
+					LastTry.handleException(exception);
+				}
+			}
+		});
+
+		this.commands.register(new Command("jfr", "Starts or stops a flight recording", CMDCategory.DEBUG) {
+			@Override
+			public void onRun(String[] args) {
+				if (args.length != 1 || (!args[0].equals("start") && !args[0].equals("stop"))) {
+					print("/jfr [start / stop]");
+					return;
+				}
+
+				try {
+					if (args[0].equals("start")) {
+						Flight.start();
+						print("Started flight recording");
+					} else {
+						print("Saved flight recording to " + Flight.stop().getPath());
+					}
+				} catch (IOException exception) {
+					print(exception.getMessage());
+				}
+			}
+		});
+
+		// Recordings only start with -record, a running game has creatures and chunk edits, a replay can't restore
+		this.commands.register(new Command("record", "Stops the input recording, started with -record", CMDCategory.DEBUG) {
+			@Override
+			public void onRun(String[] args) {
+				if (args.length != 1 || !args[0].equals("stop")) {
+					print("/record stop");
+					return;
+				}
+
+				try {
+					if (InputManager.isRecording()) {
+						print("Recorded " + InputManager.stopRecording() + " ticks");
+					} else {
+						print("Not recording");
 					}
+				} catch (IOException exception) {
+					print(exception.getMessage());
 				}
 			}
 		});
@@ -1,17 +1,56 @@
 package org.egordorichev.lasttry.util;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.graphics.Assets;
+import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.graphics.TextCache;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.util.metrics.Timer;
 import org.egordorichev.lasttry.world.chunk.Chunk;
 
 import java.util.*;
 
 public class Debug {
+	/**
+	 * Graph height for a 60 fps frame
+	 */
+	private static final int GRAPH_HEIGHT = 100;
+	private static final long FRAME_BUDGET = 1000000000L / 60;
+	/**
+	 * Timers, stacked in the frame graph, from the bottom up
+	 */
+	private static final Timer[] graphTimers = {
+		Metrics.timer("environment.update"),
+		Metrics.timer("entities.update"),
+		Metrics.timer("light.update"),
+		Metrics.timer("liquids.update"),
+		Metrics.timer("chunks.render"),
+		Metrics.timer("entities.render"),
+		Metrics.timer("liquids.render")
+	};
+	private static final Color[] graphColors = {
+		Color.SKY, Color.ORANGE, Color.YELLOW, Color.TEAL, Color.LIME, Color.SALMON, Color.CYAN
+	};
+
 	private boolean enabled;
 	private int uniqueCounter;
 	private Map<Integer, GenericContainer.UniqueTypePair<String, Integer>> messagesToBePrinted = new LinkedHashMap<>();
+	/**
+	 * Debug lines, reused every frame
+	 */
+	private TextCache fps;
+	private TextCache position;
+	private TextCache chunk;
+	private TextCache enemies;
+	private TextCache biome;
+	private TextCache time;
+	/**
+	 * Graph legend, one line per timer and one for the rest of the frame
+	 */
+	private TextCache[] legend;
 
 	public Debug() {
 		this.enabled = !LastTry.release;
@@ -22,13 +61,38 @@ public class Debug {
 			return;
 		}
 
-		Util.drawWithShadow(Assets.f18, Gdx.graphics.getFramesPerSecond() + " FPS", 15, 90);
-		Util.drawWithShadow(Assets.f18, "X: " + Globals.getPlayer().physics.getGridX() + " Y: " + Globals.getPlayer().physics.getGridY(), 15, 120);
-		Util.drawWithShadow(Assets.f18, "Chunk: " + (Globals.getPlayer().physics.getGridX() / Chunk.SIZE)
-			+ ":" + (Globals.getPlayer().physics.getGridY() / Chunk.SIZE), 15, 140);
-		Util.drawWithShadow(Assets.f18, "Total amount of enemies: " + Globals.entityManager.getCreatureEntities().size(), 15, 160);
-		Util.drawWithShadow(Assets.f18, "Current Biome: " + Globals.environment.currentBiome.getID(), 15, 180);
-		Util.drawWithShadow(Assets.f18, "Current world time: " + Globals.environment.time.toString(true), 15, 200);
+		if (this.fps == null) {
+			this.fps = new TextCache(Assets.f18);
+			this.position = new TextCache(Assets.f18);
+			this.chunk = new TextCache(Assets.f18);
+			this.enemies = new TextCache(Assets.f18);
+			this.biome = new TextCache(Assets.f18);
+			this.time = new TextCache(Assets.f18);
+			this.legend = new TextCache[graphTimers.length + 1];
+
+			for (int i = 0; i < this.legend.length; i++) {
+				this.legend[i] = new TextCache(Assets.f18);
+			}
+		}
+
+		int x = Globals.getPlayer().physics.getGridX();
+		int y = Globals.getPlayer().physics.getGridY();
+
+		this.fps.begin().append(Gdx.graphics.getFramesPerSecond()).append(" FPS");
+		this.position.begin().append("X: ").append(x).append(" Y: ").append(y);
+		this.chunk.begin().append("Chunk: ").append(x / Chunk.SIZE).append(':').append(y / Chunk.SIZE).append(' ')
+			.append(Globals.getWorld().tickets.getLevel(x / Chunk.SIZE, y / Chunk.SIZE).name());
+		this.enemies.begin().append("Total amount of enemies: ").append(Globals.entityManager.getCreatureEntities().size());
+		this.biome.begin().append("Current Biome: ").append(Globals.environment.currentBiome.getID());
+		Globals.environment.time.appendTo(this.time.begin().append("Current world time: "), true);
+
+		this.fps.drawWithShadow(15, 90);
+		this.position.drawWithShadow(15, 120);
+		this.chunk.drawWithShadow(15, 140);
+		this.enemies.drawWithShadow(15, 160);
+		this.biome.drawWithShadow(15, 180);
+		this.time.drawWithShadow(15, 200);
+		this.renderGraph();
 
 		if (messagesToBePrinted.keySet().size() == 0) {
 			return;
@@ -59,6 +123,67 @@ public class Debug {
 		currentMessagePair.setValue2(gameTicksCounter);
 	}
 
+	/**
+	 * Draws frame times of the last frames, split by subsystem, with the
+	 * median and 95th percentile of each subsystem above
+	 */
+	private void renderGraph() {
+		int right = Gdx.graphics.getWidth() - 15;
+		int bottom = 15;
+
+		for (int i = 0; i < Timer.HISTORY; i++) {
+			long total = Metrics.frame.getFrameTime(i);
+			float y = bottom;
+
+			for (int j = 0; j < graphTimers.length; j++) {
+				long time = graphTimers[j].getFrameTime(i);
+				float height = (float) time * GRAPH_HEIGHT / FRAME_BUDGET;
+
+				Graphics.batch.setColor(graphColors[j]);
+				Graphics.batch.draw(Graphics.pixel, right - i, y, 1, height);
+				y += height;
+				total -= time;
+			}
+
+			// Everything else, that happened in the frame
+			Graphics.batch.setColor(0.5f, 0.5f, 0.5f, 1f);
+			Graphics.batch.draw(Graphics.pixel, right - i, y, 1, Math.max(0, (float) total * GRAPH_HEIGHT / FRAME_BUDGET));
+		}
+
+		Graphics.batch.setColor(1f, 1f, 1f, 0.5f);
+		Graphics.batch.draw(Graphics.pixel, right - Timer.HISTORY, bottom + GRAPH_HEIGHT, Timer.HISTORY, 1);
+		Graphics.batch.setColor(1f, 1f, 1f, 1f);
+
+		int y = bottom + GRAPH_HEIGHT + 20;
+
+		for (int j = 0; j <= graphTimers.length; j++) {
+			Timer timer = j < graphTimers.length ? graphTimers[j] : Metrics.frame;
+			StringBuilder line = this.legend[j].begin().append(timer.getName()).append(' ');
+
+			appendMillis(line, timer.getPercentile(50)).append(" / ");
+			appendMillis(line, timer.getPercentile(95)).append(" ms");
+
+			if (j < graphTimers.length) {
+				Color color = graphColors[j];
+				this.legend[j].drawWithShadow(right - Timer.HISTORY, y, color.r, color.g, color.b);
+			} else {
+				this.legend[j].drawWithShadow(right - Timer.HISTORY, y, 0.5f, 0.5f, 0.5f);
+			}
+
+			y += 20;
+		}
+	}
+
+	/**
+	 * Appends nanoseconds as milliseconds with two decimals, without garbage
+	 */
+	private static StringBuilder appendMillis(StringBuilder builder, long nanos) {
+		long hundredths = nanos / 10000;
+		long fraction = hundredths % 100;
+
+		return builder.append(hundredths / 100).append('.').append(fraction < 10 ? "0" : "").append(fraction);
+	}
+
 	public void enable() {
 		if (LastTry.release) {
 			return;
@@ -83,6 +83,24 @@ public class Files {
 		return getDataDir() + "mods" + FS;
 	}
 
+	/**
+	 * Gets the metrics directory.
+	 * 
+	 * @return
+	 */
+	public static String getMetricsDir() {
+		return getDataDir() + "metrics" + FS;
+	}
+
+	/**
+	 * Gets the flight recordings directory.
+	 * 
+	 * @return
+	 */
+	public static String getRecordingsDir() {
+		return getDataDir() + "recordings" + FS;
+	}
+
 	/**
 	 * Gets the data directory.
 	 * 
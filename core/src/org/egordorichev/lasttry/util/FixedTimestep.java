@@ -0,0 +1,92 @@
+package org.egordorichev.lasttry.util;
+
+/**
+ * Turns frame times into whole simulation ticks of a fixed length, so the game
+ * runs at the same speed and does the same amount of work on any refresh rate.
+ * Time, left over after the last tick, is kept for the next frame and given as
+ * {@link #getAlpha()}, so entities can be drawn between their last two
+ * positions.
+ */
+public class FixedTimestep {
+	/**
+	 * Ticks per second, if nothing else is set
+	 */
+	public static final int DEFAULT_TICK_RATE = 60;
+	/**
+	 * Most ticks, run in a single frame, if nothing else is set
+	 */
+	public static final int DEFAULT_MAX_TICKS = 5;
+	/**
+	 * Tick length in seconds
+	 */
+	private final float step;
+	/**
+	 * Most ticks, run in a single frame. After a long frame the game slows
+	 * down instead of running more and more ticks to catch up.
+	 */
+	private final int maxTicks;
+	/**
+	 * Time, passed to updates every tick
+	 */
+	private final int dt;
+	/**
+	 * Time in seconds, that wasn't simulated yet
+	 */
+	private float accumulator;
+	/**
+	 * Ticks, skipped because of the cap
+	 */
+	private long skipped;
+
+	/**
+	 * @param tickRate Ticks per second
+	 * @param maxTicks Most ticks per frame
+	 */
+	public FixedTimestep(int tickRate, int maxTicks) {
+		this.step = 1f / tickRate;
+		this.maxTicks = maxTicks;
+		// Same units as the old per frame (int) (delta * 100)
+		this.dt = Math.max(1, 100 / tickRate);
+	}
+
+	/**
+	 * Adds frame time
+	 *
+	 * @param delta Frame time in seconds
+	 * @return Ticks to run this frame
+	 */
+	public int advance(float delta) {
+		this.accumulator += delta;
+
+		int ticks = (int) (this.accumulator / this.step);
+		this.accumulator -= ticks * this.step;
+
+		if (ticks > this.maxTicks) {
+			this.skipped += ticks - this.maxTicks;
+			ticks = this.maxTicks;
+		}
+
+		return ticks;
+	}
+
+	/**
+	 * @return Part of a tick, that passed after the last one, from 0 to 1
+	 */
+	public float getAlpha() {
+		return Math.min(1f, this.accumulator / this.step);
+	}
+
+	/**
+	 * @return Time, passed to updates every tick
+	 */
+	public int getDt() {
+		return this.dt;
+	}
+
+	/**
+	 * @return Ticks, that were skipped, because frames took too long
+	 */
+	public long getSkipped() {
+		return this.skipped;
+	}
+}
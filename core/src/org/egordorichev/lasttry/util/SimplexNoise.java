@@ -26,9 +26,27 @@ public class SimplexNoise {
 	// length
 	private static int perm[] = new int[512];
 
+	// Gradient index of every permutation entry, saves the modulo in the
+	// inner loop
+	private static int permMod12[] = new int[512];
+	// Gradient components, split for the 2D case
+	private static double gradX[] = new double[12];
+	private static double gradY[] = new double[12];
+
+	// Skewing and unskewing factors for 2D
+	private static final double F2 = 0.5 * (Math.sqrt(3.0) - 1.0);
+	private static final double G2 = (3.0 - Math.sqrt(3.0)) / 6.0;
+
 	static {
-		for (int i = 0; i < 512; i++)
+		for (int i = 0; i < 512; i++) {
 			perm[i] = p[i & 255];
+			permMod12[i] = perm[i] % 12;
+		}
+
+		for (int i = 0; i < 12; i++) {
+			gradX[i] = grad3[i][0];
+			gradY[i] = grad3[i][1];
+		}
 	}
 
 	// This method is a *lot* faster than using (int)Math.floor(x)
@@ -36,10 +54,6 @@ public class SimplexNoise {
 		return x > 0 ? (int) x : (int) x - 1;
 	}
 
-	private static double dot(int g[], double x, double y) {
-		return g[0] * x + g[1] * y;
-	}
-
 	/**
 	 * 2D Simplex noise with parameters for iterations <i>(Octaves)</i>, noise
 	 * roughness, and coordinate scaling.
@@ -70,6 +84,138 @@ public class SimplexNoise {
 		return noiseSum / weightSum;
 	}
 
+	/**
+	 * Fills a row with octaved noise. Gives the same values as calling
+	 * {@link #octavedNoise(float, float, int, float, float)} for every point,
+	 * but octave frequencies and weights are only computed once.
+	 *
+	 * @param out       Output array
+	 * @param offset    First index to write to
+	 * @param x         X of the first point
+	 * @param y         Y of the row
+	 * @param dx        X step between points
+	 * @param count     Number of points
+	 * @param octaves
+	 * @param roughness
+	 * @param scale
+	 */
+	public static void octavedNoiseRow(float[] out, int offset, float x, float y, float dx, int count, int octaves,
+			float roughness, float scale) {
+		float[] frequencies = new float[octaves];
+		float[] weights = new float[octaves];
+		float weightSum = prepareOctaves(frequencies, weights, roughness, scale);
+
+		fillRow(out, offset, x, y, dx, count, frequencies, weights, weightSum);
+	}
+
+	/**
+	 * Fills a 2D block with octaved noise, row by row. Point (i, j) is stored
+	 * at out[i + j * width] and sampled at (x + i * dx, y + j * dy).
+	 *
+	 * @param out       Output array, at least width * height long
+	 * @param x         X of the first point
+	 * @param y         Y of the first point
+	 * @param dx        X step between points
+	 * @param dy        Y step between rows
+	 * @param width     Points per row
+	 * @param height    Number of rows
+	 * @param octaves
+	 * @param roughness
+	 * @param scale
+	 */
+	public static void octavedNoiseBlock(float[] out, float x, float y, float dx, float dy, int width, int height,
+			int octaves, float roughness, float scale) {
+		float[] frequencies = new float[octaves];
+		float[] weights = new float[octaves];
+		float weightSum = prepareOctaves(frequencies, weights, roughness, scale);
+
+		for (int j = 0; j < height; j++) {
+			fillRow(out, j * width, x, y + j * dy, dx, width, frequencies, weights, weightSum);
+		}
+	}
+
+	/**
+	 * Same as {@link #octavedNoiseBlock(float[], float, float, float, float, int, int, int, float, float)},
+	 * but only samples every step-th point and interpolates the rest. Good
+	 * enough for low frequency noise, like biome temperature.
+	 *
+	 * @param out       Output array, at least width * height long
+	 * @param x         X of the first point
+	 * @param y         Y of the first point
+	 * @param dx        X step between points
+	 * @param dy        Y step between rows
+	 * @param width     Points per row
+	 * @param height    Number of rows
+	 * @param step      Distance between real samples, in points
+	 * @param octaves
+	 * @param roughness
+	 * @param scale
+	 */
+	public static void octavedNoiseCoarse(float[] out, float x, float y, float dx, float dy, int width, int height,
+			int step, int octaves, float roughness, float scale) {
+		int coarseWidth = (width - 1) / step + 2;
+		int coarseHeight = (height - 1) / step + 2;
+		float[] coarse = new float[coarseWidth * coarseHeight];
+
+		octavedNoiseBlock(coarse, x, y, dx * step, dy * step, coarseWidth, coarseHeight, octaves, roughness, scale);
+
+		float inverseStep = 1f / step;
+
+		for (int j = 0; j < height; j++) {
+			int row = (j / step) * coarseWidth;
+			float fy = (j % step) * inverseStep;
+
+			for (int i = 0; i < width; i++) {
+				int index = row + i / step;
+				float fx = (i % step) * inverseStep;
+
+				float top = coarse[index] + (coarse[index + 1] - coarse[index]) * fx;
+				float bottom = coarse[index + coarseWidth]
+						+ (coarse[index + coarseWidth + 1] - coarse[index + coarseWidth]) * fx;
+
+				out[i + j * width] = top + (bottom - top) * fy;
+			}
+		}
+	}
+
+	/**
+	 * Computes frequency and weight of every octave, the same way
+	 * {@link #octavedNoise(float, float, int, float, float)} does
+	 *
+	 * @return Sum of the weights
+	 */
+	private static float prepareOctaves(float[] frequencies, float[] weights, float roughness, float scale) {
+		float layerFrequency = scale;
+		float layerWeight = 1;
+		float weightSum = 0;
+
+		for (int octave = 0; octave < frequencies.length; octave++) {
+			frequencies[octave] = layerFrequency;
+			weights[octave] = layerWeight;
+			layerFrequency *= 2;
+			weightSum += layerWeight;
+			layerWeight *= roughness;
+		}
+
+		return weightSum;
+	}
+
+	private static void fillRow(float[] out, int offset, float x, float y, float dx, int count, float[] frequencies,
+			float[] weights, float weightSum) {
+		int octaves = frequencies.length;
+
+		for (int i = 0; i < count; i++) {
+			float pointX = x + i * dx;
+			float noiseSum = 0;
+
+			for (int octave = 0; octave < octaves; octave++) {
+				noiseSum += noise(pointX * frequencies[octave], y * frequencies[octave]) * weights[octave];
+			}
+
+			out[offset + i] = noiseSum / weightSum;
+		}
+	}
+
 	/**
 	 * 2D Simplex noise
 	 *
@@ -80,11 +226,9 @@ public class SimplexNoise {
 	public static double noise(double xin, double yin) {
 		double n0, n1, n2; // Noise contributions from the three corners
 		// Skew the input space to determine which simplex cell we're in
-		final double F2 = 0.5 * (Math.sqrt(3.0) - 1.0);
 		double s = (xin + yin) * F2; // Hairy factor for 2D
 		int i = fastfloor(xin + s);
 		int j = fastfloor(yin + s);
-		final double G2 = (3.0 - Math.sqrt(3.0)) / 6.0;
 		double t = (i + j) * G2;
 		double X0 = i - t; // Unskew the cell origin back to (x,y) space
 		double Y0 = j - t;
@@ -92,19 +236,14 @@ public class SimplexNoise {
 		double y0 = yin - Y0;
 		// For the 2D case, the simplex shape is an equilateral triangle.
 		// Determine which simplex we are in.
-		int i1, j1; // Offsets for second (middle) corner of simplex in (i,j)
-					// coords
-		if (x0 > y0) {
-			i1 = 1;
-			j1 = 0;
-		} // lower triangle, XY order: (0,0)->(1,0)->(1,1)
-		else {
-			i1 = 0;
-			j1 = 1;
-		} // upper triangle, YX order: (0,0)->(0,1)->(1,1)
-		  // A step of (1,0) in (i,j) means a step of (1-c,-c) in (x,y), and
-		  // a step of (0,1) in (i,j) means a step of (-c,1-c) in (x,y), where
-		  // c = (3-sqrt(3))/6
+		// Offsets for second (middle) corner of simplex in (i,j) coords:
+		// lower triangle, XY order: (0,0)->(1,0)->(1,1)
+		// upper triangle, YX order: (0,0)->(0,1)->(1,1)
+		int i1 = x0 > y0 ? 1 : 0;
+		int j1 = 1 - i1;
+		// A step of (1,0) in (i,j) means a step of (1-c,-c) in (x,y), and
+		// a step of (0,1) in (i,j) means a step of (-c,1-c) in (x,y), where
+		// c = (3-sqrt(3))/6
 		double x1 = x0 - i1 + G2; // Offsets for middle corner in (x,y) unskewed
 								  // coords
 		double y1 = y0 - j1 + G2;
@@ -114,29 +253,19 @@ public class SimplexNoise {
 		// Work out the hashed gradient indices of the three simplex corners
 		int ii = i & 255;
 		int jj = j & 255;
-		int gi0 = perm[ii + perm[jj]] % 12;
-		int gi1 = perm[ii + i1 + perm[jj + j1]] % 12;
-		int gi2 = perm[ii + 1 + perm[jj + 1]] % 12;
+		int gi0 = permMod12[ii + perm[jj]];
+		int gi1 = permMod12[ii + i1 + perm[jj + j1]];
+		int gi2 = permMod12[ii + 1 + perm[jj + 1]];
 		// Calculate the contribution from the three corners
 		double t0 = 0.5 - x0 * x0 - y0 * y0;
-		if (t0 < 0) n0 = 0.0;
-		else {
-			t0 *= t0;
-			n0 = t0 * t0 * dot(grad3[gi0], x0, y0); // (x,y) of grad3 used for
-													// 2D gradient
-		}
+		t0 = t0 < 0 ? 0 : t0 * t0;
+		n0 = t0 * t0 * (gradX[gi0] * x0 + gradY[gi0] * y0);
 		double t1 = 0.5 - x1 * x1 - y1 * y1;
-		if (t1 < 0) n1 = 0.0;
-		else {
-			t1 *= t1;
-			n1 = t1 * t1 * dot(grad3[gi1], x1, y1);
-		}
+		t1 = t1 < 0 ? 0 : t1 * t1;
+		n1 = t1 * t1 * (gradX[gi1] * x1 + gradY[gi1] * y1);
 		double t2 = 0.5 - x2 * x2 - y2 * y2;
-		if (t2 < 0) n2 = 0.0;
-		else {
-			t2 *= t2;
-			n2 = t2 * t2 * dot(grad3[gi2], x2, y2);
-		}
+		t2 = t2 < 0 ? 0 : t2 * t2;
+		n2 = t2 * t2 * (gradX[gi2] * x2 + gradY[gi2] * y2);
 		// Add contributions from each corner to get the final noise value.
 		// The result is scaled to return values in the interval [-1,1].
 		return 70.0 * (n0 + n1 + n2);
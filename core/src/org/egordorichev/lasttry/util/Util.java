@@ -1,8 +1,9 @@
 package org.egordorichev.lasttry.util;
 
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.ObjectMap;
 import org.egordorichev.lasttry.LastTry;
-import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.graphics.TextCache;
 
 import java.awt.Rectangle;
 import java.io.File;
@@ -10,6 +11,28 @@ import java.util.Locale;
 import java.util.concurrent.*;
 
 public class Util {
+	/**
+	 * Texts per font, that can be drawn by {@link #drawWithShadow(BitmapFont, String, float, float)}
+	 * before the layouts are dropped
+	 */
+	public static final int MAX_CACHED_TEXTS = 256;
+	/**
+	 * Layouts of texts, drawn with shadows, by font and content
+	 */
+	private static final ObjectMap<BitmapFont, ObjectMap<String, TextCache>> texts = new ObjectMap<>();
+	/**
+	 * Creates threads for repeating tasks. They are daemons, so they don't keep
+	 * the process alive without a window (benchmarks and headless runs)
+	 */
+	private static final ThreadFactory daemonFactory = new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
 	public static float map(float value, float inMin, float inMax, float outMin, float outMax) {
 		return (value - inMin) * (outMax - outMin) / (inMax - inMin) + outMin;
 	}
@@ -28,7 +51,7 @@ public class Util {
 	 *            delay in seconds, before next run
 	 */
 	public static void runDelayedThreadSeconds(Callable callable, int time) {
-		ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+		ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(daemonFactory);
 		scheduledExecutor.scheduleAtFixedRate(new Caller(callable), 0, time, TimeUnit.SECONDS);
 	}
 
@@ -42,7 +65,7 @@ public class Util {
 	 *            delay in milliseconds, before next run
 	 */
 	public static void runDelayedThreadMillis(Callable callable, int time) {
-		ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+		ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(daemonFactory);
 		scheduledExecutor.scheduleAtFixedRate(new Caller(callable), 0, time, TimeUnit.MILLISECONDS);
 	}
 
@@ -51,11 +74,12 @@ public class Util {
 		executorService.submit(new Caller(callable));
 	}
 
-	public static void futureOneTimeRunInThread(Callable callable, long delay, TimeUnit timeUnit) {
-		ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1);
-		// ScheduledFuture<?> scheduledFuture =
-		scheduledExecutorService.schedule(new Caller(callable), delay, timeUnit);
-		// TODO: execute scheduledFuture
+	/**
+	 * @return Executor with a single daemon thread, for tasks, that are
+	 *         scheduled over and over
+	 */
+	public static ScheduledExecutorService createDaemonScheduler() {
+		return Executors.newSingleThreadScheduledExecutor(daemonFactory);
 	}
 
 	public static boolean fileExists(String path) {
@@ -96,16 +120,26 @@ public class Util {
 	}
 
 	public static void drawWithShadow(BitmapFont font, String text, float x, float y, float r, float g, float b) {
-		font.setColor(0f, 0f, 0f, 1);
+		ObjectMap<String, TextCache> cached = texts.get(font);
 
-		for (int j = -1; j < 2; j++) {
-			for (int i = -1; i < 2; i++) {
-				font.draw(Graphics.batch, text, x + i, y + j);
+		if (cached == null) {
+			cached = new ObjectMap<>();
+			texts.put(font, cached);
+		}
+
+		TextCache cache = cached.get(text);
+
+		if (cache == null) {
+			if (cached.size >= MAX_CACHED_TEXTS) {
+				cached.clear();
 			}
+
+			cache = new TextCache(font).set(text);
+			cached.put(text, cache);
 		}
 
+		cache.drawWithShadow(x, y, r, g, b);
 		font.setColor(r, g, b, 1);
-		font.draw(Graphics.batch, text, x, y);
 	}
 
 	public static void drawWithShadow(BitmapFont font, String text, float x, float y) {
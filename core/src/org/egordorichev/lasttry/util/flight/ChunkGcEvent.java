@@ -0,0 +1,22 @@
+package org.egordorichev.lasttry.util.flight;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("lasttry.ChunkGc")
+@Label("Chunk GC")
+@Category({"LastTry", "Chunks"})
+@Description("Pass, that frees chunks, that weren't used for a while")
+public class ChunkGcEvent extends jdk.jfr.Event {
+	@Label("Level")
+	public String level;
+	@Label("Memory Pressure")
+	@Description("Percent of the chunk heap budget or of the old generation, whichever is more")
+	public int pressure;
+	@Label("Loaded Chunks")
+	public int loaded;
+	@Label("Freed Chunks")
+	public int freed;
+}
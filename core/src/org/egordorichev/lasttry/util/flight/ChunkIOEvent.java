@@ -0,0 +1,23 @@
+package org.egordorichev.lasttry.util.flight;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("lasttry.ChunkIO")
+@Label("Chunk IO")
+@Category({"LastTry", "Chunks"})
+@Description("Chunk read from disk, written to disk or generated")
+public class ChunkIOEvent extends jdk.jfr.Event {
+	@Label("Operation")
+	public String operation;
+	@Label("Chunk X")
+	public int x;
+	@Label("Chunk Y")
+	public int y;
+	@Label("Size")
+	@DataAmount
+	public long bytes;
+}
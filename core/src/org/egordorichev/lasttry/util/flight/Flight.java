@@ -0,0 +1,203 @@
+package org.egordorichev.lasttry.util.flight;
+
+import org.egordorichev.lasttry.util.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Java Flight Recorder support. Engine operations are emitted as custom
+ * events (category "LastTry"), so a recording, opened in Mission Control,
+ * shows which of them ran during a slow frame.
+ *
+ * The game targets Java 8, where the jdk.jfr API only exists in newer
+ * builds (8u272 and later, or Java 11+). Event classes are only touched,
+ * when the API is there: the factories below return null otherwise, and
+ * callers fill and commit the event only if they got one. They also return
+ * null, while no recording is running (ours or one, started with jcmd or
+ * -XX:StartFlightRecording), so there is no garbage most of the time.
+ */
+public class Flight {
+	private static final Logger logger = LoggerFactory.getLogger(Flight.class);
+	/**
+	 * The running JVM has the jdk.jfr API
+	 */
+	private static final boolean available = detect();
+	/**
+	 * Some recording is running
+	 */
+	private static volatile boolean active;
+	/**
+	 * Recording, started with {@link #start()}
+	 */
+	private static FlightRecording recording;
+
+	static {
+		if (available) {
+			FlightRecording.listen();
+		}
+	}
+
+	/**
+	 * @return The running JVM can record events
+	 */
+	public static boolean isAvailable() {
+		return available;
+	}
+
+	/**
+	 * @return A recording, started by the game, is running
+	 */
+	public static synchronized boolean isRecording() {
+		return recording != null;
+	}
+
+	/**
+	 * Starts a recording with the profiling settings and all game events
+	 *
+	 * @throws IOException If there is no JFR or the recording can't be started
+	 */
+	public static synchronized void start() throws IOException {
+		if (!available) {
+			throw new IOException("Flight recorder is not supported by this JVM");
+		}
+
+		if (recording != null) {
+			throw new IOException("Already recording");
+		}
+
+		recording = new FlightRecording();
+		logger.info("Started flight recording");
+	}
+
+	/**
+	 * Stops the recording and writes it to the recordings directory
+	 *
+	 * @return Written file
+	 * @throws IOException If there is no recording or it can't be written
+	 */
+	public static synchronized File stop() throws IOException {
+		if (recording == null) {
+			throw new IOException("Not recording");
+		}
+
+		File dir = new File(Files.getRecordingsDir());
+
+		if (!dir.exists() && !dir.mkdirs()) {
+			throw new IOException("Could not create " + dir);
+		}
+
+		try {
+			File file = recording.stop(dir);
+			logger.info("Saved flight recording to " + file.getPath());
+
+			return file;
+		} finally {
+			recording = null;
+		}
+	}
+
+	/**
+	 * @param operation "load", "save" or "generate"
+	 * @return Started event or null
+	 */
+	public static ChunkIOEvent chunkIO(String operation) {
+		if (!active) {
+			return null;
+		}
+
+		ChunkIOEvent event = new ChunkIOEvent();
+		event.operation = operation;
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return Started event or null
+	 */
+	public static ChunkGcEvent chunkGc() {
+		if (!active) {
+			return null;
+		}
+
+		ChunkGcEvent event = new ChunkGcEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return Started event or null
+	 */
+	public static LightUpdateEvent lightUpdate() {
+		if (!active) {
+			return null;
+		}
+
+		LightUpdateEvent event = new LightUpdateEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return Started event or null
+	 */
+	public static SpawnAttemptEvent spawnAttempt() {
+		if (!active) {
+			return null;
+		}
+
+		SpawnAttemptEvent event = new SpawnAttemptEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return Started event or null
+	 */
+	public static WorldSaveEvent worldSave() {
+		if (!active) {
+			return null;
+		}
+
+		WorldSaveEvent event = new WorldSaveEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return Started event or null
+	 */
+	public static LiquidTickEvent liquidTick() {
+		if (!active) {
+			return null;
+		}
+
+		LiquidTickEvent event = new LiquidTickEvent();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * Called by the recorder, when a recording starts or stops
+	 */
+	static void setActive(boolean value) {
+		active = value;
+	}
+
+	private static boolean detect() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return true;
+		} catch (ClassNotFoundException | LinkageError exception) {
+			return false;
+		}
+	}
+}
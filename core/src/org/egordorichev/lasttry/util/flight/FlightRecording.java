@@ -0,0 +1,80 @@
+package org.egordorichev.lasttry.util.flight;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * A running recording, only loaded when the JVM has JFR
+ */
+class FlightRecording {
+	private final Recording recording;
+
+	FlightRecording() throws IOException {
+		try {
+			this.recording = new Recording(Configuration.getConfiguration("profile"));
+		} catch (ParseException exception) {
+			throw new IOException(exception);
+		}
+
+		this.recording.setName("LastTry");
+		this.recording.setToDisk(true);
+		this.recording.start();
+	}
+
+	/**
+	 * Keeps {@link Flight} informed, whether any recording is running,
+	 * including the ones started before, e.g. with -XX:StartFlightRecording
+	 */
+	static void listen() {
+		FlightRecorder.addListener(new FlightRecorderListener() {
+			@Override
+			public void recordingStateChanged(Recording changed) {
+				updateActive();
+			}
+		});
+
+		updateActive();
+	}
+
+	private static void updateActive() {
+		boolean running = false;
+
+		for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+			if (recording.getState() == RecordingState.RUNNING) {
+				running = true;
+				break;
+			}
+		}
+
+		Flight.setActive(running);
+	}
+
+	/**
+	 * Stops the recording and dumps it
+	 *
+	 * @param dir Directory to write to
+	 * @return Written file
+	 */
+	File stop(File dir) throws IOException {
+		String time = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+		File file = new File(dir, "lasttry-" + time + ".jfr");
+
+		try {
+			this.recording.stop();
+			this.recording.dump(file.toPath());
+		} finally {
+			this.recording.close();
+		}
+
+		return file;
+	}
+}
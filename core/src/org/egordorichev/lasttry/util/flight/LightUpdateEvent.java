@@ -0,0 +1,22 @@
+package org.egordorichev.lasttry.util.flight;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("lasttry.LightUpdate")
+@Label("Light Update")
+@Category({"LastTry", "Lighting"})
+@Description("Light values recalculated around the player")
+public class LightUpdateEvent extends jdk.jfr.Event {
+	@Label("Center X")
+	public int x;
+	@Label("Center Y")
+	public int y;
+	@Label("Range")
+	@Description("Distance in tiles from the center")
+	public int range;
+	@Label("Tiles")
+	public int tiles;
+}
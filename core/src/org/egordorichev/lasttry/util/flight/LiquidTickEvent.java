@@ -0,0 +1,21 @@
+package org.egordorichev.lasttry.util.flight;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("lasttry.LiquidTick")
+@Label("Liquid Tick")
+@Category({"LastTry", "World"})
+@Description("Liquids on screen flowing and being drawn")
+public class LiquidTickEvent extends jdk.jfr.Event {
+	@Label("Left Tile")
+	public int x;
+	@Label("Bottom Tile")
+	public int y;
+	@Label("Width")
+	public int width;
+	@Label("Height")
+	public int height;
+}
@@ -0,0 +1,27 @@
+package org.egordorichev.lasttry.util.flight;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("lasttry.SpawnAttempt")
+@Label("Spawn Attempt")
+@Category({"LastTry", "Spawning"})
+@Description("Check for a creature to spawn near the player")
+public class SpawnAttemptEvent extends jdk.jfr.Event {
+	@Label("Biome")
+	public String biome;
+	@Label("Creatures In Area")
+	public int creatures;
+	@Label("Spawn Weight")
+	@Description("Spawn weight of the creatures in the area")
+	public int weight;
+	@Label("Creature")
+	@Description("Spawned creature, if any")
+	public String creature;
+	@Label("Tile X")
+	public int x;
+	@Label("Tile Y")
+	public int y;
+}
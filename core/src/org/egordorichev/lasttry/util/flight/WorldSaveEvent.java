@@ -0,0 +1,17 @@
+package org.egordorichev.lasttry.util.flight;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("lasttry.WorldSave")
+@Label("World Save")
+@Category({"LastTry", "World"})
+public class WorldSaveEvent extends jdk.jfr.Event {
+	@Label("World")
+	public String world;
+	@Label("Size")
+	public String size;
+	@Label("Loaded Chunks")
+	public int chunks;
+}
@@ -0,0 +1,41 @@
+package org.egordorichev.lasttry.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number, that only grows, like chunks loaded since the start. Safe to
+ * increase from any thread.
+ */
+public class Counter extends Metric {
+	private final AtomicLong value = new AtomicLong();
+
+	public Counter(String name) {
+		super(name);
+	}
+
+	/**
+	 * Increases the counter by one
+	 */
+	public void increment() {
+		this.value.incrementAndGet();
+	}
+
+	/**
+	 * @param amount Amount to add
+	 */
+	public void add(long amount) {
+		this.value.addAndGet(amount);
+	}
+
+	/**
+	 * @return Current value
+	 */
+	public long get() {
+		return this.value.get();
+	}
+
+	@Override
+	public String getType() {
+		return "counter";
+	}
+}
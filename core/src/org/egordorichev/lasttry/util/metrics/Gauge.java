@@ -0,0 +1,20 @@
+package org.egordorichev.lasttry.util.metrics;
+
+/**
+ * Value, that is read when needed, like the amount of loaded chunks
+ */
+public abstract class Gauge extends Metric {
+	public Gauge(String name) {
+		super(name);
+	}
+
+	/**
+	 * @return Current value
+	 */
+	public abstract double get();
+
+	@Override
+	public String getType() {
+		return "gauge";
+	}
+}
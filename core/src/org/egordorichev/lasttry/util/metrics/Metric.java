@@ -0,0 +1,27 @@
+package org.egordorichev.lasttry.util.metrics;
+
+/**
+ * Named value, kept in {@link Metrics}
+ */
+public abstract class Metric {
+	/**
+	 * Unique name, dot separated, like "entities.update"
+	 */
+	private final String name;
+
+	public Metric(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return Type name, used in dumps
+	 */
+	public abstract String getType();
+
+	/**
+	 * @return Metric name
+	 */
+	public String getName() {
+		return this.name;
+	}
+}
@@ -0,0 +1,101 @@
+package org.egordorichev.lasttry.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of all counters, gauges and timers. Metrics are created once,
+ * usually as static fields, and looked up by name, so calling
+ * {@link #timer(String)} twice with the same name gives the same timer.
+ */
+public class Metrics {
+	/**
+	 * All metrics, sorted by name
+	 */
+	private static final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+	/**
+	 * Timer of the whole game frame
+	 */
+	public static final Timer frame = timer("frame");
+
+	static {
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+		register(new Gauge("heap.used") {
+			@Override
+			public double get() {
+				return memory.getHeapMemoryUsage().getUsed();
+			}
+		});
+	}
+
+	/**
+	 * @param name Counter name
+	 * @return Counter with the given name, created if needed
+	 */
+	public static synchronized Counter counter(String name) {
+		Metric metric = metrics.get(name);
+
+		if (metric == null) {
+			metric = new Counter(name);
+			metrics.put(name, metric);
+		}
+
+		return (Counter) checkType(metric, Counter.class);
+	}
+
+	/**
+	 * @param name Timer name
+	 * @return Timer with the given name, created if needed
+	 */
+	public static synchronized Timer timer(String name) {
+		Metric metric = metrics.get(name);
+
+		if (metric == null) {
+			metric = new Timer(name);
+			metrics.put(name, metric);
+		}
+
+		return (Timer) checkType(metric, Timer.class);
+	}
+
+	/**
+	 * Adds a gauge, replacing the old one with the same name, since gauges
+	 * usually read from objects, that get recreated with the world
+	 *
+	 * @param gauge Gauge to add
+	 */
+	public static void register(Gauge gauge) {
+		metrics.put(gauge.getName(), gauge);
+	}
+
+	/**
+	 * Ends the frame for every timer, called once the frame is drawn
+	 */
+	public static void endFrame() {
+		for (Metric metric : metrics.values()) {
+			if (metric instanceof Timer) {
+				((Timer) metric).endFrame();
+			}
+		}
+	}
+
+	/**
+	 * @return All metrics, sorted by name
+	 */
+	public static Collection<Metric> getAll() {
+		return Collections.unmodifiableCollection(metrics.values());
+	}
+
+	private static Metric checkType(Metric metric, Class<? extends Metric> type) {
+		if (!type.isInstance(metric)) {
+			throw new IllegalArgumentException("Metric " + metric.getName() + " is a " + metric.getType());
+		}
+
+		return metric;
+	}
+}
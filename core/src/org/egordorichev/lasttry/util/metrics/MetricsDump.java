@@ -0,0 +1,118 @@
+package org.egordorichev.lasttry.util.metrics;
+
+import org.egordorichev.lasttry.util.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Writes a snapshot of all metrics as JSON or CSV. Times are in milliseconds.
+ */
+public class MetricsDump {
+	public enum Format {
+		JSON, CSV
+	}
+
+	/**
+	 * @return All metrics as a JSON object, keyed by name
+	 */
+	public static String toJson() {
+		StringBuilder builder = new StringBuilder("{\n");
+		boolean first = true;
+
+		for (Metric metric : Metrics.getAll()) {
+			if (!first) {
+				builder.append(",\n");
+			}
+
+			first = false;
+			builder.append("  \"").append(metric.getName()).append("\": {\"type\": \"").append(metric.getType())
+				.append('"');
+
+			if (metric instanceof Counter) {
+				builder.append(", \"value\": ").append(((Counter) metric).get());
+			} else if (metric instanceof Gauge) {
+				builder.append(", \"value\": ").append(format(((Gauge) metric).get()));
+			} else if (metric instanceof Timer) {
+				Timer timer = (Timer) metric;
+
+				builder.append(", \"count\": ").append(timer.getCount())
+					.append(", \"mean\": ").append(millis(timer.getMean()))
+					.append(", \"p50\": ").append(millis(timer.getPercentile(50)))
+					.append(", \"p95\": ").append(millis(timer.getPercentile(95)))
+					.append(", \"p99\": ").append(millis(timer.getPercentile(99)))
+					.append(", \"max\": ").append(millis(timer.getMax()));
+			}
+
+			builder.append('}');
+		}
+
+		return builder.append("\n}\n").toString();
+	}
+
+	/**
+	 * @return All metrics as CSV, one per line
+	 */
+	public static String toCsv() {
+		StringBuilder builder = new StringBuilder("name,type,value,count,mean,p50,p95,p99,max\n");
+
+		for (Metric metric : Metrics.getAll()) {
+			builder.append(metric.getName()).append(',').append(metric.getType()).append(',');
+
+			if (metric instanceof Counter) {
+				builder.append(((Counter) metric).get()).append(",,,,,,");
+			} else if (metric instanceof Gauge) {
+				builder.append(format(((Gauge) metric).get())).append(",,,,,,");
+			} else if (metric instanceof Timer) {
+				Timer timer = (Timer) metric;
+
+				builder.append(',').append(timer.getCount())
+					.append(',').append(millis(timer.getMean()))
+					.append(',').append(millis(timer.getPercentile(50)))
+					.append(',').append(millis(timer.getPercentile(95)))
+					.append(',').append(millis(timer.getPercentile(99)))
+					.append(',').append(millis(timer.getMax()));
+			}
+
+			builder.append('\n');
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Writes a snapshot to the metrics directory
+	 *
+	 * @param format File format
+	 * @return Written file
+	 * @throws IOException If the file can't be written
+	 */
+	public static File save(Format format) throws IOException {
+		File dir = new File(Files.getMetricsDir());
+
+		if (!dir.exists() && !dir.mkdirs()) {
+			throw new IOException("Could not create " + dir);
+		}
+
+		String time = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+		File file = new File(dir, "metrics-" + time + "." + format.name().toLowerCase());
+
+		try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+			writer.print(format == Format.JSON ? toJson() : toCsv());
+		}
+
+		return file;
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.US, "%.3f", nanos / 1000000.0);
+	}
+
+	private static String format(double value) {
+		return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.US, "%.3f", value);
+	}
+}
@@ -0,0 +1,141 @@
+package org.egordorichev.lasttry.util.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Measures how long something takes. Keeps the last {@link #WINDOW} calls for
+ * percentiles and the time, spent in each of the last {@link #HISTORY}
+ * frames, for the debug graphs. Safe to record from any thread.
+ */
+public class Timer extends Metric {
+	/**
+	 * Calls, percentiles are taken from
+	 */
+	public static final int WINDOW = 256;
+	/**
+	 * Frames, kept for graphs
+	 */
+	public static final int HISTORY = 240;
+	/**
+	 * Durations of the last calls in nanoseconds
+	 */
+	private final long[] samples = new long[WINDOW];
+	/**
+	 * Samples, copied for sorting
+	 */
+	private final long[] sorted = new long[WINDOW];
+	/**
+	 * Time in nanoseconds, spent in each of the last frames
+	 */
+	private final long[] history = new long[HISTORY];
+	private int sample;
+	private int frame;
+	/**
+	 * Time, spent in the current frame so far
+	 */
+	private long current;
+	/**
+	 * Calls since the start
+	 */
+	private long count;
+	/**
+	 * Time, spent since the start
+	 */
+	private long total;
+	/**
+	 * Longest call since the start
+	 */
+	private long max;
+
+	public Timer(String name) {
+		super(name);
+	}
+
+	/**
+	 * @return Start time, to pass to {@link #stop(long)}
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records time, passed since the start
+	 *
+	 * @param start Value, returned by {@link #start()}
+	 */
+	public void stop(long start) {
+		this.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * @param nanos Duration of a single call
+	 */
+	public synchronized void record(long nanos) {
+		this.samples[this.sample] = nanos;
+		this.sample = (this.sample + 1) % WINDOW;
+		this.current += nanos;
+		this.count++;
+		this.total += nanos;
+		this.max = Math.max(this.max, nanos);
+	}
+
+	/**
+	 * Moves time, recorded since the last call, to the frame history
+	 */
+	synchronized void endFrame() {
+		this.history[this.frame] = this.current;
+		this.frame = (this.frame + 1) % HISTORY;
+		this.current = 0;
+	}
+
+	/**
+	 * @param percentile Percentile from 0 to 100
+	 * @return Duration of a single call in nanoseconds, over the last calls
+	 */
+	public synchronized long getPercentile(float percentile) {
+		int size = (int) Math.min(this.count, WINDOW);
+
+		if (size == 0) {
+			return 0;
+		}
+
+		System.arraycopy(this.samples, 0, this.sorted, 0, size);
+		Arrays.sort(this.sorted, 0, size);
+
+		return this.sorted[Math.min(size - 1, (int) (size * percentile / 100f))];
+	}
+
+	/**
+	 * @param framesAgo 0 for the last finished frame, up to {@link #HISTORY} - 1
+	 * @return Time in nanoseconds, spent in that frame
+	 */
+	public synchronized long getFrameTime(int framesAgo) {
+		return this.history[(this.frame - 1 - framesAgo + HISTORY * 2) % HISTORY];
+	}
+
+	/**
+	 * @return Calls since the start
+	 */
+	public synchronized long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return Average call in nanoseconds since the start
+	 */
+	public synchronized long getMean() {
+		return this.count == 0 ? 0 : this.total / this.count;
+	}
+
+	/**
+	 * @return Longest call in nanoseconds since the start
+	 */
+	public synchronized long getMax() {
+		return this.max;
+	}
+
+	@Override
+	public String getType() {
+		return "timer";
+	}
+}
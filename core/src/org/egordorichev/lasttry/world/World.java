@@ -1,8 +1,8 @@
 package org.egordorichev.lasttry.world;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
@@ -12,14 +12,22 @@ import org.egordorichev.lasttry.item.Item;
 import org.egordorichev.lasttry.item.ItemManager;
 import org.egordorichev.lasttry.item.block.Block;
 import org.egordorichev.lasttry.util.*;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.util.metrics.Timer;
 import org.egordorichev.lasttry.world.chunk.Chunk;
 import org.egordorichev.lasttry.world.components.*;
+import org.egordorichev.lasttry.world.generator.WorldGenerator;
 import com.badlogic.gdx.math.Vector2;
 
 public class World {
 	// Should be 20 by default
 	public static final int UPDATE_DELAY_SECONDS = 20;
 	public static final int RESPAWN_DELAY = 360;
+	private static final Timer lightTimer = Metrics.timer("light.update");
+	/**
+	 * Ticks since the last chunk block update
+	 */
+	private int updateTicks;
 	/**
 	 * Timer before respawn
 	 */
@@ -32,6 +40,10 @@ public class World {
 	 * Chunks manager
 	 */
 	public final WorldChunksComponent chunks;
+	/**
+	 * Chunk tickets and levels
+	 */
+	public final WorldTicketsComponent tickets;
 	/**
 	 * Blocks manager
 	 */
@@ -48,6 +60,18 @@ public class World {
 	 * Chest manager
 	 */
 	public final WorldChestsComponent chests;
+	/**
+	 * Creature spawn points
+	 */
+	public final WorldSpawnIndexComponent spawnIndex;
+	/**
+	 * Creature pathfinding
+	 */
+	public final WorldNavigationComponent navigation;
+	/**
+	 * Prebuilt tile vertices
+	 */
+	public final WorldTileCacheComponent tileCache;
 	/**
 	 * Random instance, used for terrain generation. Since it's associated with
 	 * the world seed, it will provide the same results every time if the seed
@@ -75,7 +99,16 @@ public class World {
 	 */
 	private Vector2 spawnPoint = new Vector2();
 
-	private final Map<Integer, Integer> heightCache = new HashMap<>();
+	private final Map<Integer, Integer> heightCache = new ConcurrentHashMap<>();
+	/**
+	 * Generates chunks, that don't have a save yet
+	 */
+	private WorldGenerator generator;
+	/**
+	 * Thread, that updates the world. Only it may load chunks, workers read
+	 * the ones, that are already loaded
+	 */
+	private volatile Thread thread = Thread.currentThread();
 
 	public World(String name, Size size, int flags, int seed) {
 		this.size = size;
@@ -83,18 +116,15 @@ public class World {
 		this.seed = seed;
 		this.random = new Random(seed);
 		this.chunks = new WorldChunksComponent(this);
+		this.tickets = new WorldTicketsComponent(this);
 		this.flags = new WorldFlagsComponent(this, flags);
 		this.blocks = new WorldBlocksComponent(this);
 		this.walls = new WorldWallsComponent(this);
 		this.light = new WorldLightingComponent(this);
 		this.chests = new WorldChestsComponent(this);
-
-		Util.runDelayedThreadSeconds(new Callable() {
-			@Override
-			public void call() {
-				update();
-			}
-		}, UPDATE_DELAY_SECONDS);
+		this.spawnIndex = new WorldSpawnIndexComponent(this);
+		this.navigation = new WorldNavigationComponent(this);
+		this.tileCache = new WorldTileCacheComponent(this);
 	}
 
 	public void render() {
@@ -102,6 +132,8 @@ public class World {
 	}
 
 	public void updateLight(int dt) {
+		long start = lightTimer.start();
+
 		if (!LastTry.noLight) {
 			if (lightDirty) {
 				this.light.update(dt);
@@ -115,6 +147,8 @@ public class World {
 			}
 			lightDirty = false;
 		}
+
+		lightTimer.stop(start);
 	}
 
 	/**
@@ -266,8 +300,20 @@ public class World {
 		return false;
 	}
 
+	/**
+	 * Updates chunk levels, lets liquids flow and updates chunk blocks every
+	 * {@link #UPDATE_DELAY_SECONDS}, called every tick
+	 */
 	public void update() {
-		this.chunks.update();
+		this.thread = Thread.currentThread();
+		this.chunks.freeRemoved();
+		this.tickets.update();
+		this.chunks.updateLiquids();
+
+		if (++this.updateTicks >= UPDATE_DELAY_SECONDS * LastTry.tickRate) {
+			this.updateTicks = 0;
+			this.chunks.updateLogic();
+		}
 	}
 
 	public short getWidth() {
@@ -322,15 +368,42 @@ public class World {
 		if (cached != -1) {
 			return cached;
 		}
-		for (int y = getHeight(); y > 0; y--) {
+		boolean loaded = true;
+		for (int y = getHeight() - 1; y > 0; y--) {
+			// Workers don't load chunks, the height is cached only if every chunk was there
+			if (!this.isWorldThread() && this.chunks.get(x / Chunk.SIZE, y / Chunk.SIZE) == null) {
+				loaded = false;
+				continue;
+			}
 			if (this.blocks.getID(x, y) != null) {
-				heightCache.put(x, y);
+				if (loaded) {
+					heightCache.put(x, y);
+				}
 				return y;
 			}
 		}
 		return 0;
 	}
 
+	/**
+	 * @return The current thread updates the world and may load chunks
+	 */
+	public boolean isWorldThread() {
+		return Thread.currentThread() == this.thread;
+	}
+
+	/**
+	 * @return Generator for this world, created and prepared on first use
+	 */
+	public synchronized WorldGenerator getGenerator() {
+		if (this.generator == null) {
+			this.generator = new WorldGenerator(this);
+			this.generator.prepare();
+		}
+
+		return this.generator;
+	}
+
 	/**
 	 * Updates the cache for the highest block at the given x.
 	 *
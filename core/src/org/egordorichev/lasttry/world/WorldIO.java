@@ -6,6 +6,8 @@ import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.util.FileReader;
 import org.egordorichev.lasttry.util.FileWriter;
 import org.egordorichev.lasttry.util.Files;
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.util.flight.WorldSaveEvent;
 import org.egordorichev.lasttry.world.components.WorldFlagsComponent;
 import org.egordorichev.lasttry.world.generator.WorldGenerator;
 import org.slf4j.Logger;
@@ -88,7 +90,17 @@ public class WorldIO {
 			file.mkdir();
 		}
 
-		return new WorldGenerator(name, size, flags, seed).generate();
+		World world = new World(name, size, flags, seed);
+		Globals.setWorld(world);
+
+		// Chunks are generated, when they are first loaded, see ChunkIO.generate().
+		// The spawn comes from the heightmap, so no chunk is loaded here
+		WorldGenerator generator = world.getGenerator();
+
+		int x = world.getWidth() / 2;
+		world.setSpawnPoint(new Vector2(x, generator.getHighest(x)));
+
+		return world;
 	}
 
 	public static void save() {
@@ -107,6 +119,7 @@ public class WorldIO {
 		}
 
 		logger.debug("Saving world " + world.getName() + "...");
+		WorldSaveEvent event = Flight.worldSave();
 
 		try {
 			FileWriter stream = new FileWriter(fileName);
@@ -142,6 +155,13 @@ public class WorldIO {
 			LastTry.handleException(exception);
 		}
 
+		if (event != null) {
+			event.world = world.getName();
+			event.size = world.getSize().name();
+			event.chunks = world.chunks.getImmutableLoadedChunks().size();
+			event.commit();
+		}
+
 		logger.debug("Done saving world " + world.getName() + "!");
 	}
 
@@ -99,18 +99,30 @@ public class WorldTime {
      * @return time string
      */
     public String toString(boolean use12hoursFormat) {
-        Byte minuteByte = minute;
-        String minuteString = minuteByte.toString();
-        StringBuilder minuteBuilder = new StringBuilder(minuteString);
-        if(minuteString.length() != 2){
-            minuteBuilder.insert(0, "0");
+        return this.appendTo(new StringBuilder(), use12hoursFormat).toString();
+    }
+
+    /**
+     * Writes time into the builder, without creating any strings
+     *
+     * @param builder builder to write to
+     * @param use12hoursFormat if true, am/pm will be used instead of 24-hours time
+     * @return given builder
+     */
+    public StringBuilder appendTo(StringBuilder builder, boolean use12hoursFormat) {
+        int hour = (use12hoursFormat && this.hour > 12) ? this.hour - 12 : this.hour;
+        builder.append(hour).append(':');
+
+        if (this.minute < 10) {
+            builder.append('0');
         }
 
+        builder.append(this.minute);
+
         if (use12hoursFormat) {
-            String postfix = (this.hour >= 12) ? " pm" : " am";
-            int hour = (this.hour > 12) ? this.hour - 12 : this.hour;
-            return hour + ":" + minuteBuilder + postfix;
+            builder.append((this.hour >= 12) ? " pm" : " am");
         }
-		return this.hour + ":" + minuteBuilder;
+
+        return builder;
     }
 }
\ No newline at end of file
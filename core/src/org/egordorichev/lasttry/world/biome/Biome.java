@@ -3,6 +3,8 @@ package org.egordorichev.lasttry.world.biome;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.JsonValue;
 import org.egordorichev.lasttry.graphics.Assets;
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
 import org.egordorichev.lasttry.world.biome.components.BiomeAnimationComponent;
 
 public class Biome {
@@ -40,6 +42,10 @@ public class Biome {
 
 	public static class Holder {
 		public String[] items;
+		/**
+		 * Numeric ids of the items, see {@link ItemManager#getNumericID(String)}
+		 */
+		public short[] ids;
 		public short count;
 	}
 
@@ -63,6 +69,7 @@ public class Biome {
 			this.ignoreCache = root.getBoolean("ignoreCache");
 		}
 		if (root.has("required")) {
+			ItemManager itemManager = CoreRegistry.get(ItemManager.class);
 			JsonValue required = root.get("required");
 			this.required = new Holder[required.size];
 
@@ -82,6 +89,12 @@ public class Biome {
 					this.required[i].items = new String[0];
 				}
 
+				this.required[i].ids = new short[this.required[i].items.length];
+
+				for (int j = 0; j < this.required[i].items.length; j++) {
+					this.required[i].ids[j] = itemManager.getNumericID(this.required[i].items[j]);
+				}
+
 				this.required[i].count = holder.getShort("count", (short) 1);
 			}
 		} else {
@@ -7,5 +7,6 @@ public interface BiomeManager {
     Biome get(String id);
     Iterator<Biome> iterator();
     Biome getClosest(int temperature, int humidity);
+    void register(Biome biome);
 
 }
@@ -1,7 +1,6 @@
 package org.egordorichev.lasttry.world.biome;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 import org.slf4j.Logger;
@@ -29,6 +28,12 @@ public class BiomeManagerImpl implements BiomeManager {
      */
     public static final List<Biome> BIOME_CACHE = new ArrayList<>();
 
+    /**
+     * Closest biome for every (temperature, humidity) pair, indexed by
+     * temperature + humidity * TEMP_MAX
+     */
+    private volatile Biome[] closestTable = new Biome[TEMP_MAX * HUMD_MAX];
+
     /**
      * Loads items
      */
@@ -56,6 +61,24 @@ public class BiomeManagerImpl implements BiomeManager {
             logger.error("Failed to load biomes");
         }
 
+        this.sortAndRebuild();
+    }
+
+    /**
+     * Adds a biome, that wasn't loaded from biomes.json (for example, from a mod)
+     *
+     * @param biome Biome to add
+     */
+    public synchronized void register(Biome biome) {
+        if (biome.ignoreCache) {
+            return;
+        }
+
+        BIOME_CACHE.add(biome);
+        this.sortAndRebuild();
+    }
+
+    private void sortAndRebuild() {
         BIOME_CACHE.sort(new Comparator<Biome>() {
             @Override
             public int compare(Biome biome1, Biome biome2) {
@@ -68,6 +91,16 @@ public class BiomeManagerImpl implements BiomeManager {
                 return 0;
             }
         });
+
+        Biome[] table = new Biome[TEMP_MAX * HUMD_MAX];
+
+        for (int humidity = 0; humidity < HUMD_MAX; humidity++) {
+            for (int temperature = 0; temperature < TEMP_MAX; temperature++) {
+                table[temperature + humidity * TEMP_MAX] = this.findClosest(temperature, humidity);
+            }
+        }
+
+        this.closestTable = table;
     }
 
     /**
@@ -98,12 +131,22 @@ public class BiomeManagerImpl implements BiomeManager {
      * @return
      */
     public Biome getClosest(int temperature, int humidity) {
+        if (temperature >= 0 && temperature < TEMP_MAX && humidity >= 0 && humidity < HUMD_MAX) {
+            return this.closestTable[temperature + humidity * TEMP_MAX];
+        }
+
+        return this.findClosest(temperature, humidity);
+    }
+
+    /**
+     * Linear search for the closest biome, used to fill the lookup table
+     */
+    private Biome findClosest(int temperature, int humidity) {
         Biome closest = null;
         float closestDist = -1;
 
         for (Biome biome : BIOME_CACHE) {
-            Vector2 v = new Vector2(temperature, humidity);
-            float dist = v.dst2(biome.getBiomeVector());
+            float dist = biome.getBiomeVector().dst2(temperature, humidity);
 
             if (closestDist < 0 || closestDist > dist) {
                 closest = biome;
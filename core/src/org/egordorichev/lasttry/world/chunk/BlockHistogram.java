@@ -0,0 +1,81 @@
+package org.egordorichev.lasttry.world.chunk;
+
+/**
+ * Counts blocks of every type in each section of a chunk, so the amount of
+ * blocks in an area can be found without looking at every tile.
+ */
+public class BlockHistogram {
+	/**
+	 * Block count per numeric id, for every section. Grown, when a bigger id
+	 * shows up
+	 */
+	private final short[][] counts = new short[Chunk.SECTIONS][];
+
+	public void add(short id, int x, int y) {
+		if (id < 0) {
+			return;
+		}
+
+		short[] section = this.getCounts(Chunk.getSection(x, y), id);
+		section[id]++;
+	}
+
+	public void remove(short id, int x, int y) {
+		if (id < 0) {
+			return;
+		}
+
+		short[] section = this.getCounts(Chunk.getSection(x, y), id);
+
+		if (section[id] > 0) {
+			section[id]--;
+		}
+	}
+
+	/**
+	 * @param section Section index
+	 * @param id      Numeric item id
+	 * @return Amount of blocks with given id in the section
+	 */
+	public int count(int section, short id) {
+		short[] counts = this.counts[section];
+
+		if (id < 0 || counts == null || id >= counts.length) {
+			return 0;
+		}
+
+		return counts[id];
+	}
+
+	/**
+	 * @param section Section index
+	 * @param ids     Numeric item ids
+	 * @return Amount of blocks with any of given ids in the section
+	 */
+	public int count(int section, short[] ids) {
+		int count = 0;
+
+		for (short id : ids) {
+			count += this.count(section, id);
+		}
+
+		return count;
+	}
+
+	private short[] getCounts(int section, short id) {
+		short[] counts = this.counts[section];
+
+		if (counts == null || id >= counts.length) {
+			short[] grown = new short[Math.max(id + 1, counts == null ? 64 : counts.length * 2)];
+
+			if (counts != null) {
+				System.arraycopy(counts, 0, grown, 0, counts.length);
+			}
+
+			this.counts[section] = grown;
+			counts = grown;
+		}
+
+		return counts;
+	}
+}
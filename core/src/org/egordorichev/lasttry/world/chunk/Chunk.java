@@ -1,27 +1,56 @@
 package org.egordorichev.lasttry.world.chunk;
 
 import com.badlogic.gdx.math.Vector2;
+import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.injection.CoreRegistry;
 import org.egordorichev.lasttry.injection.InjectionHelper;
 import org.egordorichev.lasttry.item.Item;
 import org.egordorichev.lasttry.item.ItemManager;
+import org.egordorichev.lasttry.item.Tile;
 import org.egordorichev.lasttry.item.block.Block;
 import org.egordorichev.lasttry.item.wall.Wall;
 import org.egordorichev.lasttry.util.ByteHelper;
+import org.egordorichev.lasttry.world.World;
 
-import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class Chunk {
 	public static final int SIZE = 256;
 	public static final int TOTAL_SIZE = 256 * 256;
+	/**
+	 * Section width and height in tiles
+	 */
+	public static final int SECTION_SIZE = 16;
+	/**
+	 * Sections in a chunk row
+	 */
+	public static final int SECTIONS_PER_ROW = SIZE / SECTION_SIZE;
+	/**
+	 * Total sections in a chunk
+	 */
+	public static final int SECTIONS = SECTIONS_PER_ROW * SECTIONS_PER_ROW;
 
 	private ChunkData data;
 	private Vector2 position;
-	private LocalDateTime lastAccessedTime;
+	/**
+	 * Time of the last edit in milliseconds, see {@link System#currentTimeMillis()}
+	 */
+	private long lastAccessedTime;
 	private UUID uniqueChunkId;
 	private boolean unloadable = true;
+	/**
+	 * Level, given by chunk tickets, see {@link org.egordorichev.lasttry.world.components.WorldTicketsComponent}
+	 */
+	private volatile ChunkLevel level = ChunkLevel.NONE;
+	/**
+	 * Block counts per section
+	 */
+	private final BlockHistogram histogram = new BlockHistogram();
+	/**
+	 * Tiles, where creatures can spawn, see {@link org.egordorichev.lasttry.world.components.WorldSpawnIndexComponent}
+	 */
+	private final SpawnCandidates spawnCandidates = new SpawnCandidates();
 
 
 	private final ItemManager itemManager;
@@ -33,20 +62,54 @@ public class Chunk {
 		this.data = data;
 		this.position = position;
 		this.uniqueChunkId = UUID.randomUUID();
+
+		if (data != null) {
+			for (int y = 0; y < SIZE; y++) {
+				for (int x = 0; x < SIZE; x++) {
+					this.histogram.add(itemManager.getNumericID(data.getBlock(x + y * SIZE)), x, y);
+				}
+			}
+
+			// Tiles on the border are finished in updateBorderMasks(), once the chunk is in the world
+			for (int y = 0; y < SIZE; y++) {
+				for (int x = 0; x < SIZE; x++) {
+					this.updateMask(x, y, false);
+					this.updateMask(x, y, true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param x Tile X inside of the chunk
+	 * @param y Tile Y inside of the chunk
+	 * @return Section index
+	 */
+	public static int getSection(int x, int y) {
+		return x / SECTION_SIZE + (y / SECTION_SIZE) * SECTIONS_PER_ROW;
+	}
+
+	/**
+	 * Creates HP byte of a freshly placed tile
+	 *
+	 * @param variant Texture variant, 1 or 2
+	 * @return Full HP byte with the variant bits set
+	 */
+	public static byte createHP(int variant) {
+		return ByteHelper.create(true, true, (variant == 1 || variant == 3), (variant == 2), false, false,
+				false, false);
 	}
 
 	public void update() {
 		for (int y = 0; y < SIZE; y++) {
 			for (int x = 0; x < SIZE; x++) {
-				Block block = (Block) itemManager.getItem(this.data.blocks[x + y * SIZE]);
+				Block block = (Block) itemManager.getItem(this.data.getBlock(x + y * SIZE));
 
 				if (block != null) {
 					block.updateBlock(x, y);
 				}
 			}
 		}
-
-		this.updateLastAccessedTime();
 	}
 
 	public String getBlock(int globalX, int globalY) {
@@ -58,7 +121,7 @@ public class Chunk {
 			return null;
 		}
 
-		return this.data.blocks[x + y * SIZE];
+		return this.data.getBlock(x + y * SIZE);
 	}
 
 	public void setBlock(String id, int globalX, int globalY) {
@@ -70,11 +133,140 @@ public class Chunk {
 			return;
 		}
 
-		int n = LastTry.random.nextInt(2) + 1;
+		this.histogram.remove(itemManager.getNumericID(this.data.getBlock(x + y * SIZE)), x, y);
+		this.histogram.add(itemManager.getNumericID(id), x, y);
 
-		this.data.blocks[x + y * SIZE] = id;
-		this.data.blocksHealth[x + y * SIZE] = ByteHelper.create(true, true, (n == 1 || n == 3), (n == 2), false, false,
-				false, false);
+		this.data.setBlock(x + y * SIZE, id);
+		this.data.setBlockHealth(x + y * SIZE, createHP(LastTry.random.nextInt(2) + 1));
+		this.updateMasks(x, y, false);
+	}
+
+	public byte getBlockMask(int globalX, int globalY) {
+		return this.getMaskInside(globalX - this.getX(), globalY - this.getY(), false);
+	}
+
+	public byte getWallMask(int globalX, int globalY) {
+		return this.getMaskInside(globalX - this.getX(), globalY - this.getY(), true);
+	}
+
+	private byte getMaskInside(int x, int y, boolean walls) {
+		if (!this.isInside(x, y)) {
+			return 0;
+		}
+
+		return walls ? this.data.getWallMask(x + y * SIZE) : this.data.getBlockMask(x + y * SIZE);
+	}
+
+	/**
+	 * Recomputes masks of the tiles along the chunk border and of the tiles
+	 * next to them in neighbor chunks. Called, when the chunk is put into
+	 * the world.
+	 */
+	public void updateBorderMasks() {
+		for (int i = 0; i < SIZE; i++) {
+			this.updateMasks(i, 0, false);
+			this.updateMasks(i, SIZE - 1, false);
+			this.updateMasks(0, i, false);
+			this.updateMasks(SIZE - 1, i, false);
+
+			this.updateMasks(i, 0, true);
+			this.updateMasks(i, SIZE - 1, true);
+			this.updateMasks(0, i, true);
+			this.updateMasks(SIZE - 1, i, true);
+		}
+	}
+
+	/**
+	 * Recomputes masks of the tile and its 4 neighbors, including neighbors
+	 * in other chunks
+	 */
+	private void updateMasks(int x, int y, boolean walls) {
+		this.updateMask(x, y, walls);
+		this.updateMaskNear(x, y + 1, walls);
+		this.updateMaskNear(x + 1, y, walls);
+		this.updateMaskNear(x, y - 1, walls);
+		this.updateMaskNear(x - 1, y, walls);
+	}
+
+	private void updateMaskNear(int x, int y, boolean walls) {
+		if (this.isInside(x, y)) {
+			this.updateMask(x, y, walls);
+			return;
+		}
+
+		Chunk chunk = this.getNeighbor(x, y);
+
+		if (chunk != null) {
+			chunk.updateMask(x + this.getX() - chunk.getX(), y + this.getY() - chunk.getY(), walls);
+		}
+	}
+
+	private void updateMask(int x, int y, boolean walls) {
+		int index = x + y * SIZE;
+		Tile tile = (Tile) itemManager.getItem(walls ? this.data.getWall(index) : this.data.getBlock(index));
+		byte mask = 0;
+
+		if (tile != null) {
+			mask = tile.calculateBinary(this.getNear(x, y + 1, walls), this.getNear(x + 1, y, walls),
+					this.getNear(x, y - 1, walls), this.getNear(x - 1, y, walls));
+		}
+
+		if (walls) {
+			this.data.setWallMask(index, mask);
+		} else {
+			this.data.setBlockMask(index, mask);
+		}
+	}
+
+	/**
+	 * @return Id of the tile, that might be in a neighbor chunk
+	 */
+	private String getNear(int x, int y, boolean walls) {
+		if (this.isInside(x, y)) {
+			return walls ? this.data.getWall(x + y * SIZE) : this.data.getBlock(x + y * SIZE);
+		}
+
+		Chunk chunk = this.getNeighbor(x, y);
+
+		if (chunk == null) {
+			return null;
+		}
+
+		x += this.getX() - chunk.getX();
+		y += this.getY() - chunk.getY();
+
+		return walls ? chunk.getWallInside(x, y) : chunk.getBlockInside(x, y);
+	}
+
+	/**
+	 * @return Loaded chunk, that contains the tile outside of this one, or null.
+	 *         Never loads chunks.
+	 */
+	private Chunk getNeighbor(int x, int y) {
+		World world = Globals.getWorld();
+		x += this.getX();
+		y += this.getY();
+
+		if (world == null || !world.isInside(x, y)) {
+			return null;
+		}
+
+		Chunk chunk = world.chunks.get(x / SIZE, y / SIZE);
+		return chunk == this ? null : chunk;
+	}
+
+	/**
+	 * @return Block counts per section
+	 */
+	public BlockHistogram getHistogram() {
+		return this.histogram;
+	}
+
+	/**
+	 * @return Tiles, where creatures can spawn
+	 */
+	public SpawnCandidates getSpawnCandidates() {
+		return this.spawnCandidates;
 	}
 
 	public byte getBlockHP(int globalX, int globalY) {
@@ -86,7 +278,7 @@ public class Chunk {
 			return 0;
 		}
 
-		return this.data.blocksHealth[x + y * SIZE];
+		return this.data.getBlockHealth(x + y * SIZE);
 	}
 
 	public void setBlockHP(byte hp, int globalX, int globalY, boolean die) {
@@ -101,16 +293,16 @@ public class Chunk {
 		this.updateLastAccessedTime();
 
 		if (die) {
-			Block block = (Block) itemManager.getItem(this.data.blocks[x + y * SIZE]);
+			Block block = (Block) itemManager.getItem(this.data.getBlock(x + y * SIZE));
 
-			this.data.blocksHealth[x + y * SIZE] = hp;
+			this.data.setBlockHealth(x + y * SIZE, hp);
 			this.setBlockInside(null, x, y);
 
 			if (block != null) {
 				block.die((short) (x + this.getX()), (short) (y + this.getY()));
 			}
 		} else {
-			this.data.blocksHealth[x + y * SIZE] = hp;
+			this.data.setBlockHealth(x + y * SIZE, hp);
 		}
 	}
 
@@ -123,7 +315,7 @@ public class Chunk {
 			return null;
 		}
 
-		return this.data.walls[x + y * SIZE];
+		return this.data.getWall(x + y * SIZE);
 	}
 
 	public void setWall(String id, int globalX, int globalY) {
@@ -135,11 +327,9 @@ public class Chunk {
 			return;
 		}
 		this.updateLastAccessedTime();
-		int n = LastTry.random.nextInt(2) + 1;
-
-		this.data.wallsHealth[x + y * SIZE] = ByteHelper.create(true, true, (n == 1 || n == 3), (n == 2), false, false,
-				false, false);
-		this.data.walls[x + y * SIZE] = id;
+		this.data.setWallHealth(x + y * SIZE, createHP(LastTry.random.nextInt(2) + 1));
+		this.data.setWall(x + y * SIZE, id);
+		this.updateMasks(x, y, true);
 	}
 
 	public byte getWallHP(int globalX, int globalY) {
@@ -151,7 +341,7 @@ public class Chunk {
 			return 0;
 		}
 
-		return this.data.wallsHealth[x + y * SIZE];
+		return this.data.getWallHealth(x + y * SIZE);
 	}
 
 	public void setWallHP(byte hp, int globalX, int globalY) {
@@ -165,7 +355,7 @@ public class Chunk {
 		this.updateLastAccessedTime();
 
 		if (ByteHelper.getBitValue(hp, (byte) 0) == 0 && ByteHelper.getBitValue(hp, (byte) 1) == 0) {
-			Wall wall = (Wall)itemManager.getItem(this.data.blocks[x + y * SIZE]);
+			Wall wall = (Wall)itemManager.getItem(this.data.getBlock(x + y * SIZE));
 
 			if (wall != null) {
 				wall.die(x + this.getX(), y + this.getY());
@@ -173,10 +363,10 @@ public class Chunk {
 
 			this.setWallInside(null, x, y);
 		} else {
-			this.data.wallsHealth[x + y * SIZE] = hp;
+			this.data.setWallHealth(x + y * SIZE, hp);
 		}
 
-		this.data.wallsHealth[x + y * SIZE] = hp;
+		this.data.setWallHealth(x + y * SIZE, hp);
 	}
 
 	public byte getLight(int globalX, int globalY) {
@@ -188,7 +378,7 @@ public class Chunk {
 			return 0;
 		}
 
-		return this.data.light[x + y * SIZE];
+		return this.data.getLight(x + y * SIZE);
 	}
 
 	public void setLight(byte light, int globalX, int globalY) {
@@ -200,7 +390,7 @@ public class Chunk {
 			return;
 		}
 
-		this.data.light[x + y * SIZE] = light;
+		this.data.setLight(x + y * SIZE, light);
 	}
 
 	public ChunkData getData() {
@@ -223,7 +413,7 @@ public class Chunk {
 		return (int) this.position.y * SIZE;
 	}
 
-	private boolean isInside(int x, int y) {
+	public boolean isInside(int x, int y) {
 		return (x >= 0 && x < SIZE && y >= 0 && y < SIZE);
 	}
 
@@ -232,13 +422,17 @@ public class Chunk {
 	}
 
 	private void updateLastAccessedTime() {
-		this.lastAccessedTime = LocalDateTime.now();
+		this.lastAccessedTime = System.currentTimeMillis();
 	}
 
-	public LocalDateTime getLastAccessedTime() {
+	public long getLastAccessedTime() {
 		return this.lastAccessedTime;
 	}
 
+	public void setLastAccessedTime(long time) {
+		this.lastAccessedTime = time;
+	}
+
 	public boolean isUnloadable() {
 		return this.unloadable;
 	}
@@ -246,4 +440,20 @@ public class Chunk {
 	public void setUnloadable(boolean unloadable) {
 		this.unloadable = unloadable;
 	}
+
+	public ChunkLevel getLevel() {
+		return this.level;
+	}
+
+	public void setLevel(ChunkLevel level) {
+		this.level = level;
+	}
+
+	/**
+	 * @return The chunk gc may free the chunk: it has no chunk loader and no
+	 *         ticket reaches it
+	 */
+	public boolean isEvictable() {
+		return this.unloadable && this.level == ChunkLevel.NONE;
+	}
 }
\ No newline at end of file
@@ -1,17 +1,140 @@
 package org.egordorichev.lasttry.world.chunk;
 
-public class ChunkData {
-	public String[] blocks;
-	public byte[] blocksHealth;
-	public String[] walls;
-	public byte[] wallsHealth;
-    public byte[] light;
-
-	public ChunkData() {
-        this.light = new byte[Chunk.TOTAL_SIZE];
-        this.blocks = new String[Chunk.TOTAL_SIZE];
-		this.blocksHealth = new byte[Chunk.TOTAL_SIZE];
-		this.walls = new String[Chunk.TOTAL_SIZE];
-		this.wallsHealth = new byte[Chunk.TOTAL_SIZE];
+import java.nio.ByteBuffer;
+
+/**
+ * Tiles of a chunk: block and wall ids, their HP, light and neighbor masks.
+ * Kept on the heap by {@link HeapChunkData}, or in direct buffers by
+ * {@link OffHeapChunkData}, picked with -offheap.
+ *
+ * Saved tiles are laid out as in {@link #SAVED_BYTES}: numeric block ids,
+ * numeric wall ids (big endian shorts), block HP and wall HP, so
+ * {@link ChunkIO} can write and read them in one go.
+ */
+public abstract class ChunkData {
+	/**
+	 * Offsets of the saved layers in bytes
+	 */
+	public static final int BLOCKS = 0;
+	public static final int WALLS = BLOCKS + Chunk.TOTAL_SIZE * 2;
+	public static final int BLOCKS_HEALTH = WALLS + Chunk.TOTAL_SIZE * 2;
+	public static final int WALLS_HEALTH = BLOCKS_HEALTH + Chunk.TOTAL_SIZE;
+	/**
+	 * Bytes of saved layers. Light and masks are recomputed after loading
+	 */
+	public static final int SAVED_BYTES = WALLS_HEALTH + Chunk.TOTAL_SIZE;
+	/**
+	 * Chunks keep their tiles off the heap
+	 */
+	private static boolean offHeap;
+
+	/**
+	 * @return Empty chunk data in the configured storage
+	 */
+	public static ChunkData create() {
+		return offHeap ? new OffHeapChunkData() : new HeapChunkData();
+	}
+
+	/**
+	 * Sets the storage of chunks, created from now on
+	 */
+	public static void setOffHeap(boolean offHeap) {
+		ChunkData.offHeap = offHeap;
+	}
+
+	public static boolean isOffHeap() {
+		return offHeap;
+	}
+
+	/**
+	 * @param index Tile index, x + y * {@link Chunk#SIZE}
+	 * @return Block id, or null for air
+	 */
+	public abstract String getBlock(int index);
+
+	public abstract void setBlock(int index, String id);
+
+	public abstract byte getBlockHealth(int index);
+
+	public abstract void setBlockHealth(int index, byte hp);
+
+	/**
+	 * @param index Tile index, x + y * {@link Chunk#SIZE}
+	 * @return Wall id, or null for no wall
+	 */
+	public abstract String getWall(int index);
+
+	public abstract void setWall(int index, String id);
+
+	public abstract byte getWallHealth(int index);
+
+	public abstract void setWallHealth(int index, byte hp);
+
+	public abstract byte getLight(int index);
+
+	public abstract void setLight(int index, byte light);
+
+	/**
+	 * Neighbor masks of blocks and walls, see
+	 * {@link org.egordorichev.lasttry.item.Tile#calculateBinary(String, String, String, String)}.
+	 * Not saved, recomputed when the chunk is created
+	 */
+	public abstract byte getBlockMask(int index);
+
+	public abstract void setBlockMask(int index, byte mask);
+
+	public abstract byte getWallMask(int index);
+
+	public abstract void setWallMask(int index, byte mask);
+
+	/**
+	 * @return Saved layers with numeric ids, position 0, limit {@link #SAVED_BYTES}.
+	 *         Valid until the next call on this thread.
+	 */
+	public abstract ByteBuffer getSaveBuffer();
+
+	/**
+	 * @return Buffer to read saved layers into, finished with {@link #finishLoad(short[])}
+	 */
+	public abstract ByteBuffer getLoadBuffer();
+
+	/**
+	 * Takes saved layers from the load buffer
+	 *
+	 * @param remap Numeric ids of the save to current numeric ids, or null, if they match
+	 */
+	public abstract void finishLoad(short[] remap);
+
+	/**
+	 * @param referenceSize Bytes a reference takes
+	 * @return Bytes, the tiles take on the heap
+	 */
+	public abstract long getBytes(int referenceSize);
+
+	/**
+	 * @return Bytes, the tiles take off the heap
+	 */
+	public long getOffHeapBytes() {
+		return 0;
+	}
+
+	/**
+	 * @param id    Saved numeric id
+	 * @param remap Saved ids to current ids, or null
+	 * @return Current numeric id, air for ids, that are unknown
+	 */
+	protected static short remap(short id, short[] remap) {
+		if (remap == null) {
+			return id < 0 ? 0 : id;
+		}
+
+		return id < 0 || id >= remap.length ? 0 : remap[id];
+	}
+
+	/**
+	 * Gives memory back, the data can't be used after
+	 */
+	public void free() {
+
 	}
-}
\ No newline at end of file
+}
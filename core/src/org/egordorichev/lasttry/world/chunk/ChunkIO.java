@@ -3,19 +3,49 @@ package org.egordorichev.lasttry.world.chunk;
 import com.badlogic.gdx.math.Vector2;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
 import org.egordorichev.lasttry.util.FileReader;
-import org.egordorichev.lasttry.util.FileWriter;
 import org.egordorichev.lasttry.util.Files;
+import org.egordorichev.lasttry.util.flight.ChunkIOEvent;
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.util.metrics.Timer;
 import org.egordorichev.lasttry.world.chunk.gc.ChunkGcManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class ChunkIO {
 	private static final Logger logger = LoggerFactory.getLogger(ChunkIO.class);
-	public static final byte VERSION = 4;
+	public static final byte VERSION = 5;
+	/**
+	 * Version of saves, that were written tile by tile, they are still read
+	 */
+	public static final byte LEGACY_VERSION = 4;
+	/**
+	 * Version, unloadable flag, palette size and palette bytes
+	 */
+	private static final int HEADER_BYTES = 8;
+	/**
+	 * Chunk reads from disk
+	 */
+	private static final Timer loaded = Metrics.timer("chunkio.load");
+	/**
+	 * Chunk writes to disk
+	 */
+	private static final Timer saved = Metrics.timer("chunkio.save");
+	/**
+	 * Chunk generation
+	 */
+	private static final Timer generated = Metrics.timer("chunkio.generate");
 
 	public static Chunk load(int x, int y) {
 		String fileName = Files.getChunkSave(x, y);
@@ -26,61 +56,64 @@ public class ChunkIO {
 		}
 
 		logger.debug("Loading chunk " + x + ":" + y + "...");
+		long start = loaded.start();
+		ChunkIOEvent event = Flight.chunkIO("load");
 
 		try {
-			FileReader stream = new FileReader(fileName);
+			Chunk chunk;
 
-			byte version = stream.readByte();
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+				readFully(channel, header);
+				header.flip();
 
-			if (version > VERSION) {
-				logger.error("Trying to load unknown chunk.");
-				LastTry.abort();
-			} else if (version < VERSION) {
-				logger.error("Trying to load old chunk.");
-				LastTry.abort();
-			}
-
-			ChunkData data = new ChunkData();
-
-			for (short cy = 0; cy < Chunk.SIZE; cy++) {
-				byte rle = 0;
+				byte version = header.get();
 
-				for (short cx = 0; cx < Chunk.SIZE; cx++) {
-					int index = cx + cy * Chunk.SIZE;
+				if (version == LEGACY_VERSION) {
+					chunk = null;
+				} else if (version > VERSION) {
+					logger.error("Trying to load unknown chunk.");
+					LastTry.abort();
+					return null;
+				} else if (version < LEGACY_VERSION) {
+					logger.error("Trying to load old chunk.");
+					LastTry.abort();
+					return null;
+				} else {
+					boolean unloadable = header.get() != 0;
+					short[] remap = readPalette(channel, header.getShort(), header.getInt());
+					ChunkData data = ChunkData.create();
 
-					if (rle > 0) {
-						rle--;
+					// Straight into the chunk storage, off heap data isn't copied
+					readFully(channel, data.getLoadBuffer());
+					data.finishLoad(remap);
 
-						data.blocks[index] = data.blocks[index - 1];
-						data.blocksHealth[index] = stream.readByte();
-						data.walls[index] = data.walls[index - 1];
-						data.wallsHealth[index] = stream.readByte();
-					} else {
-						data.blocks[index] = stream.readString();
-						data.blocksHealth[index] = stream.readByte();
-						data.walls[index] = stream.readString();
-						data.wallsHealth[index] = stream.readByte();
+					ByteBuffer footer = ByteBuffer.allocate(1);
+					readFully(channel, footer);
 
-						if (stream.readBoolean()) {
-							rle = stream.readByte();
-							System.out.println(rle);
-						}
+					if (footer.get(0) == 0) {
+						logger.error("Verification failed!");
+						LastTry.abort();
 					}
+
+					chunk = new Chunk(data, new Vector2(x, y));
+					chunk.setUnloadable(unloadable);
 				}
 			}
 
-			boolean unloadable = stream.readBoolean();
-
-			if (!stream.readBoolean()) {
-				logger.error("Verification failed!");
-				LastTry.abort();
+			if (chunk == null) {
+				chunk = loadLegacy(x, y, fileName);
 			}
 
-			stream.close();
 			logger.debug("Done loading chunk " + x + ":" + y + "!");
+			loaded.stop(start);
 
-			Chunk chunk = new Chunk(data, new Vector2(x, y));
-			chunk.setUnloadable(unloadable);
+			if (event != null) {
+				event.x = x;
+				event.y = y;
+				event.bytes = file.length();
+				event.commit();
+			}
 
 			return chunk;
 		} catch (Exception exception) {
@@ -90,58 +123,217 @@ public class ChunkIO {
 		}
 	}
 
-	public static void save(int x, int y) {
-		String fileName = Files.getChunkSave(x, y);
-		File file = new File(fileName);
-		if (!file.exists()) {
-			try {
-				file.createNewFile();
-			} catch(IOException exception) {
-				logger.error("Could not create a save file for chunk " + x + ":" + y + ".");
-				LastTry.abort();
+	/**
+	 * Reads a chunk, saved tile by tile with ids as strings
+	 */
+	private static Chunk loadLegacy(int x, int y, String fileName) throws IOException {
+		FileReader stream = new FileReader(fileName);
+		stream.readByte();
+
+		ChunkData data = ChunkData.create();
+
+		for (short cy = 0; cy < Chunk.SIZE; cy++) {
+			byte rle = 0;
+
+			for (short cx = 0; cx < Chunk.SIZE; cx++) {
+				int index = cx + cy * Chunk.SIZE;
+
+				if (rle > 0) {
+					rle--;
+
+					data.setBlock(index, data.getBlock(index - 1));
+					data.setBlockHealth(index, stream.readByte());
+					data.setWall(index, data.getWall(index - 1));
+					data.setWallHealth(index, stream.readByte());
+				} else {
+					data.setBlock(index, stream.readString());
+					data.setBlockHealth(index, stream.readByte());
+					data.setWall(index, stream.readString());
+					data.setWallHealth(index, stream.readByte());
+
+					if (stream.readBoolean()) {
+						rle = stream.readByte();
+					}
+				}
 			}
 		}
 
+		boolean unloadable = stream.readBoolean();
+
+		if (!stream.readBoolean()) {
+			logger.error("Verification failed!");
+			LastTry.abort();
+		}
+
+		stream.close();
+
+		Chunk chunk = new Chunk(data, new Vector2(x, y));
+		chunk.setUnloadable(unloadable);
+
+		return chunk;
+	}
+
+	/**
+	 * Saves the chunk as a header with the id palette, followed by the saved
+	 * layers of {@link ChunkData}, written in one go
+	 */
+	public static void save(int x, int y) {
+		String fileName = Files.getChunkSave(x, y);
 		Chunk chunk = Globals.getWorld().chunks.get(x, y);
 		logger.debug("Saving chunk " + x + ":" + y + "...");
+		long start = saved.start();
+		ChunkIOEvent event = Flight.chunkIO("save");
 
-		try {
-			FileWriter stream = new FileWriter(fileName);
-			ChunkData data = chunk.getData();
-
-			stream.writeByte(VERSION);
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
 
-			for (short cy = 0; cy < Chunk.SIZE; cy++) {
-				for (short cx = 0; cx < Chunk.SIZE; cx++) {
-					int index = cx + cy * Chunk.SIZE;
+			ByteBuffer body = chunk.getData().getSaveBuffer();
+			ByteBuffer header = createHeader(chunk, body);
+			ByteBuffer footer = ByteBuffer.allocate(1);
+			footer.put(0, (byte) 1);
 
-					stream.writeString(data.blocks[index]);
-					stream.writeByte(data.blocksHealth[index]);
-					stream.writeString(data.walls[index]);
-					stream.writeByte(data.wallsHealth[index]);
+			writeFully(channel, header);
+			writeFully(channel, body);
+			writeFully(channel, footer);
+			saved.stop(start);
 
-					stream.writeBoolean(false); // TODO: RLE!
-				}
+			if (event != null) {
+				event.x = x;
+				event.y = y;
+				event.bytes = channel.size();
+				event.commit();
 			}
-
-			stream.writeBoolean(chunk.isUnloadable());
-			stream.writeBoolean(true);
-			stream.close();
 		} catch (Exception exception) {
+			logger.error("Could not save chunk " + x + ":" + y + ".");
 			LastTry.handleException(exception);
 			LastTry.abort();
 		}
 	}
 
-	public static Chunk generate(int x, int y) {
-		new Thread(new Runnable() {
-			@Override
-			public void run() {
-				logger.debug("Generating chunk " + x + ":" + y + "...");
-				Globals.getWorld().chunks.set(new Chunk(new ChunkData(), new Vector2(x, y)), x, y);
-				logger.debug("Done generating chunk " + x + ":" + y + "!");
+	/**
+	 * Builds the header: version, unloadable flag, palette size, palette
+	 * bytes and string ids of every numeric id up to the highest, that the
+	 * chunk uses
+	 */
+	private static ByteBuffer createHeader(Chunk chunk, ByteBuffer body) {
+		ItemManager itemManager = CoreRegistry.get(ItemManager.class);
+		short max = 0;
+
+		for (int i = ChunkData.BLOCKS; i < ChunkData.BLOCKS_HEALTH; i += 2) {
+			max = (short) Math.max(max, body.getShort(i));
+		}
+
+		int paletteBytes = 0;
+
+		for (short id = 1; id <= max; id++) {
+			String name = itemManager.getID(id);
+			paletteBytes += 1 + (name == null ? 0 : name.length() * 2);
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + paletteBytes);
+		header.put(VERSION);
+		header.put((byte) (chunk.isUnloadable() ? 1 : 0));
+		header.putShort((short) (max + 1));
+		header.putInt(paletteBytes);
+
+		// 0 is always air
+		for (short id = 1; id <= max; id++) {
+			String name = itemManager.getID(id);
+
+			if (name == null) {
+				header.put((byte) 0);
+				continue;
+			}
+
+			header.put((byte) name.length());
+
+			for (int i = 0; i < name.length(); i++) {
+				header.putChar(name.charAt(i));
 			}
-		}).start();
-		return new EmptyChunk(new Vector2(x, y));
+		}
+
+		header.flip();
+		return header;
+	}
+
+	/**
+	 * Reads the id palette of a save
+	 *
+	 * @return Saved numeric ids to current ones, or null, if they are the same
+	 */
+	private static short[] readPalette(FileChannel channel, short size, int bytes) throws IOException {
+		ItemManager itemManager = CoreRegistry.get(ItemManager.class);
+		ByteBuffer palette = ByteBuffer.allocate(bytes);
+		short[] remap = new short[size];
+		boolean same = true;
+
+		readFully(channel, palette);
+		palette.flip();
+
+		for (short id = 1; id < size; id++) {
+			int length = palette.get() & 0xFF;
+			char[] chars = new char[length];
+
+			for (int i = 0; i < length; i++) {
+				chars[i] = palette.getChar();
+			}
+
+			remap[id] = length == 0 ? 0 : itemManager.getNumericID(new String(chars));
+			same &= remap[id] == id;
+		}
+
+		return same ? null : remap;
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("Chunk save ends too early");
+			}
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	public static Chunk generate(int x, int y) {
+		logger.debug("Generating chunk " + x + ":" + y + "...");
+		long start = generated.start();
+		ChunkIOEvent event = Flight.chunkIO("generate");
+		Chunk chunk = Globals.getWorld().getGenerator().generateChunk(x, y);
+		logger.debug("Done generating chunk " + x + ":" + y + "!");
+		generated.stop(start);
+
+		if (event != null) {
+			event.x = x;
+			event.y = y;
+			event.commit();
+		}
+
+		return chunk;
+	}
+
+	/**
+	 * @return Chunks, read from disk since the start
+	 */
+	public static int getLoaded() {
+		return (int) loaded.getCount();
+	}
+
+	/**
+	 * @return Chunks, written to disk since the start
+	 */
+	public static int getSaved() {
+		return (int) saved.getCount();
+	}
+
+	/**
+	 * @return Chunks, generated since the start
+	 */
+	public static int getGenerated() {
+		return (int) generated.getCount();
 	}
 }
\ No newline at end of file
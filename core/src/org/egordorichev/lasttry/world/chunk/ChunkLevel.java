@@ -0,0 +1,55 @@
+package org.egordorichev.lasttry.world.chunk;
+
+/**
+ * How much of a chunk is simulated, set by chunk tickets, see
+ * {@link org.egordorichev.lasttry.world.components.WorldTicketsComponent}.
+ * Every ring of chunks around a ticket gets the next, weaker level.
+ */
+public enum ChunkLevel {
+	/**
+	 * Creatures are updated and spawned, blocks and liquids tick
+	 */
+	ENTITY_TICKING,
+	/**
+	 * Blocks and liquids tick, creatures are frozen
+	 */
+	BLOCK_TICKING,
+	/**
+	 * Read only: kept loaded for rendering and collision, nothing ticks
+	 */
+	BORDER,
+	/**
+	 * No ticket reaches the chunk, it's only loaded, if something used it,
+	 * and can be evicted
+	 */
+	NONE;
+
+	/**
+	 * @return Creatures in the chunk are updated and can spawn
+	 */
+	public boolean isEntityTicking() {
+		return this == ENTITY_TICKING;
+	}
+
+	/**
+	 * @return Blocks and liquids in the chunk are updated
+	 */
+	public boolean isTicking() {
+		return this.ordinal() <= BLOCK_TICKING.ordinal();
+	}
+
+	/**
+	 * @param distance Rings of chunks past the ticket radius
+	 * @return Level, that far away from a ticket of this level
+	 */
+	public ChunkLevel weaken(int distance) {
+		return values()[Math.min(NONE.ordinal(), this.ordinal() + distance)];
+	}
+
+	/**
+	 * @return Stronger of both levels
+	 */
+	public ChunkLevel max(ChunkLevel level) {
+		return this.ordinal() <= level.ordinal() ? this : level;
+	}
+}
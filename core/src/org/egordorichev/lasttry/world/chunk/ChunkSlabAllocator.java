@@ -0,0 +1,139 @@
+package org.egordorichev.lasttry.world.chunk;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.egordorichev.lasttry.util.metrics.Gauge;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Hands out fixed size slots of direct buffers for {@link OffHeapChunkData}.
+ * Slots are cut from large slabs, so the JVM sees a few big direct buffers
+ * instead of one per chunk, and freed slots are reused right away instead
+ * of waiting for the garbage collector to release the native memory.
+ *
+ * Slabs are never given back, the pool stays as large as the most chunks,
+ * that were loaded at once.
+ */
+public class ChunkSlabAllocator {
+	/**
+	 * Slots in a slab
+	 */
+	public static final int SLOTS_PER_SLAB = 16;
+
+	private static final ChunkSlabAllocator instance = new ChunkSlabAllocator(OffHeapChunkData.SIZE);
+
+	/**
+	 * Bytes in a slot
+	 */
+	private final int slotSize;
+	private final List<ByteBuffer> slabs = new ArrayList<>();
+	/**
+	 * Free slots, the last freed is reused first, while it's still in cache
+	 */
+	private final TIntArrayList free = new TIntArrayList();
+	/**
+	 * Slots, that are handed out, to catch double frees
+	 */
+	private final BitSet used = new BitSet();
+	/**
+	 * Zeros, copied into reused slots
+	 */
+	private final ByteBuffer zeros;
+
+	public ChunkSlabAllocator(int slotSize) {
+		this.slotSize = slotSize;
+		this.zeros = ByteBuffer.allocateDirect(slotSize);
+
+		Metrics.register(new Gauge("chunks.offheap.bytes") {
+			@Override
+			public double get() {
+				return getAllocatedBytes();
+			}
+		});
+
+		Metrics.register(new Gauge("chunks.offheap.used") {
+			@Override
+			public double get() {
+				return getUsedSlots();
+			}
+		});
+	}
+
+	/**
+	 * @return Allocator for chunk data
+	 */
+	public static ChunkSlabAllocator get() {
+		return instance;
+	}
+
+	/**
+	 * @return Free slot number, pass it to {@link #getBuffer(int)} and
+	 *         {@link #free(int)}. The slot is filled with zeros.
+	 */
+	public synchronized int allocate() {
+		if (this.free.isEmpty()) {
+			this.addSlab();
+		}
+
+		int slot = this.free.removeAt(this.free.size() - 1);
+		ByteBuffer buffer = this.getBuffer(slot);
+
+		this.used.set(slot);
+		this.zeros.clear();
+		buffer.put(this.zeros);
+		buffer.clear();
+
+		return slot;
+	}
+
+	/**
+	 * Gives the slot back, it might be handed out again right away
+	 */
+	public synchronized void free(int slot) {
+		if (!this.used.get(slot)) {
+			throw new IllegalStateException("Slot " + slot + " is already free");
+		}
+
+		this.used.clear(slot);
+		this.free.add(slot);
+	}
+
+	/**
+	 * @return New buffer over the slot, position 0, limit the slot size
+	 */
+	public synchronized ByteBuffer getBuffer(int slot) {
+		ByteBuffer slab = this.slabs.get(slot / SLOTS_PER_SLAB).duplicate();
+		int offset = (slot % SLOTS_PER_SLAB) * this.slotSize;
+
+		slab.limit(offset + this.slotSize);
+		slab.position(offset);
+
+		return slab.slice();
+	}
+
+	public synchronized long getAllocatedBytes() {
+		return (long) this.slabs.size() * SLOTS_PER_SLAB * this.slotSize;
+	}
+
+	public synchronized int getUsedSlots() {
+		return this.used.cardinality();
+	}
+
+	public int getSlotSize() {
+		return this.slotSize;
+	}
+
+	private void addSlab() {
+		int first = this.slabs.size() * SLOTS_PER_SLAB;
+		this.slabs.add(ByteBuffer.allocateDirect(SLOTS_PER_SLAB * this.slotSize));
+
+		// Reversed, so slots are handed out from the start of the slab
+		for (int i = SLOTS_PER_SLAB - 1; i >= 0; i--) {
+			this.free.add(first + i);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.egordorichev.lasttry.world.chunk;
+
+/**
+ * Keeps chunks around a chunk loaded and simulated at a level. Equal tickets
+ * are counted, so each add needs its own remove, see
+ * {@link org.egordorichev.lasttry.world.components.WorldTicketsComponent}.
+ */
+public class ChunkTicket {
+	/**
+	 * What holds the ticket, for example "player"
+	 */
+	private final String type;
+	/**
+	 * Chunk X and Y
+	 */
+	private final int x;
+	private final int y;
+	/**
+	 * Level of chunks within the radius
+	 */
+	private final ChunkLevel level;
+	/**
+	 * Distance in chunks, that gets the full level
+	 */
+	private final int radius;
+	/**
+	 * Times, the ticket was added and not removed yet
+	 */
+	private int count;
+
+	public ChunkTicket(String type, int x, int y, ChunkLevel level, int radius) {
+		this.type = type;
+		this.x = x;
+		this.y = y;
+		this.level = level;
+		this.radius = radius;
+	}
+
+	/**
+	 * @param gridX Chunk X
+	 * @param gridY Chunk Y
+	 * @return Level, the ticket gives to the chunk
+	 */
+	public ChunkLevel getLevelAt(int gridX, int gridY) {
+		int distance = Math.max(Math.abs(gridX - this.x), Math.abs(gridY - this.y));
+		return this.level.weaken(Math.max(0, distance - this.radius));
+	}
+
+	/**
+	 * @return Distance in chunks, the ticket reaches with any level
+	 */
+	public int getReach() {
+		return this.radius + ChunkLevel.NONE.ordinal() - this.level.ordinal() - 1;
+	}
+
+	public boolean matches(String type, int x, int y, ChunkLevel level, int radius) {
+		return this.type.equals(type) && this.x == x && this.y == y && this.level == level && this.radius == radius;
+	}
+
+	public int acquire() {
+		return ++this.count;
+	}
+
+	public int release() {
+		return --this.count;
+	}
+
+	public int getCount() {
+		return this.count;
+	}
+
+	public String getType() {
+		return this.type;
+	}
+
+	public int getX() {
+		return this.x;
+	}
+
+	public int getY() {
+		return this.y;
+	}
+
+	public ChunkLevel getLevel() {
+		return this.level;
+	}
+
+	public int getRadius() {
+		return this.radius;
+	}
+}
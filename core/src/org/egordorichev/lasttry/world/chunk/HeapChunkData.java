@@ -0,0 +1,156 @@
+package org.egordorichev.lasttry.world.chunk;
+
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Chunk tiles in arrays on the heap
+ */
+public class HeapChunkData extends ChunkData {
+	/**
+	 * Array header size in bytes
+	 */
+	private static final int ARRAY_HEADER = 16;
+	/**
+	 * Saved layers are converted in it, one per thread, since the chunk gc
+	 * saves chunks too
+	 */
+	private static final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+		@Override
+		protected ByteBuffer initialValue() {
+			return ByteBuffer.allocateDirect(SAVED_BYTES);
+		}
+	};
+
+	private final String[] blocks = new String[Chunk.TOTAL_SIZE];
+	private final byte[] blocksHealth = new byte[Chunk.TOTAL_SIZE];
+	private final String[] walls = new String[Chunk.TOTAL_SIZE];
+	private final byte[] wallsHealth = new byte[Chunk.TOTAL_SIZE];
+	private final byte[] light = new byte[Chunk.TOTAL_SIZE];
+	private final byte[] blockMasks = new byte[Chunk.TOTAL_SIZE];
+	private final byte[] wallMasks = new byte[Chunk.TOTAL_SIZE];
+
+	@Override
+	public String getBlock(int index) {
+		return this.blocks[index];
+	}
+
+	@Override
+	public void setBlock(int index, String id) {
+		this.blocks[index] = id;
+	}
+
+	@Override
+	public byte getBlockHealth(int index) {
+		return this.blocksHealth[index];
+	}
+
+	@Override
+	public void setBlockHealth(int index, byte hp) {
+		this.blocksHealth[index] = hp;
+	}
+
+	@Override
+	public String getWall(int index) {
+		return this.walls[index];
+	}
+
+	@Override
+	public void setWall(int index, String id) {
+		this.walls[index] = id;
+	}
+
+	@Override
+	public byte getWallHealth(int index) {
+		return this.wallsHealth[index];
+	}
+
+	@Override
+	public void setWallHealth(int index, byte hp) {
+		this.wallsHealth[index] = hp;
+	}
+
+	@Override
+	public byte getLight(int index) {
+		return this.light[index];
+	}
+
+	@Override
+	public void setLight(int index, byte light) {
+		this.light[index] = light;
+	}
+
+	@Override
+	public byte getBlockMask(int index) {
+		return this.blockMasks[index];
+	}
+
+	@Override
+	public void setBlockMask(int index, byte mask) {
+		this.blockMasks[index] = mask;
+	}
+
+	@Override
+	public byte getWallMask(int index) {
+		return this.wallMasks[index];
+	}
+
+	@Override
+	public void setWallMask(int index, byte mask) {
+		this.wallMasks[index] = mask;
+	}
+
+	@Override
+	public ByteBuffer getSaveBuffer() {
+		ItemManager itemManager = CoreRegistry.get(ItemManager.class);
+		ByteBuffer buffer = buffers.get();
+
+		for (int i = 0; i < Chunk.TOTAL_SIZE; i++) {
+			buffer.putShort(BLOCKS + i * 2, itemManager.getNumericID(this.blocks[i]));
+			buffer.putShort(WALLS + i * 2, itemManager.getNumericID(this.walls[i]));
+		}
+
+		buffer.clear();
+		buffer.position(BLOCKS_HEALTH);
+		buffer.put(this.blocksHealth);
+		buffer.put(this.wallsHealth);
+		buffer.flip();
+
+		return buffer;
+	}
+
+	@Override
+	public ByteBuffer getLoadBuffer() {
+		ByteBuffer buffer = buffers.get();
+		buffer.clear();
+
+		return buffer;
+	}
+
+	@Override
+	public void finishLoad(short[] remap) {
+		ItemManager itemManager = CoreRegistry.get(ItemManager.class);
+		ByteBuffer buffer = buffers.get();
+
+		for (int i = 0; i < Chunk.TOTAL_SIZE; i++) {
+			short block = buffer.getShort(BLOCKS + i * 2);
+			short wall = buffer.getShort(WALLS + i * 2);
+
+			this.blocks[i] = itemManager.getID(remap(block, remap));
+			this.walls[i] = itemManager.getID(remap(wall, remap));
+		}
+
+		buffer.clear();
+		buffer.position(BLOCKS_HEALTH);
+		buffer.get(this.blocksHealth);
+		buffer.get(this.wallsHealth);
+	}
+
+	@Override
+	public long getBytes(int referenceSize) {
+		// Ids are shared strings, only the references count
+		return 2 * (ARRAY_HEADER + (long) Chunk.TOTAL_SIZE * referenceSize) + 5 * (ARRAY_HEADER + Chunk.TOTAL_SIZE);
+	}
+}
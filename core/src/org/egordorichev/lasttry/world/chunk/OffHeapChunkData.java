@@ -0,0 +1,162 @@
+package org.egordorichev.lasttry.world.chunk;
+
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Chunk tiles in a slot of {@link ChunkSlabAllocator}, off the heap, so
+ * loaded chunks don't grow the old generation. Ids are kept as numeric ids,
+ * see {@link ItemManager#getNumericID(String)}, and the saved layers come
+ * first, so {@link ChunkIO} writes and reads them without a copy.
+ *
+ * The slot is given back with {@link #free()}, when the chunk is evicted and
+ * no tile cache build can read it anymore, see
+ * {@link org.egordorichev.lasttry.world.components.WorldChunksComponent#freeRemoved()}.
+ */
+public class OffHeapChunkData extends ChunkData {
+	/**
+	 * Offsets of the layers, that aren't saved
+	 */
+	public static final int LIGHT = SAVED_BYTES;
+	public static final int BLOCK_MASKS = LIGHT + Chunk.TOTAL_SIZE;
+	public static final int WALL_MASKS = BLOCK_MASKS + Chunk.TOTAL_SIZE;
+	/**
+	 * Bytes, taken by a chunk
+	 */
+	public static final int SIZE = WALL_MASKS + Chunk.TOTAL_SIZE;
+
+	private final ItemManager itemManager;
+	/**
+	 * Slot in the allocator, -1 after the data was freed
+	 */
+	private int slot;
+	/**
+	 * Read by tile cache workers, null after the data was freed
+	 */
+	private volatile ByteBuffer buffer;
+
+	public OffHeapChunkData() {
+		this.itemManager = CoreRegistry.get(ItemManager.class);
+		this.slot = ChunkSlabAllocator.get().allocate();
+		this.buffer = ChunkSlabAllocator.get().getBuffer(this.slot);
+	}
+
+	@Override
+	public String getBlock(int index) {
+		return this.itemManager.getID(this.buffer.getShort(BLOCKS + index * 2));
+	}
+
+	@Override
+	public void setBlock(int index, String id) {
+		this.buffer.putShort(BLOCKS + index * 2, this.itemManager.getNumericID(id));
+	}
+
+	@Override
+	public byte getBlockHealth(int index) {
+		return this.buffer.get(BLOCKS_HEALTH + index);
+	}
+
+	@Override
+	public void setBlockHealth(int index, byte hp) {
+		this.buffer.put(BLOCKS_HEALTH + index, hp);
+	}
+
+	@Override
+	public String getWall(int index) {
+		return this.itemManager.getID(this.buffer.getShort(WALLS + index * 2));
+	}
+
+	@Override
+	public void setWall(int index, String id) {
+		this.buffer.putShort(WALLS + index * 2, this.itemManager.getNumericID(id));
+	}
+
+	@Override
+	public byte getWallHealth(int index) {
+		return this.buffer.get(WALLS_HEALTH + index);
+	}
+
+	@Override
+	public void setWallHealth(int index, byte hp) {
+		this.buffer.put(WALLS_HEALTH + index, hp);
+	}
+
+	@Override
+	public byte getLight(int index) {
+		return this.buffer.get(LIGHT + index);
+	}
+
+	@Override
+	public void setLight(int index, byte light) {
+		this.buffer.put(LIGHT + index, light);
+	}
+
+	@Override
+	public byte getBlockMask(int index) {
+		return this.buffer.get(BLOCK_MASKS + index);
+	}
+
+	@Override
+	public void setBlockMask(int index, byte mask) {
+		this.buffer.put(BLOCK_MASKS + index, mask);
+	}
+
+	@Override
+	public byte getWallMask(int index) {
+		return this.buffer.get(WALL_MASKS + index);
+	}
+
+	@Override
+	public void setWallMask(int index, byte mask) {
+		this.buffer.put(WALL_MASKS + index, mask);
+	}
+
+	@Override
+	public ByteBuffer getSaveBuffer() {
+		ByteBuffer view = this.buffer.duplicate();
+		view.limit(SAVED_BYTES);
+
+		return view;
+	}
+
+	@Override
+	public ByteBuffer getLoadBuffer() {
+		return this.getSaveBuffer();
+	}
+
+	@Override
+	public void finishLoad(short[] remap) {
+		if (remap == null) {
+			return;
+		}
+
+		for (int i = 0; i < Chunk.TOTAL_SIZE * 2; i++) {
+			int offset = BLOCKS + i * 2;
+			this.buffer.putShort(offset, remap(this.buffer.getShort(offset), remap));
+		}
+	}
+
+	@Override
+	public long getBytes(int referenceSize) {
+		return 0;
+	}
+
+	@Override
+	public long getOffHeapBytes() {
+		return SIZE;
+	}
+
+	@Override
+	public synchronized void free() {
+		if (this.slot == -1) {
+			return;
+		}
+
+		ChunkSlabAllocator.get().free(this.slot);
+		this.slot = -1;
+		// Any use after this is a bug, better fail than read another chunk
+		this.buffer = null;
+	}
+}
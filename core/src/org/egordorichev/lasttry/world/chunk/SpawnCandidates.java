@@ -0,0 +1,101 @@
+package org.egordorichev.lasttry.world.chunk;
+
+/**
+ * Set of tiles in a chunk, where a creature can be spawned. Grouped by
+ * section, so a random candidate can be picked in constant time.
+ */
+public class SpawnCandidates {
+	/**
+	 * Tile positions inside of the section, for every section
+	 */
+	private final short[][] tiles = new short[Chunk.SECTIONS][];
+	/**
+	 * Position in the tiles list for every tile of the section, -1 if the
+	 * tile is not a candidate
+	 */
+	private final short[][] slots = new short[Chunk.SECTIONS][];
+	/**
+	 * Candidates per section
+	 */
+	private final short[] counts = new short[Chunk.SECTIONS];
+
+	/**
+	 * @param x         Tile X inside of the chunk
+	 * @param y         Tile Y inside of the chunk
+	 * @param candidate Can a creature spawn here
+	 */
+	public void set(int x, int y, boolean candidate) {
+		int section = Chunk.getSection(x, y);
+		int tile = (x % Chunk.SECTION_SIZE) + (y % Chunk.SECTION_SIZE) * Chunk.SECTION_SIZE;
+
+		if (this.slots[section] == null) {
+			if (!candidate) {
+				return;
+			}
+
+			this.tiles[section] = new short[Chunk.SECTION_SIZE * Chunk.SECTION_SIZE];
+			this.slots[section] = new short[Chunk.SECTION_SIZE * Chunk.SECTION_SIZE];
+
+			for (int i = 0; i < this.slots[section].length; i++) {
+				this.slots[section][i] = -1;
+			}
+		}
+
+		short[] tiles = this.tiles[section];
+		short[] slots = this.slots[section];
+		short slot = slots[tile];
+
+		if (candidate && slot == -1) {
+			slots[tile] = this.counts[section];
+			tiles[this.counts[section]] = (short) tile;
+			this.counts[section]++;
+		} else if (!candidate && slot != -1) {
+			// Move the last candidate into the free slot
+			short last = tiles[--this.counts[section]];
+			tiles[slot] = last;
+			slots[last] = slot;
+			slots[tile] = -1;
+		}
+	}
+
+	/**
+	 * @param x Tile X inside of the chunk
+	 * @param y Tile Y inside of the chunk
+	 * @return Can a creature spawn here
+	 */
+	public boolean contains(int x, int y) {
+		short[] slots = this.slots[Chunk.getSection(x, y)];
+
+		if (slots == null) {
+			return false;
+		}
+
+		return slots[(x % Chunk.SECTION_SIZE) + (y % Chunk.SECTION_SIZE) * Chunk.SECTION_SIZE] != -1;
+	}
+
+	/**
+	 * @param section Section index
+	 * @return Amount of candidates in the section
+	 */
+	public int count(int section) {
+		return this.counts[section];
+	}
+
+	/**
+	 * @param section Section index
+	 * @param index   Candidate index, less than {@link #count(int)}
+	 * @return Candidate X inside of the chunk
+	 */
+	public int getX(int section, int index) {
+		return (section % Chunk.SECTIONS_PER_ROW) * Chunk.SECTION_SIZE + this.tiles[section][index] % Chunk.SECTION_SIZE;
+	}
+
+	/**
+	 * @param section Section index
+	 * @param index   Candidate index, less than {@link #count(int)}
+	 * @return Candidate Y inside of the chunk
+	 */
+	public int getY(int section, int index) {
+		return (section / Chunk.SECTIONS_PER_ROW) * Chunk.SECTION_SIZE + this.tiles[section][index] / Chunk.SECTION_SIZE;
+	}
+}
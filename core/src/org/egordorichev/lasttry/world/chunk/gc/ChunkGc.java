@@ -1,6 +1,11 @@
 package org.egordorichev.lasttry.world.chunk.gc;
 
 import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.util.flight.ChunkGcEvent;
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.util.metrics.Counter;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.util.metrics.Timer;
 import org.egordorichev.lasttry.world.chunk.Chunk;
 import org.egordorichev.lasttry.world.chunk.ChunkIO;
 import org.slf4j.Logger;
@@ -11,10 +16,17 @@ import java.util.*;
 //Logic responsible for carrying out chunk gc
 public class ChunkGc {
 	private static final Logger logger = LoggerFactory.getLogger(ChunkIO.class);
+	private static final Timer gcTimer = Metrics.timer("chunks.gc");
+	private static final Counter freedCounter = Metrics.counter("chunks.freed");
 	private ChunkGcCalc.ChunkGCLevel currentChunkGcLevel;
+	/**
+	 * Memory pressure in percent, the level was picked for
+	 */
+	private int pressure;
 
-	ChunkGc(ChunkGcCalc.ChunkGCLevel levelToRunChunkGcAt) {
+	ChunkGc(ChunkGcCalc.ChunkGCLevel levelToRunChunkGcAt, int pressure) {
 		this.currentChunkGcLevel = levelToRunChunkGcAt;
+		this.pressure = pressure;
 	}
 
 	public void onWakeUp(){
@@ -28,16 +40,44 @@ public class ChunkGc {
 	public void beginChunkGC() {
 		logger.debug("Received request to perform Chunk GC");
 
-		this.startUp();
-		this.performChunkGc();
-		this.finish();
+		if (!this.startUp()) {
+			logger.debug("Chunk GC is already in progress");
+			return;
+		}
+
+		long start = gcTimer.start();
+		ChunkGcEvent event = Flight.chunkGc();
+		int loaded = Globals.getWorld().chunks.getImmutableLoadedChunks().size();
+		int freed;
+
+		try {
+			freed = this.performChunkGc();
+		} finally {
+			this.finish();
+		}
+
+		gcTimer.stop(start);
+
+		if (event != null) {
+			event.level = this.currentChunkGcLevel.name();
+			event.pressure = this.pressure;
+			event.loaded = loaded;
+			event.freed = freed;
+			event.commit();
+		}
 	}
 
-	private void performChunkGc() {
+	/**
+	 * @return Amount of freed chunks
+	 */
+	private int performChunkGc() {
 		List<Chunk> mutableLoadedChunks = this.retrieveMutableLoadedChunks();
 		ArrayList<UUID> uniqueIdsOfChunksToBeFreed = this.getUniqueIdsOfChunksToBeFreed(mutableLoadedChunks);
 
 		this.freeChunks(uniqueIdsOfChunksToBeFreed);
+		freedCounter.add(uniqueIdsOfChunksToBeFreed.size());
+
+		return uniqueIdsOfChunksToBeFreed.size();
 	}
 
 	private List<Chunk> retrieveMutableLoadedChunks() {
@@ -48,28 +88,57 @@ public class ChunkGc {
 		return mutableLoadedChunks;
 	}
 
-	private void setChunkGcInProgressFlag(boolean flag) {
-		Globals.chunkGcManager.setChunkGcInProgress(flag);
-	}
-
 	private ArrayList<UUID> getUniqueIdsOfChunksToBeFreed(List<Chunk> loadedChunks) {
-		this.sortBasedOnDate(loadedChunks);
-
-		int amountOfChunksToFree = currentChunkGcLevel.getChunksToFree();
-		logger.debug("Amount of loaded chunks to free is: "+amountOfChunksToFree);
+		int amountOfChunksToFree = currentChunkGcLevel.getChunksToFree(this.pressure, loadedChunks.size());
+		EvictionPolicy policy = Globals.chunkGcManager.getPolicy();
+		logger.debug("Memory pressure is " + this.pressure + "%, amount of loaded chunks to free is: "
+				+ amountOfChunksToFree + ", policy is " + policy.getName());
 
 		ArrayList<UUID> uniqueIdsOfChunksToBeFreed = new ArrayList<>();
 
-		//We remove the oldest chunk, which will be the first chunks.
-		for(int i = 0; i < amountOfChunksToFree; i++) {
-			Chunk chunkToBeFreed = loadedChunks.get(i);
+		for (Chunk chunkToBeFreed : selectChunksToFree(loadedChunks, amountOfChunksToFree, policy, EvictionFocus.current())) {
+			uniqueIdsOfChunksToBeFreed.add(chunkToBeFreed.getUniqueChunkId());
+		}
 
-			if (chunkToBeFreed.isUnloadable()) {
-				uniqueIdsOfChunksToBeFreed.add(chunkToBeFreed.getUniqueChunkId());
+		return uniqueIdsOfChunksToBeFreed;
+	}
+
+	/**
+	 * Picks chunks with the highest scores. Chunks, that a ticket reaches,
+	 * and chunks with a chunk loader are skipped, instead of being counted
+	 * as freed.
+	 *
+	 * @param loadedChunks Loaded chunks
+	 * @param amount Amount of chunks to free
+	 * @param policy Policy, that scores the chunks
+	 * @param focus Where the player is
+	 * @return Chunks to free, at most amount
+	 */
+	public static List<Chunk> selectChunksToFree(List<Chunk> loadedChunks, int amount, EvictionPolicy policy,
+			EvictionFocus focus) {
+
+		List<Candidate> candidates = new ArrayList<>();
+
+		for (Chunk chunk : loadedChunks) {
+			if (chunk.isEvictable()) {
+				candidates.add(new Candidate(chunk, policy.score(chunk, focus)));
 			}
 		}
 
-		return uniqueIdsOfChunksToBeFreed;
+		// Highest score first
+		Collections.sort(candidates, new Comparator<Candidate>() {
+			public int compare(Candidate one, Candidate other) {
+				return Float.compare(other.score, one.score);
+			}
+		});
+
+		List<Chunk> chunksToFree = new ArrayList<>();
+
+		for (int i = 0; i < amount && i < candidates.size(); i++) {
+			chunksToFree.add(candidates.get(i).chunk);
+		}
+
+		return chunksToFree;
 	}
 
 	private void freeChunks(List<UUID> idsOfChunksToBeFreed) {
@@ -79,27 +148,30 @@ public class ChunkGc {
 		});
 	}
 
-	private void startUp() {
+	/**
+	 * @return The flag in gc manager was set, no other chunk gc is in progress
+	 */
+	private boolean startUp() {
 		assert Globals.getWorld().chunks.getImmutableLoadedChunks().size()<=ChunkGcCalc.MINIMUMLOADEDCHUNKS : "Chunks currently loaded is less than or equal to minimum loaded chunks";
 
 		//Set flag in gc manager, signalling a chunk gc is in progress
-		setChunkGcInProgressFlag(true);
+		return Globals.chunkGcManager.tryStartChunkGc();
 	}
 
 	private void finish() {
-		setChunkGcInProgressFlag(false);
+		Globals.chunkGcManager.finishChunkGc();
 
 		//Schedule next chunk gc
 		Globals.chunkGcManager.requestFutureChunkGc();
 	}
 
-	private void sortBasedOnDate(List<Chunk> loadedChunks) {
-		// Sort by local date, most recent date is last and oldest date is first.
-		Collections.sort(loadedChunks, new Comparator<Chunk>() {
-			public int compare(Chunk one, Chunk other) {
-				return one.getLastAccessedTime().compareTo(other.getLastAccessedTime());
-			}
-		});
-	}
+	private static class Candidate {
+		private final Chunk chunk;
+		private final float score;
 
+		private Candidate(Chunk chunk, float score) {
+			this.chunk = chunk;
+			this.score = score;
+		}
+	}
 }
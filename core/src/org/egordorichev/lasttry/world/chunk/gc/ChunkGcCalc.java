@@ -1,38 +1,36 @@
 package org.egordorichev.lasttry.world.chunk.gc;
 
-import org.egordorichev.lasttry.Globals;
-
-import static org.egordorichev.lasttry.world.chunk.gc.ChunkGcCalc.ChunkGCLevel.S6;
+import static org.egordorichev.lasttry.world.chunk.gc.ChunkGcCalc.ChunkGCLevel.SLEEP;
 
 //Static methods responsible for calculating the appropriate Chunk gc level
 public class ChunkGcCalc {
 
-    //todo Right now minimum loaded chunks is being activated when loaded chunks size is at least '3' not just '2'
     public final static int MINIMUMLOADEDCHUNKS = 2;
 
-    //Enums representing the 6 possible levels of a Chunk GC
+    //Enums representing the possible levels of a Chunk GC, the higher the memory pressure, the sooner
+    //the next attempt and the more chunks are evicted
     public enum ChunkGCLevel {
 
-        S6(ChunkGcLevelConstants.ChunkGcLevelBounds.S6, 15, 5),
-        S5(ChunkGcLevelConstants.ChunkGcLevelBounds.S5, 20, 6),
-        S4(ChunkGcLevelConstants.ChunkGcLevelBounds.S4, 30, 10),
-        S3(ChunkGcLevelConstants.ChunkGcLevelBounds.S3, 60, 10),
-        S2(ChunkGcLevelConstants.ChunkGcLevelBounds.S2, 90, 5),
-        S1(ChunkGcLevelConstants.ChunkGcLevelBounds.S1, 120, 5),
-        S0(ChunkGcLevelConstants.ChunkGcLevelBounds.S0, 120, 1),
-	    //DEV(ChunkGcLevelConstants.ChunkGcLevelBounds.DEV, 0, 100),
-	    //Amount of Chunks not enough for Chunks GC, Chunk GC will be inactive
-        SLEEP(ChunkGcLevelConstants.ChunkGcLevelBounds.SLEEP, 120, 0);
+        S6(ChunkGcLevelConstants.ChunkGcLevelBounds.S6, 2, 50),
+        S5(ChunkGcLevelConstants.ChunkGcLevelBounds.S5, 5, 60),
+        S4(ChunkGcLevelConstants.ChunkGcLevelBounds.S4, 10, 60),
+        S3(ChunkGcLevelConstants.ChunkGcLevelBounds.S3, 20, 55),
+        S2(ChunkGcLevelConstants.ChunkGcLevelBounds.S2, 40, 50),
+        S1(ChunkGcLevelConstants.ChunkGcLevelBounds.S1, 60, 45),
+        S0(ChunkGcLevelConstants.ChunkGcLevelBounds.S0, 90, 40),
+        //Memory pressure is low, Chunk GC will be inactive
+        SLEEP(ChunkGcLevelConstants.ChunkGcLevelBounds.SLEEP, 120, 100);
 
         private ChunkGcLevelConstants.ChunkGcLevelBounds  chunkGcLevelDesc;
         //Time Interval before the next GC process should be attempted again
         private int timeIntervalBeforeNextAttempt;
-        private int chunksToFree;
+        //Memory pressure in percent, that should be left after the GC
+        private int targetPressure;
 
-        ChunkGCLevel(ChunkGcLevelConstants.ChunkGcLevelBounds chunkDesc, int timeIntervalBeforeNextAttempt, int chunksToFree) {
+        ChunkGCLevel(ChunkGcLevelConstants.ChunkGcLevelBounds chunkDesc, int timeIntervalBeforeNextAttempt, int targetPressure) {
             this.chunkGcLevelDesc = chunkDesc;
             this.timeIntervalBeforeNextAttempt = timeIntervalBeforeNextAttempt;
-            this.chunksToFree = chunksToFree;
+            this.targetPressure = targetPressure;
         }
 
         public ChunkGcLevelConstants.ChunkGcLevelBounds getLevelDescription() {
@@ -43,67 +41,43 @@ public class ChunkGcCalc {
             return this.timeIntervalBeforeNextAttempt;
         }
 
-        public int getChunksToFree() {
-            return this.chunksToFree;
+        public int getTargetPressure() {
+            return this.targetPressure;
         }
 
-    }
-
-    //Returns appropriate chunk gc level based on amount of loaded chunks in memory
-    public static synchronized ChunkGCLevel calcGcLevel(int currentlyLoadedChunks) {
+        /**
+         * Chunks take about the same memory each, so the share of chunks to evict is the share of
+         * pressure over the target
+         *
+         * @param pressure Current memory pressure in percent
+         * @param loadedChunks Amount of loaded chunks
+         * @return Amount of chunks to evict
+         */
+        public int getChunksToFree(int pressure, int loadedChunks) {
+            if (pressure <= this.targetPressure) {
+                return 0;
+            }
 
-        int filledPercentOfChunks = getFilledChunksPercent();
+            int chunksToFree = (int) Math.ceil((double) loadedChunks * (pressure - this.targetPressure) / pressure);
 
-        //todo rethink this, must be a better exception to throw
-        if(filledPercentOfChunks>100){
-            throw new IllegalArgumentException("Filled percentage of chunks, is greater than 100");
+            return Math.max(0, Math.min(chunksToFree, loadedChunks - MINIMUMLOADEDCHUNKS));
         }
 
-        //When percentage of chunks is full, immediately return S6;
-        if(filledPercentOfChunks==100){
-            return S6;
-        }
-
-        return getAppropriateLevel(filledPercentOfChunks);
-
     }
 
-    private static synchronized ChunkGCLevel getAppropriateLevel(int filledPercentOfChunks) {
-
-        ChunkGCLevel[] availGcLevels = ChunkGCLevel.values();
-
-        ChunkGCLevel appropriateLevel = null;
+    //Returns appropriate chunk gc level based on memory pressure
+    public static synchronized ChunkGCLevel calcGcLevel(int pressure) {
 
-        for(ChunkGCLevel chunkGCLevel: availGcLevels)
-        {
+        for (ChunkGCLevel chunkGCLevel : ChunkGCLevel.values()) {
             int higherBoundTriggerPercent = chunkGCLevel.getLevelDescription().getTriggerPercentageHigherBounds();
             int lowerBoundTriggerPercent = chunkGCLevel.getLevelDescription().getTriggerPercentageLowerBounds();
 
-            //todo right now if percentage of chunks is 100, it is not caught here but caught higher up
-            if(filledPercentOfChunks<higherBoundTriggerPercent&&filledPercentOfChunks>=lowerBoundTriggerPercent){
-                appropriateLevel = chunkGCLevel;
+            if (pressure < higherBoundTriggerPercent && pressure >= lowerBoundTriggerPercent) {
+                return chunkGCLevel;
             }
         }
 
-        return appropriateLevel;
-    }
-
-
-    //Calculates percentage of chunks that are filled out of max chunks for world
-    private static int getFilledChunksPercent() {
-        double maxChunksSize = Globals.getWorld().getSize().getMaxChunks();
-
-        double loadedChunksSize = Globals.getWorld().chunks.getImmutableLoadedChunks().size();
-
-        if(loadedChunksSize<=MINIMUMLOADEDCHUNKS){
-            return 0;
-        }
-
-        double loadedChunksOfTotalFraction = loadedChunksSize/maxChunksSize;
-
-        double loadedChunksOfTotalPercentage = loadedChunksOfTotalFraction * 100;
-
-        return (int)loadedChunksOfTotalPercentage;
+        return SLEEP;
     }
 
 }
@@ -1,20 +1,19 @@
 package org.egordorichev.lasttry.world.chunk.gc;
 
 public class ChunkGcLevelConstants {
+    //Bounds are percents of memory pressure, see ChunkMemory.getPressure()
     public enum ChunkGcLevelBounds {
-        S6("Level 6 - 15 sec interval, 5 chunk release", 90, 100),
-        S5("Level 5 - 20 sec interval, 6 chunk release", 80, 90),
-        S4("Level 4 - 30 sec interval, 10 chunk release", 75, 80),
-        S3("Level 3 - 60 sec interval, 10 chunk release", 50, 75),
-        S2("Level 2 - 90 sec interval, 5 chunk release", 25, 50),
-        S1("Level 1 - 120 sec interval, 5 chunk release", 15, 25),
-        S0("Level 0 - 120 sec interval, 1 chunk release", 5, 15),
-        //DEV("Level dev - runs once", 0, 100),
-        //Amount of Chunks not enough for Chunks GC, Chunk GC will be inactive
-        SLEEP("Sleep - 120 sec interval, 0 chunk release", 0, 5);
+        S6("Level 6 - over budget, 2 sec interval, evict to 50%", 100, Integer.MAX_VALUE),
+        S5("Level 5 - 5 sec interval, evict to 60%", 90, 100),
+        S4("Level 4 - 10 sec interval, evict to 60%", 80, 90),
+        S3("Level 3 - 20 sec interval, evict to 55%", 70, 80),
+        S2("Level 2 - 40 sec interval, evict to 50%", 60, 70),
+        S1("Level 1 - 60 sec interval, evict to 45%", 50, 60),
+        S0("Level 0 - 90 sec interval, evict to 40%", 40, 50),
+        //Memory pressure is low, Chunk GC will be inactive
+        SLEEP("Sleep - 120 sec interval, no eviction", 0, 40);
 
         private String levelDescription;
-        //Time Interval before the next GC process should be attempted again
         private int triggerPercentageHigherBounds;
         private int triggerPercentageLowerBounds;
 
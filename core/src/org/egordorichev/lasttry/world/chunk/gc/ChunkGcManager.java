@@ -1,12 +1,15 @@
 package org.egordorichev.lasttry.world.chunk.gc;
 
 import org.egordorichev.lasttry.Globals;
-import org.egordorichev.lasttry.util.Callable;
+import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.util.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Responsible for determining intervals between Chunk GC should be run and
@@ -19,7 +22,27 @@ import java.util.concurrent.TimeUnit;
 
 public class ChunkGcManager {
 	private static final Logger logger = LoggerFactory.getLogger(ChunkGcManager.class);
-	boolean chunkGcInProgress = false;
+	private final AtomicBoolean chunkGcInProgress = new AtomicBoolean();
+	/**
+	 * Runs every chunk gc, one at a time
+	 */
+	private final ScheduledExecutorService executor = Util.createDaemonScheduler();
+	/**
+	 * Next scheduled chunk gc, there is only one at a time
+	 */
+	private ScheduledFuture<?> next;
+	/**
+	 * Memory, taken by chunks, and heap pressure
+	 */
+	private final ChunkMemory memory = new ChunkMemory();
+	/**
+	 * Policy for the next worlds, set with -evict
+	 */
+	private static EvictionPolicy configuredPolicy = new WeightedPolicy();
+	/**
+	 * Decides, which chunks are freed first
+	 */
+	private volatile EvictionPolicy policy = configuredPolicy;
 
 	public ChunkGcManager() {
 		this.requestFutureChunkGc();
@@ -28,9 +51,9 @@ public class ChunkGcManager {
 	public synchronized void requestFutureChunkGc() {
 		if (!isChunkGcInProgress()) {
 			logger.debug("Chunk GC is not in progress");
-			int currentlyLoadedChunks = this.getCurrentlyLoadedChunks();
-			logger.debug("Loaded chunks is: " + currentlyLoadedChunks);
-			ChunkGcCalc.ChunkGCLevel chunkGCLevel = ChunkGcCalc.calcGcLevel(currentlyLoadedChunks);
+			int pressure = this.memory.getPressure();
+			logger.debug("Loaded chunks is: " + this.getCurrentlyLoadedChunks() + ", memory pressure is: " + pressure + "%");
+			ChunkGcCalc.ChunkGCLevel chunkGCLevel = ChunkGcCalc.calcGcLevel(pressure);
 			this.scheduleChunkGc(chunkGCLevel);
 		}
 	}
@@ -43,34 +66,120 @@ public class ChunkGcManager {
 	}
 
 	public synchronized void scheduleFutureChunkGcThread(ChunkGcCalc.ChunkGCLevel chunkGCLevel) {
-		Util.futureOneTimeRunInThread(new GCTask(), chunkGCLevel.getTimeIntervalBeforeNextAttempt(), TimeUnit.SECONDS);
+		this.scheduleCustomIntervalChunkGcThread(chunkGCLevel.getTimeIntervalBeforeNextAttempt());
 	}
 
+	/**
+	 * Moves the next chunk gc to the given delay. A chunk gc, that is already
+	 * due sooner, is kept, so an urgent request (delay 0) always wins.
+	 *
+	 * @param timeIntervalDelay Delay in seconds
+	 */
 	public synchronized void scheduleCustomIntervalChunkGcThread(int timeIntervalDelay) {
-		Util.futureOneTimeRunInThread(new GCTask(), timeIntervalDelay, TimeUnit.SECONDS);
+		if (this.executor.isShutdown()) {
+			return;
+		}
+
+		if (this.next != null) {
+			if (this.next.getDelay(TimeUnit.SECONDS) <= timeIntervalDelay) {
+				return;
+			}
+
+			this.next.cancel(false);
+		}
+
+		this.next = this.executor.schedule(new GCTask(), timeIntervalDelay, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Called, when the scheduled chunk gc starts, so the next one can be
+	 * scheduled
+	 */
+	private synchronized void onChunkGcStarted() {
+		this.next = null;
 	}
 
 	public synchronized int getCurrentlyLoadedChunks() {
 		return Globals.getWorld().chunks.getImmutableLoadedChunks().size();
 	}
 
-	public synchronized void setChunkGcInProgress(boolean flag) {
-		chunkGcInProgress = flag;
+	/**
+	 * @return The chunk gc may start, no other one is in progress
+	 */
+	public boolean tryStartChunkGc() {
+		return this.chunkGcInProgress.compareAndSet(false, true);
+	}
+
+	public void finishChunkGc() {
+		this.chunkGcInProgress.set(false);
 	}
 
 	public boolean isChunkGcInProgress() {
-		return chunkGcInProgress;
+		return this.chunkGcInProgress.get();
+	}
+
+	/**
+	 * @param name Policy name: distance, lru or weighted
+	 * @return New policy, or null, if the name is unknown
+	 */
+	public static EvictionPolicy createPolicy(String name) {
+		switch (name.toLowerCase()) {
+			case "distance":
+				return new DistancePolicy();
+			case "lru":
+				return new LruPolicy();
+			case "weighted":
+				return new WeightedPolicy();
+			default:
+				return null;
+		}
 	}
 
-	private static class GCTask extends Callable {
+	/**
+	 * Sets the eviction policy of the next worlds
+	 */
+	public static void setConfiguredPolicy(EvictionPolicy policy) {
+		configuredPolicy = policy;
+	}
+
+	public EvictionPolicy getPolicy() {
+		return this.policy;
+	}
+
+	public void setPolicy(EvictionPolicy policy) {
+		this.policy = policy;
+	}
+
+	public ChunkMemory getMemory() {
+		return this.memory;
+	}
+
+	/**
+	 * Stops scheduling chunk gc and listening to the heap
+	 */
+	public void dispose() {
+		this.executor.shutdownNow();
+		this.memory.dispose();
+	}
+
+	private class GCTask implements Runnable {
 		@Override
-		public void call() {
+		public void run() {
+			try {
+				this.call();
+			} catch (Exception exception) {
+				LastTry.handleException(exception);
+			}
+		}
+
+		private void call() {
 			logger.debug("Chunk GC thread has started, time limit has expired");
+			ChunkGcManager.this.onChunkGcStarted();
 			// On wakeup, we run a chunk gc immediately based on a ChunkGC level
-			// we receive based on the current loaded chunks level
-			ChunkGcCalc.ChunkGCLevel chunkGCLevelForCurrentGc = ChunkGcCalc
-					.calcGcLevel(Globals.getWorld().chunks.getImmutableLoadedChunks().size());
-			ChunkGc chunkGcThread = new ChunkGc(chunkGCLevelForCurrentGc);
+			// we receive based on the current memory pressure
+			int pressure = ChunkGcManager.this.memory.getPressure();
+			ChunkGcCalc.ChunkGCLevel chunkGCLevelForCurrentGc = ChunkGcCalc.calcGcLevel(pressure);
+			ChunkGc chunkGcThread = new ChunkGc(chunkGCLevelForCurrentGc, pressure);
 			chunkGcThread.onWakeUp();
 		}
 	}
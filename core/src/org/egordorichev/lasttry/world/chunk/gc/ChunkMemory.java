@@ -0,0 +1,340 @@
+package org.egordorichev.lasttry.world.chunk.gc;
+
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.util.metrics.Gauge;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.ChunkData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of memory, taken by loaded chunks, and of the heap, that is
+ * left after garbage collections. Both are turned into a pressure: percent
+ * of what the chunks may use. {@link ChunkGcCalc} picks the chunk gc level
+ * from it. Chunks, kept off the heap, have their own budget of direct
+ * memory and don't count against the heap one.
+ *
+ * The heap is watched with the usage threshold of the old generation pool
+ * and with garbage collection notifications, so no polling is needed. When
+ * the old generation is still full after a collection, a chunk gc is
+ * requested right away.
+ */
+public class ChunkMemory {
+	private static final Logger logger = LoggerFactory.getLogger(ChunkMemory.class);
+	/**
+	 * Part of the max heap, loaded chunks may use, if no budget was given.
+	 * Same part of the max direct memory for chunks off the heap.
+	 */
+	public static final float DEFAULT_BUDGET_FRACTION = 0.4f;
+	/**
+	 * Part of the old generation, that counts as full. Heap pressure reaches
+	 * 100% there, and the usage thresholds are set to it.
+	 */
+	public static final float HEAP_LIMIT_FRACTION = 0.85f;
+	/**
+	 * Type of garbage collection notifications, see
+	 * com.sun.management.GarbageCollectionNotificationInfo
+	 */
+	private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+	/**
+	 * Heap budget for chunks in bytes, set with -chunkbudget, or 0 for the
+	 * default
+	 */
+	private static long configuredBudget;
+	/**
+	 * Direct memory budget for chunks in bytes, set with -offheapbudget, or
+	 * 0 for the default
+	 */
+	private static long configuredOffHeapBudget;
+
+	/**
+	 * Bytes, loaded chunks may take on the heap
+	 */
+	private final long budget;
+	/**
+	 * Bytes, loaded chunks may take off the heap
+	 */
+	private final long offHeapBudget;
+	/**
+	 * Bytes a reference takes, with compressed oops it's 4
+	 */
+	private final int referenceSize;
+	/**
+	 * Pool, where long living data, like chunks, ends up, or null
+	 */
+	private final MemoryPoolMXBean oldGen;
+	/**
+	 * Emitters, that the listener was added to
+	 */
+	private final List<NotificationEmitter> emitters = new ArrayList<>();
+	private final NotificationListener listener = new NotificationListener() {
+		@Override
+		public void handleNotification(Notification notification, Object handback) {
+			onNotification(notification);
+		}
+	};
+	/**
+	 * Old generation usage after the last collection in bytes
+	 */
+	private volatile long heapAfterGc;
+
+	public ChunkMemory() {
+		long maxHeap = Runtime.getRuntime().maxMemory();
+
+		this.budget = configuredBudget > 0 ? configuredBudget : (long) (maxHeap * DEFAULT_BUDGET_FRACTION);
+		this.offHeapBudget = configuredOffHeapBudget > 0 ? configuredOffHeapBudget
+				: (long) (getMaxDirectMemory() * DEFAULT_BUDGET_FRACTION);
+		this.referenceSize = maxHeap < 32L * 1024 * 1024 * 1024 ? 4 : 8;
+		this.oldGen = findOldGen();
+
+		if (this.oldGen != null) {
+			this.watch();
+		}
+
+		Metrics.register(new Gauge("chunks.bytes") {
+			@Override
+			public double get() {
+				return getChunkBytes();
+			}
+		});
+
+		Metrics.register(new Gauge("chunks.pressure") {
+			@Override
+			public double get() {
+				return getPressure();
+			}
+		});
+
+		ChunkData sample = ChunkData.create();
+
+		if (ChunkData.isOffHeap()) {
+			logger.info("Chunk budget is " + (this.offHeapBudget >> 20) + " MB off the heap, a chunk takes about "
+					+ (sample.getOffHeapBytes() >> 10) + " KB");
+		} else {
+			logger.info("Chunk heap budget is " + (this.budget >> 20) + " MB, a chunk takes about "
+					+ (sample.getBytes(this.referenceSize) >> 10) + " KB");
+		}
+
+		sample.free();
+	}
+
+	/**
+	 * Sets the heap budget for chunks of the next world
+	 *
+	 * @param bytes Budget in bytes, 0 for the default
+	 */
+	public static void setConfiguredBudget(long bytes) {
+		configuredBudget = bytes;
+	}
+
+	/**
+	 * Sets the direct memory budget for chunks of the next world
+	 *
+	 * @param bytes Budget in bytes, 0 for the default
+	 */
+	public static void setConfiguredOffHeapBudget(long bytes) {
+		configuredOffHeapBudget = bytes;
+	}
+
+	/**
+	 * @return Bytes, taken by all loaded chunks on the heap
+	 */
+	public long getChunkBytes() {
+		List<Chunk> chunks = Globals.getWorld().chunks.getImmutableLoadedChunks();
+		long bytes = 0;
+
+		for (int i = 0; i < chunks.size(); i++) {
+			bytes += chunks.get(i).getData().getBytes(this.referenceSize);
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * @return Bytes, taken by all loaded chunks off the heap
+	 */
+	public long getOffHeapChunkBytes() {
+		List<Chunk> chunks = Globals.getWorld().chunks.getImmutableLoadedChunks();
+		long bytes = 0;
+
+		for (int i = 0; i < chunks.size(); i++) {
+			bytes += chunks.get(i).getData().getOffHeapBytes();
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * @return Percent of the heap or the off heap budget, taken by chunks,
+	 *         or of the old generation, left after the last collection,
+	 *         whichever is more
+	 */
+	public int getPressure() {
+		long chunks = Math.max(this.getChunkBytes() * 100 / this.budget,
+				this.getOffHeapChunkBytes() * 100 / this.offHeapBudget);
+
+		return (int) Math.max(chunks, this.getHeapPressure());
+	}
+
+	/**
+	 * @return Percent of {@link #HEAP_LIMIT_FRACTION} of the old generation,
+	 *         that was used after the last collection
+	 */
+	public int getHeapPressure() {
+		long max = this.getOldGenMax();
+
+		if (max <= 0) {
+			return 0;
+		}
+
+		return (int) (this.heapAfterGc * 100 / (long) (max * HEAP_LIMIT_FRACTION));
+	}
+
+	/**
+	 * @return Bytes, loaded chunks may take on the heap
+	 */
+	public long getBudget() {
+		return this.budget;
+	}
+
+	/**
+	 * @return Bytes, loaded chunks may take off the heap
+	 */
+	public long getOffHeapBudget() {
+		return this.offHeapBudget;
+	}
+
+	/**
+	 * Removes the listeners
+	 */
+	public void dispose() {
+		for (NotificationEmitter emitter : this.emitters) {
+			try {
+				emitter.removeNotificationListener(this.listener);
+			} catch (ListenerNotFoundException exception) {
+				// Already removed
+			}
+		}
+
+		this.emitters.clear();
+	}
+
+	/**
+	 * Sets usage thresholds on the old generation and listens to them and to
+	 * the collectors
+	 */
+	private void watch() {
+		long limit = (long) (this.getOldGenMax() * HEAP_LIMIT_FRACTION);
+
+		if (limit > 0) {
+			if (this.oldGen.isUsageThresholdSupported()) {
+				this.oldGen.setUsageThreshold(limit);
+			}
+
+			if (this.oldGen.isCollectionUsageThresholdSupported()) {
+				this.oldGen.setCollectionUsageThreshold(limit);
+			}
+		}
+
+		this.listen(ManagementFactory.getMemoryMXBean());
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			this.listen(collector);
+		}
+	}
+
+	private void listen(Object bean) {
+		if (bean instanceof NotificationEmitter) {
+			NotificationEmitter emitter = (NotificationEmitter) bean;
+
+			emitter.addNotificationListener(this.listener, null, null);
+			this.emitters.add(emitter);
+		}
+	}
+
+	private void onNotification(Notification notification) {
+		String type = notification.getType();
+
+		if (type.equals(GC_NOTIFICATION)) {
+			MemoryUsage usage = this.oldGen.getCollectionUsage();
+
+			if (usage != null) {
+				this.heapAfterGc = usage.getUsed();
+			}
+		} else if (type.equals(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)) {
+			logger.debug("Old generation is full after a collection, requesting chunk gc");
+			this.requestChunkGc();
+		} else if (type.equals(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED)) {
+			// Might be garbage, the next collection tells
+			logger.debug("Old generation went over " + (int) (HEAP_LIMIT_FRACTION * 100) + "%");
+		}
+	}
+
+	private void requestChunkGc() {
+		ChunkGcManager manager = Globals.chunkGcManager;
+
+		if (manager != null && !manager.isChunkGcInProgress()) {
+			manager.scheduleCustomIntervalChunkGcThread(0);
+		}
+	}
+
+	/**
+	 * @return Direct memory limit, -XX:MaxDirectMemorySize, or the max heap,
+	 *         which the JVM uses, if it isn't set
+	 */
+	private static long getMaxDirectMemory() {
+		try {
+			HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+			long max = bean == null ? 0 : Long.parseLong(bean.getVMOption("MaxDirectMemorySize").getValue());
+
+			if (max > 0) {
+				return max;
+			}
+		} catch (RuntimeException exception) {
+			// Not a HotSpot JVM
+		}
+
+		return Runtime.getRuntime().maxMemory();
+	}
+
+	private long getOldGenMax() {
+		long max = this.oldGen == null ? -1 : this.oldGen.getUsage().getMax();
+		return max > 0 ? max : Runtime.getRuntime().maxMemory();
+	}
+
+	/**
+	 * @return Heap pool, that supports collection usage thresholds and is the
+	 *         largest, that is the old generation with every collector
+	 */
+	private static MemoryPoolMXBean findOldGen() {
+		MemoryPoolMXBean result = null;
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+				continue;
+			}
+
+			if (result == null || pool.getUsage().getMax() > result.getUsage().getMax()) {
+				result = pool;
+			}
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,18 @@
+package org.egordorichev.lasttry.world.chunk.gc;
+
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+/**
+ * Frees chunks, that are the furthest from the player
+ */
+public class DistancePolicy implements EvictionPolicy {
+	@Override
+	public float score(Chunk chunk, EvictionFocus focus) {
+		return focus.distanceTo(chunk);
+	}
+
+	@Override
+	public String getName() {
+		return "distance";
+	}
+}
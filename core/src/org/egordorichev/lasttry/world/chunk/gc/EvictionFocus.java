@@ -0,0 +1,69 @@
+package org.egordorichev.lasttry.world.chunk.gc;
+
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.player.Player;
+import org.egordorichev.lasttry.util.Camera;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+/**
+ * Point, eviction distances are measured from, and the time, ages are
+ * measured to
+ */
+public class EvictionFocus {
+	/**
+	 * Focus X in chunks
+	 */
+	public final float x;
+	/**
+	 * Focus Y in chunks
+	 */
+	public final float y;
+	/**
+	 * Current time in milliseconds
+	 */
+	public final long time;
+
+	public EvictionFocus(float x, float y, long time) {
+		this.x = x;
+		this.y = y;
+		this.time = time;
+	}
+
+	/**
+	 * @return Focus on the player, or on the camera, if there is no player
+	 */
+	public static EvictionFocus current() {
+		Player player = Globals.getPlayer();
+		long time = System.currentTimeMillis();
+
+		if (player != null) {
+			return new EvictionFocus((float) player.physics.getGridX() / Chunk.SIZE,
+					(float) player.physics.getGridY() / Chunk.SIZE, time);
+		}
+
+		if (Camera.game != null) {
+			return new EvictionFocus(Camera.game.position.x / Block.SIZE / Chunk.SIZE,
+					Camera.game.position.y / Block.SIZE / Chunk.SIZE, time);
+		}
+
+		return new EvictionFocus(0, 0, time);
+	}
+
+	/**
+	 * @param chunk Chunk to measure
+	 * @return Distance from the focus to the chunk center in chunks, the
+	 *         larger of both axes
+	 */
+	public float distanceTo(Chunk chunk) {
+		return Math.max(Math.abs(chunk.getGridX() + 0.5f - this.x), Math.abs(chunk.getGridY() + 0.5f - this.y));
+	}
+
+	/**
+	 * @param chunk Chunk to measure
+	 * @return Seconds since the chunk was edited
+	 */
+	public float ageOf(Chunk chunk) {
+		return Math.max(0, this.time - chunk.getLastAccessedTime()) / 1000f;
+	}
+}
@@ -0,0 +1,22 @@
+package org.egordorichev.lasttry.world.chunk.gc;
+
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+/**
+ * Decides, which loaded chunks the chunk gc frees first. Chunks, that a
+ * ticket reaches, and chunks with a chunk loader are never passed to the
+ * policy.
+ */
+public interface EvictionPolicy {
+	/**
+	 * @param chunk Chunk, that can be evicted
+	 * @param focus Where the player is, and the current time
+	 * @return Eviction score, chunks with higher scores are freed first
+	 */
+	float score(Chunk chunk, EvictionFocus focus);
+
+	/**
+	 * @return Name, used in -evict and /chunks
+	 */
+	String getName();
+}
@@ -0,0 +1,18 @@
+package org.egordorichev.lasttry.world.chunk.gc;
+
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+/**
+ * Frees chunks, that weren't edited for the longest time
+ */
+public class LruPolicy implements EvictionPolicy {
+	@Override
+	public float score(Chunk chunk, EvictionFocus focus) {
+		return focus.ageOf(chunk);
+	}
+
+	@Override
+	public String getName() {
+		return "lru";
+	}
+}
@@ -0,0 +1,47 @@
+package org.egordorichev.lasttry.world.chunk.gc;
+
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+/**
+ * Weighs distance from the player against time since the last edit, so a
+ * chunk next to the player isn't freed just because nothing was built in it
+ * lately, and a far away base, that is still being worked on, stays a bit
+ * longer than wilderness.
+ */
+public class WeightedPolicy implements EvictionPolicy {
+	/**
+	 * Score per chunk of distance
+	 */
+	public static final float DISTANCE_WEIGHT = 1f;
+	/**
+	 * Score per second since the last edit, five minutes weigh as much as a chunk
+	 */
+	public static final float AGE_WEIGHT = 1f / 300;
+	/**
+	 * Highest age in seconds, that counts, so old chunks next to the player
+	 * don't outweigh fresh chunks far away
+	 */
+	public static final float MAX_AGE = 600;
+
+	private final float distanceWeight;
+	private final float ageWeight;
+
+	public WeightedPolicy() {
+		this(DISTANCE_WEIGHT, AGE_WEIGHT);
+	}
+
+	public WeightedPolicy(float distanceWeight, float ageWeight) {
+		this.distanceWeight = distanceWeight;
+		this.ageWeight = ageWeight;
+	}
+
+	@Override
+	public float score(Chunk chunk, EvictionFocus focus) {
+		return focus.distanceTo(chunk) * this.distanceWeight + Math.min(focus.ageOf(chunk), MAX_AGE) * this.ageWeight;
+	}
+
+	@Override
+	public String getName() {
+		return "weighted";
+	}
+}
@@ -48,6 +48,19 @@ public class WorldBlocksComponent extends WorldComponent {
 		return chunk.getBlock(x, y);
 	}
 
+	/**
+	 * @return Stored neighbor mask of the block
+	 */
+	public byte getMask(int x, int y) {
+		Chunk chunk = this.getChunk(x, y);
+
+		if (chunk == null) {
+			return 0;
+		}
+
+		return chunk.getBlockMask(x, y);
+	}
+
 	public void set(String id, int x, int y) {
 		Chunk chunk = this.getChunk(x, y);
 
@@ -57,6 +70,9 @@ public class WorldBlocksComponent extends WorldComponent {
 
 		chunk.setBlock(id, x, y);
 		this.updateNeighbors((short) x, (short) y);
+		this.world.tileCache.invalidate(x, y);
+		this.world.spawnIndex.refresh(x, y);
+		this.world.navigation.invalidate(x, y);
 	}
 
 	public byte getHP(int x, int y) {
@@ -77,9 +93,12 @@ public class WorldBlocksComponent extends WorldComponent {
 		}
 
 		chunk.setBlockHP(hp, x, y, die);
+		this.world.tileCache.invalidate(x, y);
 
 		if (die) {
 			this.updateNeighbors((short) x, (short) y);
+			this.world.spawnIndex.refresh(x, y);
+			this.world.navigation.invalidate(x, y);
 		}
 	}
 
@@ -87,7 +106,37 @@ public class WorldBlocksComponent extends WorldComponent {
 		this.setHP(hp, x, y, false);
 	}
 
-	
+	/**
+	 * Counts blocks with given ids in the sections, covering the area. The
+	 * area is rounded out to whole sections.
+	 *
+	 * @param ids  Numeric item ids
+	 * @param minX Left tile
+	 * @param minY Bottom tile
+	 * @param maxX Right tile (inclusive)
+	 * @param maxY Top tile (inclusive)
+	 * @return Amount of matching blocks
+	 */
+	public int count(short[] ids, int minX, int minY, int maxX, int maxY) {
+		int count = 0;
+
+		for (int sy = minY / Chunk.SECTION_SIZE; sy <= maxY / Chunk.SECTION_SIZE; sy++) {
+			for (int sx = minX / Chunk.SECTION_SIZE; sx <= maxX / Chunk.SECTION_SIZE; sx++) {
+				int x = sx * Chunk.SECTION_SIZE;
+				int y = sy * Chunk.SECTION_SIZE;
+				Chunk chunk = this.getChunk(x, y);
+
+				if (chunk == null) {
+					continue;
+				}
+
+				int section = Chunk.getSection(x % Chunk.SIZE, y % Chunk.SIZE);
+				count += chunk.getHistogram().count(section, ids);
+			}
+		}
+
+		return count;
+	}
 
 	private void updateNeighbors(short x, short y) {
 		for (short by = (short) (y - 1); by < y + 2; by++) {
@@ -7,18 +7,23 @@ import org.egordorichev.lasttry.injection.InjectionHelper;
 import org.egordorichev.lasttry.item.Item;
 import org.egordorichev.lasttry.item.ItemManager;
 import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.item.block.helpers.BlockHelper;
 import org.egordorichev.lasttry.item.liquids.LiquidManager;
 import org.egordorichev.lasttry.item.liquids.Liquids;
-import org.egordorichev.lasttry.item.wall.Wall;
-import org.egordorichev.lasttry.util.Callable;
 import org.egordorichev.lasttry.util.Camera;
-import org.egordorichev.lasttry.util.Util;
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.util.flight.LiquidTickEvent;
+import org.egordorichev.lasttry.util.metrics.Gauge;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.util.metrics.Timer;
 import org.egordorichev.lasttry.world.World;
 import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.ChunkData;
 import org.egordorichev.lasttry.world.chunk.ChunkIO;
 
 import java.awt.Rectangle;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Methods that alter any of the collections that contain Chunks, are synchronized.
@@ -26,9 +31,25 @@ import java.util.*;
  * Therefore chunk collection altering methods are made synchronized.
  */
 public class WorldChunksComponent extends WorldComponent {
+	private static final Timer renderTimer = Metrics.timer("chunks.render");
+	private static final Timer liquidsTimer = Metrics.timer("liquids.render");
+	private static final Timer liquidsUpdateTimer = Metrics.timer("liquids.update");
+	/**
+	 * Distance in tiles from the player, within which liquids flow. Doesn't
+	 * depend on the window, so replays flow the same.
+	 */
+	public static final int LIQUID_UPDATE_WIDTH = 44;
+	public static final int LIQUID_UPDATE_HEIGHT = 26;
+
 	private Chunk[] chunks;
 	private ArrayList<Chunk> loadedChunks = new ArrayList<>();
 	private int size;
+	/**
+	 * Tiles of removed chunks, that may still be read by tile cache workers,
+	 * in the order of removal. Freed on the main thread, see
+	 * {@link #freeRemoved()}
+	 */
+	private final Queue<RemovedData> removed = new ConcurrentLinkedQueue<>();
 
 	private final LiquidManager liquidManager;
 	private final ItemManager itemManager;
@@ -41,25 +62,82 @@ public class WorldChunksComponent extends WorldComponent {
 		this.size = world.getWidth() * world.getHeight();
 		this.chunks = new Chunk[this.size];
 
-		Util.runDelayedThreadSeconds(new Callable() {
+		Metrics.register(new Gauge("chunks.loaded") {
 			@Override
-			public void call() {
-				updateLogic();
+			public double get() {
+				return loadedChunks.size();
 			}
-		}, World.UPDATE_DELAY_SECONDS);
+		});
 	}
 
-	public void update() {
+	/**
+	 * Updates blocks of ticking chunks, border chunks and chunks without a
+	 * ticket are left as they are
+	 */
+	public synchronized void updateLogic() {
+		for (int i = 0; i < this.loadedChunks.size(); i++) {
+			Chunk chunk = this.loadedChunks.get(i);
 
+			if (chunk.getLevel().isTicking()) {
+				chunk.update();
+			}
+		}
 	}
 
-	public synchronized void updateLogic() {
-		for (int i = 0; i < this.loadedChunks.size(); i++) {
-			this.loadedChunks.get(i).update();
+	/**
+	 * Lets liquids around the player flow in ticking chunks, called every tick
+	 */
+	public void updateLiquids() {
+		long start = liquidsUpdateTimer.start();
+		LiquidTickEvent event = Flight.liquidTick();
+		int playerX = Globals.getPlayer().physics.getGridX();
+		int playerY = Globals.getPlayer().physics.getGridY();
+		int minX = Math.max(0, playerX - LIQUID_UPDATE_WIDTH);
+		int minY = Math.max(0, playerY - LIQUID_UPDATE_HEIGHT);
+		int maxX = Math.min(this.world.getWidth() - 1, playerX + LIQUID_UPDATE_WIDTH);
+		int maxY = Math.min(this.world.getHeight() - 1, playerY + LIQUID_UPDATE_HEIGHT);
+
+		for (int y = minY; y <= maxY; y++) {
+			Chunk chunk = null;
+
+			for (int x = minX; x <= maxX; x++) {
+				if (chunk == null || x >= chunk.getX() + Chunk.SIZE) {
+					chunk = this.getFor(x, y);
+
+					if (chunk == null) {
+						x += Chunk.SIZE - x % Chunk.SIZE - 1;
+						continue;
+					}
+				}
+
+				if (!chunk.getLevel().isTicking()) {
+					x = chunk.getX() + Chunk.SIZE - 1;
+					continue;
+				}
+
+				// Most tiles have no liquid, skip them without a lookup per tile
+				int index = (x - chunk.getX()) + (y - chunk.getY()) * Chunk.SIZE;
+				ChunkData data = chunk.getData();
+
+				if (BlockHelper.empty.getLiquidLevel(data.getBlockHealth(index)) > 0 && data.getBlock(index) == null) {
+					liquidManager.updateLiquid(x, y);
+				}
+			}
+		}
+
+		liquidsUpdateTimer.stop(start);
+
+		if (event != null) {
+			event.x = minX;
+			event.y = minY;
+			event.width = maxX - minX + 1;
+			event.height = maxY - minY + 1;
+			event.commit();
 		}
 	}
 
 	public void renderLiquids() {
+		long start = liquidsTimer.start();
 		Rectangle blocksRect = Camera.getBlocksOnScreen();
 
 		for (int y = blocksRect.y; y < blocksRect.y + blocksRect.height; y++) {
@@ -73,38 +151,13 @@ public class WorldChunksComponent extends WorldComponent {
 		}
 
 		Graphics.batch.setColor(1f, 1f, 1f, 1f);
+		liquidsTimer.stop(start);
 	}
 
 	public void render() {
-		Rectangle blocksRect = Camera.getBlocksOnScreen();
-
-		for (int y = blocksRect.y; y < blocksRect.y + blocksRect.height; y++) {
-			for (int x = blocksRect.x; x < blocksRect.x + blocksRect.width; x++) {
-				Block block = (Block) itemManager.getItem(this.world.blocks.getID(x, y));
-
-				if (block != null) {
-					block.updateBlockStyle(x, y);
-
-					byte binary = block.calculateBinary(x, y);
-
-					if (binary != 15) {
-						Wall wall = (Wall) itemManager.getItem(this.world.walls.getID(x, y));
-
-						if (wall != null) {
-							wall.renderWall(x, y);
-						}
-					}
-
-					block.renderBlock(x, y, binary);
-				} else {
-					Wall wall = (Wall) itemManager.getItem(this.world.walls.getID(x, y));
-
-					if (wall != null) {
-						wall.renderWall(x, y);
-					}
-				}
-			}
-		}
+		long start = renderTimer.start();
+		this.world.tileCache.render(Camera.getBlocksOnScreen());
+		renderTimer.stop(start);
 	}
 
 	public synchronized void load(int x, int y) {
@@ -116,6 +169,11 @@ public class WorldChunksComponent extends WorldComponent {
 
 		this.set(ChunkIO.load(x, y), x, y);
 		this.loadedChunks.add(this.chunks[index]);
+		this.world.spawnIndex.rebuild(this.chunks[index]);
+		this.world.navigation.invalidate(this.chunks[index]);
+		this.world.tickets.onLoad(this.chunks[index]);
+		this.chunks[index].updateBorderMasks();
+		this.invalidateTiles(this.chunks[index]);
 	}
 
 	public synchronized void set(Chunk chunk, int x, int y) {
@@ -128,6 +186,35 @@ public class WorldChunksComponent extends WorldComponent {
 		this.chunks[index] = chunk;
 	}
 
+	/**
+	 * Puts an already built chunk into the world and marks it as loaded
+	 *
+	 * @param chunk Chunk to add
+	 */
+	public synchronized void add(Chunk chunk) {
+		int index = this.getIndex(chunk.getGridX(), chunk.getGridY());
+
+		if (!this.isInside(index)) {
+			return;
+		}
+
+		this.chunks[index] = chunk;
+		this.loadedChunks.add(chunk);
+		this.world.spawnIndex.rebuild(chunk);
+		this.world.navigation.invalidate(chunk);
+		this.world.tickets.onLoad(chunk);
+		chunk.updateBorderMasks();
+		this.invalidateTiles(chunk);
+	}
+
+	/**
+	 * Marks cached tiles of the chunk and the border of its neighbors
+	 */
+	private void invalidateTiles(Chunk chunk) {
+		this.world.tileCache.invalidate(chunk.getX() - 1, chunk.getY() - 1, chunk.getX() + Chunk.SIZE,
+				chunk.getY() + Chunk.SIZE);
+	}
+
 	public synchronized Chunk get(int x, int y) {
 		int index = this.getIndex(x, y);
 
@@ -166,11 +253,34 @@ public class WorldChunksComponent extends WorldComponent {
 			if (chunk.getUniqueChunkId().equals(uniqueIdOfChunkToBeRemoved)) {
 				ChunkIO.save(chunk.getGridX(), chunk.getGridY());
 				this.loadedChunks.remove(chunk);
+				// Otherwise the chunk stays reachable and its memory is never freed
+				this.removeChunkInChunksArray(this.getIndex(chunk.getGridX(), chunk.getGridY()), Optional.of(chunk),
+						uniqueIdOfChunkToBeRemoved);
+				this.world.navigation.invalidate(chunk);
+				this.world.spawnIndex.invalidate();
+				// Off heap slots are reused, so they can't be freed under a reader
+				this.removed.add(new RemovedData(chunk.getData(), this.world.tileCache.getSubmittedBuilds()));
 				break;
 			}
 		}
 	}
 
+	/**
+	 * Frees tiles of removed chunks, once the tile cache builds, that could
+	 * have read them, are done. Called on the main thread every tick, so no
+	 * other reader holds a removed chunk.
+	 */
+	public void freeRemoved() {
+		long oldest = this.world.tileCache.getOldestBuild();
+		RemovedData data;
+
+		// Builds are numbered in order, so are the removals
+		while ((data = this.removed.peek()) != null && data.builds <= oldest) {
+			this.removed.poll();
+			data.data.free();
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private synchronized void removeChunkInChunksArray(final int index, Optional<Chunk> optionalChunk, UUID uniqueIdOfChunkToBeRemoved) {
 		optionalChunk.ifPresent(chunk -> {
@@ -184,6 +294,25 @@ public class WorldChunksComponent extends WorldComponent {
 		return x + y * this.world.getWidth() / Chunk.SIZE;
 	}
 
+	/**
+	 * Frees tiles of all loaded chunks, without saving them. The world can't
+	 * be used after
+	 */
+	public synchronized void dispose() {
+		for (Chunk chunk : this.loadedChunks) {
+			chunk.getData().free();
+		}
+
+		this.loadedChunks.clear();
+		Arrays.fill(this.chunks, null);
+
+		RemovedData data;
+
+		while ((data = this.removed.poll()) != null) {
+			data.data.free();
+		}
+	}
+
 	public synchronized List<Chunk> getImmutableLoadedChunks() {
 		return Collections.unmodifiableList(loadedChunks);
 	}
@@ -197,4 +326,20 @@ public class WorldChunksComponent extends WorldComponent {
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Tiles of a removed chunk, waiting to be freed
+	 */
+	private static class RemovedData {
+		private final ChunkData data;
+		/**
+		 * Tile cache builds, submitted before the chunk was removed
+		 */
+		private final long builds;
+
+		private RemovedData(ChunkData data, long builds) {
+			this.data = data;
+			this.builds = builds;
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package org.egordorichev.lasttry.world.components;
 
-import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.component.Component;
 import org.egordorichev.lasttry.world.World;
 import org.egordorichev.lasttry.world.chunk.Chunk;
@@ -16,11 +15,10 @@ public class WorldComponent implements Component {
 		if (!this.world.isInside(x, y)) {
 			return null;
 		}
-		Chunk chunk = this.world.chunks.getFor(x, y);
-		if (chunk == null) {
-			Globals.getWorld().chunks.load(x / Chunk.SIZE, y / Chunk.SIZE);
-			return null;
+		// Only the world thread loads chunks, others see the loaded ones
+		if (!this.world.isWorldThread()) {
+			return this.world.chunks.get(x / Chunk.SIZE, y / Chunk.SIZE);
 		}
-		return chunk;
+		return this.world.chunks.getFor(x, y);
 	}
 }
\ No newline at end of file
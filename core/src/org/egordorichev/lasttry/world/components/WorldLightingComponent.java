@@ -1,14 +1,16 @@
 package org.egordorichev.lasttry.world.components;
 
 import java.awt.Point;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.component.Component;
 import org.egordorichev.lasttry.item.block.Block;
 import org.egordorichev.lasttry.util.Util;
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.util.flight.LightUpdateEvent;
 import org.egordorichev.lasttry.world.World;
 
 import com.badlogic.gdx.math.Vector2;
@@ -16,9 +18,16 @@ import com.badlogic.gdx.math.Vector2;
 public class WorldLightingComponent implements Component {
 	public static final int MAX_LIGHT = 16;
 	public static final int MOVE_TO_UPDATE = 10;
+	/**
+	 * Distance in tiles, light values are averaged over
+	 */
+	public static final int SAMPLE_RADIUS = 6;
 	private Point lastUpdate;
 	private final World world;
-	private final Map<Integer, Float> cache = new HashMap<>();
+	/**
+	 * Averaged light per tile, read from tile cache workers too
+	 */
+	private final Map<Integer, Float> cache = new ConcurrentHashMap<>();
 
 	public WorldLightingComponent(World world) {
 		this.world = world;
@@ -30,12 +39,13 @@ public class WorldLightingComponent implements Component {
 		}
 		// Check cache if light for the tile has been calculated already.
 		int key = getKey(x, y);
-		if (cache.containsKey(key)) {
-			return cache.get(key);
+		Float cached = cache.get(key);
+		if (cached != null) {
+			return cached;
 		}
 		// Calculate light level
 		float average = 0;
-		int sampleRadius = 6;
+		int sampleRadius = SAMPLE_RADIUS;
 		float max = MAX_LIGHT;
 		float divisor = (float) (Math.pow(sampleRadius * 2, 2));
 		for (int i = -sampleRadius; i < sampleRadius; i++) {
@@ -108,6 +118,7 @@ public class WorldLightingComponent implements Component {
 	public void update(int dt) {
 		int px = Globals.getPlayer().physics.getGridX();
 		int py = Globals.getPlayer().physics.getGridY();
+		LightUpdateEvent event = Flight.lightUpdate();
 		lastUpdate = new Point(px, py);
 		// Range in blocks to load
 		int range = 45;
@@ -116,6 +127,13 @@ public class WorldLightingComponent implements Component {
 				setLight(x, y);
 			}
 		}
+		if (event != null) {
+			event.x = px;
+			event.y = py;
+			event.range = range;
+			event.tiles = range * range * 4;
+			event.commit();
+		}
 	}
 
 	/**
@@ -148,6 +166,7 @@ public class WorldLightingComponent implements Component {
 	 */
 	public void clearCache() {
 		cache.clear();
+		world.tileCache.invalidateAll();
 	}
 
 	/**
@@ -160,6 +179,10 @@ public class WorldLightingComponent implements Component {
 		boolean hasBlock = world.blocks.get(x, y) != null;
 		boolean canSeeSky = y >= world.getHighest(x);
 		byte light = canSeeSky ? MAX_LIGHT : (byte) (hasBlock ? world.blocks.get(x, y).getBrightness() : 0);
+		if (world.blocks.getLight(x, y) != light) {
+			// Tiles, that average this one, look different now
+			world.tileCache.invalidate(x - SAMPLE_RADIUS, y - SAMPLE_RADIUS, x + SAMPLE_RADIUS, y + SAMPLE_RADIUS);
+		}
 		world.blocks.setLight(x, y, light);
 		cache.remove(getKey(x, y));
 	}
@@ -0,0 +1,477 @@
+package org.egordorichev.lasttry.world.components;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import gnu.trove.list.array.TIntArrayList;
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.player.Player;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.nav.ChunkNavGraph;
+import org.egordorichev.lasttry.world.nav.FlowField;
+import org.egordorichev.lasttry.world.nav.NavHeuristic;
+import org.egordorichev.lasttry.world.nav.NavMoves;
+import org.egordorichev.lasttry.world.nav.NavNode;
+import org.egordorichev.lasttry.world.nav.NavPath;
+import org.egordorichev.lasttry.world.nav.PathRequest;
+import org.egordorichev.lasttry.world.nav.PortalGraph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Finds paths for creatures. Every loaded chunk gets a movement graph, that is
+ * built on demand and thrown away, when a block near it changes. Chunk graphs
+ * are joined through the {@link PortalGraph}, so long paths only search chunk
+ * borders and then the chunks along the way.
+ *
+ * Requests are queued and processed in {@link #update()} within a time budget,
+ * so many creatures can ask for paths at once without dropping frames. The
+ * budget is checked inside of portal searches and between portal updates, a
+ * search, that runs out of time, goes on in the next update. Large groups,
+ * that chase the player, should use the shared {@link FlowField} instead.
+ */
+public class WorldNavigationComponent extends WorldComponent {
+	/**
+	 * Time in nanoseconds, queued searches and portal updates can take per
+	 * update
+	 */
+	public static final long UPDATE_BUDGET = 1000000L;
+	/**
+	 * Time in nanoseconds, a search in progress gets, even if the budget is
+	 * used up, so it always moves
+	 */
+	public static final long MIN_SEARCH_TIME = 100000L;
+	/**
+	 * Requests, processed per update instead of the time budget, when
+	 * {@link LastTry#deterministic} is set
+	 */
+	public static final int UPDATE_REQUESTS = 8;
+	/**
+	 * How far down a start or goal tile is moved to find a floor
+	 */
+	public static final int SNAP_DISTANCE = 4;
+
+	private final int chunksX;
+	private final int chunksY;
+	private final ChunkNavGraph[] graphs;
+	/**
+	 * Graph versions, increased when something near the chunk changes.
+	 * Changed from any thread, so the graphs are only rebuilt on the next
+	 * search
+	 */
+	private final AtomicIntegerArray versions;
+	private final int[] builtVersions;
+	/**
+	 * Graph versions, that the portals of every chunk were updated for
+	 */
+	private final int[] portalVersions;
+	/**
+	 * Chunks, which portals have to be updated
+	 */
+	private final boolean[] pending;
+	private final TIntArrayList pendingChunks = new TIntArrayList();
+	private final PortalGraph portals;
+	private IndexedAStarPathFinder<NavNode> portalFinder;
+	/**
+	 * Portal nodes, the finder was created for
+	 */
+	private int finderSize;
+	/**
+	 * Portal search, that ran out of time and goes on in the next update
+	 */
+	private final PathFinderRequest<NavNode> portalSearch = new PathFinderRequest<>();
+	private PathRequest active;
+	private NavNode activeStart;
+	private ChunkNavGraph activeStartGraph;
+	private final NavHeuristic heuristic = new NavHeuristic();
+	private final ArrayDeque<PathRequest> queue = new ArrayDeque<>();
+	/**
+	 * Buffers, reused between searches
+	 */
+	private final DefaultGraphPath<NavNode> portalPath = new DefaultGraphPath<>();
+	private final DefaultGraphPath<NavNode> segment = new DefaultGraphPath<>();
+	private float[] startCosts;
+	private float[] goalCosts;
+	/**
+	 * Field, leading to the player
+	 */
+	private final FlowField playerField;
+
+	public WorldNavigationComponent(World world) {
+		super(world);
+
+		this.chunksX = world.getWidth() / Chunk.SIZE;
+		this.chunksY = world.getHeight() / Chunk.SIZE;
+		this.graphs = new ChunkNavGraph[this.chunksX * this.chunksY];
+		this.versions = new AtomicIntegerArray(this.graphs.length);
+		this.builtVersions = new int[this.graphs.length];
+		this.portalVersions = new int[this.graphs.length];
+		this.pending = new boolean[this.graphs.length];
+		this.portals = new PortalGraph(this.chunksX, this.chunksY);
+		this.playerField = new FlowField(world);
+
+		Arrays.fill(this.portalVersions, -1);
+	}
+
+	/**
+	 * Drops graphs, that a changed tile could affect
+	 *
+	 * @param x Changed tile X
+	 * @param y Changed tile Y
+	 */
+	public void invalidate(int x, int y) {
+		int minX = Math.max(0, (x - NavMoves.REACH) / Chunk.SIZE);
+		int minY = Math.max(0, (y - NavMoves.REACH) / Chunk.SIZE);
+		int maxX = Math.min(this.chunksX - 1, (x + NavMoves.REACH) / Chunk.SIZE);
+		int maxY = Math.min(this.chunksY - 1, (y + NavMoves.REACH) / Chunk.SIZE);
+
+		this.invalidate(minX, minY, maxX, maxY);
+		this.playerField.invalidate(x);
+	}
+
+	/**
+	 * Drops graphs of the chunk and its neighbors, called when a chunk is
+	 * loaded
+	 *
+	 * @param chunk Loaded chunk
+	 */
+	public void invalidate(Chunk chunk) {
+		int minX = Math.max(0, chunk.getGridX() - 1);
+		int minY = Math.max(0, chunk.getGridY() - 1);
+		int maxX = Math.min(this.chunksX - 1, chunk.getGridX() + 1);
+		int maxY = Math.min(this.chunksY - 1, chunk.getGridY() + 1);
+
+		this.invalidate(minX, minY, maxX, maxY);
+		this.playerField.invalidateAll();
+	}
+
+	private void invalidate(int minX, int minY, int maxX, int maxY) {
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				this.versions.incrementAndGet(x + y * this.chunksX);
+			}
+		}
+	}
+
+	/**
+	 * Queues a search, does nothing, if the request is already queued
+	 *
+	 * @param request Request to queue
+	 */
+	public synchronized void request(PathRequest request) {
+		if (request.isPending()) {
+			return;
+		}
+
+		request.setPending(true);
+		this.queue.add(request);
+	}
+
+	/**
+	 * Refreshes the player field and processes queued requests, until the
+	 * time budget runs out, or {@link #UPDATE_REQUESTS} are done, if the
+	 * simulation is deterministic. Portals of changed chunks are updated
+	 * before a search starts, and a search in progress is never interrupted
+	 * by them. Every update either updates portals or goes on with a search,
+	 * so the queue always moves.
+	 */
+	public synchronized void update() {
+		long start = System.nanoTime();
+		Player player = Globals.getPlayer();
+
+		if (player != null) {
+			this.playerField.update((int) (player.physics.getCenterX() / Block.SIZE), player.physics.getGridY());
+		}
+
+		int processed = 0;
+
+		do {
+			if (this.active == null) {
+				if (this.queue.isEmpty() || !this.updatePortals(start)) {
+					break;
+				}
+
+				if (this.begin(this.queue.poll())) {
+					processed++;
+					continue;
+				}
+			}
+
+			long left = UPDATE_BUDGET - (System.nanoTime() - start);
+
+			if (!this.resume(LastTry.deterministic ? Long.MAX_VALUE : Math.max(left, MIN_SEARCH_TIME))) {
+				break;
+			}
+
+			processed++;
+		} while (LastTry.deterministic ? processed < UPDATE_REQUESTS : System.nanoTime() - start < UPDATE_BUDGET);
+	}
+
+	/**
+	 * Finds a path right away. Only chunks, that are already loaded, are
+	 * searched.
+	 *
+	 * @param startX Start tile X
+	 * @param startY Start tile Y
+	 * @param goalX  Goal tile X
+	 * @param goalY  Goal tile Y
+	 * @param path   Output path
+	 * @return A path was found
+	 */
+	public synchronized boolean findPath(int startX, int startY, int goalX, int goalY, NavPath path) {
+		if (this.active != null) {
+			this.resume(Long.MAX_VALUE);
+		}
+
+		this.updatePortals(-1);
+
+		PathRequest request = new PathRequest();
+		request.set(startX, startY, goalX, goalY);
+
+		if (!this.begin(request)) {
+			this.resume(Long.MAX_VALUE);
+		}
+
+		path.set(request.getPath());
+		return request.isFound();
+	}
+
+	/**
+	 * Updates portals of chunks, which graphs changed, and of their
+	 * neighbors
+	 *
+	 * @param start Start of the update in nanoseconds, -1 for no time limit
+	 * @return All portals are up to date
+	 */
+	private boolean updatePortals(long start) {
+		for (int i = 0; i < this.portalVersions.length; i++) {
+			int version = this.versions.get(i);
+
+			if (this.portalVersions[i] != version) {
+				this.portalVersions[i] = version;
+				this.markPending(i);
+			}
+		}
+
+		while (!this.pendingChunks.isEmpty()) {
+			int index = this.pendingChunks.removeAt(this.pendingChunks.size() - 1);
+			int x = index % this.chunksX;
+			int y = index / this.chunksX;
+
+			this.pending[index] = false;
+
+			if (this.portals.update(x, y, this.getGraph(x, y))) {
+				// Portals of the neighbors depend on the moves into this chunk
+				for (int ny = Math.max(0, y - 1); ny <= Math.min(this.chunksY - 1, y + 1); ny++) {
+					for (int nx = Math.max(0, x - 1); nx <= Math.min(this.chunksX - 1, x + 1); nx++) {
+						this.markPending(nx + ny * this.chunksX);
+					}
+				}
+			}
+
+			if (start != -1 && !LastTry.deterministic && System.nanoTime() - start > UPDATE_BUDGET
+					&& !this.pendingChunks.isEmpty()) {
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void markPending(int index) {
+		if (!this.pending[index]) {
+			this.pending[index] = true;
+			this.pendingChunks.add(index);
+		}
+	}
+
+	/**
+	 * Starts a search for the request. Paths inside of a single chunk are
+	 * found right away, others start a portal search.
+	 *
+	 * @return The request is finished
+	 */
+	private boolean begin(PathRequest request) {
+		NavPath path = request.getPath();
+		path.clear();
+
+		NavNode start = this.snap(request.getStartX(), request.getStartY());
+		NavNode goal = this.snap(request.getGoalX(), request.getGoalY());
+
+		if (start == null || goal == null) {
+			request.finish(false);
+			return true;
+		}
+
+		ChunkNavGraph startGraph = this.getGraphFor(start.getX(), start.getY());
+		ChunkNavGraph goalGraph = this.getGraphFor(goal.getX(), goal.getY());
+
+		if (startGraph == goalGraph && startGraph.search(start, goal, this.heuristic, this.segment)) {
+			this.append(path, this.segment, 0);
+			request.finish(true);
+			return true;
+		}
+
+		this.startCosts = startGraph.getCosts(start, false, this.startCosts);
+		this.goalCosts = goalGraph.getCosts(goal, true, this.goalCosts);
+
+		NavNode from = this.portals.connectStart(startGraph, start, this.startCosts);
+		NavNode to = this.portals.connectGoal(goalGraph, goal, this.goalCosts);
+
+		// The finder keeps a record per node, so it has to grow with the graph
+		if (this.portalFinder == null || this.finderSize < this.portals.getNodeCount()) {
+			this.portalFinder = new IndexedAStarPathFinder<>(this.portals);
+			this.finderSize = this.portals.getNodeCount();
+		}
+
+		this.portalPath.clear();
+		this.portalSearch.startNode = from;
+		this.portalSearch.endNode = to;
+		this.portalSearch.heuristic = this.heuristic;
+		this.portalSearch.resultPath = this.portalPath;
+		this.portalSearch.statusChanged = true;
+
+		this.active = request;
+		this.activeStart = start;
+		this.activeStartGraph = startGraph;
+
+		return false;
+	}
+
+	/**
+	 * Goes on with the portal search in progress
+	 *
+	 * @param time Time in nanoseconds, the search can take
+	 * @return The search is finished
+	 */
+	private boolean resume(long time) {
+		if (!this.portalFinder.search(this.portalSearch, time)) {
+			return false;
+		}
+
+		PathRequest request = this.active;
+
+		this.portals.disconnect();
+		this.active = null;
+
+		request.finish(this.portalSearch.pathFound && this.followPortals(request.getPath()));
+		return true;
+	}
+
+	/**
+	 * Turns the found portal path into tiles, searching the chunks between
+	 * the portals
+	 *
+	 * @return False, if a chunk changed since the search started
+	 */
+	private boolean followPortals(NavPath path) {
+		NavNode previous = this.activeStart;
+		ChunkNavGraph previousGraph = this.activeStartGraph;
+
+		path.add(previous.getX(), previous.getY());
+
+		for (int i = 1; i < this.portalPath.getCount(); i++) {
+			NavNode node = this.portals.getBase(this.portalPath.get(i));
+			ChunkNavGraph graph = this.getGraphFor(node.getX(), node.getY());
+
+			// The graph was built again, its nodes don't match the portals any more
+			if (graph == null || graph.getNode(node.getX(), node.getY()) != node
+					|| previousGraph.getNode(previous.getX(), previous.getY()) != previous) {
+
+				path.clear();
+				return false;
+			}
+
+			if (graph != previousGraph) {
+				// Move between two chunks
+				path.add(node.getX(), node.getY());
+			} else if (node != previous) {
+				if (!graph.search(previous, node, this.heuristic, this.segment)) {
+					path.clear();
+					return false;
+				}
+
+				this.append(path, this.segment, 1);
+			}
+
+			previous = node;
+			previousGraph = graph;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return Field, leading to the player, only refreshed while it is sampled
+	 */
+	public FlowField getPlayerField() {
+		return this.playerField;
+	}
+
+	private void append(NavPath path, DefaultGraphPath<NavNode> nodes, int from) {
+		for (int i = from; i < nodes.getCount(); i++) {
+			NavNode node = nodes.get(i);
+			path.add(node.getX(), node.getY());
+		}
+	}
+
+	/**
+	 * Finds the closest floor below the tile
+	 */
+	private NavNode snap(int x, int y) {
+		for (int i = 0; i <= SNAP_DISTANCE; i++) {
+			ChunkNavGraph graph = this.getGraphFor(x, y - i);
+
+			if (graph != null) {
+				NavNode node = graph.getNode(x, y - i);
+
+				if (node != null) {
+					return node;
+				}
+			}
+		}
+
+		// Might be standing inside of a step
+		ChunkNavGraph graph = this.getGraphFor(x, y + 1);
+		return graph == null ? null : graph.getNode(x, y + 1);
+	}
+
+	/**
+	 * @return Graph of the chunk with the given tile, null if the chunk is not
+	 *         loaded
+	 */
+	private ChunkNavGraph getGraphFor(int x, int y) {
+		if (!this.world.isInside(x, y)) {
+			return null;
+		}
+
+		return this.getGraph(x / Chunk.SIZE, y / Chunk.SIZE);
+	}
+
+	private ChunkNavGraph getGraph(int chunkX, int chunkY) {
+		int index = chunkX + chunkY * this.chunksX;
+		Chunk chunk = this.world.chunks.get(chunkX, chunkY);
+
+		if (chunk == null) {
+			return null;
+		}
+
+		ChunkNavGraph graph = this.graphs[index];
+		int version = this.versions.get(index);
+
+		if (graph == null || graph.getChunk() != chunk || this.builtVersions[index] != version) {
+			graph = new ChunkNavGraph(this.world, chunk);
+
+			this.graphs[index] = graph;
+			this.builtVersions[index] = version;
+		}
+
+		return graph;
+	}
+}
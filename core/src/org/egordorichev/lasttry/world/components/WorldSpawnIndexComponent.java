@@ -0,0 +1,404 @@
+package org.egordorichev.lasttry.world.components;
+
+import com.badlogic.gdx.math.GridPoint2;
+import gnu.trove.list.array.TIntArrayList;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.SpawnCandidates;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of tiles, where creatures can spawn: an air tile right above a
+ * solid one, with enough air above it. Candidates are stored per chunk
+ * section and updated, when blocks change.
+ *
+ * Candidates are changed, when chunks are loaded, so the index locks on
+ * {@link World#chunks}. Locking on itself would deadlock with a chunk load,
+ * that holds the chunks lock and rebuilds the index.
+ */
+public class WorldSpawnIndexComponent extends WorldComponent {
+	/**
+	 * Air tiles needed above the floor
+	 */
+	public static final int HEADROOM = 3;
+
+	private static final int AIR = 0;
+	private static final int SOLID = 1;
+	private static final int UNKNOWN = -1;
+
+	/**
+	 * Sections, that are fully inside of the sampled ring for every center
+	 * in the center section
+	 */
+	private final List<Chunk> fullChunks = new ArrayList<>();
+	private final TIntArrayList fullSections = new TIntArrayList();
+	/**
+	 * Candidates in the full sections up to and including each one, so a
+	 * sample is a binary search
+	 */
+	private final TIntArrayList fullWeights = new TIntArrayList();
+	/**
+	 * Candidates from sections, that might be only partly inside of the
+	 * ring, packed as x, y pairs
+	 */
+	private final TIntArrayList edgePoints = new TIntArrayList();
+	/**
+	 * Edge points, that are inside of the ring around the exact center
+	 */
+	private final TIntArrayList partialPoints = new TIntArrayList();
+	/**
+	 * Changed, when candidates, loaded chunks or their levels change. The
+	 * ring is only collected again, when the section of its center, its
+	 * radii or the version change, so walking doesn't collect it every tile.
+	 */
+	private int version;
+	private int ringVersion = -1;
+	private int ringSectionX;
+	private int ringSectionY;
+	private double ringInner;
+	private double ringOuter;
+	/**
+	 * Center, the partial points were filtered for
+	 */
+	private boolean partialValid;
+	private int partialX;
+	private int partialY;
+
+	public WorldSpawnIndexComponent(World world) {
+		super(world);
+	}
+
+	/**
+	 * Finds all candidates in a freshly loaded chunk and updates the rows of
+	 * chunks above and below it, that depend on it
+	 *
+	 * @param chunk Loaded chunk
+	 */
+	public void rebuild(Chunk chunk) {
+		synchronized (this.world.chunks) {
+			int minX = chunk.getX();
+			int minY = chunk.getY();
+
+			for (int y = minY; y < minY + Chunk.SIZE; y++) {
+				for (int x = minX; x < minX + Chunk.SIZE; x++) {
+					this.refreshTile(chunk, x, y);
+				}
+			}
+
+			Chunk above = this.world.chunks.get(chunk.getGridX(), chunk.getGridY() + 1);
+
+			if (above != null) {
+				for (int x = minX; x < minX + Chunk.SIZE; x++) {
+					this.refreshTile(above, x, minY + Chunk.SIZE);
+				}
+			}
+
+			Chunk below = this.world.chunks.get(chunk.getGridX(), chunk.getGridY() - 1);
+
+			if (below != null) {
+				for (int y = minY - HEADROOM + 1; y < minY; y++) {
+					for (int x = minX; x < minX + Chunk.SIZE; x++) {
+						this.refreshTile(below, x, y);
+					}
+				}
+			}
+
+			this.version++;
+		}
+	}
+
+	/**
+	 * Updates candidates, that depend on the given tile
+	 *
+	 * @param x Changed tile X
+	 * @param y Changed tile Y
+	 */
+	public void refresh(int x, int y) {
+		synchronized (this.world.chunks) {
+			for (int ty = y - HEADROOM + 1; ty <= y + 1; ty++) {
+				Chunk chunk = this.getLoadedChunk(x, ty);
+
+				if (chunk != null && this.refreshTile(chunk, x, ty)) {
+					this.version++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drops the collected ring, call it, when a chunk is unloaded or the
+	 * level of chunks changes
+	 */
+	public void invalidate() {
+		synchronized (this.world.chunks) {
+			this.version++;
+		}
+	}
+
+	/**
+	 * Checks, if the tile is a candidate, without loading any chunks
+	 *
+	 * @param x Tile X
+	 * @param y Tile Y
+	 * @return The tile is a candidate and its chunk is loaded
+	 */
+	public boolean contains(int x, int y) {
+		synchronized (this.world.chunks) {
+			Chunk chunk = this.getLoadedChunk(x, y);
+
+			if (chunk == null) {
+				return false;
+			}
+
+			return chunk.getSpawnCandidates().contains(x - chunk.getX(), y - chunk.getY());
+		}
+	}
+
+	/**
+	 * Picks a random candidate, with distance to the center in [inner, outer).
+	 * Sections in the ring are only collected again, if the center moved to
+	 * another section or the index changed since the last call, otherwise
+	 * only the edge points are filtered again.
+	 *
+	 * @param centerX Center X
+	 * @param centerY Center Y
+	 * @param inner   Inner radius in tiles
+	 * @param outer   Outer radius in tiles
+	 * @param point   Set to the candidate position
+	 * @return False, if there are no candidates in the ring
+	 */
+	public boolean sample(int centerX, int centerY, double inner, double outer, GridPoint2 point) {
+		synchronized (this.world.chunks) {
+			int sectionX = centerX / Chunk.SECTION_SIZE;
+			int sectionY = centerY / Chunk.SECTION_SIZE;
+
+			if (this.ringVersion != this.version || this.ringSectionX != sectionX || this.ringSectionY != sectionY
+					|| this.ringInner != inner || this.ringOuter != outer) {
+
+				this.collectRing(sectionX, sectionY, inner, outer);
+			}
+
+			if (!this.partialValid || this.partialX != centerX || this.partialY != centerY) {
+				this.filterEdge(centerX, centerY);
+			}
+
+			int total = this.fullWeights.isEmpty() ? 0 : this.fullWeights.get(this.fullWeights.size() - 1);
+			int partial = this.partialPoints.size() / 2;
+
+			if (total + partial == 0) {
+				return false;
+			}
+
+			int index = LastTry.random.nextInt(total + partial);
+
+			if (index >= total) {
+				index -= total;
+				point.set(this.partialPoints.get(index * 2), this.partialPoints.get(index * 2 + 1));
+				return true;
+			}
+
+			// First section, that has more candidates up to it than the index
+			int low = 0;
+			int high = this.fullWeights.size() - 1;
+
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+
+				if (this.fullWeights.get(middle) > index) {
+					high = middle;
+				} else {
+					low = middle + 1;
+				}
+			}
+
+			Chunk chunk = this.fullChunks.get(low);
+			int section = this.fullSections.get(low);
+
+			if (low > 0) {
+				index -= this.fullWeights.get(low - 1);
+			}
+
+			point.set(chunk.getX() + chunk.getSpawnCandidates().getX(section, index),
+					chunk.getY() + chunk.getSpawnCandidates().getY(section, index));
+			return true;
+		}
+	}
+
+	/**
+	 * Collects sections with candidates in the ring around any center in
+	 * the given section. Sections fully inside of it for all of them are
+	 * kept with their weights, candidates of the others are kept as edge
+	 * points, that are checked against the exact center
+	 */
+	private void collectRing(int sectionX, int sectionY, double inner, double outer) {
+		this.fullChunks.clear();
+		this.fullSections.resetQuick();
+		this.fullWeights.resetQuick();
+		this.edgePoints.resetQuick();
+		this.partialValid = false;
+
+		this.ringVersion = this.version;
+		this.ringSectionX = sectionX;
+		this.ringSectionY = sectionY;
+		this.ringInner = inner;
+		this.ringOuter = outer;
+
+		int centerLeft = sectionX * Chunk.SECTION_SIZE;
+		int centerBottom = sectionY * Chunk.SECTION_SIZE;
+		int centerRight = centerLeft + Chunk.SECTION_SIZE - 1;
+		int centerTop = centerBottom + Chunk.SECTION_SIZE - 1;
+
+		int minSX = Math.max(0, (int) (centerLeft - outer)) / Chunk.SECTION_SIZE;
+		int maxSX = Math.min(this.world.getWidth() - 1, (int) (centerRight + outer)) / Chunk.SECTION_SIZE;
+		int minSY = Math.max(0, (int) (centerBottom - outer)) / Chunk.SECTION_SIZE;
+		int maxSY = Math.min(this.world.getHeight() - 1, (int) (centerTop + outer)) / Chunk.SECTION_SIZE;
+
+		double inner2 = inner * inner;
+		double outer2 = outer * outer;
+		int total = 0;
+
+		for (int sy = minSY; sy <= maxSY; sy++) {
+			for (int sx = minSX; sx <= maxSX; sx++) {
+				int left = sx * Chunk.SECTION_SIZE;
+				int bottom = sy * Chunk.SECTION_SIZE;
+				Chunk chunk = this.getLoadedChunk(left, bottom);
+
+				// Creatures would be frozen right away outside of entity ticking chunks
+				if (chunk == null || !chunk.getLevel().isEntityTicking()) {
+					continue;
+				}
+
+				SpawnCandidates candidates = chunk.getSpawnCandidates();
+				int section = Chunk.getSection(left % Chunk.SIZE, bottom % Chunk.SIZE);
+				int count = candidates.count(section);
+
+				if (count == 0) {
+					continue;
+				}
+
+				int right = left + Chunk.SECTION_SIZE - 1;
+				int top = bottom + Chunk.SECTION_SIZE - 1;
+
+				// Closest and furthest distances between a tile of the center section and a tile of this one
+				double near = distance2(gap(left, right, centerLeft, centerRight), gap(bottom, top, centerBottom, centerTop));
+				double far = distance2(Math.max(right - centerLeft, centerRight - left),
+						Math.max(top - centerBottom, centerTop - bottom));
+
+				if (far < inner2 || near >= outer2) {
+					continue;
+				}
+
+				if (near >= inner2 && far < outer2) {
+					total += count;
+					this.fullChunks.add(chunk);
+					this.fullSections.add(section);
+					this.fullWeights.add(total);
+					continue;
+				}
+
+				for (int i = 0; i < count; i++) {
+					this.edgePoints.add(chunk.getX() + candidates.getX(section, i));
+					this.edgePoints.add(chunk.getY() + candidates.getY(section, i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Keeps the edge points, that are in the ring around the exact center
+	 */
+	private void filterEdge(int centerX, int centerY) {
+		this.partialPoints.resetQuick();
+		this.partialValid = true;
+		this.partialX = centerX;
+		this.partialY = centerY;
+
+		double inner2 = this.ringInner * this.ringInner;
+		double outer2 = this.ringOuter * this.ringOuter;
+
+		for (int i = 0; i < this.edgePoints.size(); i += 2) {
+			int x = this.edgePoints.get(i);
+			int y = this.edgePoints.get(i + 1);
+			double distance = distance2(x - centerX, y - centerY);
+
+			if (distance >= inner2 && distance < outer2) {
+				this.partialPoints.add(x);
+				this.partialPoints.add(y);
+			}
+		}
+	}
+
+	/**
+	 * @return The tile was changed
+	 */
+	private boolean refreshTile(Chunk chunk, int x, int y) {
+		if (!chunk.isInside(x - chunk.getX(), y - chunk.getY())) {
+			return false;
+		}
+
+		SpawnCandidates candidates = chunk.getSpawnCandidates();
+		boolean candidate = this.isCandidate(chunk, x, y);
+
+		if (candidates.contains(x - chunk.getX(), y - chunk.getY()) == candidate) {
+			return false;
+		}
+
+		candidates.set(x - chunk.getX(), y - chunk.getY(), candidate);
+		return true;
+	}
+
+	private boolean isCandidate(Chunk chunk, int x, int y) {
+		if (this.getTile(chunk, x, y) != AIR || this.getTile(chunk, x, y - 1) != SOLID) {
+			return false;
+		}
+
+		for (int i = 1; i < HEADROOM; i++) {
+			if (this.getTile(chunk, x, y + i) != AIR) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Looks up a tile without loading any chunks
+	 */
+	private int getTile(Chunk chunk, int x, int y) {
+		if (!this.world.isInside(x, y)) {
+			return UNKNOWN;
+		}
+
+		if (!chunk.isInside(x - chunk.getX(), y - chunk.getY())) {
+			chunk = this.getLoadedChunk(x, y);
+
+			if (chunk == null) {
+				return UNKNOWN;
+			}
+		}
+
+		return chunk.getBlockInside(x - chunk.getX(), y - chunk.getY()) == null ? AIR : SOLID;
+	}
+
+	private Chunk getLoadedChunk(int x, int y) {
+		if (!this.world.isInside(x, y)) {
+			return null;
+		}
+
+		return this.world.chunks.get(x / Chunk.SIZE, y / Chunk.SIZE);
+	}
+
+	/**
+	 * @return Distance between two ranges on an axis, 0 if they overlap
+	 */
+	private static int gap(int min, int max, int otherMin, int otherMax) {
+		return Math.max(0, Math.max(min - otherMax, otherMin - max));
+	}
+
+	private static double distance2(double x, double y) {
+		return x * x + y * y;
+	}
+}
@@ -0,0 +1,307 @@
+package org.egordorichev.lasttry.world.components;
+
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.player.Player;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.ChunkLevel;
+import org.egordorichev.lasttry.world.chunk.ChunkTicket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps chunk tickets and the level, they give to every chunk. Chunks with a
+ * level are loaded a few at a time and are never evicted, but only ticking
+ * chunks run block updates, liquids and spawns, so a wide area can stay
+ * resident for scrolling without simulating all of it.
+ *
+ * Tickets are only changed and levels are only recalculated on the main
+ * thread, the chunk gc reads {@link Chunk#getLevel()}. Chunks can be loaded
+ * on other threads, their loader tickets are queued and added on the next
+ * update.
+ */
+public class WorldTicketsComponent extends WorldComponent {
+	public static final String PLAYER = "player";
+	public static final String LOADER = "loader";
+	/**
+	 * Chunks around the player's chunk, that are entity ticking. The next
+	 * ring is block ticking and the one after it is border.
+	 */
+	public static final int PLAYER_RADIUS = 1;
+	/**
+	 * Chunks with a level, that are loaded per tick, so crossing into a new
+	 * chunk doesn't stall a frame
+	 */
+	public static final int LOADS_PER_TICK = 1;
+
+	private final List<ChunkTicket> tickets = new ArrayList<>();
+	/**
+	 * Chunk loaders, that were loaded since the last update and need a ticket
+	 */
+	private final Queue<Chunk> loaded = new ConcurrentLinkedQueue<>();
+	/**
+	 * Level of every chunk, indexed like {@link WorldChunksComponent}
+	 */
+	private final ChunkLevel[] levels;
+	private final int width;
+	private final int height;
+	/**
+	 * Levels have to be recalculated
+	 */
+	private boolean dirty;
+	/**
+	 * Some chunks with a level might not be loaded yet
+	 */
+	private boolean pendingLoads;
+	private ChunkTicket playerTicket;
+
+	public WorldTicketsComponent(World world) {
+		super(world);
+
+		this.width = world.getWidth() / Chunk.SIZE;
+		this.height = world.getHeight() / Chunk.SIZE;
+		this.levels = new ChunkLevel[this.width * this.height];
+
+		Arrays.fill(this.levels, ChunkLevel.NONE);
+	}
+
+	/**
+	 * Moves the player ticket, recalculates levels and loads chunks, that
+	 * got a level, called every tick
+	 */
+	public void update() {
+		this.addLoaderTickets();
+
+		Player player = Globals.getPlayer();
+
+		if (player != null) {
+			int x = player.physics.getGridX() / Chunk.SIZE;
+			int y = player.physics.getGridY() / Chunk.SIZE;
+
+			if (this.playerTicket == null || this.playerTicket.getX() != x || this.playerTicket.getY() != y) {
+				// Added before the old one is removed, so shared chunks keep their level
+				ChunkTicket ticket = this.add(PLAYER, x, y, ChunkLevel.ENTITY_TICKING, PLAYER_RADIUS);
+
+				if (this.playerTicket != null) {
+					this.remove(this.playerTicket);
+				}
+
+				this.playerTicket = ticket;
+			}
+		}
+
+		this.recalculate();
+
+		if (this.pendingLoads) {
+			this.loadPending();
+		}
+	}
+
+	/**
+	 * Adds a ticket, or counts one more reference to an equal ticket
+	 *
+	 * @param type   What holds the ticket
+	 * @param x      Chunk X
+	 * @param y      Chunk Y
+	 * @param level  Level of the chunks within the radius
+	 * @param radius Distance in chunks, that gets the full level
+	 * @return The ticket, pass it to {@link #remove(ChunkTicket)}
+	 */
+	public ChunkTicket add(String type, int x, int y, ChunkLevel level, int radius) {
+		ChunkTicket ticket = this.get(type, x, y, level, radius);
+
+		if (ticket == null) {
+			ticket = new ChunkTicket(type, x, y, level, radius);
+			this.tickets.add(ticket);
+			this.dirty = true;
+		}
+
+		ticket.acquire();
+		return ticket;
+	}
+
+	/**
+	 * Removes one reference to the ticket, the ticket stops working, when
+	 * all are removed
+	 */
+	public void remove(ChunkTicket ticket) {
+		if (ticket.getCount() <= 0) {
+			throw new IllegalStateException("Ticket " + ticket.getType() + " at " + ticket.getX() + ":" + ticket.getY()
+					+ " was already removed");
+		}
+
+		if (ticket.release() == 0) {
+			this.tickets.remove(ticket);
+			this.dirty = true;
+		}
+	}
+
+	/**
+	 * @return Active ticket with given parameters, or null
+	 */
+	public ChunkTicket get(String type, int x, int y, ChunkLevel level, int radius) {
+		for (int i = 0; i < this.tickets.size(); i++) {
+			ChunkTicket ticket = this.tickets.get(i);
+
+			if (ticket.matches(type, x, y, level, radius)) {
+				return ticket;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return All active tickets
+	 */
+	public List<ChunkTicket> getTickets() {
+		return Collections.unmodifiableList(this.tickets);
+	}
+
+	/**
+	 * @param gridX Chunk X
+	 * @param gridY Chunk Y
+	 * @return Level of the chunk
+	 */
+	public ChunkLevel getLevel(int gridX, int gridY) {
+		if (gridX < 0 || gridY < 0 || gridX >= this.width || gridY >= this.height) {
+			return ChunkLevel.NONE;
+		}
+
+		this.recalculate();
+		return this.levels[gridX + gridY * this.width];
+	}
+
+	/**
+	 * @param x Tile X
+	 * @param y Tile Y
+	 * @return Level of the chunk, the tile is in, without loading it
+	 */
+	public ChunkLevel getLevelFor(int x, int y) {
+		if (x < 0 || y < 0) {
+			return ChunkLevel.NONE;
+		}
+
+		return this.getLevel(x / Chunk.SIZE, y / Chunk.SIZE);
+	}
+
+	/**
+	 * Gives the level to a chunk, that was just loaded. Can be called on any
+	 * thread, levels aren't recalculated here, the next recalculation sets
+	 * the level again.
+	 */
+	public void onLoad(Chunk chunk) {
+		chunk.setLevel(this.levels[chunk.getGridX() + chunk.getGridY() * this.width]);
+
+		if (!chunk.isUnloadable()) {
+			// Tickets aren't saved, chunk loaders get theirs back on the next update
+			this.loaded.add(chunk);
+		}
+	}
+
+	/**
+	 * Adds tickets of chunk loaders, queued by {@link #onLoad(Chunk)}
+	 */
+	private void addLoaderTickets() {
+		Chunk chunk;
+
+		while ((chunk = this.loaded.poll()) != null) {
+			// Might have been freed again, or lost its last loader
+			if (!chunk.isUnloadable() && this.world.chunks.get(chunk.getGridX(), chunk.getGridY()) == chunk) {
+				this.add(LOADER, chunk.getGridX(), chunk.getGridY(), ChunkLevel.BLOCK_TICKING, 0);
+			}
+		}
+	}
+
+	/**
+	 * Counts chunks at given level
+	 */
+	public int count(ChunkLevel level) {
+		this.recalculate();
+		int count = 0;
+
+		for (ChunkLevel chunkLevel : this.levels) {
+			if (chunkLevel == level) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private void recalculate() {
+		if (!this.dirty) {
+			return;
+		}
+
+		this.dirty = false;
+		Arrays.fill(this.levels, ChunkLevel.NONE);
+
+		for (int i = 0; i < this.tickets.size(); i++) {
+			ChunkTicket ticket = this.tickets.get(i);
+			int reach = ticket.getReach();
+			int minX = Math.max(0, ticket.getX() - reach);
+			int minY = Math.max(0, ticket.getY() - reach);
+			int maxX = Math.min(this.width - 1, ticket.getX() + reach);
+			int maxY = Math.min(this.height - 1, ticket.getY() + reach);
+
+			for (int y = minY; y <= maxY; y++) {
+				for (int x = minX; x <= maxX; x++) {
+					int index = x + y * this.width;
+					this.levels[index] = this.levels[index].max(ticket.getLevelAt(x, y));
+				}
+			}
+		}
+
+		for (int y = 0; y < this.height; y++) {
+			for (int x = 0; x < this.width; x++) {
+				Chunk chunk = this.world.chunks.get(x, y);
+
+				if (chunk != null) {
+					chunk.setLevel(this.levels[x + y * this.width]);
+				}
+			}
+		}
+
+		this.world.spawnIndex.invalidate();
+		this.pendingLoads = true;
+	}
+
+	/**
+	 * Loads up to {@link #LOADS_PER_TICK} chunks with a level, stronger
+	 * levels first
+	 */
+	private void loadPending() {
+		int loads = 0;
+		// Loading a chunk loader adds a ticket, that sets this again
+		this.pendingLoads = false;
+
+		for (int level = 0; level < ChunkLevel.NONE.ordinal(); level++) {
+			for (int i = 0; i < this.levels.length; i++) {
+				if (this.levels[i].ordinal() != level) {
+					continue;
+				}
+
+				int x = i % this.width;
+				int y = i / this.width;
+
+				if (this.world.chunks.get(x, y) != null) {
+					continue;
+				}
+
+				if (loads == LOADS_PER_TICK) {
+					this.pendingLoads = true;
+					return;
+				}
+
+				this.world.chunks.load(x, y);
+				loads++;
+			}
+		}
+	}
+}
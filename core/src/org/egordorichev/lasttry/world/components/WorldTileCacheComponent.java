@@ -0,0 +1,466 @@
+package org.egordorichev.lasttry.world.components;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Pool;
+import gnu.trove.list.array.TIntArrayList;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.graphics.VertexCache;
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.item.wall.Wall;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Keeps prebuilt vertices of blocks and walls for every visible section
+ * ({@link Chunk#SECTION_SIZE} tiles square), so unchanged terrain is drawn with
+ * a few calls per section instead of one per tile. A section is rebuilt only
+ * after a tile, a neighbor or a light value near it changes.
+ *
+ * Sections are built on worker threads, the render thread only swaps in
+ * finished vertices and draws them, so frame time doesn't grow with the
+ * amount of visible tiles. Blocks, that animate or draw themselves
+ * differently (see {@link Block#isCacheable()}), are still drawn every frame
+ * on top of the cached sections.
+ */
+public class WorldTileCacheComponent extends WorldComponent {
+	/**
+	 * Frames, after which a section, that wasn't drawn, is dropped
+	 */
+	public static final int EVICT_DELAY = 120;
+	/**
+	 * Sections around the screen, that are built before they are visible
+	 */
+	public static final int PREPARE_MARGIN = 1;
+
+	private final int sectionsX;
+	private final int sectionsY;
+	/**
+	 * Section versions, increased when something in the section changes.
+	 * Changed from any thread, sections are only rebuilt, when drawn
+	 */
+	private final AtomicIntegerArray versions;
+	private final IntMap<Section> sections = new IntMap<>();
+	/**
+	 * Builds sections off the render thread
+	 */
+	private final ForkJoinPool executor = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+	/**
+	 * Builds, that are done and wait to be swapped in
+	 */
+	private final ConcurrentLinkedQueue<Build> finished = new ConcurrentLinkedQueue<>();
+	/**
+	 * Builds, that were submitted, read by the chunk gc
+	 */
+	private final AtomicLong submitted = new AtomicLong();
+	/**
+	 * Builds, that weren't taken back yet, oldest first
+	 */
+	private final ArrayList<Build> running = new ArrayList<>();
+	/**
+	 * Vertex buffers, reused between builds
+	 */
+	private final Pool<SectionData> dataPool = new Pool<SectionData>() {
+		@Override
+		protected SectionData newObject() {
+			return new SectionData();
+		}
+	};
+	private final ItemManager itemManager;
+	private int frame;
+	/**
+	 * Value of {@link LastTry#noLight}, the sections were built with
+	 */
+	private boolean noLight;
+
+	public WorldTileCacheComponent(World world) {
+		super(world);
+
+		this.sectionsX = world.getWidth() / Chunk.SECTION_SIZE;
+		this.sectionsY = world.getHeight() / Chunk.SECTION_SIZE;
+		this.versions = new AtomicIntegerArray(this.sectionsX * this.sectionsY);
+		this.itemManager = CoreRegistry.get(ItemManager.class);
+	}
+
+	/**
+	 * Marks sections, that contain the tile or its neighbors
+	 *
+	 * @param x Changed tile X
+	 * @param y Changed tile Y
+	 */
+	public void invalidate(int x, int y) {
+		this.invalidate(x - 1, y - 1, x + 1, y + 1);
+	}
+
+	/**
+	 * Marks sections, that overlap the area
+	 *
+	 * @param minX Left tile
+	 * @param minY Bottom tile
+	 * @param maxX Right tile (inclusive)
+	 * @param maxY Top tile (inclusive)
+	 */
+	public void invalidate(int minX, int minY, int maxX, int maxY) {
+		minX = Math.max(0, minX / Chunk.SECTION_SIZE);
+		minY = Math.max(0, minY / Chunk.SECTION_SIZE);
+		maxX = Math.min(this.sectionsX - 1, maxX / Chunk.SECTION_SIZE);
+		maxY = Math.min(this.sectionsY - 1, maxY / Chunk.SECTION_SIZE);
+
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				this.versions.incrementAndGet(x + y * this.sectionsX);
+			}
+		}
+	}
+
+	/**
+	 * Marks every section, called when all light values are recalculated
+	 */
+	public void invalidateAll() {
+		for (int i = 0; i < this.versions.length(); i++) {
+			this.versions.incrementAndGet(i);
+		}
+	}
+
+	/**
+	 * Draws the sections, overlapping the given area. Changed sections are
+	 * rebuilt on worker threads and keep their old vertices until the new
+	 * ones are ready.
+	 *
+	 * @param blocks Area in tiles
+	 */
+	public void render(Rectangle blocks) {
+		this.frame++;
+
+		if (this.noLight != LastTry.noLight) {
+			this.noLight = LastTry.noLight;
+			this.invalidateAll();
+		}
+
+		this.takeBuilds();
+
+		int minX = Math.max(0, blocks.x / Chunk.SECTION_SIZE);
+		int minY = Math.max(0, blocks.y / Chunk.SECTION_SIZE);
+		int maxX = Math.min(this.sectionsX - 1, (blocks.x + blocks.width) / Chunk.SECTION_SIZE);
+		int maxY = Math.min(this.sectionsY - 1, (blocks.y + blocks.height) / Chunk.SECTION_SIZE);
+
+		// Sections just outside of the screen are prepared ahead
+		for (int y = Math.max(0, minY - PREPARE_MARGIN); y <= Math.min(this.sectionsY - 1, maxY + PREPARE_MARGIN); y++) {
+			for (int x = Math.max(0, minX - PREPARE_MARGIN); x <= Math.min(this.sectionsX - 1, maxX + PREPARE_MARGIN); x++) {
+				this.prepare(x, y);
+			}
+		}
+
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				Section section = this.sections.get(x + y * this.sectionsX);
+
+				if (section != null && section.data != null) {
+					section.data.render();
+				}
+			}
+		}
+
+		// Blocks, that aren't cached, go above everything
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				Section section = this.sections.get(x + y * this.sectionsX);
+
+				if (section != null && section.data != null) {
+					this.renderUncached(section.data);
+				}
+			}
+		}
+
+		if (this.frame % EVICT_DELAY == 0) {
+			this.evict();
+		}
+	}
+
+	private void renderUncached(SectionData data) {
+		TIntArrayList tiles = data.uncached;
+
+		for (int i = 0; i < tiles.size(); i += 3) {
+			int x = tiles.get(i);
+			int y = tiles.get(i + 1);
+			Block block = (Block) this.itemManager.getItem(this.world.blocks.getID(x, y));
+
+			if (block != null) {
+				block.updateBlockStyle(x, y);
+				block.renderBlock(x, y, (byte) tiles.get(i + 2));
+			}
+		}
+	}
+
+	/**
+	 * Queues a build of the section, if it changed and its chunk and the
+	 * chunks around it are loaded. Workers never load chunks, so a section
+	 * at the edge of the loaded area waits until its neighbors are there
+	 */
+	private void prepare(int x, int y) {
+		int index = x + y * this.sectionsX;
+		int version = this.versions.get(index);
+		Section section = this.sections.get(index);
+
+		if (section == null) {
+			section = new Section();
+			this.sections.put(index, section);
+		}
+
+		section.used = this.frame;
+
+		if (section.pending || (section.data != null && section.version == version)) {
+			return;
+		}
+
+		if (!this.isLoaded(x * Chunk.SECTION_SIZE / Chunk.SIZE, y * Chunk.SECTION_SIZE / Chunk.SIZE)) {
+			return;
+		}
+
+		section.pending = true;
+
+		Build build = new Build(this, index, version, this.submitted.getAndIncrement(), this.dataPool.obtain());
+		this.running.add(build);
+		this.executor.execute(build);
+	}
+
+	/**
+	 * @return The chunk and its neighbors inside of the world are loaded
+	 */
+	private boolean isLoaded(int chunkX, int chunkY) {
+		int maxX = this.world.getWidth() / Chunk.SIZE - 1;
+		int maxY = this.world.getHeight() / Chunk.SIZE - 1;
+
+		for (int y = Math.max(0, chunkY - 1); y <= Math.min(maxY, chunkY + 1); y++) {
+			for (int x = Math.max(0, chunkX - 1); x <= Math.min(maxX, chunkX + 1); x++) {
+				if (this.world.chunks.get(x, y) == null) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Stops the workers and drops the sections, called when the world is
+	 * unloaded
+	 */
+	public void dispose() {
+		this.executor.shutdownNow();
+
+		try {
+			this.executor.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+
+		this.finished.clear();
+		this.running.clear();
+		this.sections.clear();
+	}
+
+	/**
+	 * @return Builds, submitted so far, the next build gets this number.
+	 *         Can be called on any thread
+	 */
+	public long getSubmittedBuilds() {
+		return this.submitted.get();
+	}
+
+	/**
+	 * @return Number of the oldest build, that wasn't taken back yet, or
+	 *         {@link Long#MAX_VALUE}. Builds before it are done and don't
+	 *         read any chunk. Called on the main thread.
+	 */
+	public long getOldestBuild() {
+		return this.running.isEmpty() ? Long.MAX_VALUE : this.running.get(0).number;
+	}
+
+	/**
+	 * Swaps in sections, finished by the workers
+	 */
+	private void takeBuilds() {
+		Build build;
+
+		while ((build = this.finished.poll()) != null) {
+			Section section = this.sections.get(build.index);
+			this.running.remove(build);
+
+			if (section == null || !build.built) {
+				// Evicted or failed, a failed build is queued again on the next frame
+				if (section != null) {
+					section.pending = false;
+				}
+
+				this.dataPool.free(build.data);
+				continue;
+			}
+
+			if (section.data != null) {
+				this.dataPool.free(section.data);
+			}
+
+			section.data = build.data;
+			section.version = build.version;
+			section.pending = false;
+		}
+	}
+
+	/**
+	 * Fills the section vertices, called on worker threads
+	 */
+	private void build(SectionData data, int minX, int minY) {
+		data.clear();
+
+		for (int y = minY; y < minY + Chunk.SECTION_SIZE; y++) {
+			for (int x = minX; x < minX + Chunk.SECTION_SIZE; x++) {
+				Block block = (Block) this.itemManager.getItem(this.world.blocks.getID(x, y));
+				Wall wall = (Wall) this.itemManager.getItem(this.world.walls.getID(x, y));
+
+				if (block == null) {
+					if (wall != null) {
+						wall.cacheWall(x, y, data.walls, data.wallCracks);
+					}
+
+					continue;
+				}
+
+				byte binary = this.world.blocks.getMask(x, y);
+
+				// Fully surrounded blocks hide their walls
+				if (binary != 15 && wall != null) {
+					wall.cacheWall(x, y, data.walls, data.wallCracks);
+				}
+
+				if (block.isCacheable()) {
+					block.cacheBlock(x, y, binary, data.blocks, data.blockCracks);
+				} else {
+					data.uncached.add(x);
+					data.uncached.add(y);
+					data.uncached.add(binary);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drops sections, that weren't drawn for a while
+	 */
+	private void evict() {
+		IntMap.Keys keys = this.sections.keys();
+
+		while (keys.hasNext) {
+			int key = keys.next();
+			Section section = this.sections.get(key);
+
+			if (this.frame - section.used > EVICT_DELAY) {
+				if (section.data != null) {
+					this.dataPool.free(section.data);
+				}
+
+				keys.remove();
+			}
+		}
+	}
+
+	/**
+	 * Cached state of a section, only touched on the render thread
+	 */
+	private static class Section {
+		/**
+		 * Vertices, that are drawn, null until the first build is done
+		 */
+		private SectionData data;
+		/**
+		 * Version, the data was built for
+		 */
+		private int version;
+		/**
+		 * A build is queued or running
+		 */
+		private boolean pending;
+		/**
+		 * Frame, the section was last seen on
+		 */
+		private int used;
+	}
+
+	/**
+	 * Vertices of a section in drawing order, pooled and reused between builds
+	 */
+	private static class SectionData {
+		private final VertexCache walls = new VertexCache();
+		private final VertexCache wallCracks = new VertexCache();
+		private final VertexCache blocks = new VertexCache();
+		private final VertexCache blockCracks = new VertexCache();
+		/**
+		 * Blocks, that are drawn every frame, packed as x, y, binary
+		 */
+		private final TIntArrayList uncached = new TIntArrayList();
+
+		private void clear() {
+			this.walls.clear();
+			this.wallCracks.clear();
+			this.blocks.clear();
+			this.blockCracks.clear();
+			this.uncached.resetQuick();
+		}
+
+		private void render() {
+			this.walls.render(Graphics.batch);
+			this.wallCracks.render(Graphics.batch);
+			this.blocks.render(Graphics.batch);
+			this.blockCracks.render(Graphics.batch);
+		}
+	}
+
+	/**
+	 * Builds a single section on a worker thread and hands it back to the
+	 * render thread
+	 */
+	private static class Build implements Runnable {
+		private final WorldTileCacheComponent cache;
+		private final int index;
+		private final int version;
+		/**
+		 * Builds, that were submitted before this one
+		 */
+		private final long number;
+		private final SectionData data;
+		private boolean built;
+
+		private Build(WorldTileCacheComponent cache, int index, int version, long number, SectionData data) {
+			this.cache = cache;
+			this.index = index;
+			this.version = version;
+			this.number = number;
+			this.data = data;
+		}
+
+		@Override
+		public void run() {
+			try {
+				int x = this.index % this.cache.sectionsX * Chunk.SECTION_SIZE;
+				int y = this.index / this.cache.sectionsX * Chunk.SECTION_SIZE;
+
+				this.cache.build(this.data, x, y);
+				this.built = true;
+			} catch (Exception exception) {
+				LastTry.handleException(exception);
+			}
+
+			this.cache.finished.add(this);
+		}
+	}
+}
@@ -28,6 +28,19 @@ public class WorldWallsComponent extends WorldComponent {
 		return chunk.getWall(x, y);
 	}
 
+	/**
+	 * @return Stored neighbor mask of the wall
+	 */
+	public byte getMask(int x, int y) {
+		Chunk chunk = this.getChunk(x, y);
+
+		if (chunk == null) {
+			return 0;
+		}
+
+		return chunk.getWallMask(x, y);
+	}
+
 	public void set(String id, int x, int y) {
 		Chunk chunk = this.getChunk(x, y);
 
@@ -36,6 +49,7 @@ public class WorldWallsComponent extends WorldComponent {
 		}
 
 		chunk.setWall(id, x, y);
+		this.world.tileCache.invalidate(x, y);
 	}
 
 	public byte getHP(int x, int y) {
@@ -55,7 +69,7 @@ public class WorldWallsComponent extends WorldComponent {
 			return;
 		}
 
-
 		chunk.setWallHP(hp, x, y);
+		this.world.tileCache.invalidate(x, y);
 	}
 }
\ No newline at end of file
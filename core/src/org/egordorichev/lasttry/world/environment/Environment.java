@@ -2,28 +2,33 @@ package org.egordorichev.lasttry.world.environment;
 
 import com.badlogic.gdx.Gdx;
 import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.graphics.Graphics;
 import org.egordorichev.lasttry.injection.CoreRegistry;
 import org.egordorichev.lasttry.injection.InjectionHelper;
 import org.egordorichev.lasttry.item.block.Block;
-import org.egordorichev.lasttry.util.Callable;
 import org.egordorichev.lasttry.util.Camera;
-import org.egordorichev.lasttry.util.Util;
+import org.egordorichev.lasttry.util.metrics.Metrics;
+import org.egordorichev.lasttry.util.metrics.Timer;
 import org.egordorichev.lasttry.world.WorldTime;
 import org.egordorichev.lasttry.world.biome.Biome;
 import org.egordorichev.lasttry.world.biome.BiomeManager;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
 public class Environment {
-	public HashMap<String, Short> blockCount;
+	private static final Timer updateTimer = Metrics.timer("environment.update");
+
 	public WorldTime time;
 	public List<Event> events = new ArrayList<>();
 	public Biome currentBiome;
 	public Biome lastBiome;
+	/**
+	 * Ticks since the last biome check
+	 */
+	private int biomeTicks;
 
 	public final BiomeManager biomeManager;
 	public Environment() {
@@ -32,25 +37,11 @@ public class Environment {
 		this.currentBiome = biomeManager.get("lt:forest");
 		this.currentBiome.animation.fadeInFast();
 		this.lastBiome = biomeManager.get("lt:forest");
-		this.blockCount = new HashMap<>();
 		this.time = new WorldTime((byte) 8, (byte) 15);
-
-		Util.runDelayedThreadSeconds(new Callable() {
-			@Override
-			public void call() {
-				updateBiome();
-			}
-		}, 1);
 	}
 
 	public void render() {
-		int time = this.time.getHour() * 60 + this.time.getMinute();
-		int height = Gdx.graphics.getHeight();
-
-		for (int i = 0; i < Gdx.graphics.getWidth(); i++) {
-			Graphics.batch.draw(Graphics.skyTexture, i, 0, 1, height,
-				time, 0, 1, 1024, false, false);
-		}
+		Graphics.renderSky(this.time.getHour() * 60 + this.time.getMinute());
 
 		if (this.currentBiome != null) {
 			this.currentBiome.animation.render();
@@ -66,8 +57,14 @@ public class Environment {
 			return;
 		}
 
+		long start = updateTimer.start();
 		this.time.update();
 
+		if (++this.biomeTicks >= LastTry.tickRate) {
+			this.biomeTicks = 0;
+			this.updateBiome();
+		}
+
 		if (this.currentBiome != null && !this.currentBiome.animation.fadeInIsDone()) {
 			this.currentBiome.animation.fadeIn();
 		}
@@ -90,6 +87,7 @@ public class Environment {
 		}
 
 		Globals.spawnSystem.update();
+		updateTimer.stop(start);
 	}
 
 	public boolean isEventHappening(Event event) {
@@ -137,17 +135,6 @@ public class Environment {
 		int minX = Math.max(0, tcx - 2);
 		int maxX = Math.min(Globals.getWorld().getWidth() - 1, tcx + tww + 2);
 
-		this.blockCount.clear();
-
-		for (int y = minY; y < maxY; y++) {
-			for (int x = minX; x < maxX; x++) {
-				String id = Globals.getWorld().blocks.getID(x, y);
-
-				short count = blockCount.containsKey(id) ? blockCount.get(id) : 0;
-				blockCount.put(id, (short) (count + 1));
-			}
-		}
-
 		this.lastBiome = this.currentBiome;
 
 		for (Iterator<Biome> it = biomeManager.iterator(); it.hasNext(); ) {
@@ -155,11 +142,7 @@ public class Environment {
 			boolean canBeSet = true;
 
 			for (Biome.Holder holder : biome.getRequired()) {
-				short count = 0;
-
-				for (String id : holder.items) {
-					count += blockCount.containsKey(id) ? this.blockCount.get(id) : 0;
-				}
+				int count = Globals.getWorld().blocks.count(holder.ids, minX, minY, maxX, maxY);
 
 				if (count < holder.count) {
 					canBeSet = false;
@@ -25,58 +25,90 @@ public class CaveGeneratorSimplexTask extends GeneratorTask {
 	private final float caveScale = 34f;
 
 	@Override
-	public void run(WorldGenerator generator) {
-		logger.info("Generating caves");
+	public int getMargin() {
+		// Neighbor counts look one tile around
+		return 1;
+	}
+
+	@Override
+	public void generate(WorldGenerator generator, GeneratorChunk chunk) {
 		// TODO: These numbers shouldn't be hard-coded
 		// TODO: Let the user choose these variables when generating a world.
 		float scale = 1f / caveScale;
 		float cut = 0f;
-		boolean[][] solidMap = new boolean[generator.getWorldWidth()][generator.getWorldHeight()];
-		for (int x = 0; x < generator.getWorldWidth(); x++) {
+
+		int minX = Math.max(0, chunk.getMinX());
+		int maxX = Math.min(generator.getWorldWidth(), chunk.getMaxX());
+		int minY = Math.max(0, chunk.getMinY());
+		int maxY = Math.min(generator.getWorldHeight(), chunk.getMaxY());
+
+		// Everything above the surface is air, only the neighbor counts
+		// need the tile right above it
+		int surface = 0;
+
+		for (int x = minX; x < maxX; x++) {
+			surface = Math.max(surface, generator.getHighest(x) + 2);
+		}
+
+		maxY = Math.min(maxY, surface);
+
+		int width = maxX - minX;
+		int height = maxY - minY;
+
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+
+		// Get noise values for the whole chunk at once
+		float[] noise = new float[width * height];
+		SimplexNoise.octavedNoiseBlock(noise, minX, minY, 1, 1, width, height, octaves, roughness, scale);
+
+		for (int x = minX; x < maxX; x++) {
 			int antiCaveBiasHeight = generator.getHighest(x) - caveBiasDepth;
-			for (int y = 0; y < generator.getWorldHeight(); y++) {
-				// Get noise value at the coordinates
-				float f = SimplexNoise.octavedNoise(x, y, octaves, roughness, scale);
+			double bias = Math.abs(Math.sin(x / 30f) / 1.5f);
+
+			for (int y = minY; y < maxY; y++) {
+				float f = noise[(x - minX) + (y - minY) * width];
 				if (y >= antiCaveBiasHeight) {
 					// Average the value with a negative number to lessen the
 					// effect of cave generation above (Y = antiCaveBiasHeight)
-					f -= Math.abs(Math.sin(x / 30f) / 1.5f);
+					f -= bias;
 					f /= 4;
 				}
 				// Solidity is determined if the noise (which is [-1,1] -
 				// antiCaveBias) is less than a given value. If cut is 0.5f, 75%
 				// of the land should end up being solid, 25% will become caves.
-				boolean isSolid = f <= cut;
-				solidMap[x][y] = isSolid;
+				chunk.mask[chunk.getIndex(x, y)] = f <= cut;
 			}
 		}
-		for (int x = 0; x < generator.getWorldWidth(); x++) {
-			for (int y = 0; y < generator.getWorldHeight(); y++) {
+	}
+
+	@Override
+	public void fixup(WorldGenerator generator, GeneratorChunk chunk) {
+		int margin = chunk.getMargin();
+		int minX = Math.max(0, chunk.getMinX() + margin);
+		int maxX = Math.min(generator.getWorldWidth(), chunk.getMaxX() - margin);
+		int minY = Math.max(0, chunk.getMinY() + margin);
+		int maxY = Math.min(generator.getWorldHeight(), chunk.getMaxY() - margin);
+
+		// Only the chunk itself is fixed, the margin is just looked at
+		for (int x = minX; x < maxX; x++) {
+			for (int y = minY; y < maxY; y++) {
+				int index = chunk.getIndex(x, y);
+
 				// Skip existing air blocks
-				if (generator.world.blocks.getID(x, y) == null) {
+				if (chunk.blocks[index] == GeneratorChunk.AIR) {
 					continue;
 				}
 				// Insert caves
-				if (!solidMap[x][y]) {
-					generator.world.blocks.set(null, x, y);
+				if (!chunk.mask[index]) {
+					chunk.blocks[index] = GeneratorChunk.AIR;
 				} else {
-					// For non caves, apply grass borders.
 					// Cut off any blocks with too few neighbors to prevent
 					// the some of the floating blocks.
-					int neighbors = this.calculateNeighbors(generator, solidMap, x, y);
+					int neighbors = this.calculateNeighbors(generator, chunk, chunk.mask, x, y);
 					if (neighbors <= 3) {
-						generator.world.blocks.set(null, x, y);
-					} else if (neighbors != 8) {
-						// Create cave wall lining based on what tile is being
-						// repalced.
-						String id = generator.world.blocks.getID(x, y);
-						/*
-						 * if (id.equals("lt:grass") || id.equals("lt:dirt")) {
-						 * generator.world.blocks.set("lt:grass", x, y); } else
-						 * if (id.equals("lt:sand")) {
-						 * generator.world.blocks.set("sand", x, y); } else {
-						 * generator.world.blocks.set("lt:stone", x, y); }
-						 */
+						chunk.blocks[index] = GeneratorChunk.AIR;
 					}
 				}
 			}
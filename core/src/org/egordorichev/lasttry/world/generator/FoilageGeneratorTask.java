@@ -3,24 +3,28 @@ package org.egordorichev.lasttry.world.generator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Random;
+
 public class FoilageGeneratorTask extends GeneratorTask {
     private static final Logger logger = LoggerFactory.getLogger(FoilageGeneratorTask.class);
+
     @Override
-    public void run(WorldGenerator generator) {
-        logger.info("Generating foilage");
+    public void generate(WorldGenerator generator, GeneratorChunk chunk) {
+        int minX = Math.max(0, chunk.getMinX() + chunk.getMargin());
+        int maxX = Math.min(generator.getWorldWidth(), chunk.getMaxX() - chunk.getMargin());
+        // Seeded by the chunk position, so the result doesn't depend on the generation order
+        Random random = generator.createRandom(chunk.getChunkX(), chunk.getChunkY());
+        short ash = generator.getMaterial("lt:ash");
 
         // TODO: Replace blocks with trees and plants
         // Small plants
-        for (int x = 0; x < generator.getWorldWidth(); x += generator.world.random.nextInt(5)) {
-            int y = generator.getHighest(x);
-            generator.world.blocks.set("lt:ash", x, y);
+        for (int x = minX; x < maxX; x += random.nextInt(5)) {
+            chunk.setBlock(ash, x, generator.getHighest(x));
         }
 
         // Larger plants
-        for (int x = 0; x < generator.getWorldWidth(); x += generator.world.random.nextInt(10)) {
-            int y = generator.getHighest(x);
-            generator.world.blocks.set("lt:ash", x, y);
+        for (int x = minX; x < maxX; x += random.nextInt(10)) {
+            chunk.setBlock(ash, x, generator.getHighest(x));
         }
     }
-
 }
@@ -0,0 +1,145 @@
+package org.egordorichev.lasttry.world.generator;
+
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+/**
+ * Chunk-local generation buffer. Holds primitive material ids for a single
+ * chunk plus a margin of tiles around it, so tasks can look at neighbors
+ * without touching other chunks or the world.
+ */
+public class GeneratorChunk {
+	/**
+	 * Material id used for air
+	 */
+	public static final short AIR = 0;
+
+	/**
+	 * Chunk grid position
+	 */
+	private final int chunkX;
+	private final int chunkY;
+	/**
+	 * Tiles around the chunk, that are generated as well
+	 */
+	private final int margin;
+	/**
+	 * Lowest global tile position, covered by this buffer
+	 */
+	private final int originX;
+	private final int originY;
+	/**
+	 * Buffer width and height in tiles
+	 */
+	private final int span;
+	/**
+	 * Block material ids, see {@link WorldGenerator#getMaterial(String)}
+	 */
+	public final short[] blocks;
+	/**
+	 * Wall material ids
+	 */
+	public final short[] walls;
+	/**
+	 * Scratch per-tile flags, that tasks can use between generate and fixup
+	 * passes
+	 */
+	public final boolean[] mask;
+
+	public GeneratorChunk(int chunkX, int chunkY, int margin) {
+		this.chunkX = chunkX;
+		this.chunkY = chunkY;
+		this.margin = margin;
+		this.originX = chunkX * Chunk.SIZE - margin;
+		this.originY = chunkY * Chunk.SIZE - margin;
+		this.span = Chunk.SIZE + margin * 2;
+		this.blocks = new short[this.span * this.span];
+		this.walls = new short[this.span * this.span];
+		this.mask = new boolean[this.span * this.span];
+	}
+
+	/**
+	 * @param x Global tile X
+	 * @param y Global tile Y
+	 * @return Index in the buffers, or -1 if the tile is not covered
+	 */
+	public int getIndex(int x, int y) {
+		int lx = x - this.originX;
+		int ly = y - this.originY;
+
+		if (lx < 0 || ly < 0 || lx >= this.span || ly >= this.span) {
+			return -1;
+		}
+
+		return lx + ly * this.span;
+	}
+
+	public short getBlock(int x, int y) {
+		int index = this.getIndex(x, y);
+		return index == -1 ? AIR : this.blocks[index];
+	}
+
+	public void setBlock(short id, int x, int y) {
+		int index = this.getIndex(x, y);
+
+		if (index != -1) {
+			this.blocks[index] = id;
+		}
+	}
+
+	public short getWall(int x, int y) {
+		int index = this.getIndex(x, y);
+		return index == -1 ? AIR : this.walls[index];
+	}
+
+	public void setWall(short id, int x, int y) {
+		int index = this.getIndex(x, y);
+
+		if (index != -1) {
+			this.walls[index] = id;
+		}
+	}
+
+	public int getChunkX() {
+		return this.chunkX;
+	}
+
+	public int getChunkY() {
+		return this.chunkY;
+	}
+
+	public int getMargin() {
+		return this.margin;
+	}
+
+	/**
+	 * @return Lowest global X, covered by the buffer (including margin)
+	 */
+	public int getMinX() {
+		return this.originX;
+	}
+
+	/**
+	 * @return Lowest global Y, covered by the buffer (including margin)
+	 */
+	public int getMinY() {
+		return this.originY;
+	}
+
+	/**
+	 * @return Highest global X (exclusive), covered by the buffer
+	 */
+	public int getMaxX() {
+		return this.originX + this.span;
+	}
+
+	/**
+	 * @return Highest global Y (exclusive), covered by the buffer
+	 */
+	public int getMaxY() {
+		return this.originY + this.span;
+	}
+
+	public int getSpan() {
+		return this.span;
+	}
+}
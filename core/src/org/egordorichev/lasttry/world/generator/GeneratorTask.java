@@ -1,29 +1,73 @@
 package org.egordorichev.lasttry.world.generator;
 
+/**
+ * Single generation step. Tasks are run for every chunk independently and
+ * possibly on different threads at the same time, so they should only write
+ * into the given {@link GeneratorChunk} and keep world-wide state read-only
+ * after {@link #prepare(WorldGenerator)}.
+ */
 public abstract class GeneratorTask {
-    public abstract void run(WorldGenerator generator);
-    
-    protected int calculateNeighbors(WorldGenerator generator, boolean[][] terrain, int x, int y) {
-        int neighbors = 0;
-        int w = generator.getWorldWidth();
-        int h = generator.getWorldHeight();
-        for (int j = y - 1; j < y + 2; j++) {
-            for (int i = x - 1; i < x + 2; i++) {
-                if (i == x && j == y) {
-                    continue;
-                }
-
-                if (i < 0 || j < 0 || i >= w || j >= h) {
-                    neighbors++;
-                    continue;
-                }
-
-                if (terrain[i][j]) {
-                    neighbors++;
-                }
-            }
-        }
-
-        return neighbors;
-    }
-}
\ No newline at end of file
+	/**
+	 * Called once, before any chunk is generated. Can be used to precompute
+	 * cheap world-wide data, like the height map.
+	 *
+	 * @param generator Generator, running this task
+	 */
+	public void prepare(WorldGenerator generator) {
+
+	}
+
+	/**
+	 * Fills the chunk buffer. Must not depend on the neighbors, written by
+	 * this pass.
+	 *
+	 * @param generator Generator, running this task
+	 * @param chunk     Chunk buffer to fill
+	 */
+	public abstract void generate(WorldGenerator generator, GeneratorChunk chunk);
+
+	/**
+	 * Neighbor dependent fix-ups. Called after every task has generated the
+	 * chunk.
+	 *
+	 * @param generator Generator, running this task
+	 * @param chunk     Chunk buffer to fix
+	 */
+	public void fixup(WorldGenerator generator, GeneratorChunk chunk) {
+
+	}
+
+	/**
+	 * @return Tiles around the chunk, this task needs to see
+	 */
+	public int getMargin() {
+		return 0;
+	}
+
+	protected int calculateNeighbors(WorldGenerator generator, GeneratorChunk chunk, boolean[] terrain, int x, int y) {
+		int neighbors = 0;
+		int w = generator.getWorldWidth();
+		int h = generator.getWorldHeight();
+
+		for (int j = y - 1; j < y + 2; j++) {
+			for (int i = x - 1; i < x + 2; i++) {
+				if (i == x && j == y) {
+					continue;
+				}
+
+				if (i < 0 || j < 0 || i >= w || j >= h) {
+					neighbors++;
+					continue;
+				}
+
+				int index = chunk.getIndex(i, j);
+
+				if (index == -1 || terrain[index]) {
+					neighbors++;
+				}
+			}
+		}
+
+		return neighbors;
+	}
+}
@@ -39,53 +39,138 @@ public class SurfaceGenerationSimplexTask extends GeneratorTask {
 	 */
 	private final float biomeScale = 200f;
 
+	/**
+	 * Distance between real biome noise samples, the rest is interpolated.
+	 */
+	private final int biomeSampleStep = 8;
+
 	private final BiomeManager biomeManager;
 
 	SurfaceGenerationSimplexTask(){
 		biomeManager = CoreRegistry.get(BiomeManager.class);
 	}
 
+	/**
+	 * Highest soil block and stone level per column, filled in {@link #prepare(WorldGenerator)}
+	 */
+	private int[] surface;
+	private int[] stone;
+
 	@Override
-	public void run(WorldGenerator generator) {
+	public void prepare(WorldGenerator generator) {
 		logger.info("Generating heightmap");
 		int width = generator.getWorldWidth();
-		int height = generator.getWorldHeight();
-
-		// Range of height for terrain
-		int max = height - 100;
-		int min = max - hillStrength;
+		this.surface = new int[width];
+		this.stone = new int[width];
 
 		for (int x = 0; x < width; x++) {
+			this.surface[x] = this.getSurfaceHeight(generator.getWorldHeight(), x);
 			double xin = x / xScale;
-			double total = SimplexNoise.octavedNoise((float) xin, 0, 4, 1, 1) + 1;
-			total *= hillStrength / 2.0;
-			total += min;
-
-			int yMax = (int) Math.round(total);
-			int yStone = yMax - (stoneDepth + scaleStoneDeviation(SimplexNoise.octavedNoise((float) xin, 100f, 5, 3f, 1)));
-			for (int y = 0; y <= yMax; y++) {
-				Biome biome = getBiome(generator.world.getSeed(), x, y);
-				if (y == yMax) {
-					generator.world.blocks.set(biome.getMaterials().getTopSoil(), x, y);
-				} else if (y < yStone) {
-					generator.world.blocks.set(biome.getMaterials().getStone(), x, y);
-					generator.world.walls.set(biome.getMaterials().getStoneWall(), x, y);
-				} else if (y < yMax) {
-					generator.world.blocks.set(biome.getMaterials().getSoil(), x, y);
-					generator.world.walls.set(biome.getMaterials().getSoilWall(), x, y);
+			this.stone[x] = this.surface[x] - (stoneDepth + scaleStoneDeviation(SimplexNoise.octavedNoise((float) xin, 100f, 5, 3f, 1)));
+			generator.setHighest(x, this.surface[x]);
+		}
+	}
+
+	@Override
+	public void generate(WorldGenerator generator, GeneratorChunk chunk) {
+		int minX = Math.max(0, chunk.getMinX());
+		int maxX = Math.min(generator.getWorldWidth(), chunk.getMaxX());
+		int minY = Math.max(0, chunk.getMinY());
+		int maxY = 0;
+
+		for (int x = minX; x < maxX; x++) {
+			maxY = Math.max(maxY, this.surface[x] + 1);
+		}
+
+		maxY = Math.min(maxY, chunk.getMaxY());
+
+		if (maxX <= minX || maxY <= minY) {
+			return;
+		}
+
+		// Align the coarse biome grid to the world, so chunk borders match
+		int originX = minX / biomeSampleStep * biomeSampleStep;
+		int originY = minY / biomeSampleStep * biomeSampleStep;
+		int width = maxX - originX;
+		int height = maxY - originY;
+
+		float[] temperature = new float[width * height];
+		float[] humidity = new float[width * height];
+		int offset = generator.getSeed() % 10_000;
+
+		SimplexNoise.octavedNoiseCoarse(temperature, originX + offset, originY + offset, 1, 1, width, height,
+				biomeSampleStep, 3, biomeRoughness, 0.1f / biomeScale);
+		SimplexNoise.octavedNoiseCoarse(humidity, -originX - offset, -originY - offset, -1, -1, width, height,
+				biomeSampleStep, 3, biomeRoughness, 0.1f / biomeScale);
+
+		// Biomes are resolved per coarse cell. If all corners of a cell map to
+		// the same biome, the whole cell takes it. This is an approximation:
+		// the lookup table is truncated and clamped, so its regions aren't
+		// convex, and a small patch of another biome inside such a cell is
+		// lost. Noise is smooth within a cell, so this is rare
+		for (int cellY = originY; cellY < maxY; cellY += biomeSampleStep) {
+			for (int cellX = originX; cellX < maxX; cellX += biomeSampleStep) {
+				int right = Math.min(cellX + biomeSampleStep, maxX) - 1;
+				int top = Math.min(cellY + biomeSampleStep, maxY) - 1;
+
+				Biome biome = this.getBiome(temperature, humidity, width, cellX - originX, cellY - originY);
+
+				if (biome != this.getBiome(temperature, humidity, width, right - originX, cellY - originY)
+						|| biome != this.getBiome(temperature, humidity, width, cellX - originX, top - originY)
+						|| biome != this.getBiome(temperature, humidity, width, right - originX, top - originY)) {
+
+					biome = null;
+				}
+
+				for (int x = Math.max(cellX, minX); x <= right; x++) {
+					int yMax = this.surface[x];
+					int yStone = this.stone[x];
+					int columnMaxY = Math.min(yMax, top);
+
+					for (int y = Math.max(cellY, minY); y <= columnMaxY; y++) {
+						short[] materials = generator.getMaterials(biome != null ? biome
+								: this.getBiome(temperature, humidity, width, x - originX, y - originY));
+						int index = chunk.getIndex(x, y);
+
+						if (y == yMax) {
+							chunk.blocks[index] = materials[WorldGenerator.TOP_SOIL];
+						} else if (y < yStone) {
+							chunk.blocks[index] = materials[WorldGenerator.STONE];
+							chunk.walls[index] = materials[WorldGenerator.STONE_WALL];
+						} else {
+							chunk.blocks[index] = materials[WorldGenerator.SOIL];
+							chunk.walls[index] = materials[WorldGenerator.SOIL_WALL];
+						}
+					}
 				}
 			}
 		}
 	}
 
-	private Biome getBiome(int seed, int x, int y) {
-		int xt = x + (seed % 10_000);
-		int yt = y + (seed % 10_000);
-		int xh = -x - (seed % 10_000);
-		int yh = -y - (seed % 10_000);
-		int temperature = scaleHeight(SimplexNoise.octavedNoise(xt, yt, 3, biomeRoughness, 0.1f / biomeScale));
-		int humidity = scaleHeight(SimplexNoise.octavedNoise(xh, yh, 3, biomeRoughness, 0.1f / biomeScale));
-		return biomeManager.getClosest(temperature, humidity);
+	private Biome getBiome(float[] temperature, float[] humidity, int width, int x, int y) {
+		int sample = x + y * width;
+		return biomeManager.getClosest(scaleHeight(temperature[sample]), scaleHeight(humidity[sample]));
+	}
+
+	/**
+	 * Height of the surface depends only on the X position, so it can be
+	 * computed without generating any chunks.
+	 *
+	 * @param worldHeight World height in tiles
+	 * @param x           Column X
+	 * @return Y of the top soil block
+	 */
+	public int getSurfaceHeight(int worldHeight, int x) {
+		// Range of height for terrain
+		int max = worldHeight - 100;
+		int min = max - hillStrength;
+
+		double xin = x / xScale;
+		double total = SimplexNoise.octavedNoise((float) xin, 0, 4, 1, 1) + 1;
+		total *= hillStrength / 2.0;
+		total += min;
+
+		return (int) Math.round(total);
 	}
 
 	private static int scaleHeight(float input) {
@@ -2,19 +2,66 @@ package org.egordorichev.lasttry.world.generator;
 
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.biome.Biome;
+import org.egordorichev.lasttry.world.biome.BiomeMaterials;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.ChunkData;
 
 import com.badlogic.gdx.math.Vector2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class WorldGenerator {
+	private static final Logger logger = LoggerFactory.getLogger(WorldGenerator.class);
+	/**
+	 * Indices in the arrays, returned by {@link #getMaterials(Biome)}
+	 */
+	public static final int TOP_SOIL = 0;
+	public static final int SOIL = 1;
+	public static final int SOIL_WALL = 2;
+	public static final int STONE = 3;
+	public static final int STONE_WALL = 4;
+
 	public World world;
 	private List<GeneratorTask> tasks = new ArrayList<>();
+	/**
+	 * Highest surface block per column, filled by the tasks while preparing
+	 */
+	private final int[] highest;
+	/**
+	 * Material id to tile id, id 0 is air. Copied on write, so workers can
+	 * read it without locking
+	 */
+	private volatile String[] palette = new String[] { null };
+	private final Map<String, Short> paletteIds = new HashMap<>();
+	/**
+	 * Resolved biome materials
+	 */
+	private final Map<Biome, short[]> biomeMaterials = new ConcurrentHashMap<>();
+
+	/**
+	 * Tasks were prepared
+	 */
+	private boolean prepared;
 
 	public WorldGenerator(String name, World.Size size, int flags, int seed) {
-		this.world = new World(name, size, flags, seed);
+		this(new World(name, size, flags, seed));
 		Globals.setWorld(this.world);
+	}
+
+	public WorldGenerator(World world) {
+		this.world = world;
+		this.highest = new int[this.world.getWidth()];
 		this.tasks.add(new SurfaceGenerationSimplexTask());
 		this.tasks.add(new CaveGeneratorSimplexTask());
 	}
@@ -31,15 +78,176 @@ public class WorldGenerator {
 		this.tasks.remove(index);
 	}
 
+	/**
+	 * Prepares the tasks, must be called before generating any chunks.
+	 * Does nothing, if the generator is already prepared.
+	 */
+	public synchronized void prepare() {
+		if (this.prepared) {
+			return;
+		}
+
+		for (GeneratorTask task : this.tasks) {
+			task.prepare(this);
+		}
+
+		this.prepared = true;
+	}
+
+	/**
+	 * Generates every chunk of the world up front. Normally chunks are
+	 * generated on demand, see {@link #generateChunk(int, int)}
+	 *
+	 * @return Generated world
+	 */
 	public World generate() {
-		while (this.tasks.size() > 0) {
-			this.tasks.remove(0).run(this);
+		this.prepare();
+
+		int chunksX = this.getWorldWidth() / Chunk.SIZE;
+		int chunksY = this.getWorldHeight() / Chunk.SIZE;
+
+		logger.info("Generating " + (chunksX * chunksY) + " chunks");
+
+		ForkJoinPool pool = new ForkJoinPool();
+
+		try {
+			pool.invoke(new GenerateRange(this, 0, chunksX * chunksY, chunksX));
+		} finally {
+			pool.shutdown();
 		}
+
 		int w = this.world.getWidth() / 2;
 		this.world.setSpawnPoint(new Vector2(w, this.world.getHighest(w)));
 		return this.world;
 	}
 
+	/**
+	 * Runs every task for a single chunk. Safe to call from multiple
+	 * threads for different chunks. The result only depends on the world
+	 * seed and chunk position, so any chunk can be generated at any time.
+	 *
+	 * @param chunkX Chunk grid X
+	 * @param chunkY Chunk grid Y
+	 * @return Generated chunk, not added to the world
+	 */
+	public Chunk generateChunk(int chunkX, int chunkY) {
+		GeneratorChunk buffer = new GeneratorChunk(chunkX, chunkY, this.getMargin());
+
+		for (GeneratorTask task : this.tasks) {
+			task.generate(this, buffer);
+		}
+
+		for (GeneratorTask task : this.tasks) {
+			task.fixup(this, buffer);
+		}
+
+		return this.createChunk(buffer);
+	}
+
+	private Chunk createChunk(GeneratorChunk buffer) {
+		String[] palette = this.palette;
+		ChunkData data = ChunkData.create();
+		int margin = buffer.getMargin();
+		int span = buffer.getSpan();
+		int baseX = buffer.getChunkX() * Chunk.SIZE;
+		int baseY = buffer.getChunkY() * Chunk.SIZE;
+
+		for (int y = 0; y < Chunk.SIZE; y++) {
+			int from = margin + (y + margin) * span;
+
+			for (int x = 0; x < Chunk.SIZE; x++) {
+				short block = buffer.blocks[from + x];
+				short wall = buffer.walls[from + x];
+				int index = x + y * Chunk.SIZE;
+
+				if (block != GeneratorChunk.AIR) {
+					data.setBlock(index, palette[block]);
+					data.setBlockHealth(index, Chunk.createHP(this.getVariant(baseX + x, baseY + y, 0)));
+				}
+
+				if (wall != GeneratorChunk.AIR) {
+					data.setWall(index, palette[wall]);
+					data.setWallHealth(index, Chunk.createHP(this.getVariant(baseX + x, baseY + y, 1)));
+				}
+			}
+		}
+
+		return new Chunk(data, new Vector2(buffer.getChunkX(), buffer.getChunkY()));
+	}
+
+	/**
+	 * @param id Tile id, null for air
+	 * @return Compact material id, used in {@link GeneratorChunk}
+	 */
+	public synchronized short getMaterial(String id) {
+		if (id == null) {
+			return GeneratorChunk.AIR;
+		}
+
+		Short material = this.paletteIds.get(id);
+
+		if (material == null) {
+			String[] palette = Arrays.copyOf(this.palette, this.palette.length + 1);
+			material = (short) this.palette.length;
+			palette[material] = id;
+
+			this.paletteIds.put(id, material);
+			this.palette = palette;
+		}
+
+		return material;
+	}
+
+	/**
+	 * @param biome Biome
+	 * @return Material ids of the biome, indexed by {@link #TOP_SOIL}, {@link #SOIL}, etc
+	 */
+	public short[] getMaterials(Biome biome) {
+		return this.biomeMaterials.computeIfAbsent(biome, key -> {
+			BiomeMaterials materials = key.getMaterials();
+
+			return new short[] { this.getMaterial(materials.getTopSoil()), this.getMaterial(materials.getSoil()),
+					this.getMaterial(materials.getSoilWall()), this.getMaterial(materials.getStone()),
+					this.getMaterial(materials.getStoneWall()) };
+		});
+	}
+
+	/**
+	 * Creates random, that only depends on the world seed and given position,
+	 * so the result doesn't depend on the order, chunks are generated in
+	 */
+	public Random createRandom(int x, int y) {
+		return new Random(hash(this.getSeed(), x, y));
+	}
+
+	/**
+	 * @return Tile texture variant (1 or 2) for the given position
+	 */
+	private int getVariant(int x, int y, int salt) {
+		return (int) ((hash(this.getSeed() + salt, x, y) >>> 32) & 1) + 1;
+	}
+
+	private static long hash(long seed, int x, int y) {
+		long hash = seed * 0x9E3779B97F4A7C15L + x;
+		hash = hash * 0xBF58476D1CE4E5B9L + y;
+		hash ^= hash >>> 31;
+		hash *= 0x94D049BB133111EBL;
+		return hash ^ (hash >>> 29);
+	}
+
+	/**
+	 * @return Tiles around a chunk, that the tasks need to see
+	 */
+	private int getMargin() {
+		int margin = 0;
+
+		for (GeneratorTask task : this.tasks) {
+			margin = Math.max(margin, task.getMargin());
+		}
+
+		return margin;
+	}
+
 	public int getWorldWidth() {
 		return this.world.getWidth();
 	}
@@ -48,7 +256,54 @@ public class WorldGenerator {
 		return this.world.getHeight();
 	}
 
+	public int getSeed() {
+		return this.world.getSeed();
+	}
+
 	public int getHighest(int x) {
-		return world.getHighest(x);
+		if (x < 0 || x >= this.highest.length) {
+			return 0;
+		}
+
+		return this.highest[x];
+	}
+
+	public void setHighest(int x, int y) {
+		this.highest[x] = y;
+	}
+
+	/**
+	 * Splits chunk indices in halves, until a single chunk is left
+	 */
+	private static class GenerateRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final WorldGenerator generator;
+		private final int from;
+		private final int to;
+		private final int chunksX;
+
+		GenerateRange(WorldGenerator generator, int from, int to, int chunksX) {
+			this.generator = generator;
+			this.from = from;
+			this.to = to;
+			this.chunksX = chunksX;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= 1) {
+				for (int i = this.from; i < this.to; i++) {
+					Chunk chunk = this.generator.generateChunk(i % this.chunksX, i / this.chunksX);
+					this.generator.world.chunks.add(chunk);
+				}
+
+				return;
+			}
+
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new GenerateRange(this.generator, this.from, middle, this.chunksX),
+					new GenerateRange(this.generator, middle, this.to, this.chunksX));
+		}
 	}
 }
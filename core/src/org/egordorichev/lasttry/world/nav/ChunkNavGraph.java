@@ -0,0 +1,269 @@
+package org.egordorichev.lasttry.world.nav;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.SpawnCandidates;
+
+import java.util.Arrays;
+
+/**
+ * Movement graph of a single chunk. Nodes are the tiles, a creature can
+ * stand on (the spawn candidates of the chunk), connections are walks, steps,
+ * falls and jumps between them, see {@link NavMoves}. Moves, that leave the chunk, are kept
+ * separately and joined by the {@link PortalGraph}.
+ */
+public class ChunkNavGraph extends NavMoves implements IndexedGraph<NavNode> {
+	private final Chunk chunk;
+	/**
+	 * Global position of the lower left tile
+	 */
+	private final int minX;
+	private final int minY;
+	private final Array<NavNode> nodes = new Array<>();
+	/**
+	 * Tile index inside of the chunk to node index
+	 */
+	private final TIntIntHashMap lookup = new TIntIntHashMap(256, 0.5f, -1, -1);
+	private final Array<Array<Connection<NavNode>>> connections = new Array<>();
+	private final Array<Array<Connection<NavNode>>> incoming = new Array<>();
+	/**
+	 * Moves into other chunks, their target nodes are not set
+	 */
+	private final Array<NavConnection> exits = new Array<>();
+	private IndexedAStarPathFinder<NavNode> finder;
+	/**
+	 * Portal nodes and costs between them, from the last {@link PortalGraph}
+	 * build, so unchanged chunks don't have to be searched again
+	 */
+	private int[] linkNodes;
+	private float[] linkCosts;
+	/**
+	 * Search heap, reused between cost searches
+	 */
+	private final CostHeap heap = new CostHeap();
+	/**
+	 * Node, which moves are being added
+	 */
+	private NavNode current;
+
+	public ChunkNavGraph(World world, Chunk chunk) {
+		super(world);
+
+		this.chunk = chunk;
+		this.minX = chunk.getX();
+		this.minY = chunk.getY();
+
+		this.createNodes();
+
+		for (int i = 0; i < this.nodes.size; i++) {
+			this.connections.add(new Array<Connection<NavNode>>(false, 4));
+			this.incoming.add(new Array<Connection<NavNode>>(false, 4));
+		}
+
+		for (int i = 0; i < this.nodes.size; i++) {
+			this.current = this.nodes.get(i);
+			this.findMoves(this.current.getX(), this.current.getY());
+		}
+
+		this.current = null;
+	}
+
+	private void createNodes() {
+		SpawnCandidates candidates = this.chunk.getSpawnCandidates();
+
+		for (int section = 0; section < Chunk.SECTIONS; section++) {
+			int count = candidates.count(section);
+
+			for (int i = 0; i < count; i++) {
+				int x = candidates.getX(section, i);
+				int y = candidates.getY(section, i);
+
+				this.lookup.put(x + y * Chunk.SIZE, this.nodes.size);
+				this.nodes.add(new NavNode(this.minX + x, this.minY + y, this.nodes.size));
+			}
+		}
+	}
+
+	@Override
+	protected void onMove(int fromX, int fromY, int x, int y, float cost, NavConnection.Move move) {
+		NavNode from = this.current;
+
+		if (!this.contains(x, y)) {
+			this.exits.add(new NavConnection(from, x, y, cost, move));
+			return;
+		}
+
+		NavNode to = this.nodes.get(this.lookup.get((x - this.minX) + (y - this.minY) * Chunk.SIZE));
+		NavConnection connection = new NavConnection(from, to, cost, move);
+
+		this.connections.get(from.getIndex()).add(connection);
+		this.incoming.get(to.getIndex()).add(connection);
+	}
+
+	/**
+	 * Looks up tiles of this chunk directly
+	 */
+	@Override
+	protected boolean isSolid(int x, int y) {
+		if (this.contains(x, y)) {
+			return this.chunk.getBlockInside(x - this.minX, y - this.minY) != null;
+		}
+
+		return super.isSolid(x, y);
+	}
+
+	@Override
+	protected boolean isStandable(int x, int y) {
+		if (this.contains(x, y)) {
+			return this.lookup.containsKey((x - this.minX) + (y - this.minY) * Chunk.SIZE);
+		}
+
+		return super.isStandable(x, y);
+	}
+
+	/**
+	 * @return The tile is inside of this chunk
+	 */
+	public boolean contains(int x, int y) {
+		return x >= this.minX && y >= this.minY && x < this.minX + Chunk.SIZE && y < this.minY + Chunk.SIZE;
+	}
+
+	/**
+	 * @param x Global tile X
+	 * @param y Global tile Y
+	 * @return Node at the given tile, or null, if the tile can't be stood on
+	 */
+	public NavNode getNode(int x, int y) {
+		if (!this.contains(x, y)) {
+			return null;
+		}
+
+		int index = this.lookup.get((x - this.minX) + (y - this.minY) * Chunk.SIZE);
+		return index == -1 ? null : this.nodes.get(index);
+	}
+
+	/**
+	 * Finds a path between two nodes of this chunk
+	 *
+	 * @param from      Start node
+	 * @param to        Goal node
+	 * @param heuristic Heuristic
+	 * @param path      Output path
+	 * @return A path was found
+	 */
+	public boolean search(NavNode from, NavNode to, Heuristic<NavNode> heuristic, GraphPath<NavNode> path) {
+		if (this.finder == null) {
+			this.finder = new IndexedAStarPathFinder<>(this);
+		}
+
+		path.clear();
+		return this.finder.searchNodePath(from, to, heuristic, path);
+	}
+
+	/**
+	 * Finds the cheapest costs between a node and every node of the chunk
+	 *
+	 * @param node    Node to start from
+	 * @param reverse Find the costs from every node to the given one instead
+	 * @param costs   Output array, replaced, if it is too small
+	 * @return Costs per node index, {@link Float#MAX_VALUE} for unreachable nodes
+	 */
+	public float[] getCosts(NavNode node, boolean reverse, float[] costs) {
+		if (costs == null || costs.length < this.nodes.size) {
+			costs = new float[this.nodes.size];
+		}
+
+		Arrays.fill(costs, 0, this.nodes.size, Float.MAX_VALUE);
+		costs[node.getIndex()] = 0;
+
+		this.heap.clear();
+		this.heap.add(0, node.getIndex());
+
+		while (!this.heap.isEmpty()) {
+			float cost = this.heap.peekCost();
+			int index = this.heap.poll();
+
+			if (cost > costs[index]) {
+				continue;
+			}
+
+			Array<Connection<NavNode>> connections = reverse ? this.incoming.get(index) : this.connections.get(index);
+
+			for (int i = 0; i < connections.size; i++) {
+				Connection<NavNode> connection = connections.get(i);
+				int next = (reverse ? connection.getFromNode() : connection.getToNode()).getIndex();
+				float total = cost + connection.getCost();
+
+				if (total < costs[next]) {
+					costs[next] = total;
+					this.heap.add(total, next);
+				}
+			}
+		}
+
+		return costs;
+	}
+
+	/**
+	 * Finds the costs between the given portals, reusing the last result, if
+	 * the portals didn't change
+	 *
+	 * @param portals Sorted node indices
+	 * @return Costs, cost from portal i to portal j is at i * portals.length + j
+	 */
+	float[] getLinkCosts(int[] portals) {
+		if (Arrays.equals(portals, this.linkNodes)) {
+			return this.linkCosts;
+		}
+
+		float[] links = new float[portals.length * portals.length];
+		float[] costs = null;
+
+		for (int i = 0; i < portals.length; i++) {
+			costs = this.getCosts(this.nodes.get(portals[i]), false, costs);
+
+			for (int j = 0; j < portals.length; j++) {
+				links[i * portals.length + j] = costs[portals[j]];
+			}
+		}
+
+		this.linkNodes = portals;
+		this.linkCosts = links;
+
+		return links;
+	}
+
+	public Array<NavConnection> getExits() {
+		return this.exits;
+	}
+
+	public NavNode getNode(int index) {
+		return this.nodes.get(index);
+	}
+
+	public Chunk getChunk() {
+		return this.chunk;
+	}
+
+	@Override
+	public int getIndex(NavNode node) {
+		return node.getIndex();
+	}
+
+	@Override
+	public int getNodeCount() {
+		return this.nodes.size;
+	}
+
+	@Override
+	public Array<Connection<NavNode>> getConnections(NavNode fromNode) {
+		return this.connections.get(fromNode.getIndex());
+	}
+}
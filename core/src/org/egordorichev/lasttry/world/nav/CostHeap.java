@@ -0,0 +1,74 @@
+package org.egordorichev.lasttry.world.nav;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node indices, ordered by cost. Entries are packed
+ * into longs, non-negative float bits sort the same way as the floats
+ */
+public class CostHeap {
+	private long[] entries = new long[64];
+	private int size;
+
+	public void clear() {
+		this.size = 0;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public void add(float cost, int index) {
+		if (this.size == this.entries.length) {
+			this.entries = Arrays.copyOf(this.entries, this.size * 2);
+		}
+
+		long entry = ((long) Float.floatToIntBits(cost) << 32) | index;
+		int i = this.size++;
+
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+
+			if (this.entries[parent] <= entry) {
+				break;
+			}
+
+			this.entries[i] = this.entries[parent];
+			i = parent;
+		}
+
+		this.entries[i] = entry;
+	}
+
+	public float peekCost() {
+		return Float.intBitsToFloat((int) (this.entries[0] >>> 32));
+	}
+
+	public int poll() {
+		int index = (int) this.entries[0];
+		long last = this.entries[--this.size];
+		int i = 0;
+
+		while (true) {
+			int child = i * 2 + 1;
+
+			if (child >= this.size) {
+				break;
+			}
+
+			if (child + 1 < this.size && this.entries[child + 1] < this.entries[child]) {
+				child++;
+			}
+
+			if (this.entries[child] >= last) {
+				break;
+			}
+
+			this.entries[i] = this.entries[child];
+			i = child;
+		}
+
+		this.entries[i] = last;
+		return index;
+	}
+}
@@ -0,0 +1,362 @@
+package org.egordorichev.lasttry.world.nav;
+
+import gnu.trove.list.array.TFloatArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import org.egordorichev.lasttry.world.World;
+
+import java.util.Arrays;
+
+/**
+ * Cost of reaching a target from every floor tile in a window around it, plus
+ * the next move to take from each tile. One field is shared by every creature
+ * chasing the same target, so the cost doesn't grow with the amount of
+ * creatures: each of them just looks up its tile.
+ *
+ * Moves are cached per column of the window and only found again for columns
+ * near changed blocks. Costs are recomputed every {@link #REFRESH_DELAY}
+ * updates, if the target moved to another tile or blocks changed.
+ */
+public class FlowField extends NavMoves {
+	/**
+	 * Window size in tiles
+	 */
+	public static final int WIDTH = 192;
+	public static final int HEIGHT = 128;
+	/**
+	 * Window position is aligned to this, so the window doesn't move with
+	 * every step of the target
+	 */
+	public static final int ALIGN = 32;
+	/**
+	 * Updates between refreshes
+	 */
+	public static final int REFRESH_DELAY = 30;
+	/**
+	 * Updates without samples, after which the field stops refreshing
+	 */
+	public static final int IDLE_DELAY = 120;
+	/**
+	 * How far down a sampled tile is moved to find a floor
+	 */
+	public static final int SNAP_DISTANCE = 4;
+
+	/**
+	 * Lower left tile of the window
+	 */
+	private int originX = -1;
+	private int originY = -1;
+	/**
+	 * Cell of the target floor, -1 if there is none
+	 */
+	private int target = -1;
+	/**
+	 * Cost to the target per cell, {@link Float#MAX_VALUE} for cells, that
+	 * can't reach it
+	 */
+	private final float[] costs = new float[WIDTH * HEIGHT];
+	/**
+	 * Next cell on the way to the target per cell, -1 for none
+	 */
+	private final int[] next = new int[WIDTH * HEIGHT];
+	/**
+	 * Moves starting in every column, packed as from cell, to cell pairs
+	 */
+	private final TIntArrayList[] moves = new TIntArrayList[WIDTH];
+	private final TFloatArrayList[] moveCosts = new TFloatArrayList[WIDTH];
+	private final boolean[] dirtyColumns = new boolean[WIDTH];
+	/**
+	 * Moves, ending in every cell, rebuilt on refresh. Moves into cell i are
+	 * stored from incomingStart[i] to incomingStart[i + 1]
+	 */
+	private final int[] incomingStart = new int[WIDTH * HEIGHT + 1];
+	private int[] incomingFrom = new int[0];
+	private float[] incomingCosts = new float[0];
+	private final CostHeap heap = new CostHeap();
+	/**
+	 * Changed tile columns, written from any thread
+	 */
+	private final Object dirtyLock = new Object();
+	private int dirtyMinX = Integer.MAX_VALUE;
+	private int dirtyMaxX = Integer.MIN_VALUE;
+	private boolean dirtyAll = true;
+	private int sinceRefresh = REFRESH_DELAY;
+	private int idle = IDLE_DELAY;
+
+	public FlowField(World world) {
+		super(world);
+
+		for (int i = 0; i < WIDTH; i++) {
+			this.moves[i] = new TIntArrayList();
+			this.moveCosts[i] = new TFloatArrayList();
+		}
+
+		Arrays.fill(this.costs, Float.MAX_VALUE);
+		Arrays.fill(this.next, -1);
+	}
+
+	/**
+	 * Marks columns, a changed tile could affect
+	 *
+	 * @param x Changed tile X
+	 */
+	public void invalidate(int x) {
+		synchronized (this.dirtyLock) {
+			this.dirtyMinX = Math.min(this.dirtyMinX, x - JUMP_DISTANCE - 1);
+			this.dirtyMaxX = Math.max(this.dirtyMaxX, x + JUMP_DISTANCE + 1);
+		}
+	}
+
+	/**
+	 * Marks the whole window, called when a chunk is loaded
+	 */
+	public void invalidateAll() {
+		synchronized (this.dirtyLock) {
+			this.dirtyAll = true;
+		}
+	}
+
+	/**
+	 * Refreshes the field, if it is in use and something changed
+	 *
+	 * @param targetX Target tile X
+	 * @param targetY Target tile Y
+	 */
+	public void update(int targetX, int targetY) {
+		this.sinceRefresh++;
+		this.idle++;
+
+		if (this.idle > IDLE_DELAY || this.sinceRefresh < REFRESH_DELAY) {
+			return;
+		}
+
+		int originX = this.align(targetX - WIDTH / 2, this.world.getWidth() - WIDTH);
+		int originY = this.align(targetY - HEIGHT / 2, this.world.getHeight() - HEIGHT);
+		boolean moved = originX != this.originX || originY != this.originY;
+
+		this.originX = originX;
+		this.originY = originY;
+
+		boolean changed = this.markDirty(moved);
+		int target = this.findFloor(targetX, targetY);
+
+		if (!changed && target == this.target) {
+			return;
+		}
+
+		this.target = target;
+		this.sinceRefresh = 0;
+		this.refresh();
+	}
+
+	/**
+	 * Takes the changed columns, written by other threads
+	 *
+	 * @return Any column is dirty
+	 */
+	private boolean markDirty(boolean all) {
+		int minX;
+		int maxX;
+
+		synchronized (this.dirtyLock) {
+			all |= this.dirtyAll;
+			minX = this.dirtyMinX - this.originX;
+			maxX = this.dirtyMaxX - this.originX;
+
+			this.dirtyAll = false;
+			this.dirtyMinX = Integer.MAX_VALUE;
+			this.dirtyMaxX = Integer.MIN_VALUE;
+		}
+
+		if (all) {
+			Arrays.fill(this.dirtyColumns, true);
+			return true;
+		}
+
+		boolean changed = false;
+
+		for (int x = Math.max(0, minX); x <= Math.min(WIDTH - 1, maxX); x++) {
+			this.dirtyColumns[x] = true;
+			changed = true;
+		}
+
+		return changed;
+	}
+
+	private void refresh() {
+		for (int x = 0; x < WIDTH; x++) {
+			if (this.dirtyColumns[x]) {
+				this.findColumnMoves(x);
+				this.dirtyColumns[x] = false;
+			}
+		}
+
+		this.buildIncoming();
+
+		Arrays.fill(this.costs, Float.MAX_VALUE);
+		Arrays.fill(this.next, -1);
+
+		if (this.target == -1) {
+			return;
+		}
+
+		this.costs[this.target] = 0;
+		this.heap.clear();
+		this.heap.add(0, this.target);
+
+		while (!this.heap.isEmpty()) {
+			float cost = this.heap.peekCost();
+			int cell = this.heap.poll();
+
+			if (cost > this.costs[cell]) {
+				continue;
+			}
+
+			for (int i = this.incomingStart[cell]; i < this.incomingStart[cell + 1]; i++) {
+				int from = this.incomingFrom[i];
+				float total = cost + this.incomingCosts[i];
+
+				if (total < this.costs[from]) {
+					this.costs[from] = total;
+					this.next[from] = cell;
+					this.heap.add(total, from);
+				}
+			}
+		}
+	}
+
+	private void findColumnMoves(int column) {
+		this.moves[column].resetQuick();
+		this.moveCosts[column].resetQuick();
+
+		int x = this.originX + column;
+
+		for (int y = this.originY; y < this.originY + HEIGHT; y++) {
+			if (this.isStandable(x, y)) {
+				this.findMoves(x, y);
+			}
+		}
+	}
+
+	@Override
+	protected void onMove(int fromX, int fromY, int toX, int toY, float cost, NavConnection.Move move) {
+		int to = this.getCell(toX, toY);
+
+		if (to == -1) {
+			return;
+		}
+
+		int column = fromX - this.originX;
+
+		this.moves[column].add(this.getCell(fromX, fromY));
+		this.moves[column].add(to);
+		this.moveCosts[column].add(cost);
+	}
+
+	/**
+	 * Sorts all cached moves by their target cell
+	 */
+	private void buildIncoming() {
+		int total = 0;
+
+		Arrays.fill(this.incomingStart, 0);
+
+		for (int x = 0; x < WIDTH; x++) {
+			TIntArrayList moves = this.moves[x];
+			total += moves.size() / 2;
+
+			for (int i = 1; i < moves.size(); i += 2) {
+				this.incomingStart[moves.get(i) + 1]++;
+			}
+		}
+
+		for (int i = 0; i < WIDTH * HEIGHT; i++) {
+			this.incomingStart[i + 1] += this.incomingStart[i];
+		}
+
+		if (this.incomingFrom.length < total) {
+			this.incomingFrom = new int[total];
+			this.incomingCosts = new float[total];
+		}
+
+		// Filled backwards from the end of each range
+		int[] fill = Arrays.copyOfRange(this.incomingStart, 1, WIDTH * HEIGHT + 1);
+
+		for (int x = 0; x < WIDTH; x++) {
+			TIntArrayList moves = this.moves[x];
+			TFloatArrayList costs = this.moveCosts[x];
+
+			for (int i = 0; i < costs.size(); i++) {
+				int slot = --fill[moves.get(i * 2 + 1)];
+
+				this.incomingFrom[slot] = moves.get(i * 2);
+				this.incomingCosts[slot] = costs.get(i);
+			}
+		}
+	}
+
+	/**
+	 * Finds the next tile to go to from the given one. Marks the field as in
+	 * use.
+	 *
+	 * @param x Tile X
+	 * @param y Tile Y
+	 * @return Next cell, or -1, if the tile is the target, can't reach it or
+	 *         is outside of the window
+	 */
+	public int sample(int x, int y) {
+		this.idle = 0;
+
+		int cell = this.findFloor(x, y);
+		return cell == -1 ? -1 : this.next[cell];
+	}
+
+	/**
+	 * @return Cost to the target from the given tile, {@link Float#MAX_VALUE}
+	 *         if it is unknown
+	 */
+	public float getCost(int x, int y) {
+		int cell = this.findFloor(x, y);
+		return cell == -1 ? Float.MAX_VALUE : this.costs[cell];
+	}
+
+	/**
+	 * Finds the closest floor below the tile, that is inside of the window
+	 */
+	private int findFloor(int x, int y) {
+		for (int i = 0; i <= SNAP_DISTANCE; i++) {
+			int cell = this.getCell(x, y - i);
+
+			if (cell != -1 && this.isStandable(x, y - i)) {
+				return cell;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @return Cell index, or -1, if the tile is outside of the window
+	 */
+	private int getCell(int x, int y) {
+		x -= this.originX;
+		y -= this.originY;
+
+		if (this.originX < 0 || x < 0 || y < 0 || x >= WIDTH || y >= HEIGHT) {
+			return -1;
+		}
+
+		return x + y * WIDTH;
+	}
+
+	private int align(int value, int max) {
+		return Math.max(0, Math.min(max, value / ALIGN * ALIGN));
+	}
+
+	public int getX(int cell) {
+		return this.originX + cell % WIDTH;
+	}
+
+	public int getY(int cell) {
+		return this.originY + cell / WIDTH;
+	}
+}
@@ -0,0 +1,88 @@
+package org.egordorichev.lasttry.world.nav;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+
+/**
+ * Single move between two nodes
+ */
+public class NavConnection implements Connection<NavNode> {
+	public enum Move {
+		/**
+		 * Walk to the next tile on the same height
+		 */
+		WALK,
+		/**
+		 * Walk up a single block
+		 */
+		STEP,
+		/**
+		 * Walk off a ledge and fall down
+		 */
+		FALL,
+		/**
+		 * Jump up on a ledge or over a gap
+		 */
+		JUMP,
+		/**
+		 * Path through a chunk between two portals
+		 */
+		LINK
+	}
+
+	private final NavNode from;
+	private final NavNode to;
+	/**
+	 * Target tile, the node might be in another chunk and not known yet
+	 */
+	private final int toX;
+	private final int toY;
+	private final float cost;
+	private final Move move;
+
+	public NavConnection(NavNode from, NavNode to, float cost, Move move) {
+		this(from, to, to.getX(), to.getY(), cost, move);
+	}
+
+	public NavConnection(NavNode from, int toX, int toY, float cost, Move move) {
+		this(from, null, toX, toY, cost, move);
+	}
+
+	private NavConnection(NavNode from, NavNode to, int toX, int toY, float cost, Move move) {
+		this.from = from;
+		this.to = to;
+		this.toX = toX;
+		this.toY = toY;
+		this.cost = cost;
+		this.move = move;
+	}
+
+	@Override
+	public float getCost() {
+		return this.cost;
+	}
+
+	@Override
+	public NavNode getFromNode() {
+		return this.from;
+	}
+
+	/**
+	 * @return Target node, null if the target is in another chunk
+	 */
+	@Override
+	public NavNode getToNode() {
+		return this.to;
+	}
+
+	public int getToX() {
+		return this.toX;
+	}
+
+	public int getToY() {
+		return this.toY;
+	}
+
+	public Move getMove() {
+		return this.move;
+	}
+}
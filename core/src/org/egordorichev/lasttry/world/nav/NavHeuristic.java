@@ -0,0 +1,18 @@
+package org.egordorichev.lasttry.world.nav;
+
+import com.badlogic.gdx.ai.pfa.Heuristic;
+
+/**
+ * Never overestimates the cost of the moves in {@link ChunkNavGraph}: every
+ * move costs at least a tile per horizontal tile, a tile per tile up and half
+ * a tile per tile down
+ */
+public class NavHeuristic implements Heuristic<NavNode> {
+	@Override
+	public float estimate(NavNode node, NavNode endNode) {
+		int dx = Math.abs(endNode.getX() - node.getX());
+		int dy = endNode.getY() - node.getY();
+
+		return dx + (dy > 0 ? dy : -dy * 0.5f);
+	}
+}
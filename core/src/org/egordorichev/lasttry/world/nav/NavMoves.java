@@ -0,0 +1,178 @@
+package org.egordorichev.lasttry.world.nav;
+
+import org.egordorichev.lasttry.entity.components.CreaturePhysicsComponent;
+import org.egordorichev.lasttry.entity.components.PhysicsComponent;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.components.WorldSpawnIndexComponent;
+
+/**
+ * Moves, a walking creature can make from a floor tile: walks, single block
+ * steps, falls and jumps. Shared by all navigation graphs, so they agree on
+ * where creatures can go.
+ */
+public abstract class NavMoves {
+	/**
+	 * Air tiles, a creature needs above the floor
+	 */
+	public static final int HEADROOM = WorldSpawnIndexComponent.HEADROOM;
+	/**
+	 * Highest block, that can be walked up
+	 */
+	public static final int STEP_HEIGHT = (int) PhysicsComponent.STEP_HEIGHT;
+	/**
+	 * Highest ledge, that can be jumped on. The jump apex minus a tile for
+	 * the hitbox
+	 */
+	public static final int JUMP_HEIGHT = (int) (CreaturePhysicsComponent.JUMP_VELOCITY
+			* CreaturePhysicsComponent.JUMP_VELOCITY / (2 * PhysicsComponent.GRAVITY) / Block.SIZE) - 1;
+	/**
+	 * Longest jump over a gap in tiles
+	 */
+	public static final int JUMP_DISTANCE = 3;
+	/**
+	 * Deepest fall, that is still taken
+	 */
+	public static final int MAX_FALL = 16;
+	/**
+	 * Distance in tiles, a single move can reach. Changes further away from a
+	 * chunk don't affect its graph
+	 */
+	public static final int REACH = Math.max(MAX_FALL, JUMP_HEIGHT + HEADROOM) + 1;
+
+	protected final World world;
+
+	public NavMoves(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Reports every move from the given floor tile to
+	 * {@link #onMove(int, int, int, int, float, NavConnection.Move)}
+	 *
+	 * @param x Floor tile X
+	 * @param y Floor tile Y
+	 */
+	protected void findMoves(int x, int y) {
+		boolean headroom = !this.isSolid(x, y + HEADROOM);
+
+		for (int direction = -1; direction <= 1; direction += 2) {
+			int nextX = x + direction;
+
+			if (this.isStandable(nextX, y)) {
+				this.onMove(x, y, nextX, y, 1, NavConnection.Move.WALK);
+			} else if (headroom && this.isStandable(nextX, y + STEP_HEIGHT)) {
+				this.onMove(x, y, nextX, y + STEP_HEIGHT, 1 + STEP_HEIGHT, NavConnection.Move.STEP);
+			} else if (this.isClear(nextX, y, HEADROOM)) {
+				this.findFall(x, y, nextX);
+
+				if (headroom) {
+					this.findGap(x, y, direction);
+				}
+			}
+
+			if (headroom) {
+				this.findJump(x, y, nextX);
+			}
+		}
+	}
+
+	/**
+	 * Falls down the given column, until a floor is found
+	 */
+	private void findFall(int fromX, int y, int x) {
+		for (int depth = 1; depth <= MAX_FALL; depth++) {
+			if (this.isStandable(x, y - depth)) {
+				this.onMove(fromX, y, x, y - depth, 1 + depth * 0.5f, NavConnection.Move.FALL);
+				return;
+			}
+
+			if (this.isSolid(x, y - depth)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Jumps over a gap to a floor on the same height
+	 */
+	private void findGap(int fromX, int y, int direction) {
+		for (int distance = 2; distance <= JUMP_DISTANCE; distance++) {
+			int x = fromX + direction * distance;
+
+			if (this.isSolid(x - direction, y + HEADROOM)) {
+				return;
+			}
+
+			if (this.isStandable(x, y)) {
+				this.onMove(fromX, y, x, y, distance * 1.5f, NavConnection.Move.JUMP);
+				return;
+			}
+
+			if (!this.isClear(x, y, HEADROOM)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Jumps straight up and lands on a ledge in the next column
+	 */
+	private void findJump(int x, int y, int nextX) {
+		for (int height = STEP_HEIGHT + 1; height <= JUMP_HEIGHT; height++) {
+			if (this.isSolid(x, y + HEADROOM + height - 1)) {
+				return;
+			}
+
+			if (this.isStandable(nextX, y + height)) {
+				this.onMove(x, y, nextX, y + height, 2 + height, NavConnection.Move.JUMP);
+			}
+		}
+	}
+
+	/**
+	 * Called for every found move
+	 *
+	 * @param fromX Floor tile X
+	 * @param fromY Floor tile Y
+	 * @param toX   Target floor tile X
+	 * @param toY   Target floor tile Y
+	 * @param cost  Move cost
+	 * @param move  Move type
+	 */
+	protected abstract void onMove(int fromX, int fromY, int toX, int toY, float cost, NavConnection.Move move);
+
+	/**
+	 * Checks, that the given tile and the tiles above it are air
+	 */
+	private boolean isClear(int x, int y, int height) {
+		for (int i = 0; i < height; i++) {
+			if (this.isSolid(x, y + i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Looks up a tile without loading any chunks. Tiles in chunks, that are
+	 * not loaded, are solid
+	 */
+	protected boolean isSolid(int x, int y) {
+		if (!this.world.isInside(x, y)) {
+			return true;
+		}
+
+		Chunk chunk = this.world.chunks.get(x / Chunk.SIZE, y / Chunk.SIZE);
+		return chunk == null || chunk.getBlockInside(x - chunk.getX(), y - chunk.getY()) != null;
+	}
+
+	/**
+	 * @return A creature can stand on the tile, false if its chunk is not loaded
+	 */
+	protected boolean isStandable(int x, int y) {
+		return this.world.spawnIndex.contains(x, y);
+	}
+}
@@ -0,0 +1,35 @@
+package org.egordorichev.lasttry.world.nav;
+
+/**
+ * Tile, that a creature can stand on: air with a solid block below it and
+ * enough air above it
+ */
+public class NavNode {
+	/**
+	 * Global tile position
+	 */
+	private final int x;
+	private final int y;
+	/**
+	 * Index in the graph, that owns this node
+	 */
+	private final int index;
+
+	public NavNode(int x, int y, int index) {
+		this.x = x;
+		this.y = y;
+		this.index = index;
+	}
+
+	public int getX() {
+		return this.x;
+	}
+
+	public int getY() {
+		return this.y;
+	}
+
+	public int getIndex() {
+		return this.index;
+	}
+}
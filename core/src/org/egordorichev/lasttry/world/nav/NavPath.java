@@ -0,0 +1,44 @@
+package org.egordorichev.lasttry.world.nav;
+
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Found path as a list of tiles, from the start to the goal
+ */
+public class NavPath {
+	/**
+	 * Tile positions, packed as x, y pairs
+	 */
+	private final TIntArrayList points = new TIntArrayList();
+
+	public void clear() {
+		this.points.resetQuick();
+	}
+
+	public void add(int x, int y) {
+		this.points.add(x);
+		this.points.add(y);
+	}
+
+	/**
+	 * Replaces this path with a copy of the given one
+	 *
+	 * @param path Path to copy
+	 */
+	public void set(NavPath path) {
+		this.points.resetQuick();
+		this.points.addAll(path.points);
+	}
+
+	public int getCount() {
+		return this.points.size() / 2;
+	}
+
+	public int getX(int index) {
+		return this.points.get(index * 2);
+	}
+
+	public int getY(int index) {
+		return this.points.get(index * 2 + 1);
+	}
+}
@@ -0,0 +1,98 @@
+package org.egordorichev.lasttry.world.nav;
+
+/**
+ * Path search, that waits in the queue of
+ * {@link org.egordorichev.lasttry.world.components.WorldNavigationComponent}.
+ * Owners should keep and reuse a single request.
+ */
+public class PathRequest {
+	/**
+	 * Start and goal tiles
+	 */
+	private int startX;
+	private int startY;
+	private int goalX;
+	private int goalY;
+	/**
+	 * Result, valid once the request is done
+	 */
+	private final NavPath path = new NavPath();
+	/**
+	 * The request is in the queue
+	 */
+	private boolean pending;
+	/**
+	 * The request was processed since it was last sent
+	 */
+	private boolean done;
+	/**
+	 * A path was found
+	 */
+	private boolean found;
+
+	/**
+	 * Prepares the request for sending, must not be called while it is pending
+	 */
+	public void set(int startX, int startY, int goalX, int goalY) {
+		this.startX = startX;
+		this.startY = startY;
+		this.goalX = goalX;
+		this.goalY = goalY;
+		this.done = false;
+		this.found = false;
+	}
+
+	public void setPending(boolean pending) {
+		this.pending = pending;
+	}
+
+	/**
+	 * Called by the queue, once the search is finished
+	 *
+	 * @param found Was a path found
+	 */
+	public void finish(boolean found) {
+		this.pending = false;
+		this.done = true;
+		this.found = found;
+	}
+
+	/**
+	 * Marks the result as consumed
+	 */
+	public void consume() {
+		this.done = false;
+	}
+
+	public boolean isPending() {
+		return this.pending;
+	}
+
+	public boolean isDone() {
+		return this.done;
+	}
+
+	public boolean isFound() {
+		return this.found;
+	}
+
+	public NavPath getPath() {
+		return this.path;
+	}
+
+	public int getStartX() {
+		return this.startX;
+	}
+
+	public int getStartY() {
+		return this.startY;
+	}
+
+	public int getGoalX() {
+		return this.goalX;
+	}
+
+	public int getGoalY() {
+		return this.goalY;
+	}
+}
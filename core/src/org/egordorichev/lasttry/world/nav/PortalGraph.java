@@ -0,0 +1,384 @@
+package org.egordorichev.lasttry.world.nav;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+
+import java.util.Arrays;
+
+/**
+ * Upper level of the navigation graph. Nodes are the portals: nodes of chunk
+ * graphs, where a move leaves or enters a chunk. Portals of the same chunk are
+ * linked by the cost of the cheapest path through it, so a search only has to
+ * visit chunk borders. Two extra nodes are reserved for the start and the goal
+ * of a search.
+ *
+ * The graph is updated one chunk at a time, see {@link #update(int, int, ChunkNavGraph)},
+ * so a change only touches the portals of the changed chunk and the moves
+ * into it. Indices of removed portals are reused.
+ */
+public class PortalGraph implements IndexedGraph<NavNode> {
+	private static final int[] NO_PORTALS = new int[0];
+
+	private final int chunksX;
+	private final int chunksY;
+	private final Array<NavNode> nodes = new Array<>();
+	/**
+	 * Chunk node for every portal
+	 */
+	private final Array<NavNode> bases = new Array<>();
+	private final Array<Array<Connection<NavNode>>> connections = new Array<>();
+	/**
+	 * Portals of every chunk, indexed like the chunk graphs
+	 */
+	private final ChunkPortals[] chunks;
+	/**
+	 * Indices of removed portals
+	 */
+	private final TIntArrayList free = new TIntArrayList();
+	/**
+	 * Portals, that have a temporary connection to the goal as the last one
+	 */
+	private final Array<NavNode> goalLinks = new Array<>();
+	private final NavNode start;
+	private final NavNode goal;
+
+	/**
+	 * @param chunksX World width in chunks
+	 * @param chunksY World height in chunks
+	 */
+	public PortalGraph(int chunksX, int chunksY) {
+		this.chunksX = chunksX;
+		this.chunksY = chunksY;
+		this.chunks = new ChunkPortals[chunksX * chunksY];
+
+		this.start = this.createNode(null);
+		this.goal = this.createNode(null);
+	}
+
+	/**
+	 * Brings portals of a chunk up to date with its graph and the graphs of
+	 * its neighbors, that were given before
+	 *
+	 * @param chunkX Chunk X
+	 * @param chunkY Chunk Y
+	 * @param graph  Current graph of the chunk, null if it's not loaded
+	 * @return Portals of the chunk changed, so the neighbors have to be
+	 *         updated too
+	 */
+	public boolean update(int chunkX, int chunkY, ChunkNavGraph graph) {
+		int index = chunkX + chunkY * this.chunksX;
+		ChunkPortals old = this.chunks[index];
+		int[] portals = graph == null ? NO_PORTALS : this.findPortals(chunkX, chunkY, graph);
+
+		if (old == null ? graph == null : old.graph == graph && Arrays.equals(old.bases, portals)) {
+			return false;
+		}
+
+		if (old != null) {
+			for (int portal : old.portals) {
+				this.removeNode(portal);
+			}
+		}
+
+		this.chunks[index] = graph == null ? null : this.createPortals(graph, portals);
+
+		// Moves into the removed portals are dropped, moves into the new ones added
+		for (int y = Math.max(0, chunkY - 1); y <= Math.min(this.chunksY - 1, chunkY + 1); y++) {
+			for (int x = Math.max(0, chunkX - 1); x <= Math.min(this.chunksX - 1, chunkX + 1); x++) {
+				this.connect(this.chunks[x + y * this.chunksX]);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return Sorted indices of chunk nodes, that have a move into or out of
+	 *         a neighbor chunk
+	 */
+	private int[] findPortals(int chunkX, int chunkY, ChunkNavGraph graph) {
+		TIntArrayList portals = new TIntArrayList();
+
+		for (NavConnection exit : graph.getExits()) {
+			ChunkPortals target = this.getChunkFor(exit.getToX(), exit.getToY());
+
+			if (target != null && target.graph.getNode(exit.getToX(), exit.getToY()) != null) {
+				portals.add(exit.getFromNode().getIndex());
+			}
+		}
+
+		for (int y = Math.max(0, chunkY - 1); y <= Math.min(this.chunksY - 1, chunkY + 1); y++) {
+			for (int x = Math.max(0, chunkX - 1); x <= Math.min(this.chunksX - 1, chunkX + 1); x++) {
+				ChunkPortals neighbor = this.chunks[x + y * this.chunksX];
+
+				if (neighbor == null || (x == chunkX && y == chunkY)) {
+					continue;
+				}
+
+				for (NavConnection exit : neighbor.graph.getExits()) {
+					NavNode node = graph.getNode(exit.getToX(), exit.getToY());
+
+					if (node != null) {
+						portals.add(node.getIndex());
+					}
+				}
+			}
+		}
+
+		portals.sort();
+
+		// Remove duplicates
+		int count = 0;
+
+		for (int i = 0; i < portals.size(); i++) {
+			if (count == 0 || portals.get(count - 1) != portals.get(i)) {
+				portals.set(count++, portals.get(i));
+			}
+		}
+
+		return portals.toArray(0, count);
+	}
+
+	/**
+	 * Creates portal nodes and connects every portal with every other
+	 * portal of the chunk, it can reach
+	 */
+	private ChunkPortals createPortals(ChunkNavGraph graph, int[] bases) {
+		ChunkPortals chunk = new ChunkPortals(graph, bases);
+		float[] costs = graph.getLinkCosts(bases);
+
+		for (int i = 0; i < bases.length; i++) {
+			NavNode portal = this.createNode(graph.getNode(bases[i]));
+
+			chunk.portals[i] = portal.getIndex();
+			chunk.lookup.put(bases[i], portal.getIndex());
+		}
+
+		for (int i = 0; i < bases.length; i++) {
+			NavNode from = this.nodes.get(chunk.portals[i]);
+			Array<Connection<NavNode>> links = new Array<>(false, 4);
+
+			for (int j = 0; j < bases.length; j++) {
+				float cost = costs[i * bases.length + j];
+
+				if (i != j && cost != Float.MAX_VALUE) {
+					links.add(new NavConnection(from, this.nodes.get(chunk.portals[j]), cost, NavConnection.Move.LINK));
+				}
+			}
+
+			chunk.links[i] = links;
+		}
+
+		return chunk;
+	}
+
+	/**
+	 * Sets the connections of the chunk portals to their links and the
+	 * moves into neighbor portals
+	 */
+	private void connect(ChunkPortals chunk) {
+		if (chunk == null) {
+			return;
+		}
+
+		for (int i = 0; i < chunk.portals.length; i++) {
+			Array<Connection<NavNode>> connections = this.connections.get(chunk.portals[i]);
+
+			connections.clear();
+			connections.addAll(chunk.links[i]);
+		}
+
+		for (NavConnection exit : chunk.graph.getExits()) {
+			ChunkPortals target = this.getChunkFor(exit.getToX(), exit.getToY());
+
+			if (target == null) {
+				continue;
+			}
+
+			NavNode to = target.graph.getNode(exit.getToX(), exit.getToY());
+			int from = chunk.lookup.get(exit.getFromNode().getIndex());
+
+			// Neighbors, that weren't updated yet, might not have the portal
+			if (to == null || from == -1 || !target.lookup.containsKey(to.getIndex())) {
+				continue;
+			}
+
+			NavNode fromPortal = this.nodes.get(from);
+			NavNode toPortal = this.nodes.get(target.lookup.get(to.getIndex()));
+
+			this.connections.get(from).add(new NavConnection(fromPortal, toPortal, exit.getCost(), exit.getMove()));
+		}
+	}
+
+	private ChunkPortals getChunkFor(int x, int y) {
+		if (x < 0 || y < 0) {
+			return null;
+		}
+
+		int chunkX = x / Chunk.SIZE;
+		int chunkY = y / Chunk.SIZE;
+
+		if (chunkX >= this.chunksX || chunkY >= this.chunksY) {
+			return null;
+		}
+
+		return this.chunks[chunkX + chunkY * this.chunksX];
+	}
+
+	private NavNode createNode(NavNode base) {
+		int index = this.free.isEmpty() ? this.nodes.size : this.free.removeAt(this.free.size() - 1);
+		NavNode node = base == null ? new NavNode(0, 0, index) : new NavNode(base.getX(), base.getY(), index);
+
+		if (index == this.nodes.size) {
+			this.nodes.add(node);
+			this.bases.add(base);
+			this.connections.add(new Array<Connection<NavNode>>(false, 4));
+		} else {
+			this.nodes.set(index, node);
+			this.bases.set(index, base);
+		}
+
+		return node;
+	}
+
+	private void removeNode(int index) {
+		this.bases.set(index, null);
+		this.connections.get(index).clear();
+		this.free.add(index);
+	}
+
+	/**
+	 * Sets up the start node for a search
+	 *
+	 * @param graph Chunk graph of the start
+	 * @param base  Start node in the chunk graph
+	 * @param costs Costs from the start to every node of the chunk
+	 * @return Start node of this graph
+	 */
+	public NavNode connectStart(ChunkNavGraph graph, NavNode base, float[] costs) {
+		Array<Connection<NavNode>> connections = this.connections.get(this.start.getIndex());
+		ChunkPortals chunk = this.getChunk(graph);
+
+		connections.clear();
+		this.bases.set(this.start.getIndex(), base);
+
+		if (chunk != null) {
+			for (int i = 0; i < chunk.portals.length; i++) {
+				float cost = costs[chunk.bases[i]];
+
+				if (cost != Float.MAX_VALUE) {
+					connections.add(new NavConnection(this.start, this.nodes.get(chunk.portals[i]), cost, NavConnection.Move.LINK));
+				}
+			}
+		}
+
+		return this.start;
+	}
+
+	/**
+	 * Sets up the goal node for a search, must be followed by
+	 * {@link #disconnect()}
+	 *
+	 * @param graph Chunk graph of the goal
+	 * @param base  Goal node in the chunk graph
+	 * @param costs Costs from every node of the chunk to the goal
+	 * @return Goal node of this graph
+	 */
+	public NavNode connectGoal(ChunkNavGraph graph, NavNode base, float[] costs) {
+		ChunkPortals chunk = this.getChunk(graph);
+		this.bases.set(this.goal.getIndex(), base);
+
+		if (chunk != null) {
+			for (int i = 0; i < chunk.portals.length; i++) {
+				float cost = costs[chunk.bases[i]];
+
+				if (cost != Float.MAX_VALUE) {
+					NavNode portal = this.nodes.get(chunk.portals[i]);
+
+					this.connections.get(portal.getIndex()).add(new NavConnection(portal, this.goal, cost, NavConnection.Move.LINK));
+					this.goalLinks.add(portal);
+				}
+			}
+		}
+
+		return this.goal;
+	}
+
+	/**
+	 * @return Portals of the given graph, null if it's not the current graph
+	 *         of its chunk
+	 */
+	private ChunkPortals getChunk(ChunkNavGraph graph) {
+		ChunkPortals chunk = this.chunks[graph.getChunk().getGridX() + graph.getChunk().getGridY() * this.chunksX];
+		return chunk != null && chunk.graph == graph ? chunk : null;
+	}
+
+	/**
+	 * Removes the temporary connections to the goal
+	 */
+	public void disconnect() {
+		for (NavNode portal : this.goalLinks) {
+			this.connections.get(portal.getIndex()).pop();
+		}
+
+		this.goalLinks.clear();
+	}
+
+	/**
+	 * @param node Node of this graph
+	 * @return Chunk graph node, that the given node stands for
+	 */
+	public NavNode getBase(NavNode node) {
+		return this.bases.get(node.getIndex());
+	}
+
+	@Override
+	public int getIndex(NavNode node) {
+		return node.getIndex();
+	}
+
+	@Override
+	public int getNodeCount() {
+		return this.nodes.size;
+	}
+
+	@Override
+	public Array<Connection<NavNode>> getConnections(NavNode fromNode) {
+		return this.connections.get(fromNode.getIndex());
+	}
+
+	/**
+	 * Portals of a single chunk graph
+	 */
+	private static class ChunkPortals {
+		private final ChunkNavGraph graph;
+		/**
+		 * Sorted chunk node indices of the portals
+		 */
+		private final int[] bases;
+		/**
+		 * Portal node indices, in the same order
+		 */
+		private final int[] portals;
+		/**
+		 * Chunk node index to portal node index
+		 */
+		private final TIntIntHashMap lookup = new TIntIntHashMap(16, 0.5f, -1, -1);
+		/**
+		 * Connections to the other portals of the chunk, for every portal
+		 */
+		private final Array<Connection<NavNode>>[] links;
+
+		@SuppressWarnings("unchecked")
+		private ChunkPortals(ChunkNavGraph graph, int[] bases) {
+			this.graph = graph;
+			this.bases = bases;
+			this.portals = new int[bases.length];
+			this.links = (Array<Connection<NavNode>>[]) new Array<?>[bases.length];
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.egordorichev.lasttry.world.spawn;
 
+import com.badlogic.gdx.math.GridPoint2;
 import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.entity.Creature;
@@ -7,7 +8,8 @@ import org.egordorichev.lasttry.entity.CreatureManager;
 import org.egordorichev.lasttry.injection.CoreRegistry;
 import org.egordorichev.lasttry.injection.InjectionHelper;
 import org.egordorichev.lasttry.item.block.Block;
-import org.egordorichev.lasttry.util.GenericContainer;
+import org.egordorichev.lasttry.util.flight.Flight;
+import org.egordorichev.lasttry.util.flight.SpawnAttemptEvent;
 import org.egordorichev.lasttry.world.biome.Biome;
 import org.egordorichev.lasttry.world.spawn.components.CircleAreaComponent;
 import org.egordorichev.lasttry.world.spawn.components.CreatureSpawnComponent;
@@ -15,7 +17,6 @@ import org.egordorichev.lasttry.world.spawn.components.GridComponent;
 import org.egordorichev.lasttry.world.spawn.components.SpawnRateComponent;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Spawn system that will spawn monsters in the gameworld based on certain
@@ -28,14 +29,31 @@ public class SpawnSystem {
 	private int enemiesInActiveAreaCount;
 
 	private final CreatureManager creatureManager;
+	/**
+	 * Flight recorder event of the current attempt, null if not recording
+	 */
+	private SpawnAttemptEvent event;
+	/**
+	 * Spawn point, reused between attempts
+	 */
+	private final GridPoint2 spawnPoint = new GridPoint2();
 
 	public void update() {
 		if (Globals.environment.currentBiome == null) {
 			return;
 		}
 
+		this.event = Flight.spawnAttempt();
 		this.biome = Globals.environment.currentBiome; // Get user biome
 		this.refreshTriggered();
+
+		if (this.event != null) {
+			this.event.biome = this.biome.getID();
+			this.event.creatures = this.enemiesInActiveAreaCount;
+			this.event.weight = this.spawnWeightOfCurrentlyActiveEnemies;
+			this.event.commit();
+			this.event = null;
+		}
 	}
 
 	public SpawnSystem(){
@@ -92,18 +110,22 @@ public class SpawnSystem {
 	}
 
 	private void spawnTriggered(final List<String> eligibleCreaturesForSpawn) {
-		Optional<GenericContainer.Pair<Integer>> optionalSuitableXySpawnPoint = GridComponent
-				.generateEligibleEnemySpawnPoint(playerActiveArea);
-
-		if (optionalSuitableXySpawnPoint.isPresent()) {
+		if (GridComponent.generateEligibleEnemySpawnPoint(playerActiveArea, this.spawnPoint)) {
 			Creature creatureToBeSpawned = creatureManager.create(CreatureSpawnComponent.retrieveRandomCreature(eligibleCreaturesForSpawn));
-			int xEnemySpawnPoint = optionalSuitableXySpawnPoint.get().getFirst();
-			int yEnemySpawnPoint = optionalSuitableXySpawnPoint.get().getSecond();
+			int xEnemySpawnPoint = this.spawnPoint.x;
+			int yEnemySpawnPoint = this.spawnPoint.y;
 			Globals.entityManager.spawn(creatureToBeSpawned, xEnemySpawnPoint * Block.SIZE,
 					yEnemySpawnPoint * Block.SIZE);
+
+			if (this.event != null) {
+				this.event.creature = creatureToBeSpawned.getID();
+				this.event.x = xEnemySpawnPoint;
+				this.event.y = yEnemySpawnPoint;
+			}
+
 			LastTry.debug.print("Spawn has been triggered");
 		} else {
-			LastTry.debug.print("Enemy eligible spawn counter expired, unable to find suitable point to spawn enemy");
+			LastTry.debug.print("No spawn points around the player");
 			return;
 		}
 
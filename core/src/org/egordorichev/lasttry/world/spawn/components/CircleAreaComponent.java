@@ -6,6 +6,11 @@ public class CircleAreaComponent {
 
     private double circleRadius, circleDiameter;
 
+    /**
+     * Radius of the area, visible on screen. Creatures spawn between it and circleRadius
+     */
+    private double innerCircleRadius;
+
     public int getMinXActiveAreaGridPoint() {
         return this.minXActiveAreaGridPoint;
     }
@@ -53,4 +58,12 @@ public class CircleAreaComponent {
     public void setCircleDiameter(double circleDiameter) {
         this.circleDiameter = circleDiameter;
     }
+
+    public double getInnerCircleRadius() {
+        return this.innerCircleRadius;
+    }
+
+    public void setInnerCircleRadius(double innerCircleRadius) {
+        this.innerCircleRadius = innerCircleRadius;
+    }
 }
@@ -1,6 +1,5 @@
 package org.egordorichev.lasttry.world.spawn.components;
 
-import org.egordorichev.lasttry.Globals;
 import org.egordorichev.lasttry.LastTry;
 import org.egordorichev.lasttry.item.block.Block;
 import org.egordorichev.lasttry.util.Camera;
@@ -8,18 +7,6 @@ import org.egordorichev.lasttry.world.WorldTime;
 
 public class SpawnUtilComponent {
 
-    public static int increaseAngle(int angle, int distance) {
-
-        if(angle==360){
-            angle = 0;
-        }
-
-        angle++;
-
-        return angle;
-    }
-
-
     public static boolean arePointsInCircle(int x, int y, CircleAreaComponent circleArea) {
 
         //Checking if points are in the circle
@@ -42,13 +29,6 @@ public class SpawnUtilComponent {
         return true;
     }
 
-    private static boolean isPointOnMap(int xGridPoint, int yGridPoint) {
-
-        boolean isPointInMap = Globals.getWorld().isInside(xGridPoint, yGridPoint);
-
-        return  isPointInMap;
-    }
-
     public static int generateRandomNumber(int minNumber, int maxNumber) {
 
         if(maxNumber-minNumber<=0){
@@ -70,31 +50,4 @@ public class SpawnUtilComponent {
         return false;
     }
 
-    public static boolean isPointSuitableForSpawning(final int xGridSpawnPoint, final int yGridSpawnPoint) {
-
-        boolean isPointOccupied = isPointOccupied(xGridSpawnPoint, yGridSpawnPoint);
-
-        boolean isPointOnMap = SpawnUtilComponent.isPointOnMap(xGridSpawnPoint, yGridSpawnPoint);
-
-        if(isPointOccupied==false&&isPointOnMap==true){
-            //Log.debug("Suitable point found at x: "+xGridSpawnPoint+" y: "+yGridSpawnPoint);
-            return true;
-        }
-
-        return false;
-    }
-
-    private static boolean isPointOccupied(final int xGridSpawnPoint, final int yGridSpawnPoint) {
-
-        Block blockAtXyPoint = Globals.getWorld().blocks.get(xGridSpawnPoint, yGridSpawnPoint);
-
-        boolean isPointOccupied = blockAtXyPoint == null ? false : true;
-
-//        if(isPointOccupied==false){
-//            Log.debug("Empty space found at x: "+xGridSpawnPoint+" y: "+yGridSpawnPoint);
-//        }
-
-        return isPointOccupied;
-    }
-
 }
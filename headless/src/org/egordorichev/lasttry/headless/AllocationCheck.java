@@ -0,0 +1,133 @@
+package org.egordorichev.lasttry.headless;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.world.World;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Allocation budget check. Runs a scripted scenario (creatures around the
+ * spawn and the player walking back and forth over them) and compares bytes,
+ * allocated per tick in every subsystem, with the budgets below. Exits with
+ * 1, if any subsystem goes over, so once garbage is removed from a hot path,
+ * it can't silently come back.
+ *
+ * The scenario is run once to load chunks and warm up the JIT and caches,
+ * and measured on the second run. When a change removes garbage, lower the
+ * budget to match.
+ *
+ * Usage: gradlew :headless:allocationCheck
+ */
+public class AllocationCheck {
+	public static final String WORLD_NAME = "allocation";
+	public static final int SEED = 1234;
+	public static final int CREATURES = 50;
+	/**
+	 * Distance in tiles, the player walks away from the spawn
+	 */
+	public static final int DISTANCE = 80;
+	/**
+	 * Times, the player walks to both sides and back
+	 */
+	public static final int LAPS = 3;
+	/**
+	 * Bytes, each subsystem may allocate per tick on average. Spawns and
+	 * creature AI are random, so runs differ and budgets leave some room
+	 * above the measured values.
+	 */
+	private static final Map<Simulation.Subsystem, Long> budgets = new EnumMap<>(Simulation.Subsystem.class);
+
+	static {
+		budgets.put(Simulation.Subsystem.ENVIRONMENT, 1024L);
+		budgets.put(Simulation.Subsystem.ENTITIES, 64 * 1024L);
+		budgets.put(Simulation.Subsystem.NAVIGATION, 2048L);
+		budgets.put(Simulation.Subsystem.LIGHTING, 8 * 1024L);
+		budgets.put(Simulation.Subsystem.CHUNKS, 256L);
+	}
+
+	public static void main(String[] args) {
+		BasicConfigurator.configure();
+		Logger.getRootLogger().setLevel(Level.WARN);
+
+		int failed = 0;
+
+		try {
+			HeadlessGame.deleteWorld(WORLD_NAME);
+			HeadlessGame.createWorld(WORLD_NAME, World.Size.SMALL, SEED);
+			// Dying would move the player back to the spawn
+			HeadlessGame.createPlayer().stats.setInvulnTime(Integer.MAX_VALUE);
+			HeadlessGame.spawnCreatures("lt:green_slime", CREATURES, HeadlessGame.SPAWN_SPREAD);
+
+			Simulation warmup = new Simulation(createPath());
+			int ticks = run(warmup);
+
+			Simulation simulation = new Simulation(createPath());
+			simulation.run(ticks);
+
+			if (!simulation.isCountingAllocations()) {
+				System.err.println("This JVM doesn't report allocated bytes");
+				System.exit(1);
+			}
+
+			System.out.println(String.format("Allocated per tick over %d ticks:", ticks));
+
+			for (Simulation.Subsystem subsystem : Simulation.Subsystem.values()) {
+				long allocated = simulation.getAllocatedPerTick(subsystem);
+				long budget = budgets.get(subsystem);
+				boolean over = allocated > budget;
+
+				if (over) {
+					failed++;
+				}
+
+				System.out.println(String.format(Locale.US, "  %-12s %10d B/tick  budget %10d  %s", subsystem.getName(),
+					allocated, budget, over ? "OVER" : "ok"));
+			}
+		} finally {
+			HeadlessGame.deleteWorld(WORLD_NAME);
+		}
+
+		if (failed > 0) {
+			System.err.println(failed + " subsystem(s) allocate more than their budget");
+		}
+
+		// The chunk gc timer keeps the process alive otherwise
+		System.exit(failed > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Runs the simulation, until the player is done walking
+	 *
+	 * @return Ticks, that were run
+	 */
+	private static int run(Simulation simulation) {
+		while (!simulation.isPathFinished()) {
+			simulation.tick();
+		}
+
+		return simulation.getTicks();
+	}
+
+	/**
+	 * @return Path from the spawn to both sides and back, {@link #LAPS} times
+	 */
+	private static PlayerPath createPath() {
+		Vector2 spawn = Globals.getWorld().getSpawnPoint();
+		int x = (int) spawn.x;
+		int y = (int) spawn.y;
+		IntArray points = new IntArray();
+
+		for (int i = 0; i < LAPS; i++) {
+			points.addAll(x + DISTANCE, y, x - DISTANCE, y, x, y);
+		}
+
+		return new PlayerPath(points);
+	}
+}
@@ -0,0 +1,77 @@
+package org.egordorichev.lasttry.headless;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts bytes, allocated by the current thread, between calls. Uses
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, which
+ * HotSpot and OpenJ9 have. Reading the counter can allocate a few bytes
+ * itself on some JVMs, that is measured once and taken off every reading.
+ */
+public class AllocationCounter {
+	private final com.sun.management.ThreadMXBean threads;
+	private final long thread;
+	/**
+	 * Bytes, a reading allocates
+	 */
+	private final long overhead;
+	private long last;
+
+	public AllocationCounter() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+		if (bean instanceof com.sun.management.ThreadMXBean
+			&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+
+			this.threads = (com.sun.management.ThreadMXBean) bean;
+			this.threads.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			this.threads = null;
+		}
+
+		this.thread = Thread.currentThread().getId();
+		this.overhead = this.measureOverhead();
+	}
+
+	/**
+	 * Starts counting from now
+	 */
+	public void reset() {
+		this.last = this.read();
+	}
+
+	/**
+	 * @return Bytes, allocated since the last call or {@link #reset()}
+	 */
+	public long next() {
+		long now = this.read();
+		long allocated = Math.max(0, now - this.last - this.overhead);
+
+		this.last = now;
+		return allocated;
+	}
+
+	/**
+	 * @return The JVM reports allocated bytes
+	 */
+	public boolean isSupported() {
+		return this.threads != null;
+	}
+
+	private long read() {
+		return this.threads == null ? 0 : this.threads.getThreadAllocatedBytes(this.thread);
+	}
+
+	private long measureOverhead() {
+		long overhead = Long.MAX_VALUE;
+
+		for (int i = 0; i < 16; i++) {
+			long first = this.read();
+			long second = this.read();
+
+			overhead = Math.min(overhead, second - first);
+		}
+
+		return overhead;
+	}
+}
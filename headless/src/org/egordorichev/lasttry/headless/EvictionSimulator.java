@@ -0,0 +1,385 @@
+package org.egordorichev.lasttry.headless;
+
+import com.badlogic.gdx.math.Vector2;
+import org.egordorichev.lasttry.injection.ContextImpl;
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
+import org.egordorichev.lasttry.world.chunk.Chunk;
+import org.egordorichev.lasttry.world.chunk.ChunkLevel;
+import org.egordorichev.lasttry.world.chunk.gc.ChunkGc;
+import org.egordorichev.lasttry.world.chunk.gc.DistancePolicy;
+import org.egordorichev.lasttry.world.chunk.gc.EvictionFocus;
+import org.egordorichev.lasttry.world.chunk.gc.EvictionPolicy;
+import org.egordorichev.lasttry.world.chunk.gc.LruPolicy;
+import org.egordorichev.lasttry.world.chunk.gc.WeightedPolicy;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays a chunk access trace against every eviction policy and counts,
+ * how often a freed chunk had to be loaded again soon after. Chunks hold no
+ * data here, only positions and edit times, so hours of play take a second.
+ *
+ * A trace is a text file with one event per line, times in milliseconds and
+ * positions in chunks:
+ *
+ * <pre>
+ * 1000 move 12.5 4.2
+ * 1100 edit 12 4
+ * 1200 pin 10 4
+ * 1300 unpin 10 4
+ * </pre>
+ *
+ * pin and unpin add and remove a ticket on a chunk, like a chunk loader
+ * does. A chunk with a ticket gets {@link ChunkLevel#BLOCK_TICKING}, so it
+ * is kept through {@link Chunk#isEvictable()}, same as in the game.
+ *
+ * The player needs the chunks within {@link #VIEW} of its position, missing
+ * ones are loaded. Every {@link #GC_INTERVAL}, chunks over {@link #CAPACITY}
+ * are freed with the policy.
+ *
+ * Exits with 1, if a chunk with a ticket was freed, or fewer chunks than
+ * asked for were freed while there were enough evictable ones. Also exits
+ * with 1, if the policy itself never ranked a chunk with a ticket among the
+ * ones to free, since then the trace didn't test, that they are skipped.
+ * Runs as a part of gradlew check.
+ *
+ * Usage: gradlew :headless:evictionSimulator [-Pargs="trace.txt"], without a
+ * trace a generated one is used. -write file saves the generated trace.
+ */
+public class EvictionSimulator {
+	/**
+	 * Loaded chunks, the gc frees down to
+	 */
+	public static final int CAPACITY = 8;
+	/**
+	 * Distance in chunks from the player, that has to be loaded
+	 */
+	public static final float VIEW = 0.5f;
+	/**
+	 * Time between gc runs in milliseconds
+	 */
+	public static final long GC_INTERVAL = 2000;
+	/**
+	 * A chunk, loaded again within this time in milliseconds after being
+	 * freed, counts as a wrong eviction
+	 */
+	public static final long REUSE_WINDOW = 60000;
+	public static final int SEED = 1234;
+
+	public static void main(String[] args) throws IOException {
+		List<Event> trace;
+
+		if (args.length > 0 && !args[0].equals("-write")) {
+			trace = read(args[0]);
+		} else {
+			trace = generate(new Random(SEED));
+
+			if (args.length > 1) {
+				write(trace, args[1]);
+			}
+		}
+
+		// Chunks without data don't look up items
+		ContextImpl context = new ContextImpl();
+		context.bindInstance(ItemManager.class, null);
+		CoreRegistry.setContext(context);
+
+		EvictionPolicy[] policies = { new LruPolicy(), new DistancePolicy(), new WeightedPolicy() };
+		boolean failed = false;
+
+		System.out.println(String.format(Locale.US, "%d events over %d minutes, capacity %d chunks", trace.size(),
+			trace.get(trace.size() - 1).time / 60000, CAPACITY));
+
+		for (EvictionPolicy policy : policies) {
+			Result result = simulate(trace, policy);
+			failed |= result.heldFreed > 0 || result.shortSelections > 0 || result.heldRanked == 0;
+
+			System.out.println(String.format(Locale.US,
+				"  %-10s loads %6d  reloads %6d  wrong evictions %6d  held ranked %5d  held freed %d  short %d",
+				policy.getName(), result.loads, result.reloads, result.wrongEvictions, result.heldRanked,
+				result.heldFreed, result.shortSelections));
+		}
+
+		System.exit(failed ? 1 : 0);
+	}
+
+	private static Result simulate(List<Event> trace, EvictionPolicy policy) {
+		Map<Long, Chunk> loaded = new HashMap<>();
+		Map<Long, Long> freedAt = new HashMap<>();
+		Map<Long, Integer> tickets = new HashMap<>();
+		Result result = new Result();
+		long nextGc = GC_INTERVAL;
+		float x = 0;
+		float y = 0;
+
+		for (Event event : trace) {
+			while (event.time >= nextGc) {
+				List<Chunk> chunks = new ArrayList<>(loaded.values());
+				int amount = chunks.size() - CAPACITY;
+
+				if (amount > 0) {
+					EvictionFocus focus = new EvictionFocus(x, y, nextGc);
+					List<Chunk> selected = ChunkGc.selectChunksToFree(chunks, amount, policy, focus);
+					result.heldRanked += countHeldRanked(chunks, amount, policy, focus);
+
+					if (selected.size() < Math.min(amount, countEvictable(chunks))) {
+						result.shortSelections++;
+					}
+
+					for (Chunk chunk : selected) {
+						long key = key(chunk.getGridX(), chunk.getGridY());
+
+						if (!chunk.isEvictable()) {
+							result.heldFreed++;
+						}
+
+						loaded.remove(key);
+						freedAt.put(key, nextGc);
+					}
+				}
+
+				nextGc += GC_INTERVAL;
+			}
+
+			long position = key((int) event.x, (int) event.y);
+
+			switch (event.type) {
+				case "move":
+					x = event.x;
+					y = event.y;
+
+					for (int cy = (int) Math.floor(y - VIEW); cy <= (int) Math.floor(y + VIEW); cy++) {
+						for (int cx = (int) Math.floor(x - VIEW); cx <= (int) Math.floor(x + VIEW); cx++) {
+							load(loaded, freedAt, tickets, result, cx, cy, event.time);
+						}
+					}
+
+					break;
+				case "edit":
+					load(loaded, freedAt, tickets, result, (int) event.x, (int) event.y, event.time)
+						.setLastAccessedTime(event.time);
+					break;
+				case "pin":
+					tickets.put(position, tickets.getOrDefault(position, 0) + 1);
+					load(loaded, freedAt, tickets, result, (int) event.x, (int) event.y, event.time)
+						.setLevel(ChunkLevel.BLOCK_TICKING);
+					break;
+				case "unpin":
+					int count = tickets.getOrDefault(position, 0) - 1;
+					tickets.put(position, count);
+
+					if (count <= 0) {
+						load(loaded, freedAt, tickets, result, (int) event.x, (int) event.y, event.time)
+							.setLevel(ChunkLevel.NONE);
+					}
+
+					break;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Scores every chunk with the policy alone, the ones with a ticket
+	 * included
+	 *
+	 * @return Chunks, that aren't evictable, among the amount with the
+	 *         highest scores
+	 */
+	private static int countHeldRanked(List<Chunk> chunks, int amount, final EvictionPolicy policy,
+			final EvictionFocus focus) {
+
+		List<Chunk> ranked = new ArrayList<>(chunks);
+
+		// Highest score first, like ChunkGc
+		Collections.sort(ranked, new Comparator<Chunk>() {
+			public int compare(Chunk one, Chunk other) {
+				return Float.compare(policy.score(other, focus), policy.score(one, focus));
+			}
+		});
+
+		int held = 0;
+
+		for (int i = 0; i < amount && i < ranked.size(); i++) {
+			if (!ranked.get(i).isEvictable()) {
+				held++;
+			}
+		}
+
+		return held;
+	}
+
+	private static int countEvictable(List<Chunk> chunks) {
+		int evictable = 0;
+
+		for (Chunk chunk : chunks) {
+			if (chunk.isEvictable()) {
+				evictable++;
+			}
+		}
+
+		return evictable;
+	}
+
+	/**
+	 * @return Loaded chunk at given position, loaded now, if it wasn't
+	 */
+	private static Chunk load(Map<Long, Chunk> loaded, Map<Long, Long> freedAt, Map<Long, Integer> tickets,
+			Result result, int x, int y, long time) {
+
+		long key = key(x, y);
+		Chunk chunk = loaded.get(key);
+
+		if (chunk != null) {
+			return chunk;
+		}
+
+		chunk = new Chunk(null, new Vector2(x, y));
+		chunk.setLastAccessedTime(time);
+		loaded.put(key, chunk);
+		result.loads++;
+
+		// Tickets outlive the chunk object, like a chunk loader block in the saved chunk
+		if (tickets.getOrDefault(key, 0) > 0) {
+			chunk.setLevel(ChunkLevel.BLOCK_TICKING);
+		}
+
+		Long freed = freedAt.remove(key);
+
+		if (freed != null) {
+			result.reloads++;
+
+			if (time - freed <= REUSE_WINDOW) {
+				result.wrongEvictions++;
+			}
+		}
+
+		return chunk;
+	}
+
+	private static long key(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Player, that builds in a base and goes on trips in random directions,
+	 * mining on the way, and comes back. The base chunk holds a chunk loader.
+	 */
+	private static List<Event> generate(Random random) {
+		List<Event> trace = new ArrayList<>();
+		float baseX = 20.5f;
+		float baseY = 4.5f;
+		// Chunks per 100 ms, about 10 tiles a second
+		float speed = 0.004f;
+		long time = 0;
+
+		trace.add(new Event(time, "pin", baseX, baseY));
+
+		for (int trip = 0; trip < 40; trip++) {
+			// Building in the base
+			long stay = 60000 + random.nextInt(120000);
+
+			for (long end = time + stay; time < end; time += 100) {
+				trace.add(new Event(time, "move", baseX, baseY));
+
+				if (time % 1000 == 0) {
+					trace.add(new Event(time, "edit", baseX, baseY));
+				}
+			}
+
+			// Going out and back the same way
+			double angle = random.nextDouble() * Math.PI * 2;
+			float dx = (float) Math.cos(angle) * speed;
+			float dy = (float) Math.sin(angle) * speed * 0.3f;
+			int steps = 1200 + random.nextInt(3600);
+			float x = baseX;
+			float y = baseY;
+
+			for (int i = 0; i < steps * 2; i++, time += 100) {
+				float direction = i < steps ? 1 : -1;
+				x += dx * direction;
+				y = Math.max(0.5f, y + dy * direction);
+				trace.add(new Event(time, "move", x, y));
+
+				if (i % 50 == 0) {
+					trace.add(new Event(time, "edit", x, y));
+				}
+			}
+		}
+
+		return trace;
+	}
+
+	private static List<Event> read(String file) throws IOException {
+		List<Event> trace = new ArrayList<>();
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+
+				String[] parts = line.split("\\s+");
+				trace.add(new Event(Long.parseLong(parts[0]), parts[1], Float.parseFloat(parts[2]),
+					Float.parseFloat(parts[3])));
+			}
+		}
+
+		return trace;
+	}
+
+	private static void write(List<Event> trace, String file) throws IOException {
+		try (PrintWriter writer = new PrintWriter(file)) {
+			for (Event event : trace) {
+				writer.println(String.format(Locale.US, "%d %s %.3f %.3f", event.time, event.type, event.x, event.y));
+			}
+		}
+	}
+
+	private static class Event {
+		private final long time;
+		private final String type;
+		private final float x;
+		private final float y;
+
+		private Event(long time, String type, float x, float y) {
+			this.time = time;
+			this.type = type;
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	private static class Result {
+		private int loads;
+		private int reloads;
+		private int wrongEvictions;
+		private int heldFreed;
+		/**
+		 * Times, a chunk with a ticket was among the ones, the policy alone
+		 * would free
+		 */
+		private int heldRanked;
+		/**
+		 * Gc runs, that freed fewer chunks than asked, while there were enough
+		 */
+		private int shortSelections;
+	}
+}
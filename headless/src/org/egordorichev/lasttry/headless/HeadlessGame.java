@@ -0,0 +1,293 @@
+package org.egordorichev.lasttry.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.math.Vector2;
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.crafting.RecipeManager;
+import org.egordorichev.lasttry.crafting.RecipeManagerImpl;
+import org.egordorichev.lasttry.effect.EffectManager;
+import org.egordorichev.lasttry.effect.EffectManagerImpl;
+import org.egordorichev.lasttry.entity.CreatureManager;
+import org.egordorichev.lasttry.entity.CreatureManagerImpl;
+import org.egordorichev.lasttry.entity.EntityManager;
+import org.egordorichev.lasttry.entity.ai.AIManager;
+import org.egordorichev.lasttry.entity.ai.AIManagerImpl;
+import org.egordorichev.lasttry.graphics.Assets;
+import org.egordorichev.lasttry.graphics.Graphics;
+import org.egordorichev.lasttry.injection.ContextImpl;
+import org.egordorichev.lasttry.injection.CoreRegistry;
+import org.egordorichev.lasttry.item.ItemManager;
+import org.egordorichev.lasttry.item.ItemManagerImpl;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.item.liquids.LiquidManager;
+import org.egordorichev.lasttry.item.liquids.LiquidManagerImpl;
+import org.egordorichev.lasttry.language.Language;
+import org.egordorichev.lasttry.player.Player;
+import org.egordorichev.lasttry.player.PlayerIO;
+import org.egordorichev.lasttry.ui.UiManager;
+import org.egordorichev.lasttry.util.Camera;
+import org.egordorichev.lasttry.util.Debug;
+import org.egordorichev.lasttry.util.Files;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.WorldIO;
+import org.egordorichev.lasttry.world.biome.BiomeManager;
+import org.egordorichev.lasttry.world.biome.BiomeManagerImpl;
+import org.egordorichev.lasttry.world.environment.Environment;
+import org.egordorichev.lasttry.world.spawn.SpawnSystem;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+
+/**
+ * Starts the game without a window, so the world and entities can be used
+ * outside of the desktop launcher. GL calls go to a stand-in, that does
+ * nothing, so textures are decoded and {@link Assets#textures} and
+ * {@link Graphics} textures can be created, but nothing can be drawn.
+ * Fonts aren't loaded.
+ *
+ * Must be run with the assets directory as the working directory.
+ */
+public class HeadlessGame {
+	/**
+	 * Name of the world, created by the benchmarks. Its saves are deleted by
+	 * {@link #deleteWorld()}
+	 */
+	public static final String WORLD_NAME = "benchmark";
+	/**
+	 * Camera size, the window doesn't exist
+	 */
+	public static final int WIDTH = 1280;
+	public static final int HEIGHT = 720;
+	/**
+	 * Distance in tiles from the player, creatures are spawned within
+	 */
+	public static final int SPAWN_SPREAD = 150;
+	private static boolean started;
+
+	/**
+	 * Creates the headless backend and loads all managers, same as
+	 * {@link org.egordorichev.lasttry.state.LoadState}. Can be called many
+	 * times, only the first call does anything.
+	 */
+	public static synchronized void start() {
+		if (started) {
+			return;
+		}
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		config.renderInterval = -1;
+		new HeadlessApplication(new ApplicationAdapter() {
+		}, config);
+
+		Gdx.gl = Gdx.gl20 = createGL();
+		Assets.textures = new TextureAtlas("textures.atlas");
+		Graphics.load();
+		Language.load(new Locale("en", "US"));
+		Camera.create(WIDTH, HEIGHT);
+		LastTry.ui = new UiManager();
+		LastTry.debug = new Debug();
+		LastTry.storeRelative = true;
+
+		ContextImpl context = new ContextImpl();
+		CoreRegistry.setContext(context);
+		context.bindInstance(ItemManager.class, new ItemManagerImpl()).load();
+		context.bindInstance(RecipeManager.class, new RecipeManagerImpl()).load();
+		context.bindInstance(BiomeManager.class, new BiomeManagerImpl()).load();
+		context.bindInstance(EffectManager.class, new EffectManagerImpl()).load();
+		context.bindInstance(AIManager.class, new AIManagerImpl()).load();
+		context.bindInstance(CreatureManager.class, new CreatureManagerImpl()).load();
+		context.bindInstance(LiquidManager.class, new LiquidManagerImpl()).load();
+
+		Globals.spawnSystem = new SpawnSystem();
+		Globals.environment = new Environment();
+		started = true;
+	}
+
+	/**
+	 * @return GL, that ignores every call and returns zero or null
+	 */
+	private static GL20 createGL() {
+		return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class },
+			new InvocationHandler() {
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					Class<?> type = method.getReturnType();
+
+					if (type == boolean.class) {
+						return false;
+					} else if (type == float.class) {
+						return 0f;
+					} else if (type == int.class) {
+						return 0;
+					}
+
+					return null;
+				}
+			});
+	}
+
+	/**
+	 * Creates a world, that generates its chunks when they are first used,
+	 * and makes it current
+	 *
+	 * @param size World size
+	 * @param seed World seed
+	 * @return New world
+	 */
+	public static World createWorld(World.Size size, int seed) {
+		return createWorld(WORLD_NAME, size, seed);
+	}
+
+	/**
+	 * Creates a world, that generates its chunks when they are first used,
+	 * and makes it current. Existing chunk saves of a world with the same
+	 * name are used instead of generated chunks.
+	 *
+	 * @param name World name
+	 * @param size World size
+	 * @param seed World seed
+	 * @return New world
+	 */
+	public static World createWorld(String name, World.Size size, int seed) {
+		start();
+
+		World world = new World(name, size, 0, seed);
+		Globals.setWorld(world);
+		world.getGenerator();
+
+		int x = world.getWidth() / 2;
+		world.setSpawnPoint(new Vector2(x, world.getHighest(x)));
+		new File(Files.getWorldDir(name)).mkdirs();
+
+		return world;
+	}
+
+	/**
+	 * Loads the saved world with the given name, or creates a new one, if
+	 * there is no save
+	 *
+	 * @param name World name
+	 * @param size Size of a new world
+	 * @param seed Seed of a new world
+	 * @return Current world
+	 */
+	public static World openWorld(String name, World.Size size, int seed) {
+		start();
+
+		if (!WorldIO.saveExists(name)) {
+			return createWorld(name, size, seed);
+		}
+
+		WorldIO.load(name);
+		Globals.getWorld().getGenerator();
+
+		return Globals.getWorld();
+	}
+
+	/**
+	 * Creates a new entity manager and a player at the world spawn, and makes
+	 * them current
+	 *
+	 * @return New player
+	 */
+	public static Player createPlayer() {
+		return createPlayer(new Player("benchmark"));
+	}
+
+	/**
+	 * Loads a player save and spawns the player like {@link #createPlayer()}
+	 *
+	 * @param name Player name
+	 * @return Loaded player, or null if there is no save
+	 */
+	public static Player loadPlayer(String name) {
+		start();
+
+		if (!PlayerIO.saveExists(name)) {
+			return null;
+		}
+
+		PlayerIO.load(name);
+		return createPlayer(Globals.getPlayer());
+	}
+
+	/**
+	 * Creates a new entity manager and spawns the given player at the world
+	 * spawn, and makes them current
+	 *
+	 * @param player Player to spawn
+	 * @return The player
+	 */
+	public static Player createPlayer(Player player) {
+		Vector2 spawn = Globals.getWorld().getSpawnPoint();
+
+		Globals.setPlayer(player);
+		Globals.entityManager = new EntityManager();
+		Globals.entityManager.spawn(player, (int) spawn.x * Block.SIZE, (int) spawn.y * Block.SIZE);
+		Camera.game.position.set(player.physics.getCenterX(), player.physics.getCenterY(), 0);
+		Camera.game.update();
+		// Benchmarks update entities without the world, creatures need the player ticket
+		Globals.getWorld().tickets.update();
+
+		return player;
+	}
+
+	/**
+	 * Spawns creatures on the surface, spread evenly around the player
+	 *
+	 * @param name Creature name
+	 * @param count Creatures to spawn
+	 * @param spread Distance in tiles from the player
+	 */
+	public static void spawnCreatures(String name, int count, int spread) {
+		CreatureManager creatureManager = CoreRegistry.get(CreatureManager.class);
+		World world = Globals.getWorld();
+		int playerX = Globals.getPlayer().physics.getGridX();
+
+		for (int i = 0; i < count; i++) {
+			int x = playerX - spread + i * spread * 2 / count;
+
+			// Not right on top of the player
+			if (Math.abs(x - playerX) < 4) {
+				x += 8;
+			}
+
+			Globals.entityManager.spawn(creatureManager.create(name), x * Block.SIZE,
+				(world.getHighest(x) + 2) * Block.SIZE);
+		}
+	}
+
+	/**
+	 * Removes chunk saves, written by the benchmarks
+	 */
+	public static void deleteWorld() {
+		deleteWorld(WORLD_NAME);
+	}
+
+	/**
+	 * Removes chunk saves of the world
+	 *
+	 * @param name World name
+	 */
+	public static void deleteWorld(String name) {
+		File directory = new File(Files.getWorldDir(name));
+		File[] files = directory.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+
+		directory.delete();
+	}
+}
@@ -0,0 +1,80 @@
+package org.egordorichev.lasttry.headless;
+
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.egordorichev.lasttry.Args;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.input.InputManager;
+import org.egordorichev.lasttry.util.flight.Flight;
+
+/**
+ * Runs the world simulation without a window and prints how fast it was.
+ *
+ * Usage: -w world -ws size -s seed -t ticks -e creatures -path file (-jfr)
+ *
+ * With -replay file, the world and the player save come from the recording,
+ * -e is ignored and the run lasts until the recording is over.
+ */
+public class HeadlessLauncher {
+	public static void main(String[] args) {
+		try {
+			Args.parse(args, null);
+		} catch (Exception exception) {
+			exception.printStackTrace();
+			return;
+		}
+
+		BasicConfigurator.configure();
+		Logger.getRootLogger().setLevel(Level.INFO);
+
+		PlayerPath path = null;
+
+		if (Args.getPath() != null) {
+			try {
+				path = PlayerPath.load(Args.getPath());
+			} catch (Exception exception) {
+				exception.printStackTrace();
+				return;
+			}
+		}
+
+		HeadlessGame.openWorld(LastTry.defaultWorldName, Args.getWorldSize(), Args.getSeed());
+
+		if (Args.getReplay() != null) {
+			// Same player as in the recording, creatures come from the replayed spawns only
+			if (HeadlessGame.loadPlayer(Args.getReplay().getPlayerName()) == null) {
+				System.err.println("No save of player " + Args.getReplay().getPlayerName() + ", it's needed for the replay");
+				System.exit(1);
+			}
+		} else {
+			HeadlessGame.createPlayer();
+			HeadlessGame.spawnCreatures("lt:green_slime", Args.getEntities(), HeadlessGame.SPAWN_SPREAD);
+		}
+
+		Simulation simulation = new Simulation(path);
+
+		if (Args.getReplay() != null) {
+			InputManager.startReplay(Args.getReplay());
+
+			while (InputManager.isReplaying()) {
+				simulation.tick();
+			}
+		} else {
+			simulation.run(Args.getTicks());
+		}
+
+		simulation.printReport(System.out);
+
+		if (Flight.isRecording()) {
+			try {
+				Flight.stop();
+			} catch (Exception exception) {
+				exception.printStackTrace();
+			}
+		}
+
+		// The chunk gc timer keeps the process alive otherwise
+		System.exit(0);
+	}
+}
@@ -0,0 +1,108 @@
+package org.egordorichev.lasttry.headless;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.egordorichev.lasttry.item.block.Block;
+import org.egordorichev.lasttry.player.Player;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Scripted player movement for headless runs. The player flies from one point
+ * to the next in a straight line, ignoring collisions, so the same chunks are
+ * loaded and the same area is lit on every run.
+ *
+ * The file has a point per line, as tile X and Y separated by a space. Empty
+ * lines and lines, starting with #, are skipped.
+ */
+public class PlayerPath {
+	/**
+	 * Distance in pixels, the player moves per tick
+	 */
+	public static final float SPEED = 4f;
+	/**
+	 * Points in tiles, packed as x, y
+	 */
+	private final IntArray points;
+	/**
+	 * Index of the point, the player moves to
+	 */
+	private int next;
+
+	public PlayerPath(IntArray points) {
+		this.points = points;
+	}
+
+	/**
+	 * Reads a path from the file
+	 *
+	 * @param fileName Path file
+	 * @return The path
+	 * @throws IOException If the file can't be read or a line isn't a point
+	 */
+	public static PlayerPath load(String fileName) throws IOException {
+		IntArray points = new IntArray();
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+
+				String[] parts = line.split("\\s+");
+
+				if (parts.length != 2) {
+					throw new IOException("Expected tile X and Y, got \"" + line + "\"");
+				}
+
+				try {
+					points.add(Integer.parseInt(parts[0]));
+					points.add(Integer.parseInt(parts[1]));
+				} catch (NumberFormatException exception) {
+					throw new IOException("Point is not a valid number: \"" + line + "\"");
+				}
+			}
+		}
+
+		return new PlayerPath(points);
+	}
+
+	/**
+	 * Moves the player one tick along the path
+	 *
+	 * @param player Player to move
+	 */
+	public void update(Player player) {
+		if (this.isFinished()) {
+			return;
+		}
+
+		float targetX = this.points.get(this.next * 2) * Block.SIZE;
+		float targetY = this.points.get(this.next * 2 + 1) * Block.SIZE;
+		float dx = targetX - player.physics.getX();
+		float dy = targetY - player.physics.getY();
+		float distance = (float) Math.sqrt(dx * dx + dy * dy);
+
+		if (distance <= SPEED) {
+			player.physics.setPosition(targetX, targetY);
+			this.next++;
+		} else {
+			player.physics.setPosition(player.physics.getX() + dx / distance * SPEED,
+				player.physics.getY() + dy / distance * SPEED);
+		}
+
+		player.physics.getVelocity().setZero();
+	}
+
+	/**
+	 * @return The player reached the last point
+	 */
+	public boolean isFinished() {
+		return this.next * 2 >= this.points.size;
+	}
+}
@@ -0,0 +1,216 @@
+package org.egordorichev.lasttry.headless;
+
+import org.egordorichev.lasttry.Globals;
+import org.egordorichev.lasttry.LastTry;
+import org.egordorichev.lasttry.input.InputManager;
+import org.egordorichev.lasttry.player.Player;
+import org.egordorichev.lasttry.util.Camera;
+import org.egordorichev.lasttry.world.World;
+import org.egordorichev.lasttry.world.chunk.ChunkIO;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Runs the game update without drawing anything, in the same order as
+ * {@link org.egordorichev.lasttry.state.GamePlayState#render(float)}, and
+ * measures time spent in every subsystem. Input comes from a replay, if
+ * one was started with {@link InputManager#startReplay}.
+ *
+ * Bytes, allocated by the simulation thread, are counted per subsystem too,
+ * if the JVM supports it (see {@link AllocationCounter}).
+ */
+public class Simulation {
+	/**
+	 * Ticks per second of game time, same as the game loop
+	 */
+	public static final int TICKS_PER_SECOND = LastTry.tickRate;
+	/**
+	 * Time, passed to updates every tick, same as a tick in game
+	 */
+	public static final int DT = 100 / TICKS_PER_SECOND;
+
+	/**
+	 * Player movement, or null if the player is left alone
+	 */
+	private final PlayerPath path;
+	/**
+	 * Time in nanoseconds per subsystem
+	 */
+	private final long[] times = new long[Subsystem.values().length];
+	/**
+	 * Bytes, allocated per subsystem
+	 */
+	private final long[] allocated = new long[Subsystem.values().length];
+	private final AllocationCounter allocations = new AllocationCounter();
+	/**
+	 * Ticks, that were run
+	 */
+	private int ticks;
+	/**
+	 * Time in nanoseconds, all ticks took
+	 */
+	private long total;
+
+	public Simulation(PlayerPath path) {
+		this.path = path;
+	}
+
+	/**
+	 * Runs the given amount of ticks
+	 *
+	 * @param count Ticks to run
+	 */
+	public void run(int count) {
+		for (int i = 0; i < count; i++) {
+			this.tick();
+		}
+	}
+
+	/**
+	 * Runs a single tick
+	 */
+	public void tick() {
+		World world = Globals.getWorld();
+		Player player = Globals.getPlayer();
+		long start = System.nanoTime();
+		long time = start;
+		this.allocations.reset();
+
+		if (InputManager.isReplaying()) {
+			InputManager.poll();
+		}
+
+		if (this.path != null) {
+			this.path.update(player);
+		}
+
+		world.update();
+		time = this.measure(Subsystem.CHUNKS, time);
+
+		Globals.environment.update(DT);
+		time = this.measure(Subsystem.ENVIRONMENT, time);
+
+		Globals.entityManager.update(DT);
+		time = this.measure(Subsystem.ENTITIES, time);
+
+		world.navigation.update();
+		time = this.measure(Subsystem.NAVIGATION, time);
+
+		world.updateLight(DT);
+		time = this.measure(Subsystem.LIGHTING, time);
+
+		Camera.game.position.x = Math.max(HeadlessGame.WIDTH / 2, player.physics.getCenterX());
+		Camera.game.position.y = Math.max(0, player.physics.getCenterY());
+		Camera.game.update();
+
+		this.total += time - start;
+		this.ticks++;
+	}
+
+	private long measure(Subsystem subsystem, long start) {
+		this.allocated[subsystem.ordinal()] += this.allocations.next();
+
+		long now = System.nanoTime();
+		this.times[subsystem.ordinal()] += now - start;
+		return now;
+	}
+
+	/**
+	 * Prints ticks per second, time per subsystem and chunk IO
+	 *
+	 * @param out Stream to print to
+	 */
+	public void printReport(PrintStream out) {
+		double seconds = this.total / 1e9;
+
+		out.println(String.format(Locale.US, "Ticks: %d in %.2f s (%.1f ticks/s, %.1f game seconds)", this.ticks,
+			seconds, this.ticks / seconds, (float) this.ticks / TICKS_PER_SECOND));
+
+		for (Subsystem subsystem : Subsystem.values()) {
+			long time = this.times[subsystem.ordinal()];
+
+			out.print(String.format(Locale.US, "  %-12s %10.1f ms %8.1f us/tick %5.1f%%", subsystem.getName(),
+				time / 1e6, time / 1e3 / Math.max(1, this.ticks), this.total == 0 ? 0 : time * 100.0 / this.total));
+
+			if (this.allocations.isSupported()) {
+				out.print(String.format(Locale.US, " %10d B/tick", this.getAllocatedPerTick(subsystem)));
+			}
+
+			out.println();
+		}
+
+		out.println(String.format("Chunks: %d generated, %d loaded, %d saved, %d resident", ChunkIO.getGenerated(),
+			ChunkIO.getLoaded(), ChunkIO.getSaved(), Globals.getWorld().chunks.getImmutableLoadedChunks().size()));
+		out.println("Entities: " + Globals.entityManager.getEntities().size());
+	}
+
+	/**
+	 * @return The player reached the end of the path, or there is none
+	 */
+	public boolean isPathFinished() {
+		return this.path == null || this.path.isFinished();
+	}
+
+	/**
+	 * @return Ticks, that were run
+	 */
+	public int getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * @param subsystem Subsystem
+	 * @return Time in nanoseconds, spent in the subsystem
+	 */
+	public long getTime(Subsystem subsystem) {
+		return this.times[subsystem.ordinal()];
+	}
+
+	/**
+	 * @param subsystem Subsystem
+	 * @return Bytes, allocated in the subsystem
+	 */
+	public long getAllocated(Subsystem subsystem) {
+		return this.allocated[subsystem.ordinal()];
+	}
+
+	/**
+	 * @param subsystem Subsystem
+	 * @return Average bytes, allocated in the subsystem per tick
+	 */
+	public long getAllocatedPerTick(Subsystem subsystem) {
+		return this.allocated[subsystem.ordinal()] / Math.max(1, this.ticks);
+	}
+
+	/**
+	 * @return The JVM reports allocated bytes
+	 */
+	public boolean isCountingAllocations() {
+		return this.allocations.isSupported();
+	}
+
+	/**
+	 * Parts of a tick, that are timed separately
+	 */
+	public enum Subsystem {
+		ENVIRONMENT("environment"),
+		ENTITIES("entities"),
+		NAVIGATION("navigation"),
+		LIGHTING("lighting"),
+		/**
+		 * Liquid flow and chunk block updates
+		 */
+		CHUNKS("chunks");
+
+		private final String name;
+
+		Subsystem(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+}